@@ -56,8 +56,18 @@ public class SnomedIdentifierConfiguration {
 	@JsonProperty(required = false)
 	private int cisMaxConnections = 100;
 	
+	// number of CIS bulk jobs submitted before the first one finishes
+	@Min(1)
+	@JsonProperty(required = false)
+	private int cisMaxBulkJobsInFlight = 4;
+	
 	@JsonProperty(required = false)
 	private int maxIdGenerationAttempts = DEFAULT_ID_GENERATION_ATTEMPTS;
+	
+	// number of IDs to generate and verify at once per namespace and component category, blocks are not used when set to 0
+	@Min(0)
+	@JsonProperty(required = false)
+	private int idGenerationBlockSize = 0;
 
 	@Min(1)
 	@JsonProperty(value = "cisNumberOfReauthTries", required = false)
@@ -139,6 +149,14 @@ public class SnomedIdentifierConfiguration {
 		this.cisMaxConnections = cisMaxConnections;
 	}
 
+	public int getCisMaxBulkJobsInFlight() {
+		return cisMaxBulkJobsInFlight;
+	}
+	
+	public void setCisMaxBulkJobsInFlight(int cisMaxBulkJobsInFlight) {
+		this.cisMaxBulkJobsInFlight = cisMaxBulkJobsInFlight;
+	}
+
 	public int getMaxIdGenerationAttempts() {
 		return maxIdGenerationAttempts;
 	}
@@ -147,6 +165,14 @@ public class SnomedIdentifierConfiguration {
 		this.maxIdGenerationAttempts = maxIdGenerationAttempts;
 	}
 
+	public int getIdGenerationBlockSize() {
+		return idGenerationBlockSize;
+	}
+	
+	public void setIdGenerationBlockSize(int idGenerationBlockSize) {
+		this.idGenerationBlockSize = idGenerationBlockSize;
+	}
+
 	public void setCisNumberOfReauthTries(int cisNumberOfReauthTries) {
 		this.cisNumberOfReauthTries = cisNumberOfReauthTries;
 	}
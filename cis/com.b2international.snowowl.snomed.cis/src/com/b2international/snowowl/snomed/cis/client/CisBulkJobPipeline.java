@@ -0,0 +1,249 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.cis.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Executes a series of CIS bulk jobs, keeping a limited number of jobs in flight at the same time. Job status is polled on a shared
+ * scheduler with a delay that starts short and doubles on each unfinished poll, up to the configured time between poll tries; the
+ * calling thread only waits for the oldest job in flight, then fetches its records while the remaining jobs make progress.
+ * <p>
+ * If the pipeline fails, none of the component IDs are returned to the caller. IDs of jobs which were already fetched are released
+ * immediately, jobs still in flight are polled until they finish, and their IDs are released in the background (not on the poll
+ * scheduler, so that releasing does not hold up the status polls of other pipelines).
+ * <p>
+ * When the pipeline is {@link #shutdown() shut down}, jobs which did not finish yet fail immediately.
+ *
+ * @since 7.21
+ */
+public final class CisBulkJobPipeline {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CisBulkJobPipeline.class);
+
+	private static final long INITIAL_POLL_DELAY = 50L;
+
+	/**
+	 * Shared by all pipelines; releases the IDs of jobs which finish after their pipeline failed.
+	 */
+	private static final Executor RELEASE_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("cis-bulk-job-release-%d")
+			.setDaemon(true)
+			.build());
+
+	/**
+	 * The requests of a bulk job, called for each partition of the bulk operation.
+	 *
+	 * @param <P> - the type of the partitions
+	 */
+	public interface BulkJob<P> {
+
+		/**
+		 * @return the ID of the job submitted for the partition
+		 */
+		String submit(P partition) throws IOException;
+
+		JobStatus getStatus(String jobId) throws IOException;
+
+		/**
+		 * @return the component IDs of a finished job
+		 */
+		Set<String> getRecords(String jobId) throws IOException;
+
+		/**
+		 * Releases component IDs generated or reserved by jobs of a failed pipeline.
+		 */
+		void releaseRecords(Set<String> componentIds) throws IOException;
+	}
+
+	private final ScheduledExecutorService scheduler;
+	private final int maxJobsInFlight;
+	private final long maxPollDelay;
+	private final long pollTimeout;
+	private final Set<CompletableFuture<String>> pendingJobs = ConcurrentHashMap.newKeySet();
+	private volatile boolean shutdown;
+
+	/**
+	 * @param scheduler - the scheduler which polls the status of submitted jobs
+	 * @param maxJobsInFlight - the number of jobs which may be submitted before the first one finishes
+	 * @param maxPollDelay - the longest time between two status requests of the same job, in milliseconds
+	 * @param pollTimeout - the time after which a job which did not finish is considered failed, in milliseconds
+	 */
+	public CisBulkJobPipeline(final ScheduledExecutorService scheduler, final int maxJobsInFlight, final long maxPollDelay, final long pollTimeout) {
+		checkArgument(maxJobsInFlight > 0, "At least one job should be allowed to be in flight.");
+		this.scheduler = scheduler;
+		this.maxJobsInFlight = maxJobsInFlight;
+		this.maxPollDelay = maxPollDelay;
+		this.pollTimeout = pollTimeout;
+	}
+
+	public <P> Set<String> execute(final Iterable<P> partitions, final BulkJob<P> job) {
+		final Set<String> componentIds = Sets.newLinkedHashSet();
+		final Deque<CompletableFuture<String>> jobsInFlight = new ArrayDeque<>(maxJobsInFlight);
+		boolean succeeded = false;
+
+		try {
+
+			for (final P partition : partitions) {
+				if (jobsInFlight.size() >= maxJobsInFlight) {
+					componentIds.addAll(job.getRecords(join(jobsInFlight.removeFirst())));
+				}
+
+				final String jobId = job.submit(partition);
+				LOGGER.debug("Submitted bulk job with ID {}.", jobId);
+				jobsInFlight.addLast(poll(job, jobId));
+			}
+
+			while (!jobsInFlight.isEmpty()) {
+				componentIds.addAll(job.getRecords(join(jobsInFlight.removeFirst())));
+			}
+
+			succeeded = true;
+
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException("Exception while executing bulk jobs.", e);
+		} finally {
+			if (!succeeded) {
+				releaseRecords(job, componentIds, jobsInFlight);
+			}
+		}
+
+		return ImmutableSet.copyOf(componentIds);
+	}
+
+	private void releaseRecords(final BulkJob<?> job, final Set<String> componentIds, final Deque<CompletableFuture<String>> jobsInFlight) {
+		if (!componentIds.isEmpty()) {
+			releaseRecords(job, componentIds);
+		}
+
+		// Jobs in flight are still polled, their records are released on the scheduler thread once they finish
+		for (final CompletableFuture<String> future : jobsInFlight) {
+			future.thenAcceptAsync(jobId -> {
+				try {
+					releaseRecords(job, job.getRecords(jobId));
+				} catch (IOException | RuntimeException e) {
+					LOGGER.warn("Couldn't fetch records of bulk job with ID {} to release.", jobId, e);
+				}
+			}, RELEASE_EXECUTOR);
+		}
+	}
+
+	private static void releaseRecords(final BulkJob<?> job, final Set<String> componentIds) {
+		try {
+			LOGGER.debug("Releasing {} component IDs of a failed bulk operation.", componentIds.size());
+			job.releaseRecords(componentIds);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("Couldn't release {} component IDs of a failed bulk operation.", componentIds.size(), e);
+		}
+	}
+
+	/**
+	 * Fails all jobs which did not finish yet, eg. before shutting down the poll scheduler. Pipelines waiting for these jobs fail
+	 * immediately, and no new jobs can be polled.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		for (final CompletableFuture<String> pendingJob : pendingJobs) {
+			pendingJob.completeExceptionally(new SnowowlRuntimeException("Bulk job pipeline was shut down."));
+		}
+	}
+
+	private CompletableFuture<String> poll(final BulkJob<?> job, final String jobId) {
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		pendingJobs.add(result);
+		result.whenComplete((id, e) -> pendingJobs.remove(result));
+		if (shutdown) {
+			result.completeExceptionally(new SnowowlRuntimeException("Bulk job pipeline was shut down."));
+			return result;
+		}
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollTimeout);
+		schedulePoll(job, jobId, result, Math.min(INITIAL_POLL_DELAY, maxPollDelay), deadline);
+		return result;
+	}
+
+	private void schedulePoll(final BulkJob<?> job, final String jobId, final CompletableFuture<String> result, final long delay, final long deadline) {
+		try {
+			scheduler.schedule(() -> pollStatus(job, jobId, result, delay, deadline), delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(new SnowowlRuntimeException("Bulk job pipeline was shut down.", e));
+		}
+	}
+
+	private void pollStatus(final BulkJob<?> job, final String jobId, final CompletableFuture<String> result, final long delay, final long deadline) {
+		if (result.isDone()) {
+			return;
+		}
+
+		try {
+
+			final JobStatus status = job.getStatus(jobId);
+			if (JobStatus.FINISHED == status) {
+				result.complete(jobId);
+			} else if (JobStatus.ERROR == status) {
+				result.completeExceptionally(new SnowowlRuntimeException("Bulk request has ended in error."));
+			} else if (System.nanoTime() - deadline >= 0L) {
+				result.completeExceptionally(new SnowowlRuntimeException("Job didn't finish with expected status: " + status));
+			} else {
+				schedulePoll(job, jobId, result, Math.min(delay * 2, maxPollDelay), deadline);
+			}
+
+		} catch (Exception e) {
+			result.completeExceptionally(new SnowowlRuntimeException("Exception while polling job status.", e));
+		}
+	}
+
+	/*
+	 * Jobs fail on their own after the poll timeout, waiting for a poll delay longer covers a poll which is already running.
+	 */
+	private String join(final CompletableFuture<String> future) {
+		try {
+			return future.get(pollTimeout + maxPollDelay, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.completeExceptionally(e);
+			throw new SnowowlRuntimeException("Timed out while waiting for bulk job.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while waiting for bulk job.", e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+}
@@ -26,9 +26,14 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.IntFunction;
 
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpGet;
@@ -68,6 +73,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * CIS (IHTSDO) based implementation of the identifier service.
@@ -85,6 +91,8 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	private final String clientKey;
 	private final ObjectMapper mapper;
+	private final ScheduledExecutorService pollScheduler;
+	private final CisBulkJobPipeline bulkJobPipeline;
 
 	private CisClient client;
 	private boolean disposed;
@@ -99,6 +107,11 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		this.requestBulkLimit = conf.getRequestBulkLimit();
 		this.mapper = mapper;
 		this.client = new CisClient(conf, mapper);
+		this.pollScheduler = Executors.newScheduledThreadPool(Math.min(conf.getCisMaxBulkJobsInFlight(), 4), new ThreadFactoryBuilder()
+				.setNameFormat("cis-bulk-job-poll-%d")
+				.setDaemon(true)
+				.build());
+		this.bulkJobPipeline = new CisBulkJobPipeline(pollScheduler, conf.getCisMaxBulkJobsInFlight(), timeBetweenPollTries, numberOfPollTries * timeBetweenPollTries);
 
 		// Log in at startup, and keep the token as long as possible
 		login();
@@ -118,21 +131,14 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		LOGGER.debug("Generating {} component IDs for category {}.", quantity, category.getDisplayName());
 
 		HttpPost generateRequest = null;
-		HttpGet recordsRequest = null;
 		try {
 
 			if (quantity > 1) {
 				LOGGER.debug("Sending {} ID bulk generation request.", category.getDisplayName());
 				
-				generateRequest = httpPost(String.format("sct/bulk/generate?token=%s", getToken()), createBulkGenerationData(namespace, category, quantity));
-				final String response = execute(generateRequest);
-				final String jobId = mapper.readValue(response, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
-	
-				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
-				final String recordsResponse = execute(recordsRequest);
-				final JsonNode[] records = mapper.readValue(recordsResponse, JsonNode[].class);
-				return readSctIds(getComponentIds(records));
+				final Set<String> componentIds = executeBulkJobs("sct/bulk/generate", quantity, 
+						bulkQuantity -> createBulkGenerationData(namespace, category, bulkQuantity));
+				return readSctIds(componentIds);
 				
 			} else {
 				LOGGER.debug("Sending {} ID single generation request.", category.getDisplayName());
@@ -148,7 +154,6 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			throw new SnowowlRuntimeException("Caught exception while generating IDs.", e);
 		} finally {
 			release(generateRequest);
-			release(recordsRequest);
 		}
 	}
 	
@@ -176,16 +181,11 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (availableOrReservedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(availableOrReservedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk registration request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						registerRequest = httpPost(String.format("sct/bulk/register?token=%s", getToken()), createBulkRegistrationData(bulkIds));
-						execute(registerRequest);
-					}
+				final List<List<String>> bulkIds = Lists.newArrayList();
+				for (final Collection<String> namespaceIds : toNamespaceMultimap(availableOrReservedSctIds.keySet()).asMap().values()) {
+					Iterables.partition(namespaceIds, requestBulkLimit).forEach(bulkIds::add);
 				}
+				executeBulkRegistrationJobs(bulkIds);
 				
 			} else {
 				
@@ -218,21 +218,14 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		LOGGER.debug("Reserving {} component IDs for category {}.", quantity, category.getDisplayName());
 
 		HttpPost reserveRequest = null;
-		HttpGet recordsRequest = null;
 		try {
 
 			if (quantity > 1) {
 				LOGGER.debug("Sending {} ID bulk reservation request.", category.getDisplayName());
 	
-				reserveRequest = httpPost(String.format("sct/bulk/reserve?token=%s", getToken()), createBulkReservationData(namespace, category, quantity));
-				final String bulkResponse = execute(reserveRequest);
-				final String jobId = mapper.readValue(bulkResponse, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
-	
-				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
-				final String recordsResponse = execute(recordsRequest);
-				final JsonNode[] records = mapper.readValue(recordsResponse, JsonNode[].class);
-				return readSctIds(getComponentIds(records));
+				final Set<String> componentIds = executeBulkJobs("sct/bulk/reserve", quantity, 
+						bulkQuantity -> createBulkReservationData(namespace, category, bulkQuantity));
+				return readSctIds(componentIds);
 			
 			} else {
 				LOGGER.debug("Sending {} ID reservation request.", category.getDisplayName());
@@ -248,7 +241,6 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			throw new SnowowlRuntimeException("Exception while bulk reserving IDs.", e);
 		} finally {
 			release(reserveRequest);
-			release(recordsRequest);
 		}
 	}
 
@@ -556,38 +548,102 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		}
 	}
 
-	private void joinBulkJobPolling(final String jobId, final int quantity, final String token) {
-		HttpGet request = null;
-		JobStatus status = JobStatus.PENDING;
-
-		try {
-			LOGGER.debug("Polling job status with ID {}.", jobId);
-
-			request = httpGet(String.format("bulk/jobs/%s?token=%s", jobId, token));
-
-			for (long pollTry = numberOfPollTries; pollTry > 0; pollTry--) {
-				final String response = execute(request);
-				final JsonNode node = mapper.readValue(response, JsonNode.class);
-				status = JobStatus.get(node.get("status").asInt());
-
-				if (JobStatus.FINISHED == status) {
-					break;
-				} else if (JobStatus.ERROR == status) {
-					throw new SnowowlRuntimeException("Bulk request has ended in error.");
-				} else {
-					Thread.sleep(timeBetweenPollTries);
+	/*
+	 * Splits the requested quantity into bulk jobs of at most requestBulkLimit IDs each, and runs them through the pipeline, so that
+	 * multiple jobs are processed by CIS at the same time.
+	 */
+	private Set<String> executeBulkJobs(final String api, final int quantity, final IntFunction<RequestData> bulkDataFactory) {
+		final List<Integer> bulkQuantities = Lists.newArrayList();
+		for (int remaining = quantity; remaining > 0; remaining -= requestBulkLimit) {
+			bulkQuantities.add(Math.min(remaining, requestBulkLimit));
+		}
+		
+		return bulkJobPipeline.execute(bulkQuantities, new CisBulkJobPipeline.BulkJob<Integer>() {
+			
+			@Override
+			public String submit(final Integer bulkQuantity) throws IOException {
+				final HttpPost request = httpPost(String.format("%s?token=%s", api, getToken()), bulkDataFactory.apply(bulkQuantity));
+				try {
+					final String response = execute(request);
+					return mapper.readValue(response, JsonNode.class).get("id").asText();
+				} finally {
+					release(request);
+				}
+			}
+			
+			@Override
+			public JobStatus getStatus(final String jobId) throws IOException {
+				return getBulkJobStatus(jobId);
+			}
+			
+			@Override
+			public Set<String> getRecords(final String jobId) throws IOException {
+				final HttpGet request = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
+				try {
+					final String response = execute(request);
+					final JsonNode[] records = mapper.readValue(response, JsonNode[].class);
+					return getComponentIds(records);
+				} finally {
+					release(request);
 				}
 			}
+			
+			@Override
+			public void releaseRecords(final Set<String> componentIds) {
+				release(componentIds);
+			}
+		});
+	}
 
-		} catch (Exception e) {
-			throw new SnowowlRuntimeException("Exception while polling job status.", e);
+	/*
+	 * Registers each partition (of a single namespace) in a bulk job, running multiple jobs at the same time. Registration can not be
+	 * undone, IDs of a failed registration are not released, the same as if the registration jobs were executed one after the other.
+	 */
+	private void executeBulkRegistrationJobs(final List<List<String>> bulkIds) {
+		final Map<String, List<String>> componentIdsByJobId = new ConcurrentHashMap<>();
+		
+		bulkJobPipeline.execute(bulkIds, new CisBulkJobPipeline.BulkJob<List<String>>() {
+			
+			@Override
+			public String submit(final List<String> componentIds) throws IOException {
+				LOGGER.debug("Sending bulk registration request with size {}.", componentIds.size());
+				final HttpPost request = httpPost(String.format("sct/bulk/register?token=%s", getToken()), createBulkRegistrationData(componentIds));
+				try {
+					final String response = execute(request);
+					final String jobId = mapper.readValue(response, JsonNode.class).get("id").asText();
+					componentIdsByJobId.put(jobId, componentIds);
+					return jobId;
+				} finally {
+					release(request);
+				}
+			}
+			
+			@Override
+			public JobStatus getStatus(final String jobId) throws IOException {
+				return getBulkJobStatus(jobId);
+			}
+			
+			@Override
+			public Set<String> getRecords(final String jobId) {
+				return ImmutableSet.copyOf(componentIdsByJobId.remove(jobId));
+			}
+			
+			@Override
+			public void releaseRecords(final Set<String> componentIds) {
+				// registered IDs are kept
+			}
+		});
+	}
+	
+	private JobStatus getBulkJobStatus(final String jobId) throws IOException {
+		final HttpGet request = httpGet(String.format("bulk/jobs/%s?token=%s", jobId, getToken()));
+		try {
+			final String response = execute(request);
+			final JsonNode node = mapper.readValue(response, JsonNode.class);
+			return JobStatus.get(node.get("status").asInt());
 		} finally {
 			release(request);
 		}
-		
-		if (JobStatus.FINISHED != status) {
-			throw new SnowowlRuntimeException("Job didn't finish with expected status: " + status); 
-		} 
 	}
 
 	private Set<String> getComponentIds(final JsonNode[] records) {
@@ -614,7 +670,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		return new GenerationData(namespace, clientKey, category);
 	}
 
-	private RequestData createBulkGenerationData(final String namespace, final ComponentCategory category, final int quantity) throws IOException {
+	private RequestData createBulkGenerationData(final String namespace, final ComponentCategory category, final int quantity) {
 		return new BulkGenerationData(namespace, clientKey, category, quantity);
 	}
 	
@@ -643,8 +699,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		return new ReservationData(namespace, clientKey, getExpirationDate(), category);
 	}
 
-	private RequestData createBulkReservationData(final String namespace, final ComponentCategory category, final int quantity)
-			throws IOException {
+	private RequestData createBulkReservationData(final String namespace, final ComponentCategory category, final int quantity) {
 		return new BulkReservationData(namespace, clientKey, getExpirationDate(), category, quantity);
 	}
 
@@ -674,6 +729,10 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	@Override
 	public void dispose() {
+		// fail pipelines waiting for jobs, they would not be polled anymore
+		bulkJobPipeline.shutdown();
+		pollScheduler.shutdownNow();
+		
 		if (null != client) {
 			client.logout();
 			client.close();
@@ -20,16 +20,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.google.common.collect.Sets.newLinkedHashSetWithExpectedSize;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.b2international.commons.CompareUtils;
+import com.b2international.commons.Pair;
 import com.b2international.commons.VerhoeffCheck;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.index.Hits;
@@ -64,6 +69,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 	private final Index store;
 	private final ItemIdGenerationStrategy generationStrategy;
+	private final ConcurrentMap<Pair<String, ComponentCategory>, IdBlocks> idBlocks = new ConcurrentHashMap<>();
 
 	/*
 	 * Tests only
@@ -98,7 +104,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Generating {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = nextIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.ASSIGNED));
 		putSctIds(sctIds);
 		return sctIds;
@@ -111,6 +117,11 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		}
 		LOGGER.debug("Registering {} component IDs.", componentIds.size());
 
+		// IDs registered from the outside must not be handed out from a previously verified block
+		if (!idBlocks.isEmpty()) {
+			idBlocks.values().forEach(blocks -> blocks.revoke(componentIds));
+		}
+
 		final Map<String, SctId> sctIds = getSctIds(componentIds);
 
 		final Map<String, SctId> availableOrReservedSctIds = ImmutableMap.copyOf(Maps.filterValues(sctIds, Predicates.or(
@@ -139,7 +150,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Reserving {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = nextIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.RESERVED));
 		putSctIds(sctIds);
 		return ImmutableMap.copyOf(sctIds);
@@ -235,6 +246,16 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		return true;
 	}
 
+	private Set<String> nextIds(final String namespace, final ComponentCategory category, final int quantity) {
+		final int blockSize = getConfig().getIdGenerationBlockSize();
+		if (blockSize <= 0) {
+			return generateIds(namespace, category, quantity);
+		}
+		
+		return idBlocks.computeIfAbsent(Pair.identicalPairOf(Strings.nullToEmpty(namespace), category), key -> new IdBlocks(namespace, category, blockSize))
+				.take(quantity);
+	}
+	
 	private Set<String> generateIds(final String namespace, final ComponentCategory category, final int quantity) {
 		final Set<String> generatedComponentIds = newLinkedHashSet(); // important to keep order of generated ids
 		final int maxAttempts = getConfig().getMaxIdGenerationAttempts();
@@ -315,6 +336,66 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		return reservedIds.build();
 	}
 
+	/**
+	 * Hands out component IDs of a single namespace and component category from blocks which were generated and checked against the
+	 * reservation service and the ID index in one go. Taking IDs from a block does not lock, only refilling an exhausted block is
+	 * serialized. IDs of a block are not written to the index until they are handed out, so unused IDs of a block need no release on
+	 * shutdown; they simply become available for generation again.
+	 */
+	private final class IdBlocks {
+		
+		private final String namespace;
+		private final ComponentCategory category;
+		private final int blockSize;
+		
+		// IDs in generation order, and the set of IDs which were not handed out or revoked yet
+		private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+		private final Set<String> available = ConcurrentHashMap.newKeySet();
+		
+		IdBlocks(final String namespace, final ComponentCategory category, final int blockSize) {
+			this.namespace = namespace;
+			this.category = category;
+			this.blockSize = blockSize;
+		}
+		
+		Set<String> take(final int quantity) {
+			final Set<String> componentIds = newLinkedHashSetWithExpectedSize(quantity);
+			
+			while (componentIds.size() < quantity) {
+				final Set<String> candidates = newLinkedHashSet();
+				while (componentIds.size() + candidates.size() < quantity) {
+					final String componentId = queue.poll();
+					if (componentId == null) {
+						refill(quantity - componentIds.size() - candidates.size());
+					} else if (available.remove(componentId)) {
+						candidates.add(componentId);
+					}
+				}
+				
+				// reservations might have been added since the block was generated
+				candidates.removeAll(getReservationService().isReserved(candidates));
+				componentIds.addAll(candidates);
+			}
+			
+			return componentIds;
+		}
+		
+		void revoke(final Set<String> componentIds) {
+			available.removeAll(componentIds);
+		}
+		
+		private synchronized void refill(final int minimumQuantity) {
+			// another thread might have refilled the queue while this one was waiting
+			if (!queue.isEmpty()) {
+				return;
+			}
+			
+			final Set<String> block = generateIds(namespace, category, Math.max(blockSize, minimumQuantity));
+			available.addAll(block);
+			queue.addAll(block);
+		}
+	}
+
 	private SctId buildSctId(final String componentId, final IdentifierStatus status) {
 		final SctId sctId = new SctId();
 		
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static com.b2international.index.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.junit.Test;
+
+import com.b2international.index.es.admin.EsIndexAdmin;
+import com.b2international.index.es.query.EsQueryBuilder;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+/**
+ * @since 7.21
+ */
+public class EsQueryBuilderTest extends BaseIndexTest {
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(Data.class, ParentData.class);
+	}
+
+	@Test
+	public void nestedMustClause() throws Exception {
+		final ParentData data = new ParentData("field1", new NestedData("field2"));
+		indexDocument(KEY1, data);
+		indexDocument(KEY2, new ParentData("field1", new NestedData("field2Changed")));
+
+		final Expression nestedMust = Expressions.builder()
+				.must(Expressions.exactMatch("field2", "field2"))
+				.must(Expressions.exactMatch("field2", "field2"))
+				.build();
+
+		final Hits<ParentData> matches = search(Query.select(ParentData.class).where(Expressions.nestedMatch("nestedData", nestedMust)).build());
+		assertThat(matches).containsOnly(data);
+	}
+
+	@Test
+	public void mustClausesWithoutScoring() throws Exception {
+		final EsQueryBuilder builder = newBuilder();
+		final QueryBuilder query = builder.build(Expressions.builder()
+				.must(Expressions.exactMatch("field1", "1"))
+				.must(Expressions.exactMatch("field2", "2"))
+				.build());
+
+		assertThat(builder.needsScoring()).isFalse();
+		// non-scoring queries are wrapped into a filter clause
+		final BoolQueryBuilder bool = (BoolQueryBuilder) ((BoolQueryBuilder) query).filter().get(0);
+		assertThat(bool.must()).isEmpty();
+		assertThat(bool.filter()).hasSize(2);
+	}
+
+	@Test
+	public void scoringMustClauseBeforeFilteringClause() throws Exception {
+		assertScoringMustClause(Expressions.builder()
+				.must(Expressions.matchTextAll("analyzedField", "text"))
+				.must(Expressions.exactMatch("field1", "1"))
+				.build());
+	}
+
+	@Test
+	public void scoringMustClauseAfterFilteringClause() throws Exception {
+		assertScoringMustClause(Expressions.builder()
+				.must(Expressions.exactMatch("field1", "1"))
+				.must(Expressions.matchTextAll("analyzedField", "text"))
+				.build());
+	}
+
+	@Test
+	public void termsLookupThresholdAboveMaxTermsCount() throws Exception {
+		final EsIndexAdmin admin = (EsIndexAdmin) client().admin();
+		final Map<String, Object> settings = Maps.newHashMap(admin.settings());
+		settings.put(IndexClientFactory.MAX_TERMS_COUNT_KEY, "10");
+		settings.put(IndexClientFactory.TERMS_LOOKUP_THRESHOLD_KEY, 1_000);
+
+		final Set<String> values = IntStream.range(0, 11).mapToObj(Integer::toString).collect(Collectors.toSet());
+		final QueryBuilder query = new EsQueryBuilder(admin.mappings().getMapping(Data.class), settings, admin.log(), admin.termsLookup())
+				.build(Expressions.matchAny("field1", values));
+
+		// values which would have to be split into multiple terms queries are staged instead
+		final BoolQueryBuilder bool = (BoolQueryBuilder) ((BoolQueryBuilder) query).filter().get(0);
+		assertThat(bool.should()).hasSize(2).allMatch(should -> ((TermsQueryBuilder) should).termsLookup() != null);
+	}
+
+	private void assertScoringMustClause(Expression expression) {
+		final EsQueryBuilder builder = newBuilder();
+		final BoolQueryBuilder bool = (BoolQueryBuilder) builder.build(expression);
+
+		// a non-scoring clause neither resets nor sets the flag of the enclosing query
+		assertThat(builder.needsScoring()).isTrue();
+		assertThat(bool.must()).hasOnlyElementsOfType(MatchQueryBuilder.class).hasSize(1);
+		assertThat(bool.filter()).hasOnlyElementsOfType(TermQueryBuilder.class).hasSize(1);
+	}
+
+	private EsQueryBuilder newBuilder() {
+		final EsIndexAdmin admin = (EsIndexAdmin) client().admin();
+		return new EsQueryBuilder(admin.mappings().getMapping(Data.class), admin.settings(), admin.log());
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.es.admin.EsIndexAdmin;
+import com.b2international.index.es.query.EsQueryBuilder;
+import com.b2international.index.mapping.DocumentMapping;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Measures the request size and the search latency of set predicates with 100k, 500k and 1M values staged in a terms lookup index. The size of
+ * the same query with inline values is measured for comparison only, Elasticsearch rejects it above the max terms count of the index.
+ *
+ * @since 7.21
+ */
+@Ignore("slows down test suite; run manually when changing terms lookup staging")
+public class TermsLookupPerformanceTest extends BaseIndexTest {
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return Collections.singleton(Data.class);
+	}
+
+	@Test
+	public void queryWithHugeIdSets() throws Exception {
+		indexDocuments(ImmutableMap.of(
+			UUID.randomUUID().toString(), createData("1"),
+			UUID.randomUUID().toString(), createData("2"),
+			UUID.randomUUID().toString(), createData("-1")
+		));
+
+		final EsIndexAdmin admin = (EsIndexAdmin) client().admin();
+		final DocumentMapping mapping = admin.mappings().getMapping(Data.class);
+
+		for (int numberOfTerms : new int[] { 100_000, 500_000, 1_000_000 }) {
+			final Set<String> terms = newHashSetWithExpectedSize(numberOfTerms);
+			for (int i = 0; i < numberOfTerms; i++) {
+				terms.add(Integer.toString(i));
+			}
+			final Expression filter = Expressions.matchAny("field1", terms);
+
+			final int inlineQuerySize = new EsQueryBuilder(mapping, admin.settings(), admin.log()).build(filter).toString().length();
+			final int lookupQuerySize = new EsQueryBuilder(mapping, admin.settings(), admin.log(), admin.termsLookup()).build(filter).toString().length();
+
+			// the lookup query only holds the references to the staged documents
+			assertThat(lookupQuerySize).isLessThan(numberOfTerms / 10);
+			assertThat(inlineQuerySize).isGreaterThan(numberOfTerms);
+
+			// the first search stages the values, the second one reuses them
+			final Stopwatch staging = Stopwatch.createStarted();
+			assertThat(search(Query.select(Data.class).where(filter).build()).getTotal()).isEqualTo(2);
+			staging.stop();
+
+			final Stopwatch reuse = Stopwatch.createStarted();
+			assertThat(search(Query.select(Data.class).where(filter).build()).getTotal()).isEqualTo(2);
+			reuse.stop();
+
+			admin.log().info("Searched with {} terms, first search: {}, second search: {} (query size with lookup: {}, inline: {})", 
+					numberOfTerms, staging, reuse, lookupQuerySize, inlineQuerySize);
+		}
+	}
+
+	private Data createData(String field1Value) {
+		final Data data = new Data();
+		data.setField1(field1Value);
+		return data;
+	}
+
+}
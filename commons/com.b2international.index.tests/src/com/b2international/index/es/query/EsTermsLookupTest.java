@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.indices.TermsLookup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.index.BaseIndexTest;
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.es.admin.EsIndexAdmin;
+import com.b2international.index.es.client.EsClient;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * @since 7.21
+ */
+public class EsTermsLookupTest extends BaseIndexTest {
+
+	private static final Set<String> VALUES = IntStream.range(0, 25).mapToObj(Integer::toString).collect(Collectors.toSet());
+	private static final int MAX_TERMS_COUNT = 10;
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private EsIndexAdmin admin;
+	private String lookupIndex;
+	private EsTermsLookup lookup;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return Collections.singleton(Data.class);
+	}
+
+	@Before
+	public void setup() {
+		admin = (EsIndexAdmin) client().admin();
+		lookupIndex = admin.name() + "-terms-lookup-test";
+		lookup = newLookup();
+	}
+
+	@After
+	public void dispose() throws Exception {
+		if (esClient().indices().exists(lookupIndex)) {
+			esClient().indices().delete(new DeleteIndexRequest(lookupIndex));
+		}
+	}
+
+	@Test
+	public void stagedValuesAreReused() throws Exception {
+		final List<TermsLookup> lookups = lookup.stage(VALUES, MAX_TERMS_COUNT);
+		assertThat(lookups).hasSize(3).allMatch(this::exists);
+
+		// the same set in a different iteration order refers to the same documents
+		assertThat(lookup.stage(Sets.newTreeSet(VALUES).descendingSet(), MAX_TERMS_COUNT)).isEqualTo(lookups);
+	}
+
+	@Test
+	public void restagingDoesNotAffectRunningQuery() throws Exception {
+		final List<TermsLookup> expired = lookup.stage(VALUES, MAX_TERMS_COUNT);
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(11L));
+
+		// a new query stages the values again while the expired documents are deleted, the new documents are not affected
+		final List<TermsLookup> restaged = lookup.stage(VALUES, MAX_TERMS_COUNT);
+		lookup.cleanUp();
+
+		assertThat(restaged).doesNotContainAnyElementsOf(expired).allMatch(this::exists);
+		assertThat(expired).noneMatch(this::exists);
+	}
+
+	@Test
+	public void expiredDocumentsAreDeleted() throws Exception {
+		final List<TermsLookup> lookups = lookup.stage(VALUES, MAX_TERMS_COUNT);
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(5L));
+		lookup.cleanUp();
+		assertThat(lookups).allMatch(this::exists);
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(11L));
+		lookup.cleanUp();
+		assertThat(lookups).noneMatch(this::exists);
+	}
+
+	@Test
+	public void existingIndexIsKept() throws Exception {
+		final List<TermsLookup> lookups = lookup.stage(VALUES, MAX_TERMS_COUNT);
+
+		// another client of the same lookup index, eg. on a different node or after a restart
+		final EsTermsLookup other = newLookup();
+		assertThat(other.stage(ImmutableSet.of("a", "b"), MAX_TERMS_COUNT)).allMatch(this::exists);
+
+		assertThat(lookups).allMatch(this::exists);
+	}
+
+	@Test
+	public void documentsLeftBehindArePurged() throws Exception {
+		final List<TermsLookup> lookups = lookup.stage(VALUES, MAX_TERMS_COUNT);
+
+		// a document staged two hours ago by a client which was stopped before deleting it
+		final String leftBehind = "left-behind";
+		esClient().index(new IndexRequest(lookupIndex)
+				.id(leftBehind)
+				.source(ImmutableMap.of("values", List.of("a"), "timestamp", System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2L))));
+
+		// the next client starting to use the index deletes it
+		newLookup().stage(ImmutableSet.of("a", "b"), MAX_TERMS_COUNT);
+
+		assertThat(exists(new TermsLookup(lookupIndex, leftBehind, "values"))).isFalse();
+		assertThat(lookups).allMatch(this::exists);
+	}
+
+	@Test
+	public void indexIsCreatedAgainAfterReset() throws Exception {
+		lookup.stage(VALUES, MAX_TERMS_COUNT);
+
+		esClient().indices().delete(new DeleteIndexRequest(lookupIndex));
+		lookup.reset();
+
+		assertThat(lookup.stage(VALUES, MAX_TERMS_COUNT)).hasSize(3).allMatch(this::exists);
+	}
+
+	private EsTermsLookup newLookup() {
+		return new EsTermsLookup(esClient(), lookupIndex, admin.log(), new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		});
+	}
+
+	private EsClient esClient() {
+		return admin.client();
+	}
+
+	private boolean exists(TermsLookup termsLookup) {
+		try {
+			return esClient().get(new GetRequest(termsLookup.index(), termsLookup.id())).isExists();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.b2international.index.IndexException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * @since 7.21
+ */
+public class ReadAheadPipelineTest {
+
+	private static final List<Integer> ITEMS = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+
+	private final AtomicInteger fetched = new AtomicInteger();
+	private final List<Integer> applied = Lists.newCopyOnWriteArrayList();
+
+	@Test
+	public void applyInOriginalOrder() throws Exception {
+		ReadAheadPipeline.apply(ITEMS, item -> {
+			fetched.incrementAndGet();
+			return ReadAheadPipeline.FETCH_EXECUTOR.submit(() -> {
+				// later items may complete earlier than the ones before them
+				TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextInt(10));
+				return item * 10;
+			});
+		}, (item, result) -> {
+			assertEquals(item * 10, result.intValue());
+			// only the next item is fetched while the current one is applied
+			assertTrue(fetched.get() <= item + 2);
+			applied.add(item);
+		});
+
+		assertEquals(ITEMS, applied);
+		assertEquals(ITEMS.size(), fetched.get());
+	}
+
+	@Test
+	public void readAheadMultipleItems() throws Exception {
+		ReadAheadPipeline.apply(ITEMS, 3, item -> {
+			fetched.incrementAndGet();
+			return ReadAheadPipeline.FETCH_EXECUTOR.submit(() -> item * 10);
+		}, (item, result) -> {
+			assertEquals(item * 10, result.intValue());
+			// the current item and at most three following ones are fetched
+			assertEquals(Math.min(item + 4, ITEMS.size()), fetched.get());
+			applied.add(item);
+		});
+
+		assertEquals(ITEMS, applied);
+	}
+
+	@Test
+	public void uncheckedFetchFailureIsRethrown() throws Exception {
+		final IllegalStateException failure = new IllegalStateException("fetch failed");
+		try {
+			ReadAheadPipeline.apply(ITEMS, item -> fetch(item, item == 3 ? failure : null), (item, result) -> applied.add(item));
+			fail("Expected fetch failure to be propagated");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+
+		assertEquals(ImmutableList.of(0, 1, 2), applied);
+		// the item after the failing one was already requested, but nothing after it
+		assertEquals(5, fetched.get());
+	}
+
+	@Test
+	public void checkedFetchFailureIsWrapped() throws Exception {
+		final IOException failure = new IOException("fetch failed");
+		try {
+			ReadAheadPipeline.apply(ITEMS, item -> fetch(item, item == 0 ? failure : null), (item, result) -> applied.add(item));
+			fail("Expected fetch failure to be propagated");
+		} catch (IndexException e) {
+			assertSame(failure, e.getCause());
+		}
+
+		assertTrue(applied.isEmpty());
+	}
+
+	@Test
+	public void pendingFetchIsCancelledOnApplyFailure() throws Exception {
+		final SettableFuture<Integer> pending = SettableFuture.create();
+		try {
+			ReadAheadPipeline.apply(ITEMS, item -> item == 0 ? Futures.immediateFuture(item) : pending, (item, result) -> {
+				throw new IllegalArgumentException("apply failed");
+			});
+			fail("Expected apply failure to be propagated");
+		} catch (IllegalArgumentException e) {
+			assertTrue(pending.isCancelled());
+		}
+	}
+
+	private ListenableFuture<Integer> fetch(final Integer item, final Exception failure) {
+		fetched.incrementAndGet();
+		return ReadAheadPipeline.FETCH_EXECUTOR.submit(() -> {
+			if (failure != null) {
+				throw failure;
+			}
+			return item;
+		});
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+import com.google.common.collect.Iterables;
+
+/**
+ * Runs all merge conflict test cases with compare details spilled to a temporary file from the first detail.
+ * 
+ * @since 7.21
+ */
+public class RevisionBranchMergeSpilledCompareTest extends RevisionBranchMergeConflictTest {
+
+	@Override
+	protected Map<String, Object> getIndexSettings() {
+		final Map<String, Object> settings = new HashMap<>(super.getIndexSettings());
+		settings.put(IndexClientFactory.COMPARE_SPILL_THRESHOLD_KEY, 1);
+		return settings;
+	}
+	
+	@Test
+	public void compareDetailsSpilled() throws Exception {
+		indexRevision(MAIN, new RevisionData(STORAGE_KEY1, "field1", "field2"));
+		final String branchA = createBranch(MAIN, "a");
+		indexRevision(branchA, new RevisionData(STORAGE_KEY2, "field1", "field2"));
+		indexRevision(branchA, new RevisionData("3", "field1", "field2"));
+		
+		final InternalRevisionIndex index = (InternalRevisionIndex) index();
+		final RevisionBranchRef mainRef = branching().getBranch(MAIN).ref();
+		final RevisionBranchRef branchRef = branching().getBranch(branchA).ref();
+		try (RevisionCompareDetails details = index.compareDetails(mainRef, branchRef)) {
+			assertTrue(details.isSpilled());
+			assertEquals(2, Iterables.size(details));
+		}
+	}
+	
+}
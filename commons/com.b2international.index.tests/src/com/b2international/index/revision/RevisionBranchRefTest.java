@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Range;
+
+/**
+ * @since 7.21
+ */
+public class RevisionBranchRefTest {
+
+	@Test
+	public void compactDisjointSegments() throws Exception {
+		final List<Range<RevisionBranchPoint>> ranges = RevisionBranchRef.compact(ImmutableSortedSet.of(
+			new RevisionSegment(0L, 0L, 10L),
+			new RevisionSegment(2L, 5L, 20L)
+		));
+		assertEquals(List.of(range(0L, 0L, 0L, 10L), range(2L, 5L, 2L, 20L)), ranges);
+	}
+	
+	@Test
+	public void compactOverlappingSegmentsOfSameBranch() throws Exception {
+		final List<Range<RevisionBranchPoint>> ranges = RevisionBranchRef.compact(ImmutableSortedSet.of(
+			new RevisionSegment(1L, 0L, 10L),
+			new RevisionSegment(1L, 5L, 20L),
+			new RevisionSegment(1L, 21L, 30L)
+		));
+		assertEquals(List.of(range(1L, 0L, 1L, 30L)), ranges);
+	}
+	
+	@Test
+	public void compactSegmentsAcrossConsecutiveBranches() throws Exception {
+		final List<Range<RevisionBranchPoint>> ranges = RevisionBranchRef.compact(ImmutableSortedSet.of(
+			new RevisionSegment(1L, 5L, Long.MAX_VALUE),
+			new RevisionSegment(2L, 0L, 10L),
+			new RevisionSegment(3L, 0L, 10L)
+		));
+		assertEquals(List.of(range(1L, 5L, 2L, 10L), range(3L, 0L, 3L, 10L)), ranges);
+	}
+	
+	@Test
+	public void revisionFilterIsShared() throws Exception {
+		final RevisionBranchRef ref = new RevisionBranchRef(1L, "MAIN/a", ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 10L), new RevisionSegment(1L, 10L, 20L)));
+		final RevisionBranchRef sameSegments = new RevisionBranchRef(1L, "MAIN/a", ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 10L), new RevisionSegment(1L, 10L, 20L)));
+		assertSame(ref.toRevisionFilter(), sameSegments.toRevisionFilter());
+	}
+	
+	@Test
+	public void revisionFilterOfSegmentsWithDifferentEnd() throws Exception {
+		final RevisionBranchRef ref = new RevisionBranchRef(1L, "MAIN/a", ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 10L), new RevisionSegment(1L, 10L, 20L)));
+		final RevisionBranchRef laterEnd = new RevisionBranchRef(1L, "MAIN/a", ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 10L), new RevisionSegment(1L, 10L, 30L)));
+		assertNotEquals(ref.toRevisionFilter(), laterEnd.toRevisionFilter());
+	}
+	
+	private static Range<RevisionBranchPoint> range(long startBranchId, long start, long endBranchId, long end) {
+		return Range.closed(new RevisionBranchPoint(startBranchId, start), new RevisionBranchPoint(endBranchId, end));
+	}
+	
+}
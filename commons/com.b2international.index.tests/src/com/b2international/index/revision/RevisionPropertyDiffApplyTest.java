@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.index.mapping.DocumentMapping;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+import com.b2international.index.revision.StagingArea.RevisionPropertyDiff;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.zjsonpatch.JsonPatch;
+import com.google.common.base.Stopwatch;
+
+/**
+ * Compares the JSON patch based property update application with the direct, {@link DocumentMapping} driven one used during merges.
+ *
+ * @since 7.21
+ */
+public class RevisionPropertyDiffApplyTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RevisionPropertyDiffApplyTest.class);
+	
+	private static final int ITERATIONS = 50_000;
+
+	private static final List<RevisionPropertyDiff> DIFFS = List.of(
+		new RevisionPropertyDiff("field1", "field1", "field1Changed"),
+		new RevisionPropertyDiff("field2", "field2", "12345"),
+		new RevisionPropertyDiff("terms", null, "[\"term1\",\"term2\"]")
+	);
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final DocumentMapping mapping = new DocumentMapping(RevisionData.class);
+
+	public RevisionPropertyDiffApplyTest() {
+		mapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+	}
+
+	@Test
+	public void applyDirectlyMatchesJsonPatch() throws Exception {
+		final RevisionData expected = new RevisionData("1", "field1Changed", "12345", List.of("term1", "term2"), "derived");
+		assertEquals(expected, applyWithJsonPatch(createSource()));
+		assertEquals(expected, applyDirectly(createSource()));
+	}
+
+	@Ignore("slows down test suite; run manually when changing merge property update application")
+	@Test
+	public void compareThroughput() throws Exception {
+		// warm up both code paths before measuring
+		run(false, ITERATIONS);
+		run(true, ITERATIONS);
+
+		final long jsonPatch = run(false, ITERATIONS);
+		final long direct = run(true, ITERATIONS);
+		LOG.info("Applied property updates to {} revisions, JSON patch: {} ms, direct: {} ms", ITERATIONS, jsonPatch, direct);
+	}
+
+	private long run(boolean direct, int iterations) throws Exception {
+		final Stopwatch w = Stopwatch.createStarted();
+		for (int i = 0; i < iterations; i++) {
+			if (direct) {
+				applyDirectly(createSource());
+			} else {
+				applyWithJsonPatch(createSource());
+			}
+		}
+		return w.elapsed(TimeUnit.MILLISECONDS);
+	}
+
+	private ObjectNode createSource() {
+		return mapper.valueToTree(new RevisionData("1", "field1", "field2", null, "derived"));
+	}
+
+	private Revision applyWithJsonPatch(JsonNode source) {
+		final Revision oldRevision = mapper.convertValue(source, RevisionData.class);
+		final ArrayNode patch = mapper.createArrayNode();
+		for (RevisionPropertyDiff diff : DIFFS) {
+			patch.add(diff.asPatch(mapper, source));
+		}
+		JsonPatch.applyInPlace(patch, source);
+		final Revision newRevision = mapper.convertValue(source, RevisionData.class);
+		assertEquals(oldRevision.getId(), newRevision.getId());
+		return newRevision;
+	}
+
+	private Revision applyDirectly(ObjectNode source) throws Exception {
+		// the merge keeps an unbound copy of the old source and binds only the new revision
+		final ObjectNode oldSource = source.deepCopy();
+		for (RevisionPropertyDiff diff : DIFFS) {
+			diff.applyTo(mapper, mapping, source);
+		}
+		final Revision newRevision = mapper.treeToValue(source, RevisionData.class);
+		assertEquals(oldSource.get(Revision.Fields.ID).asText(), newRevision.getId());
+		return newRevision;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.b2international.index.Hits;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+
+/**
+ * @since 7.21
+ */
+public class RevisionSearchCacheTest extends BaseRevisionIndexTest {
+
+	private static final RevisionBranchRef REF = new RevisionBranchRef(0L, MAIN, ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 10L)));
+
+	private final AtomicInteger searches = new AtomicInteger();
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(RevisionData.class);
+	}
+
+	@Test
+	public void cacheSearchOnImmutableRef() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache(100L, getMapper());
+		final Hits<RevisionData> hits = cache.get(REF.immutable(), query(), this::countSearch);
+		// an equal query on a ref with the same segments returns the cached hits
+		final Hits<RevisionData> cachedHits = cache.get(new RevisionBranchRef(1L, "MAIN/a", REF.segments()).immutable(), query(), this::countSearch);
+		assertEquals(hits.getHits(), cachedHits.getHits());
+		assertEquals(1, searches.get());
+		assertEquals(1L, cache.size());
+	}
+
+	@Test
+	public void cachedHitsAreCopied() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache(100L, getMapper());
+		final RevisionData hit = cache.get(REF.immutable(), query(), this::countSearch).getHits().get(0);
+		final RevisionData cachedHit = cache.get(REF.immutable(), query(), this::countSearch).getHits().get(0);
+		assertNotSame(hit, cachedHit);
+		assertNotSame(cachedHit, cache.get(REF.immutable(), query(), this::countSearch).getHits().get(0));
+		assertEquals(hit, cachedHit);
+		assertEquals(1, searches.get());
+	}
+
+	@Test
+	public void segmentsWithDifferentEndAreNotShared() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache(100L, getMapper());
+		final RevisionBranchRef ref = new RevisionBranchRef(0L, MAIN, ImmutableSortedSet.of(new RevisionSegment(0L, 0L, 20L)));
+		cache.get(REF.immutable(), query(), this::countSearch);
+		cache.get(ref.immutable(), query(), this::countSearch);
+		assertEquals(2, searches.get());
+		assertEquals(2L, cache.size());
+	}
+
+	@Test
+	public void doNotCacheSearchOnMutableRef() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache(100L, getMapper());
+		cache.get(REF, query(), this::countSearch);
+		cache.get(REF, query(), this::countSearch);
+		assertEquals(2, searches.get());
+		assertEquals(0L, cache.size());
+	}
+
+	@Test
+	public void doNotCacheScrollSearch() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache(100L, getMapper());
+		final Query<RevisionData> query = Query.select(RevisionData.class).where(Expressions.matchAll()).scroll().build();
+		cache.get(REF.immutable(), query, this::countSearch);
+		cache.get(REF.immutable(), query, this::countSearch);
+		assertEquals(2, searches.get());
+	}
+
+	@Test
+	public void disabledCache() throws Exception {
+		final RevisionSearchCache cache = new RevisionSearchCache();
+		cache.get(REF.immutable(), query(), this::countSearch);
+		cache.get(REF.immutable(), query(), this::countSearch);
+		assertEquals(2, searches.get());
+	}
+
+	@Test
+	public void branchAtTimestampReadAfterCommit() throws Exception {
+		final RevisionData rev1 = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData rev2 = new RevisionData(STORAGE_KEY2, "field1", "field2");
+
+		final long commit1 = commit(MAIN, List.of(rev1)).getTimestamp();
+		assertEquals(1, search(MAIN + RevisionIndex.AT_CHAR + commit1, query()).getTotal());
+
+		commit(MAIN, List.of(rev2));
+
+		assertEquals(1, search(MAIN + RevisionIndex.AT_CHAR + commit1, query()).getTotal());
+		assertEquals(2, search(MAIN, query()).getTotal());
+	}
+
+	@Test
+	public void emptyBranchReadAfterCommit() throws Exception {
+		final RevisionData rev1 = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData rev2 = new RevisionData(STORAGE_KEY2, "field1", "field2");
+
+		commit(MAIN, List.of(rev1));
+		final String branch = createBranch(MAIN, "a");
+		assertEquals(1, search(branch, query()).getTotal());
+
+		commit(branch, List.of(rev2));
+
+		assertEquals(2, search(branch, query()).getTotal());
+	}
+
+	private Query<RevisionData> query() {
+		return Query.select(RevisionData.class).where(Expressions.matchAll()).limit(10).build();
+	}
+
+	private Hits<RevisionData> countSearch() {
+		searches.incrementAndGet();
+		return new Hits<>(List.of(new RevisionData(STORAGE_KEY1, "field1", "field2")), null, null, 10, 1);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,6 +129,30 @@ public interface IndexClientFactory {
 	 */
 	String COMMIT_WATERMARK_HIGH_KEY = "commit.watermark.high";
 	
+	/**
+	 * Configuration key to specify the number of concurrent index reads when applying the changes of a branch merge.
+	 */
+	String MERGE_CONCURRENCY_LEVEL_KEY = "merge.concurrencyLevel";
+	
+	/**
+	 * Configuration key to specify the number of compare details kept on the heap before a revision compare spills them to a temporary file.
+	 */
+	String COMPARE_SPILL_THRESHOLD_KEY = "compare.spillThreshold";
+	
+	/**
+	 * Configuration key to specify the maximum number of hits kept in the result cache of searches on immutable revision branch refs. Entries are
+	 * weighed by their hit count, not by their size in memory, so the limit should be chosen with the size of the cached documents in mind. Set it
+	 * to <code>0</code> to disable the cache.
+	 */
+	String RESULT_CACHE_MAX_WEIGHT_KEY = "resultCache.maxWeight";
+	
+	/**
+	 * Configuration key to specify the number of values in a set predicate above which the values are staged in a terms lookup index, instead of
+	 * being sent with each query. Values above {@link #MAX_TERMS_COUNT_KEY max_terms_count} are always staged, as they would need to be split into
+	 * multiple terms queries otherwise. Set it to <code>0</code> to always send the values with the query.
+	 */
+	String TERMS_LOOKUP_THRESHOLD_KEY = "termsLookup.threshold";
+	
 	//
 	// Default values
 	//
@@ -200,6 +224,26 @@ public interface IndexClientFactory {
 	 * Default amount of commit details indicating high watermark
 	 */
 	int DEFAULT_COMMIT_WATERMARK_HIGH_VALUE = 50_000;
+	
+	/**
+	 * Default number of concurrent index reads when applying the changes of a branch merge
+	 */
+	int DEFAULT_MERGE_CONCURRENCY_LEVEL = 4;
+	
+	/**
+	 * Default number of compare details kept on the heap before a revision compare spills them to a temporary file
+	 */
+	int DEFAULT_COMPARE_SPILL_THRESHOLD = 500_000;
+	
+	/**
+	 * Default maximum number of hits kept in the result cache of searches on immutable revision branch refs (the cache is disabled by default)
+	 */
+	long DEFAULT_RESULT_CACHE_MAX_WEIGHT = 0L;
+	
+	/**
+	 * Default number of set predicate values above which the values are staged in a terms lookup index, same as the default max terms count
+	 */
+	int DEFAULT_TERMS_LOOKUP_THRESHOLD = DEFAULT_MAX_TERMS_COUNT;
 
 
 	/**
@@ -39,6 +39,7 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 	private int minBucketSize = 1;
 	private int bucketHitsLimit = 10;
 	private String path;
+	private List<String> includeValues = Collections.emptyList();
 
 	AggregationBuilder(String name, Class<T> select, Class<?> from) {
 		this.name = name;
@@ -75,6 +76,19 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 		return this;
 	}
 	
+	/**
+	 * Restricts the returned buckets to the given bucket keys. Values of documents matching the query but not present
+	 * in this list will not produce buckets.
+	 * 
+	 * @param includeValues - the bucket keys to return
+	 * @return this builder
+	 * @since 7.21
+	 */
+	public AggregationBuilder<T> includeValues(Iterable<String> includeValues) {
+		this.includeValues = ImmutableList.copyOf(includeValues);
+		return this;
+	}
+	
 	public AggregationBuilder<T> minBucketSize(int minBucketSize) {
 		this.minBucketSize = minBucketSize;
 		return this;
@@ -123,6 +137,10 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 		return Collections.emptyMap();
 	}
 	
+	public List<String> getIncludeValues() {
+		return includeValues;
+	}
+	
 	public int getMinBucketSize() {
 		return minBucketSize;
 	}
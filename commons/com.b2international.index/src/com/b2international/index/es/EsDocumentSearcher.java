@@ -47,6 +47,7 @@ import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.bucket.nested.Nested;
 import org.elasticsearch.search.aggregations.bucket.nested.ReverseNested;
+import org.elasticsearch.search.aggregations.bucket.terms.IncludeExclude;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.TopHits;
@@ -147,7 +148,7 @@ public class EsDocumentSearcher implements Searcher {
 		final int limit = query.getLimit();
 		final int toRead = Ints.min(limit, resultWindow);
 		
-		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(mapping, admin.settings(), admin.log());
+		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(mapping, admin.settings(), admin.log(), admin.termsLookup());
 		final QueryBuilder esQuery = esQueryBuilder.build(query.getWhere());
 		
 		final SearchRequest req = new SearchRequest(admin.getTypeIndex(mapping));
@@ -463,7 +464,7 @@ public class EsDocumentSearcher implements Searcher {
 		final EsClient client = admin.client();
 		final DocumentMapping mapping = admin.mappings().getMapping(aggregation.getFrom());
 		
-		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(mapping, admin.settings(), admin.log());
+		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(mapping, admin.settings(), admin.log(), admin.termsLookup());
 		final QueryBuilder esQuery = esQueryBuilder.build(aggregation.getQuery());
 		
 		final SearchRequest req = new SearchRequest(admin.getTypeIndex(mapping));
@@ -534,6 +535,10 @@ public class EsDocumentSearcher implements Searcher {
 			throw new IllegalArgumentException("Specify either field or script parameter");
 		}
 		
+		if (!aggregation.getIncludeValues().isEmpty()) {
+			termsAgg.includeExclude(new IncludeExclude(Iterables.toArray(aggregation.getIncludeValues(), String.class), null));
+		}
+		
 		boolean isNested = !Strings.isNullOrEmpty(aggregation.getPath());
 		// add top hits agg to get the top N items for each bucket
 		if (aggregation.getBucketHitsLimit() > 0) {
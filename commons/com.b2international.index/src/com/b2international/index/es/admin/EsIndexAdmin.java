@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,6 +59,7 @@ import com.b2international.index.*;
 import com.b2international.index.admin.IndexAdmin;
 import com.b2international.index.es.client.EsClient;
 import com.b2international.index.es.query.EsQueryBuilder;
+import com.b2international.index.es.query.EsTermsLookup;
 import com.b2international.index.mapping.DocumentMapping;
 import com.b2international.index.mapping.Mappings;
 import com.b2international.index.query.Expression;
@@ -90,7 +91,11 @@ public final class EsIndexAdmin implements IndexAdmin {
 	 */
 	private static final Set<String> LOCAL_SETTINGS = Set.of(
 		IndexClientFactory.COMMIT_WATERMARK_LOW_KEY,
-		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY
+		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY,
+		IndexClientFactory.MERGE_CONCURRENCY_LEVEL_KEY,
+		IndexClientFactory.COMPARE_SPILL_THRESHOLD_KEY,
+		IndexClientFactory.RESULT_CACHE_MAX_WEIGHT_KEY,
+		IndexClientFactory.TERMS_LOOKUP_THRESHOLD_KEY
 	);
 	
 	private static final int DEFAULT_MAX_NUMBER_OF_VERSION_CONFLICT_RETRIES = 5;
@@ -105,6 +110,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 	
 	private final Logger log;
 	private final String prefix;
+	private final EsTermsLookup termsLookup;
 
 	public EsIndexAdmin(EsClient client, ObjectMapper mapper, String name, Mappings mappings, Map<String, Object> settings) {
 		this.client = client;
@@ -123,9 +129,14 @@ public final class EsIndexAdmin implements IndexAdmin {
 		this.settings.putIfAbsent(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE_IN_MB);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_LOW_VALUE);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE);
+		this.settings.putIfAbsent(IndexClientFactory.MERGE_CONCURRENCY_LEVEL_KEY, IndexClientFactory.DEFAULT_MERGE_CONCURRENCY_LEVEL);
+		this.settings.putIfAbsent(IndexClientFactory.COMPARE_SPILL_THRESHOLD_KEY, IndexClientFactory.DEFAULT_COMPARE_SPILL_THRESHOLD);
+		this.settings.putIfAbsent(IndexClientFactory.RESULT_CACHE_MAX_WEIGHT_KEY, IndexClientFactory.DEFAULT_RESULT_CACHE_MAX_WEIGHT);
+		this.settings.putIfAbsent(IndexClientFactory.TERMS_LOOKUP_THRESHOLD_KEY, IndexClientFactory.DEFAULT_TERMS_LOOKUP_THRESHOLD);
 		
 		final String prefix = (String) settings.getOrDefault(IndexClientFactory.INDEX_PREFIX, IndexClientFactory.DEFAULT_INDEX_PREFIX);
 		this.prefix = prefix.isEmpty() ? "" : prefix + ".";
+		this.termsLookup = new EsTermsLookup(client, String.format("%s%s-terms-lookup", this.prefix, this.name), log);
 	}
 	
 	@Override
@@ -492,6 +503,8 @@ public final class EsIndexAdmin implements IndexAdmin {
 						.indices()
 						.delete(deleteIndexRequest);
 				checkState(deleteIndexResponse.isAcknowledged(), "Failed to delete all ES indices for '%s'.", name);
+				// the terms lookup index is deleted along with the other indices of this admin
+				termsLookup.reset();
 			} catch (Exception e) {
 				throw new IndexException(String.format("Failed to delete all ES indices for '%s'.", name), e);
 			}
@@ -602,6 +615,10 @@ public final class EsIndexAdmin implements IndexAdmin {
 		return client;
 	}
 	
+	public EsTermsLookup termsLookup() {
+		return termsLookup;
+	}
+	
 	public void refresh(Set<DocumentMapping> typesToRefresh) {
 		if (!CompareUtils.isEmpty(typesToRefresh)) {
 			final String[] indicesToRefresh;
@@ -652,7 +669,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 			final org.elasticsearch.script.Script script,
 			final String operationDescription) {
 		
-		final QueryBuilder query = new EsQueryBuilder(mapping, settings, log).build(filter);
+		final QueryBuilder query = new EsQueryBuilder(mapping, settings, log, termsLookup).build(filter);
 		
 		boolean needsRefresh = false;
 		long versionConflicts = 0;
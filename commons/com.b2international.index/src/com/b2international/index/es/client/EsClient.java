@@ -21,8 +21,12 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.ClearScrollResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -63,6 +67,10 @@ public interface EsClient extends AutoCloseable {
 	
 	GetResponse get(GetRequest req) throws IOException;
 	
+	IndexResponse index(IndexRequest req) throws IOException;
+	
+	DeleteResponse delete(DeleteRequest req) throws IOException;
+	
 	SearchResponse search(SearchRequest req) throws IOException;
 	
 	SearchResponse scroll(SearchScrollRequest req) throws IOException;
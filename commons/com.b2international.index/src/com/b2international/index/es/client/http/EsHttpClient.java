@@ -29,8 +29,12 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.ClearScrollResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -133,6 +137,18 @@ public final class EsHttpClient extends EsClientBase {
 		checkAvailable();
 		return client.get(req, RequestOptions.DEFAULT);
 	}
+	
+	@Override
+	public IndexResponse index(IndexRequest req) throws IOException {
+		checkAvailable();
+		return client.index(req, RequestOptions.DEFAULT);
+	}
+	
+	@Override
+	public DeleteResponse delete(DeleteRequest req) throws IOException {
+		checkAvailable();
+		return client.delete(req, RequestOptions.DEFAULT);
+	}
 
 	@Override
 	public SearchResponse search(SearchRequest req) throws IOException {
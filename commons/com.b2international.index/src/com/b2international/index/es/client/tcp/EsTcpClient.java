@@ -22,8 +22,12 @@ import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.ClearScrollResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -85,6 +89,16 @@ public final class EsTcpClient extends EsClientBase {
 	public GetResponse get(GetRequest req) throws IOException {
 		return execute(client.get(req));
 	}
+	
+	@Override
+	public IndexResponse index(IndexRequest req) throws IOException {
+		return execute(client.index(req));
+	}
+	
+	@Override
+	public DeleteResponse delete(DeleteRequest req) throws IOException {
+		return execute(client.delete(req));
+	}
 
 	@Override
 	public SearchResponse search(SearchRequest req) throws IOException {
@@ -17,7 +17,10 @@ package com.b2international.index.es.query;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -27,6 +30,7 @@ import org.elasticsearch.common.lucene.search.function.CombineFunction;
 import org.elasticsearch.common.unit.Fuzziness;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders;
+import org.elasticsearch.indices.TermsLookup;
 import org.slf4j.Logger;
 
 import com.b2international.commons.exceptions.FormattedRuntimeException;
@@ -38,7 +42,6 @@ import com.b2international.index.query.TextPredicate.MatchType;
 import com.b2international.index.util.DecimalUtils;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Queues;
 
 /**
  * @since 4.7
@@ -48,23 +51,38 @@ public final class EsQueryBuilder {
 	private static final QueryBuilder MATCH_NONE = QueryBuilders.termQuery("match_none", "none");
 	private static String ILLEGAL_STACK_STATE_MESSAGE = "Illegal internal stack state: %s";
 	
-	private final Deque<QueryBuilder> deque = Queues.newLinkedBlockingDeque();
+	// builders are confined to a single thread, no need for a synchronized deque
+	private final Deque<QueryBuilder> deque = new ArrayDeque<>();
 	private final Map<String, Object> settings;
 	private final DocumentMapping mapping;
 	private final Logger log;
 	private final String path;
+	private final EsTermsLookup termsLookup;
 	
 	private boolean needsScoring;
+	// parsed from the settings on first use, then reused by this and nested builders
+	private int maxTermsCount = -1;
+	private int termsLookupThreshold = -1;
 	
 	public EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log) {
-		this(mapping, settings, log, "");
+		this(mapping, settings, log, null);
 	}
 	
-	private EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log, String path) {
+	/**
+	 * @param termsLookup - stages the values of large set predicates, may be <code>null</code> if values should always be sent with the query
+	 */
+	public EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log, EsTermsLookup termsLookup) {
+		this(mapping, settings, log, "", termsLookup, -1, -1);
+	}
+	
+	private EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log, String path, EsTermsLookup termsLookup, int maxTermsCount, int termsLookupThreshold) {
 		this.mapping = mapping;
 		this.settings = settings;
 		this.log = log;
 		this.path = path;
+		this.termsLookup = termsLookup;
+		this.maxTermsCount = maxTermsCount;
+		this.termsLookupThreshold = termsLookupThreshold;
 	}
 	
 	private FormattedRuntimeException newIllegalStateException() {
@@ -174,9 +192,11 @@ public final class EsQueryBuilder {
 	private void visit(BoolExpression bool) {
 		final BoolQueryBuilder query = QueryBuilders.boolQuery();
 		for (Expression must : bool.mustClauses()) {
-			// visit the item and immediately pop the deque item back
-			final EsQueryBuilder innerQueryBuilder = new EsQueryBuilder(mapping, settings, log);
+			// visit the item and immediately pop the deque item back, fields of must clauses inside nested predicates need the nested path as well
+			final EsQueryBuilder innerQueryBuilder = new EsQueryBuilder(mapping, settings, log, path, termsLookup, maxTermsCount, termsLookupThreshold);
 			innerQueryBuilder.visit(must);
+			maxTermsCount = innerQueryBuilder.maxTermsCount;
+			termsLookupThreshold = innerQueryBuilder.termsLookupThreshold;
 			if (innerQueryBuilder.needsScoring) {
 				needsScoring = innerQueryBuilder.needsScoring;
 				query.must(innerQueryBuilder.deque.pop());
@@ -210,9 +230,11 @@ public final class EsQueryBuilder {
 	private void visit(NestedPredicate predicate) {
 		final String nestedPath = toFieldPath(predicate);
 		final DocumentMapping nestedMapping = mapping.getNestedMapping(predicate.getField());
-		final EsQueryBuilder nestedQueryBuilder = new EsQueryBuilder(nestedMapping, settings, log, nestedPath);
+		final EsQueryBuilder nestedQueryBuilder = new EsQueryBuilder(nestedMapping, settings, log, nestedPath, termsLookup, maxTermsCount, termsLookupThreshold);
 		nestedQueryBuilder.visit(predicate.getExpression());
 		needsScoring = nestedQueryBuilder.needsScoring;
+		maxTermsCount = nestedQueryBuilder.maxTermsCount;
+		termsLookupThreshold = nestedQueryBuilder.termsLookupThreshold;
 		final QueryBuilder nestedQuery = nestedQueryBuilder.deque.pop();
 		deque.push(QueryBuilders.nestedQuery(nestedPath, nestedQuery, ScoreMode.None));
 	}
@@ -300,8 +322,19 @@ public final class EsQueryBuilder {
 	
 	// consider max terms count and break into multiple terms queries if number of terms are greater than that value
 	private <T> void toTermsQuery(SetPredicate<T> predicate, final Set<T> terms, final Function<T, ?> valueConverter) {
-		final int maxTermsCount = Integer.parseInt((String) settings.get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
-		if (terms.size() > maxTermsCount) {
+		final int maxTermsCount = getMaxTermsCount();
+		if (termsLookup != null && isAboveTermsLookupThreshold(terms.size())) {
+			// stage huge value sets once and refer to them by a terms lookup for each max terms count sized partition
+			final Collection<?> values = valueConverter != null ? terms.stream().map(valueConverter).collect(Collectors.toSet()) : terms;
+			final List<TermsLookup> lookups = termsLookup.stage(values, maxTermsCount);
+			if (lookups.size() == 1) {
+				deque.push(QueryBuilders.termsLookupQuery(toFieldPath(predicate), lookups.get(0)));
+			} else {
+				final BoolQueryBuilder bool = QueryBuilders.boolQuery().minimumShouldMatch(1);
+				lookups.forEach(lookup -> bool.should(QueryBuilders.termsLookupQuery(toFieldPath(predicate), lookup)));
+				deque.push(bool);
+			}
+		} else if (terms.size() > maxTermsCount) {
 			log.warn("More than currently configured max_terms_count ({}) filter values on field query: {}.{}", maxTermsCount, mapping.typeAsString(), toFieldPath(predicate));
 			final BoolQueryBuilder bool = QueryBuilders.boolQuery().minimumShouldMatch(1);
 			Iterables.partition(terms, maxTermsCount).forEach(partition -> {
@@ -322,6 +355,28 @@ public final class EsQueryBuilder {
 		}
 	}
 	
+	private boolean isAboveTermsLookupThreshold(int numberOfTerms) {
+		final int threshold = getTermsLookupThreshold();
+		return threshold > 0 && numberOfTerms > threshold;
+	}
+	
+	private int getTermsLookupThreshold() {
+		if (termsLookupThreshold < 0) {
+			final Object threshold = settings.get(IndexClientFactory.TERMS_LOOKUP_THRESHOLD_KEY);
+			final int thresholdValue = threshold == null ? 0 : threshold instanceof Number ? ((Number) threshold).intValue() : Integer.parseInt(threshold.toString());
+			// above max_terms_count the values would be split into multiple terms queries sent with every request, staging them once costs less
+			termsLookupThreshold = thresholdValue > 0 ? Math.min(thresholdValue, getMaxTermsCount()) : 0;
+		}
+		return termsLookupThreshold;
+	}
+	
+	private int getMaxTermsCount() {
+		if (maxTermsCount < 0) {
+			maxTermsCount = Integer.parseInt((String) settings.get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
+		}
+		return maxTermsCount;
+	}
+	
 	private void visit(PrefixPredicate predicate) {
 		deque.push(QueryBuilders.prefixQuery(toFieldPath(predicate), predicate.getArgument()));
 	}
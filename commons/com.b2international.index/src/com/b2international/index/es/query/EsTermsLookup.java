@@ -0,0 +1,267 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es.query;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.indices.TermsLookup;
+import org.slf4j.Logger;
+
+import com.b2international.index.IndexException;
+import com.b2international.index.es.client.EsClient;
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Stages large sets of filter values as documents of a dedicated lookup index, so that queries can refer to them with a terms lookup instead of
+ * sending every value in each request body. Values are sorted before staging, so equal sets are recognized regardless of their iteration order;
+ * documents of a set are reused while the set is queried repeatedly (eg. when paging through results with searchAfter), and are deleted after
+ * they were not used for a while (checked every minute) or at the latest an hour after they were staged. Each staging writes documents with new IDs, so deleting the expired documents of a set never affects a query
+ * using the documents of the same set staged again. The lookup index may be shared with other clients, it is created if missing but never
+ * deleted here. Documents left behind by clients which stopped before their documents expired are deleted by the next client starting to use the
+ * index, based on the time they were staged. Terms lookups fetch the documents with a realtime GET, the lookup index is only refreshed before
+ * deleting these documents.
+ *
+ * @since 7.21
+ */
+public final class EsTermsLookup {
+
+	private static final String VALUES_FIELD = "values";
+	private static final String TIMESTAMP_FIELD = "timestamp";
+	private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10L;
+	private static final long EXPIRE_AFTER_WRITE_MINUTES = 60L;
+	private static final int PURGE_BATCH_SIZE = 1_000;
+
+	private static final Set<EsTermsLookup> LOOKUPS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private static final ScheduledExecutorService CLEANUP_EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+			.setNameFormat("terms-lookup-cleanup-%d")
+			.setDaemon(true)
+			.build());
+
+	static {
+		CLEANUP_EXECUTOR.scheduleWithFixedDelay(EsTermsLookup::cleanUpAll, 1L, 1L, TimeUnit.MINUTES);
+	}
+
+	private final EsClient client;
+	private final String index;
+	private final Logger log;
+	private final Cache<String, List<String>> stagedDocumentIds;
+
+	private volatile boolean indexReady;
+
+	public EsTermsLookup(EsClient client, String index, Logger log) {
+		this(client, index, log, Ticker.systemTicker());
+	}
+
+	EsTermsLookup(EsClient client, String index, Logger log, Ticker ticker) {
+		this.client = client;
+		this.index = index;
+		this.log = log;
+		this.stagedDocumentIds = CacheBuilder.newBuilder()
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				// documents older than this can be deleted by any client of the lookup index
+				.expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+				.ticker(ticker)
+				.removalListener(this::onRemove)
+				.build();
+		LOOKUPS.add(this);
+	}
+
+	private static void cleanUpAll() {
+		final List<EsTermsLookup> lookups;
+		synchronized (LOOKUPS) {
+			lookups = ImmutableList.copyOf(LOOKUPS);
+		}
+		for (EsTermsLookup lookup : lookups) {
+			try {
+				lookup.cleanUp();
+			} catch (RuntimeException e) {
+				// keep the scheduled task running
+				lookup.log.warn("Couldn't delete expired terms lookup documents.", e);
+			}
+		}
+	}
+
+	/**
+	 * Forgets all staged values, to be called after the lookup index was deleted. The index is created again when values are staged next time.
+	 */
+	public void reset() {
+		indexReady = false;
+		// documents were deleted along with the index
+		stagedDocumentIds.invalidateAll();
+	}
+
+	/**
+	 * Deletes the documents of the sets which were not used for a while. Called periodically, expired documents are also deleted while staging
+	 * values.
+	 */
+	void cleanUp() {
+		stagedDocumentIds.cleanUp();
+	}
+
+	/**
+	 * Stages the given values, split into documents of at most the given number of values each.
+	 *
+	 * @param values - the values to stage
+	 * @param maxTermsCount - the maximum number of values a single terms lookup may return
+	 * @return the lookups referring to the documents holding the values
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	List<TermsLookup> stage(Collection<?> values, int maxTermsCount) {
+		// values of a set predicate are of the same comparable type
+		final List<Object> sortedValues = (List) Ordering.natural().sortedCopy((Collection) values);
+
+		final Hasher hasher = Hashing.sha256().newHasher();
+		for (Object value : sortedValues) {
+			hasher.putString(value.toString(), Charsets.UTF_8).putByte((byte) 0);
+		}
+		final String key = hasher.putInt(maxTermsCount).hash().toString();
+
+		final List<String> documentIds;
+		try {
+			documentIds = stagedDocumentIds.get(key, () -> index(key, sortedValues, maxTermsCount));
+		} catch (ExecutionException e) {
+			throw new IndexException("Couldn't stage terms lookup values.", e.getCause());
+		}
+
+		final ImmutableList.Builder<TermsLookup> lookups = ImmutableList.builder();
+		for (String documentId : documentIds) {
+			lookups.add(new TermsLookup(index, documentId, VALUES_FIELD));
+		}
+		return lookups.build();
+	}
+
+	private List<String> index(String key, List<Object> sortedValues, int maxTermsCount) throws IOException {
+		ensureIndex();
+
+		final ImmutableList.Builder<String> documentIds = ImmutableList.builder();
+		final List<List<Object>> partitions = Lists.partition(sortedValues, maxTermsCount);
+		// expired documents of the same set may still be deleted while these ones are in use
+		final String stagingId = UUID.randomUUID().toString();
+		final long timestamp = System.currentTimeMillis();
+		for (int i = 0; i < partitions.size(); i++) {
+			final String documentId = String.format("%s-%s-%d", key, stagingId, i);
+			client.index(new IndexRequest(index)
+					.id(documentId)
+					.source(ImmutableMap.of(VALUES_FIELD, partitions.get(i), TIMESTAMP_FIELD, timestamp)));
+			documentIds.add(documentId);
+		}
+
+		log.info("Staged {} values for terms lookup in {} document(s).", sortedValues.size(), partitions.size());
+		return documentIds.build();
+	}
+
+	private void ensureIndex() throws IOException {
+		if (indexReady) {
+			return;
+		}
+
+		synchronized (this) {
+			if (indexReady) {
+				return;
+			}
+
+			if (client.indices().exists(index)) {
+				purgeExpiredDocuments();
+				indexReady = true;
+				return;
+			}
+
+			final Map<String, Object> settings = ImmutableMap.of(
+					"number_of_shards", "1",
+					// keep a copy on every node, so lookups are served locally
+					"auto_expand_replicas", "0-all",
+					"refresh_interval", "-1");
+
+			// values are only read from the source of the documents, only the staging time is indexed to find expired documents
+			final CreateIndexRequest createIndexRequest = new CreateIndexRequest(index)
+					.settings(settings)
+					.mapping(ImmutableMap.of(
+							"dynamic", false,
+							"properties", ImmutableMap.of(TIMESTAMP_FIELD, ImmutableMap.of("type", "long"))));
+			try {
+				client.indices().create(createIndexRequest);
+			} catch (IOException | RuntimeException e) {
+				// another client may have created the index in the meantime
+				if (!client.indices().exists(index)) {
+					throw e;
+				}
+			}
+			indexReady = true;
+		}
+	}
+
+	/*
+	 * Deletes the documents staged before the longest time any client may use them, eg. by a client which was stopped before it could delete
+	 * its own expired documents.
+	 */
+	private void purgeExpiredDocuments() {
+		final long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(EXPIRE_AFTER_WRITE_MINUTES);
+		try {
+			// the index is not refreshed automatically, make all documents visible to the query
+			client.indices().refresh(new RefreshRequest(index));
+			final BulkByScrollResponse response = client.deleteByQuery(index, PURGE_BATCH_SIZE, 1, QueryBuilders.rangeQuery(TIMESTAMP_FIELD).lt(threshold));
+			if (response.getDeleted() > 0L) {
+				log.info("Deleted {} expired terms lookup document(s).", response.getDeleted());
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Couldn't delete expired terms lookup documents.", e);
+		}
+	}
+
+	private void onRemove(RemovalNotification<String, List<String>> notification) {
+		if (!notification.wasEvicted()) {
+			// invalidated by reset(), documents were deleted along with the index
+			return;
+		}
+
+		for (String documentId : notification.getValue()) {
+			try {
+				client.delete(new DeleteRequest(index, documentId));
+			} catch (Exception e) {
+				log.warn("Couldn't delete terms lookup document '{}'.", documentId, e);
+			}
+		}
+	}
+
+}
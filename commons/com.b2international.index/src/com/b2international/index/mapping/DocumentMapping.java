@@ -232,6 +232,10 @@ public final class DocumentMapping {
 		return nestedType;
 	}
 	
+	public boolean hasField(String field) {
+		return fieldMap.containsKey(field);
+	}
+	
 	public Field getField(String field) {
 		checkArgument(fieldMap.containsKey(field), "Missing field '%s' on mapping of '%s'", field, type);
 		return fieldMap.get(field);
@@ -15,6 +15,8 @@
  */
 package com.b2international.index.query;
 
+import java.util.Objects;
+
 /**
  * @since 4.7
  */
@@ -36,6 +38,21 @@ public final class BoostPredicate implements Expression {
 		return boost;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(expression, boost);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final BoostPredicate other = (BoostPredicate) obj;
+		return Objects.equals(expression, other.expression)
+				&& Float.compare(boost, other.boost) == 0;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("BOOST(%s)", expression);
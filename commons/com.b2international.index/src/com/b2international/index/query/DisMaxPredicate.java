@@ -18,6 +18,7 @@ package com.b2international.index.query;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * @since 5.0
@@ -41,6 +42,21 @@ public final class DisMaxPredicate implements Expression {
 		return disjuncts;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(disjuncts, tieBreaker);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final DisMaxPredicate other = (DisMaxPredicate) obj;
+		return Objects.equals(disjuncts, other.disjuncts)
+				&& Float.compare(tieBreaker, other.tieBreaker) == 0;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("DISMAX(%s)", disjuncts());
@@ -15,6 +15,8 @@
  */
 package com.b2international.index.query;
 
+import java.util.Objects;
+
 /**
  * @since 4.7
  */
@@ -36,6 +38,21 @@ public class HasParentPredicate implements Expression {
 		return parentType;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(parentType, expression);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final HasParentPredicate other = (HasParentPredicate) obj;
+		return Objects.equals(parentType, other.parentType)
+				&& Objects.equals(expression, other.expression);
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("HAS PARENT(%s)", expression);
@@ -15,6 +15,8 @@
  */
 package com.b2international.index.query;
 
+import java.util.Objects;
+
 /**
  * @since 4.7
  */
@@ -31,6 +33,20 @@ public final class NestedPredicate extends Predicate {
 		return expression;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getField(), expression);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (super.equals(obj)) {
+			final NestedPredicate other = (NestedPredicate) obj;
+			return Objects.equals(expression, other.expression);
+		}
+		return false;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("NESTED(%s, %s)", getField(), getExpression());
@@ -16,6 +16,7 @@
 package com.b2international.index.query;
 
 import java.util.List;
+import java.util.Objects;
 
 import com.b2international.index.Searcher;
 import com.b2international.index.mapping.DocumentMapping;
@@ -201,6 +202,29 @@ public final class Query<T> {
 		this.searchAfter = searchAfter;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(select, from, parentType, fields, where, sortBy, limit, searchAfter, scrollKeepAlive, withScores);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final Query<?> other = (Query<?>) obj;
+		return Objects.equals(select, other.select)
+				&& Objects.equals(from, other.from)
+				&& Objects.equals(parentType, other.parentType)
+				&& Objects.equals(fields, other.fields)
+				&& Objects.equals(where, other.where)
+				&& Objects.equals(sortBy, other.sortBy)
+				&& limit == other.limit
+				&& Objects.equals(searchAfter, other.searchAfter)
+				&& Objects.equals(scrollKeepAlive, other.scrollKeepAlive)
+				&& withScores == other.withScores;
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -16,6 +16,7 @@
 package com.b2international.index.query;
 
 import java.util.Map;
+import java.util.Objects;
 
 import com.b2international.index.ScriptExpression;
 
@@ -42,6 +43,21 @@ public final class ScriptQueryExpression implements Expression, ScriptExpression
 		return params;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(script, params);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final ScriptQueryExpression other = (ScriptQueryExpression) obj;
+		return Objects.equals(script, other.script)
+				&& Objects.equals(params, other.params);
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("SCRIPT(%s)", script);
@@ -17,6 +17,7 @@ package com.b2international.index.query;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 
 import com.b2international.index.ScriptExpression;
 
@@ -49,6 +50,22 @@ public class ScriptScoreExpression implements Expression, ScriptExpression {
 		return params;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(expression, script, params);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final ScriptScoreExpression other = (ScriptScoreExpression) obj;
+		return Objects.equals(expression, other.expression)
+				&& Objects.equals(script, other.script)
+				&& Objects.equals(params, other.params);
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("SCRIPT SCORE(%s)", expression);
@@ -15,6 +15,8 @@
  */
 package com.b2international.index.query;
 
+import java.util.Objects;
+
 import com.b2international.commons.CompareUtils;
 import com.b2international.index.Analyzers;
 
@@ -65,6 +67,23 @@ public final class TextPredicate extends Predicate {
 		return this;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getField(), term, type, minShouldMatch, analyzer);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (super.equals(obj)) {
+			final TextPredicate other = (TextPredicate) obj;
+			return Objects.equals(term, other.term)
+					&& type == other.type
+					&& minShouldMatch == other.minShouldMatch
+					&& Objects.equals(analyzer, other.analyzer);
+		}
+		return false;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("TEXT(%s %s '%s'[])", getField(), type(), term(), CompareUtils.isEmpty(analyzer));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.Set;
 
 import com.b2international.index.Hits;
 import com.b2international.index.Index;
+import com.b2international.index.IndexClientFactory;
 import com.b2international.index.Searcher;
 import com.b2international.index.Writer;
 import com.b2international.index.mapping.DocumentMapping;
@@ -57,11 +58,13 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	private final RevisionIndexAdmin admin;
 	private final ObjectMapper mapper;
 	private final List<Hooks.Hook> hooks = newArrayList();
+	private final RevisionSearchCache searchCache;
 
 	public DefaultRevisionIndex(Index index, TimestampProvider timestampProvider, ObjectMapper mapper) {
 		this.index = index;
 		this.mapper = mapper;
-		this.admin = new RevisionIndexAdmin(this, index.admin());
+		this.searchCache = new RevisionSearchCache(((Number) index.admin().settings().get(IndexClientFactory.RESULT_CACHE_MAX_WEIGHT_KEY)).longValue(), mapper);
+		this.admin = new RevisionIndexAdmin(this, index.admin(), searchCache);
 		this.branching = new DefaultRevisionBranching(this, timestampProvider);
 	}
 	
@@ -89,8 +92,10 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			long timestamp = Long.parseLong(branchAndTimestamp[1]);
 			checkArgument(timestamp >= 0, "Timestamp argument of <branch>@<timestamp> expression must be greater than or equal to zero.");
 			// create an alternative ref that only contains segments up until the specified timestamp
-			final RevisionBranchRef ref = getBranchRef(branch).restrictTo(timestamp);
-			return read(ref, read);
+			final RevisionBranch revisionBranch = getBranch(branch);
+			final RevisionBranchRef ref = revisionBranch.ref().restrictTo(timestamp);
+			// content visible at or before the current head can no longer change
+			return read(timestamp <= revisionBranch.getHeadTimestamp() ? ref.immutable() : ref, read);
 		} else if (RevisionIndex.isBaseRefPath(branchPath)) {
 			final String branchPathWithoutBaseRef = branchPath.substring(0, branchPath.length() - 1);
 			if (RevisionBranch.MAIN_PATH.equals(branchPathWithoutBaseRef)) {
@@ -105,13 +110,15 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			final RevisionBranchRef compare = getBranchRef(comparePath);
 			return read(compare.difference(base), read);
 		} else {
-			return read(getBranchRef(branchPath), read);
+			final RevisionBranch branch = getBranch(branchPath);
+			// branches without commits of their own (eg. version branches) only see the content of their parent at their base timestamp
+			return read(branch.isEmpty() ? branch.ref().immutable() : branch.ref(), read);
 		}
 	}
 	
 	@Override
 	public <T> T read(final RevisionBranchRef branch, final RevisionIndexRead<T> read) {
-		return index.read(index -> read.execute(new DefaultRevisionSearcher(branch, index)));
+		return index.read(index -> read.execute(new DefaultRevisionSearcher(branch, index, searchCache)));
 	}
 	
 	/**
@@ -158,21 +165,36 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	
 	@Override
 	public RevisionCompare compare(final RevisionBranchRef base, final RevisionBranchRef compare, final int limit, boolean excludeComponentChanges) {
+		return doCompare(base, compare, limit, excludeComponentChanges).build();
+	}
+	
+	@Override
+	public RevisionCompareDetails compareDetails(final RevisionBranchRef base, final RevisionBranchRef compare) {
+		return doCompare(base, compare, Integer.MAX_VALUE, false).details();
+	}
+	
+	private Builder doCompare(final RevisionBranchRef base, final RevisionBranchRef compare, final int limit, boolean excludeComponentChanges) {
+		final int spillThreshold = (int) admin.settings().get(IndexClientFactory.COMPARE_SPILL_THRESHOLD_KEY);
 		return index.read(searcher -> {
 			
 			final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
 			final RevisionBranchRef compareRef = compare.difference(base);
 
-			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
+			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges, spillThreshold);
 			
 			if (base.branchId() != compare.branchId()) {
 				Stopwatch w = Stopwatch.createStarted();
 				admin.log().trace("Comparing changes between {} -> {}.", base, compare);
-				doRevisionCompare(searcher, compareRef, result);
+				try {
+					doRevisionCompare(searcher, compareRef, result);
+				} catch (RuntimeException | IOException e) {
+					result.details().close();
+					throw e;
+				}
 				admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
 			}
 
-			return result.build();
+			return result;
 		});
 	}
 	
@@ -241,6 +263,8 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			}
 			return null;
 		});
+		// purge removes revisions from already committed segments
+		searchCache.invalidateAll();
 	}
 	
 	private void purge(Writer writer, final RevisionBranchRef refToPurge, Set<Class<? extends Revision>> typesToPurge) throws IOException {
@@ -41,11 +41,17 @@ public class DefaultRevisionSearcher implements RevisionSearcher {
 	private final RevisionBranchRef branch;
 	private final Searcher searcher;
 	private final int maxTermsCount;
+	private final RevisionSearchCache cache;
 
 	public DefaultRevisionSearcher(RevisionBranchRef branch, Searcher searcher) {
+		this(branch, searcher, new RevisionSearchCache());
+	}
+	
+	DefaultRevisionSearcher(RevisionBranchRef branch, Searcher searcher, RevisionSearchCache cache) {
 		this.branch = branch;
 		this.searcher = searcher;
 		this.maxTermsCount = ((EsDocumentSearcher) searcher).maxTermsCount();
+		this.cache = cache;
 	}
 	
 	@Override
@@ -86,9 +92,10 @@ public class DefaultRevisionSearcher implements RevisionSearcher {
 	@Override
 	public <T> Hits<T> search(Query<T> query) throws IOException {
 		if (Revision.class.isAssignableFrom(query.getFrom())) {
+			final Query<T> revisionQuery;
 			if (query.getParentType() == null) {
 				// rewrite query if we are looking for revision, otherwise if we are looking for unversioned nested use it as is
-				query = Query.select(query.getSelect())
+				revisionQuery = Query.select(query.getSelect())
 						.from(query.getFrom())
 						.fields(query.getFields())
 						.where(
@@ -106,7 +113,7 @@ public class DefaultRevisionSearcher implements RevisionSearcher {
 			} else {
 				checkArgument(Revision.class.isAssignableFrom(query.getParentType()), "Searching non-revision documents require a revision parent type: %s", query);
 				// run a query on the parent documents with nested match on the children
-				query = Query.select(query.getSelect())
+				revisionQuery = Query.select(query.getSelect())
 						.parent(query.getParentType())
 						.fields(query.getFields())
 						.where(Expressions.builder()
@@ -120,6 +127,8 @@ public class DefaultRevisionSearcher implements RevisionSearcher {
 						.withScores(query.isWithScores())
 						.build();
 			}
+			// the revision filter is derived from the segments of the ref, use the original query in the cache key
+			return cache.get(branch, query, () -> searcher.search(revisionQuery));
 		}
 		return searcher.search(query);
 	}
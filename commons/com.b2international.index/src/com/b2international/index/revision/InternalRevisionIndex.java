@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,4 +33,14 @@ interface InternalRevisionIndex extends RevisionIndex {
 
 	RevisionCompare compare(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges);
 	
+	/**
+	 * Compares the given refs and returns all compare details sorted by their object (and property) keys. Details that do not fit into the
+	 * configured spill threshold are kept in a temporary file instead of the heap, so the returned details must be closed after use.
+	 * 
+	 * @param base
+	 * @param compare
+	 * @return
+	 */
+	RevisionCompareDetails compareDetails(RevisionBranchRef base, RevisionBranchRef compare);
+	
 }
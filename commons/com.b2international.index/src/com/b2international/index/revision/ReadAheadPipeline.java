@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.b2international.index.IndexException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Applies a list of items in their original order on the calling thread, while the input of the following items is
+ * already being fetched. At most one more item than the read-ahead has its input in memory at any point in time.
+ *
+ * @since 7.21
+ */
+final class ReadAheadPipeline {
+
+	/**
+	 * Shared executor for fetching merge inputs; the number of concurrent tasks is bounded by the read-ahead of each pipeline.
+	 */
+	static final ListeningExecutorService FETCH_EXECUTOR = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("revision-merge-fetch-%d")
+			.setDaemon(true)
+			.build()));
+
+	private ReadAheadPipeline() {}
+
+	/**
+	 * Applies the items with a read-ahead of a single item.
+	 * 
+	 * @see #apply(List, int, Function, BiConsumer)
+	 */
+	static <T, R> void apply(List<T> items, Function<T, ListenableFuture<R>> fetch, BiConsumer<T, R> apply) {
+		apply(items, 1, fetch, apply);
+	}
+
+	/**
+	 * Fetches the input of the first item, then for each item starts fetching the input of the following items (up to
+	 * the given read-ahead) before applying the current one. If a fetch or apply step fails, the pending fetches are
+	 * cancelled and the failure is rethrown (unchecked causes as is, checked ones wrapped in an {@link IndexException}).
+	 *
+	 * @param items - the items to process in order
+	 * @param readAhead - the number of items to fetch ahead of the item being applied, <code>0</code> fetches each
+	 *            item right before applying it
+	 * @param fetch - starts fetching the input of an item, eg. on {@link #FETCH_EXECUTOR}
+	 * @param apply - applies an item with its fetched input
+	 */
+	static <T, R> void apply(List<T> items, int readAhead, Function<T, ListenableFuture<R>> fetch, BiConsumer<T, R> apply) {
+		final Deque<ListenableFuture<R>> pending = new ArrayDeque<>(readAhead + 1);
+		int fetched = 0;
+		try {
+			for (int i = 0; i < items.size(); i++) {
+				while (fetched < items.size() && fetched <= i + readAhead) {
+					pending.addLast(fetch.apply(items.get(fetched++)));
+				}
+				apply.accept(items.get(i), getResult(pending.removeFirst()));
+			}
+		} finally {
+			pending.forEach(future -> future.cancel(true));
+		}
+	}
+
+	private static <R> R getResult(ListenableFuture<R> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IndexException("Interrupted while reading revisions to merge", e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new IndexException("Couldn't read revisions to merge", e.getCause());
+		}
+	}
+
+}
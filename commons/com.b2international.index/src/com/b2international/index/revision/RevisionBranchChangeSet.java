@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,6 @@ package com.b2international.index.revision;
 import static com.google.common.collect.Maps.newHashMap;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,7 +38,7 @@ public final class RevisionBranchChangeSet {
 	private final SetMultimap<Class<? extends Revision>, String> removedRevisionIdsByType = HashMultimap.create();
 	private final Map<ObjectId, ObjectId> containersRequiredForNewAndChangedRevisions = newHashMap();
 	
-	RevisionBranchChangeSet(DefaultRevisionIndex index, RevisionBranchRef ref, List<RevisionCompareDetail> compareDetails) {
+	RevisionBranchChangeSet(DefaultRevisionIndex index, RevisionBranchRef ref, Iterable<RevisionCompareDetail> compareDetails) {
 		this.index = index;
 		this.ref = ref;
 		compareDetails.forEach(detail -> {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,14 +19,21 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Sets.newTreeSet;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 
 /**
@@ -36,14 +43,31 @@ import com.google.common.collect.Sets;
  */
 final class RevisionBranchRef {
 	
+	/**
+	 * Revision filters are attached to every query, refs with the same compacted branch point ranges share the same pre-built filter expression.
+	 * Ranges are compared by both of their endpoints, unlike segments in a sorted set, which are only compared by their branch and start.
+	 */
+	private static final LoadingCache<List<Range<RevisionBranchPoint>>, Expression> REVISION_FILTERS = CacheBuilder.newBuilder()
+			.maximumSize(1_000)
+			.expireAfterAccess(5L, TimeUnit.MINUTES)
+			.build(CacheLoader.from(RevisionBranchRef::buildRevisionFilter));
+	
 	private final long branchId;
 	private final String branchPath;
 	private final SortedSet<RevisionSegment> segments;
+	private final boolean immutable;
+	
+	private Expression revisionFilter;
 
 	public RevisionBranchRef(long branchId, String branchPath, SortedSet<RevisionSegment> segments) {
+		this(branchId, branchPath, segments, false);
+	}
+	
+	private RevisionBranchRef(long branchId, String branchPath, SortedSet<RevisionSegment> segments, boolean immutable) {
 		this.branchId = branchId;
 		this.branchPath = branchPath;
 		this.segments = segments;
+		this.immutable = immutable;
 	}
 	
 	public long branchId() {
@@ -58,6 +82,24 @@ final class RevisionBranchRef {
 		return segments;
 	}
 	
+	/**
+	 * @return <code>true</code> if the revisions visible from this ref can no longer change, because all segments end at or before the head of
+	 *         their branches, <code>false</code> otherwise
+	 */
+	public boolean isImmutable() {
+		return immutable;
+	}
+	
+	/**
+	 * Marks this ref as immutable. Callers must make sure that none of the segments extend beyond the current head of their branch.
+	 * 
+	 * @return a new {@link RevisionBranchRef} with the same segments flagged as immutable
+	 * @see #isImmutable()
+	 */
+	public RevisionBranchRef immutable() {
+		return immutable ? this : new RevisionBranchRef(branchId, branchPath, segments, true);
+	}
+	
 	@Override
 	public int hashCode() {
 		return Objects.hash(branchId, segments);
@@ -78,6 +120,7 @@ final class RevisionBranchRef {
 		return MoreObjects.toStringHelper(this)
 				.add("branchId", branchId)
 				.add("segments", segments)
+				.add("immutable", immutable)
 				.toString();
 	}
 
@@ -85,13 +128,19 @@ final class RevisionBranchRef {
 		if (isEmpty()) {
 			return Expressions.matchNone();
 		}
-		
+		if (revisionFilter == null) {
+			revisionFilter = REVISION_FILTERS.getUnchecked(ImmutableList.copyOf(compact(segments)));
+		}
+		return revisionFilter;
+	}
+	
+	private static Expression buildRevisionFilter(List<Range<RevisionBranchPoint>> ranges) {
 		final ExpressionBuilder query = Expressions.builder();
 		final ExpressionBuilder created = Expressions.builder();
 		
-		for (RevisionSegment segment : segments) {
-			created.should(segment.toRangeExpression(Revision.Fields.CREATED));
-			query.mustNot(segment.toRangeExpression(Revision.Fields.REVISED));
+		for (Range<RevisionBranchPoint> range : ranges) {
+			created.should(toRangeExpression(range, Revision.Fields.CREATED));
+			query.mustNot(toRangeExpression(range, Revision.Fields.REVISED));
 		}
 		
 		return query
@@ -105,8 +154,8 @@ final class RevisionBranchRef {
 		}
 		
 		final ExpressionBuilder createdIn = Expressions.builder();
-		for (RevisionSegment segment : segments) {
-			createdIn.should(segment.toRangeExpression(Revision.Fields.CREATED));
+		for (Range<RevisionBranchPoint> range : compact(segments)) {
+			createdIn.should(toRangeExpression(range, Revision.Fields.CREATED));
 		}
 		
 		return createdIn.build(); 
@@ -118,12 +167,54 @@ final class RevisionBranchRef {
 		}
 		
 		final ExpressionBuilder revisedIn = Expressions.builder();
-		for (RevisionSegment segment : segments) {
-			revisedIn.should(segment.toRangeExpression(Revision.Fields.REVISED));
+		for (Range<RevisionBranchPoint> range : compact(segments)) {
+			revisedIn.should(toRangeExpression(range, Revision.Fields.REVISED));
 		}
 		
 		return revisedIn.build();
 	}
+	
+	private static Expression toRangeExpression(Range<RevisionBranchPoint> range, String field) {
+		return Expressions.matchRange(field, range.lowerEndpoint().toIpAddress(), range.upperEndpoint().toIpAddress(), true, true);
+	}
+	
+	/**
+	 * Merges overlapping and adjacent segments into the smallest number of closed branch point ranges. Revision timestamps are never negative, so
+	 * a segment that ends at {@link Long#MAX_VALUE} is also adjacent to a segment that starts at <code>0</code> on the next branch.
+	 * 
+	 * @param segments - the segments to compact
+	 * @return the compacted ranges in ascending order
+	 */
+	static List<Range<RevisionBranchPoint>> compact(SortedSet<RevisionSegment> segments) {
+		final List<Range<RevisionBranchPoint>> ranges = Lists.newArrayListWithExpectedSize(segments.size());
+		RevisionBranchPoint start = null;
+		RevisionBranchPoint end = null;
+		for (RevisionSegment segment : segments) {
+			if (end != null && isContinuedBy(end, segment)) {
+				if (segment.getEndPoint().compareTo(end) > 0) {
+					end = segment.getEndPoint();
+				}
+			} else {
+				if (start != null) {
+					ranges.add(Range.closed(start, end));
+				}
+				start = segment.getStartPoint();
+				end = segment.getEndPoint();
+			}
+		}
+		if (start != null) {
+			ranges.add(Range.closed(start, end));
+		}
+		return ranges;
+	}
+
+	private static boolean isContinuedBy(RevisionBranchPoint end, RevisionSegment segment) {
+		if (end.getBranchId() == segment.branchId()) {
+			return end.getTimestamp() == Long.MAX_VALUE || segment.start() <= end.getTimestamp() + 1L;
+		} else {
+			return end.getTimestamp() == Long.MAX_VALUE && segment.branchId() == end.getBranchId() + 1L && segment.start() == 0L;
+		}
+	}
 
 	public RevisionBranchRef difference(RevisionBranchRef other) {
 		final TreeSet<RevisionSegment> differenceSegments = newTreeSet();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,22 +15,23 @@
  */
 package com.b2international.index.revision;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.TreeMap;
+import java.util.NavigableMap;
 import java.util.stream.Collectors;
 
 import com.b2international.commons.collections.Collections3;
+import com.google.common.collect.Streams;
 
 /**
  * @since 5.0
  */
 public final class RevisionCompare {
 
-	static Builder builder(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges) {
-		return new Builder(base, compare, limit, excludeComponentChanges);
+	static Builder builder(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges, int spillThreshold) {
+		return new Builder(base, compare, limit, excludeComponentChanges, spillThreshold);
 	}
 	
 	static class Builder {
@@ -41,18 +42,20 @@ public final class RevisionCompare {
 		private final int limit;
 		private boolean excludeComponentChanges;
 	
-		private final TreeMap<String, RevisionCompareDetail> detailsByComponent = new TreeMap<>();
+		private final RevisionCompareDetails collectedDetails;
 		
-		Builder(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges) {
+		Builder(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges, int spillThreshold) {
 			this.base = base;
 			this.compare = compare;
 			this.limit = limit;
 			this.excludeComponentChanges = excludeComponentChanges;
+			this.collectedDetails = new RevisionCompareDetails(spillThreshold);
 		}
 		
 		public Builder apply(Commit commit) {
 			for (CommitDetail detail : commit.getDetails()) {
-								
+				final NavigableMap<String, RevisionCompareDetail> detailsByComponent = collectedDetails.detailsByKey();
+				
 				List<String> objects = detail.getObjects();
 				for (int i = 0; i < objects.size(); i++) {
 					String object = objects.get(i);
@@ -86,29 +89,41 @@ public final class RevisionCompare {
 						// if a REMOVED detail comes for a component, delete all previously registered property changes, ADD will be handled by the merge operation
 						if (compareDetail.isComponentChange() && compareDetail.isRemove()) {
 							final String propChangeKey = compareDetail.key() + RevisionCompareDetail.PROPERTY_CHANGE_KEY_SEPARATOR;
-							Iterator<Entry<String, RevisionCompareDetail>> followingCompareDetails = detailsByComponent.tailMap(propChangeKey, true).entrySet().iterator();
-							while (followingCompareDetails.hasNext()) {
-								Entry<String, RevisionCompareDetail> followingCompareDetail = followingCompareDetails.next();
+							final List<String> propChangeKeysToRemove = new ArrayList<>();
+							for (Entry<String, RevisionCompareDetail> followingCompareDetail : detailsByComponent.tailMap(propChangeKey, true).entrySet()) {
 								if (followingCompareDetail.getValue().isPropertyChange() && followingCompareDetail.getKey().startsWith(propChangeKey)) {
-									followingCompareDetails.remove();
+									propChangeKeysToRemove.add(followingCompareDetail.getKey());
 								} else {
 									break;
 								}
 							}
+							propChangeKeysToRemove.forEach(detailsByComponent::remove);
 						}
 						detailsByComponent.merge(compareDetail.key(), compareDetail, (oldV, newV) -> oldV.merge(newV));
 					});
 				}
+				
+				// large commits might have more details than the threshold, check it after each commit detail
+				collectedDetails.spillIfNecessary();
 			}
 			return this;
 		}
 		
+		/**
+		 * Returns all collected compare details without applying the limit. The caller is responsible for closing the returned details.
+		 * 
+		 * @return the sorted compare details
+		 */
+		RevisionCompareDetails details() {
+			return collectedDetails;
+		}
+		
 		public RevisionCompare build() {
 			// count changes only once at the end
 			int added = 0;
 			int changed = 0;
 			int removed = 0;
-			for (RevisionCompareDetail compareDetail : detailsByComponent.values()) {
+			for (RevisionCompareDetail compareDetail : collectedDetails) {
 				switch (compareDetail.getOp()) {
 				case ADD:
 					added++;
@@ -125,12 +140,13 @@ public final class RevisionCompare {
 				}
 			}
 			
-			final List<RevisionCompareDetail> details = detailsByComponent.values().stream().limit(limit).collect(Collectors.toUnmodifiableList());
+			final List<RevisionCompareDetail> limitedDetails = Streams.stream(collectedDetails).limit(limit).collect(Collectors.toUnmodifiableList());
+			collectedDetails.close();
 			
 			return new RevisionCompare(
 				base, 
 				compare,
-				details,
+				limitedDetails,
 				added,
 				changed,
 				removed
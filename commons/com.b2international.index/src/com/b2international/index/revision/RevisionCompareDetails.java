@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.GroupSerializerObjectArray;
+
+import com.b2international.index.IndexException;
+
+/**
+ * Sorted, iterable view of the compare details collected by a revision compare. Details are keyed by {@link RevisionCompareDetail#key()}, so all
+ * component and property changes of a single object are returned next to each other. The details are kept on the heap until their number exceeds
+ * the configured spill threshold, after that they are moved to a temporary, file backed MapDB store, which is deleted when this instance is
+ * {@link #close() closed}.
+ *
+ * @since 7.21
+ */
+public final class RevisionCompareDetails implements Iterable<RevisionCompareDetail>, AutoCloseable {
+
+	private static final String DETAILS_MAP = "details";
+
+	private final int spillThreshold;
+
+	private NavigableMap<String, RevisionCompareDetail> detailsByKey = new TreeMap<>();
+	private Path spillDirectory;
+	private DB spillDb;
+
+	RevisionCompareDetails(int spillThreshold) {
+		this.spillThreshold = spillThreshold;
+	}
+
+	NavigableMap<String, RevisionCompareDetail> detailsByKey() {
+		return detailsByKey;
+	}
+
+	/**
+	 * Moves the collected details to a temporary file if their number exceeds the spill threshold. Should be called after applying a batch of
+	 * changes, since the on-heap map is replaced with the file backed one.
+	 */
+	void spillIfNecessary() {
+		if (spillDb != null || detailsByKey.size() <= spillThreshold) {
+			return;
+		}
+		try {
+			spillDirectory = Files.createTempDirectory("revision-compare");
+			spillDb = DBMaker
+					.fileDB(spillDirectory.resolve("compare.db").toFile())
+					.fileDeleteAfterClose()
+					.fileMmapEnableIfSupported()
+					.make();
+			final NavigableMap<String, RevisionCompareDetail> spilledDetailsByKey = spillDb
+					.treeMap(DETAILS_MAP, Serializer.STRING, RevisionCompareDetailSerializer.INSTANCE)
+					.create();
+			spilledDetailsByKey.putAll(detailsByKey);
+			detailsByKey = spilledDetailsByKey;
+		} catch (IOException e) {
+			throw new IndexException("Couldn't create temporary store for revision compare details", e);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the collected details have been moved to a temporary file, <code>false</code> otherwise
+	 */
+	public boolean isSpilled() {
+		return spillDb != null;
+	}
+
+	public boolean isEmpty() {
+		return detailsByKey.isEmpty();
+	}
+
+	@Override
+	public Iterator<RevisionCompareDetail> iterator() {
+		return detailsByKey.values().iterator();
+	}
+
+	@Override
+	public void close() {
+		if (spillDb != null) {
+			spillDb.close();
+			spillDb = null;
+			try {
+				Files.deleteIfExists(spillDirectory);
+			} catch (IOException e) {
+				// the directory is in the temporary folder, failing to delete it is not an error
+			}
+		}
+		detailsByKey = new TreeMap<>();
+	}
+
+	private static final class RevisionCompareDetailSerializer extends GroupSerializerObjectArray<RevisionCompareDetail> {
+
+		private static final RevisionCompareDetailSerializer INSTANCE = new RevisionCompareDetailSerializer();
+
+		private static final Operation[] OPERATIONS = Operation.values();
+
+		@Override
+		public void serialize(DataOutput2 out, RevisionCompareDetail value) throws IOException {
+			out.writeByte(value.getOp().ordinal());
+			writeObjectId(out, value.getObject());
+			if (value.isComponentChange()) {
+				out.writeBoolean(true);
+				writeObjectId(out, value.getComponent());
+			} else {
+				out.writeBoolean(false);
+				Serializer.STRING.serialize(out, value.getProperty());
+				writeNullableString(out, value.getFromValue());
+				writeNullableString(out, value.getValue());
+			}
+		}
+
+		@Override
+		public RevisionCompareDetail deserialize(DataInput2 input, int available) throws IOException {
+			final Operation op = OPERATIONS[input.readByte()];
+			final ObjectId object = readObjectId(input);
+			if (input.readBoolean()) {
+				return RevisionCompareDetail.componentChange(op, object, readObjectId(input));
+			} else {
+				final String property = Serializer.STRING.deserialize(input, -1);
+				final String fromValue = readNullableString(input);
+				final String value = readNullableString(input);
+				return RevisionCompareDetail.propertyChange(op, object, property, fromValue, value);
+			}
+		}
+
+		private static void writeObjectId(DataOutput2 out, ObjectId objectId) throws IOException {
+			Serializer.STRING.serialize(out, objectId.type());
+			Serializer.STRING.serialize(out, objectId.id());
+		}
+
+		private static ObjectId readObjectId(DataInput2 input) throws IOException {
+			final String type = Serializer.STRING.deserialize(input, -1);
+			final String id = Serializer.STRING.deserialize(input, -1);
+			return ObjectId.of(type, id);
+		}
+
+		private static void writeNullableString(DataOutput2 out, String value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				Serializer.STRING.serialize(out, value);
+			}
+		}
+
+		private static String readNullableString(DataInput2 input) throws IOException {
+			return input.readBoolean() ? Serializer.STRING.deserialize(input, -1) : null;
+		}
+
+	}
+
+}
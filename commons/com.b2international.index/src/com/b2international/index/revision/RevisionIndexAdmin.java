@@ -32,10 +32,16 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 
 	private final RevisionIndex index;
 	private final IndexAdmin rawIndexAdmin;
+	private final RevisionSearchCache searchCache;
 
 	public RevisionIndexAdmin(RevisionIndex index, IndexAdmin rawIndexAdmin) {
+		this(index, rawIndexAdmin, new RevisionSearchCache());
+	}
+	
+	RevisionIndexAdmin(RevisionIndex index, IndexAdmin rawIndexAdmin, RevisionSearchCache searchCache) {
 		this.index = index;
 		this.rawIndexAdmin = rawIndexAdmin;
+		this.searchCache = searchCache;
 	}
 	
 	@Override
@@ -64,11 +70,13 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 	@Override
 	public void delete() {
 		rawIndexAdmin.delete();
+		searchCache.invalidateAll();
 	}
 
 	@Override
 	public void clear(Collection<Class<?>> types) {
 		rawIndexAdmin.clear(types);
+		searchCache.invalidateAll();
 	}
 
 	@Override
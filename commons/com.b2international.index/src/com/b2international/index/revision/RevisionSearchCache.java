@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import com.b2international.index.Hits;
+import com.b2international.index.IndexException;
+import com.b2international.index.WithScore;
+import com.b2international.index.query.Query;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Caches the {@link Hits} of revision searches executed against {@link RevisionBranchRef#isImmutable() immutable} branch refs. Entries are keyed
+ * by the segments of the ref and the search {@link Query} itself and are weighted by the number of hits they hold.
+ * <p>
+ * Revisions visible from a set of segments never change once the segments end at or before the head of their branches, since new commits always
+ * create and revise revisions at later branch points. Because of this the cache does not need to be invalidated when the branches change, only
+ * when revisions are removed from the index via {@link RevisionIndex#purge(String, Purge)}.
+ * <p>
+ * Documents returned by a search are mutable, so the cache keeps its own copy of them and returns a new copy to each caller.
+ *
+ * @since 7.21
+ */
+final class RevisionSearchCache {
+
+	private final Cache<Key, Hits<?>> cache;
+	private final ObjectMapper mapper;
+
+	/**
+	 * Creates a disabled cache.
+	 */
+	RevisionSearchCache() {
+		this(0L, null);
+	}
+
+	/**
+	 * @param maximumWeight - the maximum number of hits to cache, <code>0</code> disables the cache
+	 * @param mapper - the mapper used to copy cached documents
+	 */
+	RevisionSearchCache(long maximumWeight, ObjectMapper mapper) {
+		this.mapper = mapper;
+		this.cache = maximumWeight > 0L ? CacheBuilder.newBuilder()
+				.maximumWeight(maximumWeight)
+				.weigher((Key key, Hits<?> hits) -> hits.getHits().size() + 1)
+				.build() : null;
+	}
+
+	boolean isEnabled() {
+		return cache != null;
+	}
+
+	long size() {
+		return isEnabled() ? cache.size() : 0L;
+	}
+
+	/**
+	 * Returns the cached hits of the given query on the given ref or executes the search via the given loader function and caches its result.
+	 * Scroll queries and mutable refs are always executed with the loader.
+	 *
+	 * @param ref - the ref the query is restricted to
+	 * @param query - the query without the revision filter of the ref
+	 * @param search - the function to execute the search when there is no cached result available
+	 * @return the hits
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	<T> Hits<T> get(RevisionBranchRef ref, Query<T> query, Callable<Hits<T>> search) throws IOException {
+		if (!isEnabled() || !ref.isImmutable() || query.getScrollKeepAlive() != null) {
+			return call(search);
+		}
+
+		final Key key = new Key(ImmutableList.copyOf(ref.segments()), query);
+		final Hits<?> cachedHits = cache.getIfPresent(key);
+		if (cachedHits != null) {
+			return copyOf((Hits<T>) cachedHits);
+		}
+
+		final Hits<T> hits = call(search);
+		// results returned with a scroll context depend on server side state, do not cache them
+		if (hits.getScrollId() == null) {
+			cache.put(key, copyOf(hits));
+		}
+		return hits;
+	}
+
+	private <T> Hits<T> copyOf(Hits<T> hits) {
+		final List<T> copies = hits.getHits().stream().map(this::copyOf).collect(Collectors.toList());
+		return new Hits<>(copies, hits.getScrollId(), hits.getSearchAfter(), hits.getLimit(), hits.getTotal());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T copyOf(T hit) {
+		if (hit == null || hit instanceof String || hit instanceof Number || hit instanceof Boolean) {
+			return hit;
+		} else if (hit.getClass().isArray()) {
+			// field projections, their elements are field values
+			final int length = Array.getLength(hit);
+			final Object copy = Array.newInstance(hit.getClass().getComponentType(), length);
+			System.arraycopy(hit, 0, copy, 0, length);
+			return (T) copy;
+		} else if (hit instanceof Map) {
+			return (T) new LinkedHashMap<>((Map<?, ?>) hit);
+		}
+		
+		try {
+			final T copy = (T) mapper.readValue(mapper.writeValueAsBytes(hit), hit.getClass());
+			if (hit instanceof WithScore) {
+				((WithScore) copy).setScore(((WithScore) hit).getScore());
+			}
+			return copy;
+		} catch (IOException e) {
+			throw new IndexException("Couldn't copy cached revision search hit", e);
+		}
+	}
+
+	void invalidateAll() {
+		if (isEnabled()) {
+			cache.invalidateAll();
+		}
+	}
+
+	private static <T> Hits<T> call(Callable<Hits<T>> search) throws IOException {
+		try {
+			return search.call();
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IndexException("Couldn't execute revision search", e);
+		}
+	}
+
+	private static final class Key {
+
+		// segments are compared element by element, a sorted set would consider segments with different ends equal
+		private final List<RevisionSegment> segments;
+		private final Query<?> query;
+		private final int hashCode;
+
+		Key(List<RevisionSegment> segments, Query<?> query) {
+			this.segments = segments;
+			this.query = query;
+			this.hashCode = Objects.hash(segments, query);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			final Key other = (Key) obj;
+			return Objects.equals(segments, other.segments)
+					&& Objects.equals(query, other.query);
+		}
+
+	}
+
+}
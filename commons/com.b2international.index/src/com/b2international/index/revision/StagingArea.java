@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import static com.google.common.collect.Sets.newHashSet;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Semaphore;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,9 +48,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.flipkart.zjsonpatch.JsonPatch;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.*;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * A place that stores information about what will go into your next commit.
@@ -65,6 +73,7 @@ public final class StagingArea {
 	private final int maxTermsCount;
 	private final int commitWatermarkLow;
 	private final int commitWatermarkHigh;
+	private final int mergeConcurrencyLevel;
 
 	private Map<ObjectId, StagedObject> stagedObjects;
 
@@ -82,6 +91,7 @@ public final class StagingArea {
 		this.maxTermsCount = Integer.parseInt((String) index.admin().settings().get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
 		this.commitWatermarkLow = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY);
 		this.commitWatermarkHigh = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY);
+		this.mergeConcurrencyLevel = (int) index.admin().settings().get(IndexClientFactory.MERGE_CONCURRENCY_LEVEL_KEY);
 		rollback();
 	}
 	
@@ -785,7 +795,7 @@ public final class StagingArea {
 		ObjectId objectId = ObjectId.toObjectId(removed, key);
 		StagedObject stagedObject = stagedObjects.get(objectId);
 		if (stagedObject != null && stagedObject.isChanged()) {
-			stagedObjects.put(objectId, removed(stagedObject.getDiff().oldRevision, null, commit));			
+			stagedObjects.put(objectId, removed(stagedObject.getDiff().getOldRevision(), null, commit));			
 		} else {
 			stagedObjects.put(ObjectId.toObjectId(removed, key), removed(removed, null, commit));			
 		}
@@ -813,63 +823,67 @@ public final class StagingArea {
 				.collect(Collectors.toCollection(TreeSet::new));
 		this.squashMerge = squash;
 		
-		List<RevisionCompareDetail> fromChangeDetails = index.compare(toRef, fromRef, Integer.MAX_VALUE, false).getDetails();
-		
-		if (!CompareUtils.isEmpty(exclusions)) {
-			// Exclude items from change details of the "from" branch, so they do not participate in conflict processing
-			fromChangeDetails = fromChangeDetails
-				.stream()
-				.filter(d -> !exclusions.contains(d.isPropertyChange() 
-						? d.getObject().id() 
-						: d.getComponent().id()))
-				.collect(Collectors.toList());
-		}
-		
-		// in case of nothing to merge, then just proceed to commit
-		if (fromChangeDetails.isEmpty()) {
-			return;
-		}
-		
-		List<RevisionCompareDetail> toChangeDetails = index.compare(fromRef, toRef, Integer.MAX_VALUE, false).getDetails();
-		
-		// in case of fast-forward merge only check conflicts when there are changes on the to branch
-		if (toChangeDetails.isEmpty() && !squash) {
-			return;
-		}
-		
-		RevisionBranchChangeSet fromChangeSet = new RevisionBranchChangeSet(index, fromRef, fromChangeDetails);
-		RevisionBranchChangeSet toChangeSet = new RevisionBranchChangeSet(index, toRef, toChangeDetails);
-		
-		final List<Conflict> conflictsToReport = Lists.newArrayList();
+		final SetMultimap<Class<? extends Revision>, String> added;
+		final SetMultimap<Class<? extends Revision>, String> changed;
+		final SetMultimap<Class<? extends Revision>, String> removed;
 		final Map<Class<? extends Revision>, Multimap<String, RevisionPropertyDiff>> propertyUpdatesToApply = Maps.newHashMap();
 		
-		// check conflicts and commit only the resolved conflicts
-		collectConflicts(fromChangeSet, fromChangeDetails, toChangeSet, toChangeDetails, conflictsToReport, propertyUpdatesToApply, conflictProcessor);
-		
-		if (!conflictsToReport.isEmpty()) {
-			throw new BranchMergeConflictException(conflictsToReport.stream().map(conflictProcessor::convertConflict).collect(Collectors.toList()));
+		// compare details are sorted by object and property keys and might be spilled to disk, they are only available until the end of conflict processing
+		try (RevisionCompareDetails fromCompareDetails = index.compareDetails(toRef, fromRef)) {
+			Iterable<RevisionCompareDetail> fromChangeDetails = fromCompareDetails;
+			
+			if (!CompareUtils.isEmpty(exclusions)) {
+				// Exclude items from change details of the "from" branch, so they do not participate in conflict processing
+				fromChangeDetails = Iterables.filter(fromCompareDetails, d -> !exclusions.contains(d.isPropertyChange() 
+						? d.getObject().id() 
+						: d.getComponent().id()));
+			}
+			
+			// in case of nothing to merge, then just proceed to commit
+			if (Iterables.isEmpty(fromChangeDetails)) {
+				return;
+			}
+			
+			try (RevisionCompareDetails toChangeDetails = index.compareDetails(fromRef, toRef)) {
+				
+				// in case of fast-forward merge only check conflicts when there are changes on the to branch
+				if (toChangeDetails.isEmpty() && !squash) {
+					return;
+				}
+				
+				final RevisionBranchChangeSet fromChangeSet = new RevisionBranchChangeSet(index, fromRef, fromChangeDetails);
+				final RevisionBranchChangeSet toChangeSet = new RevisionBranchChangeSet(index, toRef, toChangeDetails);
+				
+				final List<Conflict> conflictsToReport = Lists.newArrayList();
+				
+				// check conflicts and commit only the resolved conflicts
+				collectConflicts(fromChangeSet, fromChangeDetails, toChangeSet, toChangeDetails, conflictsToReport, propertyUpdatesToApply, conflictProcessor);
+				
+				if (!conflictsToReport.isEmpty()) {
+					throw new BranchMergeConflictException(conflictsToReport.stream().map(conflictProcessor::convertConflict).collect(Collectors.toList()));
+				}
+				
+				// extract info from changeset, the compare details and the change sets are released after this point
+				added = fromChangeSet.getAdded();
+				changed = fromChangeSet.getChanged();
+				removed = fromChangeSet.getRemoved();
+			}
 		}
 		
-		// we can remove toChangeDetails and fromChangeDetails
-		// extract info from changeset and then null out to free up memory
-		SetMultimap<Class<? extends Revision>, String> added = fromChangeSet.getAdded();
-		SetMultimap<Class<? extends Revision>, String> changed = fromChangeSet.getChanged();
-		SetMultimap<Class<? extends Revision>, String> removed = fromChangeSet.getRemoved();
-		fromChangeSet = null;
-		fromChangeDetails = null;
-		toChangeSet = null;
-		toChangeDetails = null;
-		
 		applyPropertyUpdates(toRef, propertyUpdatesToApply);
 		
+		final List<MergePartition> partitions = newArrayList();
+		
 		// apply new objects
-		applyNewObjects(added, mergeFromBranchRef, toRef, squash);
+		collectNewObjects(added, partitions);
 		
 		// apply changed objects
-		applyChangedObjects(changed, mergeFromBranchRef, toRef, squash);
+		collectChangedObjects(changed, partitions);
 		
 		// always apply deleted objects, they set the revised timestamp properly without introducing any new document
-		applyRemovedObjects(removed, mergeFromBranchRef, toRef, squash);
+		collectRemovedObjects(removed, partitions);
+		
+		applyPartitions(partitions, mergeFromBranchRef, toRef, squash);
 		
 		// any externally marked revised revisions should be applied here
 		revisionsToReviseOnMergeSource.putAll(externalRevisionsToReviseOnMergeSource);
@@ -883,30 +897,44 @@ public final class StagingArea {
 				final Multimap<String, RevisionPropertyDiff> propertyUpdatesByObject = entry.getValue();
 				// if already marked as revised due to donation, skip loading it and handling it
 				final Set<String> updatedIds = Sets.difference(propertyUpdatesByObject.keySet(), externalRevisionsToReviseOnMergeSource.get(type));
+				final DocumentMapping mapping = index.admin().mappings().getMapping(type);
 				final Iterable<JsonNode> objectsToUpdate = index.read(toRef, searcher -> {
 					return searcher.search(Query.select(JsonNode.class).from(type).where(Expressions.matchAny(Revision.Fields.ID, updatedIds)).limit(updatedIds.size()).build());
 				});
 				for (JsonNode objectToUpdate : objectsToUpdate) {
-					// read into revision object first
-					Revision oldRevision = mapper.convertValue(objectToUpdate, type);
+					// the stored source is decoded only once and only the new revision is bound from it, the old revision is bound from the untouched copy on demand
+					final ObjectNode newSource = (ObjectNode) objectToUpdate;
+					final ObjectNode oldSource = newSource.deepCopy();
+					final String id = newSource.get(Revision.Fields.ID).asText();
 					
-					// apply the JSON patch from the updates in place on the same JSON tree
-					ArrayNode patch = mapper.createArrayNode();
-					for (RevisionPropertyDiff diff : propertyUpdatesByObject.get(oldRevision.getId())) {
-						patch.add(diff.asPatch(mapper, objectToUpdate));
+					// set the resolved property values directly on the tree, no JSON patch document is needed for top-level property replacements
+					for (RevisionPropertyDiff diff : propertyUpdatesByObject.get(id)) {
+						diff.applyTo(mapper, mapping, newSource);
 					}
-					JsonPatch.applyInPlace(patch, objectToUpdate);
 					
-					// convert it to Revision again to get the new object
-					// FIXME for the future, figure out how to reduce the number of ser/deser during merge
-					stageChange(oldRevision, mapper.convertValue(objectToUpdate, type));
-					revisionsToReviseOnMergeSource.put(type, oldRevision.getId());
+					final Revision newRevision = toRevision(newSource, type);
+					final ObjectId objectId = ObjectId.toObjectId(newRevision, id);
+					final StagedObject stagedObject = stagedObjects.get(objectId);
+					if (stagedObject != null) {
+						stagedObjects.put(objectId, stagedObject.withObject(newRevision, true));
+					} else {
+						stagedObjects.put(objectId, changed(newRevision, new RevisionDiff(oldSource, newRevision, newSource), true));
+					}
+					revisionsToReviseOnMergeSource.put(type, id);
 				}
 			}
 		}
 	}
+	
+	private Revision toRevision(ObjectNode source, Class<? extends Revision> type) {
+		try {
+			return mapper.treeToValue(source, type);
+		} catch (IOException e) {
+			throw new IndexException("Couldn't read revision of type " + type.getSimpleName() + " from its source", e);
+		}
+	}
 
-	private void collectConflicts(RevisionBranchChangeSet fromChangeSet, List<RevisionCompareDetail> fromChangeDetails, RevisionBranchChangeSet toChangeSet, List<RevisionCompareDetail> toChangeDetails, List<Conflict> conflictsToReport,
+	private void collectConflicts(RevisionBranchChangeSet fromChangeSet, Iterable<RevisionCompareDetail> fromChangeDetails, RevisionBranchChangeSet toChangeSet, Iterable<RevisionCompareDetail> toChangeDetails, List<Conflict> conflictsToReport,
 			Map<Class<? extends Revision>, Multimap<String, RevisionPropertyDiff>> propertyUpdatesToApply, RevisionConflictProcessor conflictProcessor) {
 		List<Conflict> conflicts = newArrayList();
 		
@@ -950,10 +978,11 @@ public final class StagingArea {
 			Set<String> changedInSourceDetachedInTargetIds = Sets.newHashSet(Sets.intersection(changedRevisionIdsToMerge, removedRevisionIdsToCheck));
 			if (!changedInSourceDetachedInTargetIds.isEmpty()) {
 				// report any conflicts
+				final Map<String, Map<String, RevisionCompareDetail>> sourcePropertyChangesByObject = indexPropertyChangesByObject(fromChangeDetails, changedInSourceDetachedInTargetIds);
 				changedInSourceDetachedInTargetIds.forEach(changedInSourceDetachedInTargetId -> {
-					List<RevisionPropertyDiff> sourceChanges = fromChangeDetails.stream()
-							.filter(detail -> detail.getObject().id().equals(changedInSourceDetachedInTargetId))
-							.filter(detail -> !detail.isComponentChange())
+					List<RevisionPropertyDiff> sourceChanges = sourcePropertyChangesByObject.getOrDefault(changedInSourceDetachedInTargetId, Map.of())
+							.values()
+							.stream()
 							.map(change -> new RevisionPropertyDiff(change.getProperty(), change.getFromValue(), change.getValue()))
 							.collect(Collectors.toList());
 					Conflict conflict = conflictProcessor.handleChangedInSourceDetachedInTarget(ObjectId.of(docType, changedInSourceDetachedInTargetId), sourceChanges);
@@ -969,8 +998,8 @@ public final class StagingArea {
 			// then handle changed vs. changed with the conflict processor
 			Set<String> changedInSourceAndTargetIds = Sets.intersection(changedRevisionIdsToMerge, changedRevisionIdsToCheck);
 			if (!changedInSourceAndTargetIds.isEmpty()) {
-				final Map<String, Map<String, RevisionCompareDetail>> sourcePropertyChangesByObject = indexPropertyChangesByObject(fromChangeDetails);
-				final Map<String, Map<String, RevisionCompareDetail>> targetPropertyChangesByObject = indexPropertyChangesByObject(toChangeDetails);
+				final Map<String, Map<String, RevisionCompareDetail>> sourcePropertyChangesByObject = indexPropertyChangesByObject(fromChangeDetails, changedInSourceAndTargetIds);
+				final Map<String, Map<String, RevisionCompareDetail>> targetPropertyChangesByObject = indexPropertyChangesByObject(toChangeDetails, changedInSourceAndTargetIds);
 				for (String changedInSourceAndTargetId : changedInSourceAndTargetIds) {
 					// take the prop changes from both paths
 					final Map<String, RevisionCompareDetail> sourcePropertyChanges = sourcePropertyChangesByObject.remove(changedInSourceAndTargetId);
@@ -1031,70 +1060,139 @@ public final class StagingArea {
 		conflictsToReport.addAll(conflictProcessor.filterConflicts(this, conflicts));		
 	}
 
-	private void applyRemovedObjects(SetMultimap<Class<? extends Revision>, String> removed, RevisionBranchRef fromRef, RevisionBranchRef toRef,
-			boolean squash) {
+	private void collectRemovedObjects(SetMultimap<Class<? extends Revision>, String> removed, List<MergePartition> partitions) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(removed.keySet())) {
 			final Collection<String> removedRevisionIds = removed.removeAll(type);
 			for (List<String> currentRemovedRevisionIds : Iterables.partition(removedRevisionIds, maxTermsCount)) {
-				index.read(toRef, searcher -> searcher.get(type, currentRemovedRevisionIds)).forEach(this::stageRemove);
+				partitions.add(new MergePartition(StageKind.REMOVED, type, currentRemovedRevisionIds));
 			}
 		}
 	}
 
-	private void applyChangedObjects(SetMultimap<Class<? extends Revision>, String> changed, RevisionBranchRef fromRef, RevisionBranchRef toRef,
-			boolean squash) {
+	private void collectChangedObjects(SetMultimap<Class<? extends Revision>, String> changed, List<MergePartition> partitions) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(changed.keySet())) {
 			final Collection<String> changedRevisionIds = changed.removeAll(type);
-			
 			for (List<String> currentChangedRevisionIds : Iterables.partition(changedRevisionIds, maxTermsCount)) {
-				
-				final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentChangedRevisionIds));
-				final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
-				final Iterable<? extends Revision> updatedRevisions = index.read(fromRef, searcher -> searcher.get(type, currentChangedRevisionIds));
-				final Map<String, ? extends Revision> updatedRevisionsById = FluentIterable.from(updatedRevisions).uniqueIndex(Revision::getId);
-			
-				for (String updatedId : updatedRevisionsById.keySet()) {
-					if (oldRevisionsById.containsKey(updatedId)) {
-						// actual changed revisions should always register themselves for commit if there is a revision on the target
-						stageChange(oldRevisionsById.get(updatedId), updatedRevisionsById.get(updatedId), true);
-					} else {
-						stageNew(updatedRevisionsById.get(updatedId), squash);
-					}
-				}
-				
+				partitions.add(new MergePartition(StageKind.CHANGED, type, currentChangedRevisionIds));
 			}
 		}
 	}
 
-	private void applyNewObjects(final SetMultimap<Class<? extends Revision>, String> added, RevisionBranchRef fromRef, RevisionBranchRef toRef, boolean squash) {
+	private void collectNewObjects(final SetMultimap<Class<? extends Revision>, String> added, List<MergePartition> partitions) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(added.keySet())) {
 			final Set<String> addedIds = added.removeAll(type);
 			// skip new objects that are already marked as revised on merge source, content that is present on target should take place instead
 			final Set<String> newRevisionIds = Sets.difference(addedIds, externalRevisionsToReviseOnMergeSource.get(type));
-			
 			for (List<String> currentNewRevisionIds : Iterables.partition(newRevisionIds, maxTermsCount)) {
-				final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentNewRevisionIds));
-				final Iterable<? extends Revision> newRevisions = index.read(fromRef, searcher -> searcher.get(type, currentNewRevisionIds));
-				final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
-				
-				newRevisions.forEach(rev -> {
-					if (oldRevisionsById.containsKey(rev.getId())) {
-						stageChange(oldRevisionsById.get(rev.getId()), rev, true);
-					} else {
-						stageNew(rev, squash);
-					}
-				});
+				partitions.add(new MergePartition(StageKind.ADDED, type, currentNewRevisionIds));
 			}
 		}
 	}
 	
-	private Map<String, Map<String, RevisionCompareDetail>> indexPropertyChangesByObject(List<RevisionCompareDetail> changeDetails) {
+	/*
+	 * Revisions of the following partitions (of any type) are fetched from the source and target refs while the current
+	 * partition is staged on this thread, so partitions are staged in their original order. At most merge concurrency
+	 * level reads run at the same time, and at most one more partition than the concurrency level is kept in memory.
+	 */
+	private void applyPartitions(List<MergePartition> partitions, RevisionBranchRef fromRef, RevisionBranchRef toRef, boolean squash) {
+		if (partitions.isEmpty()) {
+			return;
+		}
+		
+		final ListeningExecutorService executor = mergeConcurrencyLevel > 1 ? ReadAheadPipeline.FETCH_EXECUTOR : MoreExecutors.newDirectExecutorService();
+		final Semaphore reads = new Semaphore(mergeConcurrencyLevel);
+		
+		ReadAheadPipeline.apply(partitions, mergeConcurrencyLevel - 1, partition -> partition.fetch(executor, reads, fromRef, toRef), (partition, revisions) -> {
+			final Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+			partition.apply(revisions, squash);
+			sample.stop(Metrics.timer("revision.merge.apply", "type", partition.type.getSimpleName(), "kind", partition.stageKind.name()));
+			Metrics.counter("revision.merge.revisions", "type", partition.type.getSimpleName(), "kind", partition.stageKind.name()).increment(partition.size());
+		});
+	}
+	
+	private final class MergePartition {
+		
+		private final StageKind stageKind;
+		private final Class<? extends Revision> type;
+		private final List<String> ids;
+		
+		private MergePartition(StageKind stageKind, Class<? extends Revision> type, List<String> ids) {
+			this.stageKind = stageKind;
+			this.type = type;
+			this.ids = ids;
+		}
+		
+		public int size() {
+			return ids.size();
+		}
+		
+		/*
+		 * Returns the revisions on the target ref, followed by the ones on the source ref unless this partition contains removed revisions.
+		 */
+		public ListenableFuture<List<Iterable<? extends Revision>>> fetch(ListeningExecutorService executor, Semaphore reads, RevisionBranchRef fromRef, RevisionBranchRef toRef) {
+			final ListenableFuture<Iterable<? extends Revision>> targetRevisions = read(executor, reads, toRef);
+			// removed revisions are only read from the target
+			if (stageKind == StageKind.REMOVED) {
+				return Futures.allAsList(targetRevisions);
+			}
+			final ListenableFuture<Iterable<? extends Revision>> sourceRevisions = read(executor, reads, fromRef);
+			return Futures.allAsList(targetRevisions, sourceRevisions);
+		}
+		
+		/*
+		 * Waits for a permit before submitting the read, the permit is released when the read completes or is cancelled.
+		 */
+		private ListenableFuture<Iterable<? extends Revision>> read(ListeningExecutorService executor, Semaphore reads, RevisionBranchRef ref) {
+			try {
+				reads.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IndexException("Interrupted while reading revisions to merge", e);
+			}
+			try {
+				final ListenableFuture<Iterable<? extends Revision>> revisions = executor.submit(() -> index.read(ref, searcher -> searcher.get(type, ids)));
+				revisions.addListener(reads::release, MoreExecutors.directExecutor());
+				return revisions;
+			} catch (RuntimeException e) {
+				reads.release();
+				throw e;
+			}
+		}
+		
+		public void apply(List<Iterable<? extends Revision>> revisions, boolean squash) {
+			final Iterable<? extends Revision> oldRevisions = revisions.get(0);
+			
+			if (stageKind == StageKind.REMOVED) {
+				oldRevisions.forEach(StagingArea.this::stageRemove);
+				return;
+			}
+			
+			final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
+			final Iterable<? extends Revision> newRevisions = revisions.get(1);
+			
+			newRevisions.forEach(rev -> {
+				if (oldRevisionsById.containsKey(rev.getId())) {
+					// actual changed revisions should always register themselves for commit if there is a revision on the target
+					stageChange(oldRevisionsById.get(rev.getId()), rev, true);
+				} else {
+					stageNew(rev, squash);
+				}
+			});
+		}
+		
+	}
+	
+	/*
+	 * Collects the property changes of the given objects only in a single pass over the sorted compare details, 
+	 * so memory usage depends on the number of objects to check, not on the size of the change set.
+	 */
+	private Map<String, Map<String, RevisionCompareDetail>> indexPropertyChangesByObject(Iterable<RevisionCompareDetail> changeDetails, Set<String> objectIds) {
 		final Map<String, Map<String, RevisionCompareDetail>> propertyChangesByObject = newHashMap();
 		for (RevisionCompareDetail changeDetail : changeDetails) {
-			if (changeDetail.isPropertyChange()) {
+			if (changeDetail.isPropertyChange() && objectIds.contains(changeDetail.getObject().id())) {
 				final String changedObjectId = changeDetail.getObject().id();
 				if (!propertyChangesByObject.containsKey(changedObjectId)) {
-					propertyChangesByObject.put(changedObjectId, newHashMap());
+					propertyChangesByObject.put(changedObjectId, new LinkedHashMap<>());
 				}
 				propertyChangesByObject.get(changedObjectId).put(changeDetail.getProperty(), changeDetail);
 			}
@@ -1104,16 +1202,36 @@ public final class StagingArea {
 
 	public final class RevisionDiff {
 		
-		public final Revision oldRevision;
 		public final Revision newRevision;
 		
+		private Revision oldRevision;
+		// the sources of both revisions, if they are already available as JSON trees
+		private final ObjectNode oldRevisionSource;
+		private final ObjectNode newRevisionSource;
+		
 		private JsonDiff rawDiff;
 		private JsonDiff diff;
 		private Map<String, RevisionPropertyDiff> propertyChanges;
 		
 		private RevisionDiff(Revision oldRevision, Revision newRevision) {
 			this.oldRevision = oldRevision;
+			this.oldRevisionSource = null;
 			this.newRevision = newRevision;
+			this.newRevisionSource = null;
+		}
+		
+		private RevisionDiff(ObjectNode oldRevisionSource, Revision newRevision, ObjectNode newRevisionSource) {
+			this.oldRevision = null;
+			this.oldRevisionSource = oldRevisionSource;
+			this.newRevision = newRevision;
+			this.newRevisionSource = newRevisionSource;
+		}
+		
+		public Revision getOldRevision() {
+			if (oldRevision == null) {
+				oldRevision = toRevision(oldRevisionSource, newRevision.getClass());
+			}
+			return oldRevision;
 		}
 
 		public boolean hasChanges() {
@@ -1127,8 +1245,8 @@ public final class StagingArea {
 		private JsonDiff rawDiff() {
 			if (rawDiff == null) {
 				final DocumentMapping mapping = getMapping();
-				ObjectNode oldRevisionSource = mapper.valueToTree(oldRevision);
-				ObjectNode newRevisionSource = mapper.valueToTree(newRevision);
+				ObjectNode oldRevisionSource = this.oldRevisionSource != null ? this.oldRevisionSource : mapper.valueToTree(oldRevision);
+				ObjectNode newRevisionSource = this.newRevisionSource != null ? this.newRevisionSource : mapper.valueToTree(newRevision);
 				final JsonDiff diff = JsonDiff.diff(oldRevisionSource, newRevisionSource);
 				final ArrayNode filteredRawDiff = mapper.createArrayNode();
 				final Iterator<JsonChange> elements = diff.iterator();
@@ -1218,7 +1336,7 @@ public final class StagingArea {
 		private final String oldValue;
 		private final String newValue;
 		
-		private RevisionPropertyDiff(String property, String oldValue, String newValue) {
+		RevisionPropertyDiff(String property, String oldValue, String newValue) {
 			this.property = property;
 			this.oldValue = oldValue;
 			this.newValue = newValue;
@@ -1259,16 +1377,40 @@ public final class StagingArea {
 			return patch; 
 		}
 
+		/**
+		 * Sets the new value of this property directly on the given JSON source of a revision. The field type registered in the {@link DocumentMapping}
+		 * is used to decide whether the serialized value needs to be parsed or it can be used as is (in case of textual fields).
+		 * 
+		 * @param mapper - the mapper to use for parsing non-textual values
+		 * @param mapping - the mapping of the revision type
+		 * @param source - the JSON source to update in place
+		 */
+		public void applyTo(ObjectMapper mapper, DocumentMapping mapping, ObjectNode source) {
+			if (newValue != null && !newValue.isEmpty() && mapping.hasField(property) && isTextual(mapping.getFieldType(property))) {
+				source.set(property, TextNode.valueOf(newValue));
+			} else {
+				source.set(property, toJson(mapper, newValue));
+			}
+		}
+		
+		private static boolean isTextual(Class<?> fieldType) {
+			return String.class.equals(fieldType) || fieldType.isEnum();
+		}
+		
 		private static void setField(ObjectMapper mapper, ObjectNode patch, String property, String value) {
+			patch.set(property, toJson(mapper, value));
+		}
+		
+		private static JsonNode toJson(ObjectMapper mapper, String value) {
 			if (value == null) {
-				patch.set(property, mapper.nullNode());
+				return mapper.nullNode();
 			} else {
 				try {
-					patch.set(property, mapper.readTree(value));
+					return mapper.readTree(value);
 					// if it is unable to convert the newValue to a JSON value, then it is either an array or object, read it as tree
 				} catch (JsonProcessingException e) {
 					try {
-						patch.set(property, mapper.valueToTree(value));
+						return mapper.valueToTree(value);
 					} catch (IllegalArgumentException ex) {
 						ex.addSuppressed(e);
 						throw new IndexException("Unable to read value to JSON. Value: " + value, ex);
@@ -1308,7 +1450,7 @@ public final class StagingArea {
 		
 		public StagedObject withObject(Object newObject, boolean commit) {
 			if (isChanged()) {
-				return new StagedObject(stageKind, newObject, diff != null ? new RevisionDiff(diff.oldRevision, (Revision) newObject) : null, commit);
+				return new StagedObject(stageKind, newObject, diff != null ? new RevisionDiff(diff.getOldRevision(), (Revision) newObject) : null, commit);
 			} else if (isAdded()) {
 				return new StagedObject(stageKind, newObject, null, commit);
 			} else {
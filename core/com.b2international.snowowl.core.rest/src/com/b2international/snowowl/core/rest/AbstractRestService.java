@@ -30,10 +30,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.snowowl.core.authorization.AuthorizedEventBus;
 import com.b2international.snowowl.core.request.SearchIndexResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.inject.Provider;
@@ -62,6 +64,11 @@ public abstract class AbstractRestService {
 	 * The media type produced and accepted by Snow Owl's RESTful API for comma-separated values.
 	 */
 	public static final String CSV_MEDIA_TYPE = "text/csv;charset=UTF-8";
+	
+	/**
+	 * The media type produced by Snow Owl's RESTful API for streamed, newline delimited JSON content.
+	 */
+	public static final String NDJSON_MEDIA_TYPE = MediaType.APPLICATION_NDJSON_VALUE;
 
 	/**
 	 * The media type produced and accepted by Snow Owl's RESTful API for byte streams.
@@ -91,6 +98,17 @@ public abstract class AbstractRestService {
 		return bus.get();
 	}
 	
+	/**
+	 * Returns an event bus which sends requests to the given priority lane.
+	 * 
+	 * @param priority - the priority lane to use, eg. {@link IEventBus#PRIORITY_BATCH}
+	 * @return
+	 * @since 7.21
+	 */
+	protected final IEventBus getBus(String priority) {
+		return new AuthorizedEventBus(bus.get(), ImmutableMap.of(IEventBus.PRIORITY, priority));
+	}
+	
 	public AbstractRestService(Set<String> sortFields) {
 		final Set<String> allowedSortFields = ImmutableSet.<String>builder()
 			.addAll(Collections3.toImmutableSet(sortFields))
@@ -51,6 +51,7 @@ import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
@@ -73,6 +74,7 @@ import com.b2international.snowowl.core.identity.IdentityProvider;
 import com.b2international.snowowl.core.rate.ApiConfiguration;
 import com.b2international.snowowl.core.rate.HttpConfig;
 import com.b2international.snowowl.core.rest.util.AntPathWildcardMatcher;
+import com.b2international.snowowl.core.rest.util.BranchETagInterceptor;
 import com.b2international.snowowl.core.rest.util.CsvMessageConverter;
 import com.b2international.snowowl.core.rest.util.ModelAttributeParameterExpanderExt;
 import com.b2international.snowowl.core.rest.util.PromiseMethodReturnValueHandler;
@@ -129,6 +131,16 @@ public class SnowOwlApiConfig extends WebMvcConfigurationSupport {
 		returnValueHandlers.add(new PromiseMethodReturnValueHandler());
 	}
 	
+	@Override
+	protected void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(branchETagInterceptor());
+	}
+	
+	@Bean
+	public BranchETagInterceptor branchETagInterceptor() {
+		return new BranchETagInterceptor();
+	}
+	
 	@Override
 	protected void addFormatters(FormatterRegistry registry) {
 		registry.addConverterFactory(new StringToEnumConverterFactory());
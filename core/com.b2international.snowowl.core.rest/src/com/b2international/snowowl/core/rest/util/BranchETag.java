@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.rest.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks GET endpoints whose response depends only on the request and the content visible from the <code>{path}</code> URI variable. Responses of
+ * these endpoints get a strong ETag derived from the state of the resolved branch, and conditional requests with a matching
+ * <code>If-None-Match</code> header are answered with <code>304 Not Modified</code> without executing the handler.
+ * <p>
+ * Do not use it on endpoints that return state that can change without a commit on the branch, eg. import or export job status. For this
+ * reason only the SNOMED CT component and reference set read endpoints are annotated. Branch resources change on metadata updates and
+ * rebases without a commit, RF2 exports depend on the export settings and the current date, and the remaining <code>{path}</code> endpoints are
+ * either not GET endpoints or return job state.
+ * 
+ * @since 7.21
+ * @see BranchETagInterceptor
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface BranchETag {
+
+	/**
+	 * @return the repository to resolve the <code>{path}</code> URI variable in
+	 */
+	String value();
+	
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.repository.RepositoryRequests;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.google.common.base.Strings;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Provider;
+
+/**
+ * Computes strong ETags for {@link BranchETag} annotated GET endpoints from the content tag of the branch resolved from the <code>{path}</code>
+ * URI variable and the request itself, and answers conditional requests with <code>304 Not Modified</code> when the tag matches the
+ * <code>If-None-Match</code> header. Since the check runs before the handler, it works the same way for synchronous and {@code Promise} returning
+ * handlers. Otherwise the ETag is added to the response by {@link BranchETagResponseBodyAdvice} only if the handler completes successfully.
+ * Responses of timestamp restricted <code>branch@timestamp</code> paths never change, so they are also marked as cacheable.
+ * 
+ * @since 7.21
+ */
+public class BranchETagInterceptor implements HandlerInterceptor {
+
+	private static final String PATH_VARIABLE = "path";
+	
+	private static final String ETAG_ATTRIBUTE = BranchETagInterceptor.class.getName() + ".eTag";
+	
+	private static final String CACHE_CONTROL_ATTRIBUTE = BranchETagInterceptor.class.getName() + ".cacheControl";
+	
+	private static final List<String> VARY = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.AUTHORIZATION);
+	
+	private static final String IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(365L, TimeUnit.DAYS).cachePrivate().getHeaderValue();
+	
+	@Autowired
+	private Provider<IEventBus> bus;
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		// the ETag is already computed when the result of an async handler is dispatched
+		if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		
+		final BranchETag branchETag = getBranchETag((HandlerMethod) handler);
+		if (branchETag == null) {
+			return true;
+		}
+		
+		@SuppressWarnings("unchecked")
+		final Map<String, String> uriVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		final String path = uriVariables == null ? null : uriVariables.get(PATH_VARIABLE);
+		if (Strings.isNullOrEmpty(path)) {
+			return true;
+		}
+		
+		final String contentTag;
+		try {
+			contentTag = RepositoryRequests.branching()
+					.prepareGetContentTag()
+					.build(branchETag.value(), path)
+					.execute(bus.get())
+					.getSync(1, TimeUnit.MINUTES);
+		} catch (RuntimeException e) {
+			// let the handler report missing branches, authorization and other errors
+			return true;
+		}
+		
+		final String eTag = toETag(contentTag, request);
+		request.setAttribute(ETAG_ATTRIBUTE, eTag);
+		if (RevisionIndex.isBranchAtPath(contentTag)) {
+			request.setAttribute(CACHE_CONTROL_ATTRIBUTE, IMMUTABLE_CACHE_CONTROL);
+		}
+		
+		// only compares the tags, the response is left untouched
+		if (new ServletWebRequest(request).checkNotModified(eTag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			addHeaders(request, response);
+			return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Adds the ETag computed for the given request along with the matching <code>Cache-Control</code> and <code>Vary</code> headers to the
+	 * response, if the response has a successful or <code>304 Not Modified</code> status.
+	 * 
+	 * @param request
+	 * @param response
+	 */
+	static void addHeaders(HttpServletRequest request, HttpServletResponse response) {
+		final String eTag = (String) request.getAttribute(ETAG_ATTRIBUTE);
+		final int status = response.getStatus();
+		if (eTag == null || (status / 100 != 2 && status != HttpServletResponse.SC_NOT_MODIFIED)) {
+			return;
+		}
+		
+		response.setHeader(HttpHeaders.ETAG, eTag);
+		
+		final String cacheControl = (String) request.getAttribute(CACHE_CONTROL_ATTRIBUTE);
+		if (cacheControl != null) {
+			response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+		}
+		
+		// keep values set by other components, eg. compression filters
+		final Set<String> vary = new LinkedHashSet<>();
+		response.getHeaders(HttpHeaders.VARY).forEach(value -> vary.addAll(Arrays.asList(StringUtils.tokenizeToStringArray(value, ","))));
+		for (String header : VARY) {
+			if (vary.stream().noneMatch(header::equalsIgnoreCase)) {
+				response.addHeader(HttpHeaders.VARY, header);
+			}
+		}
+	}
+
+	private BranchETag getBranchETag(HandlerMethod handler) {
+		final BranchETag methodAnnotation = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), BranchETag.class);
+		return methodAnnotation != null ? methodAnnotation : AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), BranchETag.class);
+	}
+	
+	private static String toETag(String contentTag, HttpServletRequest request) {
+		final Hasher hasher = Hashing.murmur3_128().newHasher();
+		putString(hasher, contentTag);
+		putString(hasher, request.getRequestURI());
+		putString(hasher, request.getQueryString());
+		putString(hasher, request.getHeader(HttpHeaders.ACCEPT));
+		putString(hasher, request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+		putString(hasher, request.getHeader(HttpHeaders.AUTHORIZATION));
+		return "\"" + hasher.hash() + "\"";
+	}
+
+	private static void putString(Hasher hasher, String value) {
+		hasher.putString(Strings.nullToEmpty(value), StandardCharsets.UTF_8).putChar('\n');
+	}
+	
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.rest.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+/**
+ * Writes the items of a lazily fetched sequence of result pages (eg. a {@link SearchResourceRequestIterator}) directly to the servlet response
+ * as CSV rows or newline delimited JSON objects. The next page is only requested after the previous one has been written and flushed, so memory
+ * use is bounded by the page size and a slow client naturally slows down the search. When the client disconnects, writing fails and the
+ * remaining pages are never fetched.
+ * <p>
+ * Handler methods returning a {@link com.b2international.snowowl.core.events.util.Promise Promise} can write the response this way and return
+ * <code>null</code> when the client accepts the streamed media type.
+ *
+ * @since 7.21
+ */
+public final class StreamingCollectionResponse {
+
+	/**
+	 * The number of items to fetch with a single search request when streaming a collection.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 5_000;
+
+	private static final String ATTACHMENT = "attachment";
+
+	private static final byte[] LINE_SEPARATOR = { '\n' };
+
+	private final Iterator<? extends Iterable<?>> pages;
+	private final MediaType contentType;
+	private final Function<Object, ObjectWriter> writerFactory;
+	private final boolean attachment;
+	private final boolean terminateLines;
+
+	private StreamingCollectionResponse(Iterator<? extends Iterable<?>> pages, MediaType contentType, Function<Object, ObjectWriter> writerFactory, boolean attachment, boolean terminateLines) {
+		this.pages = pages;
+		this.contentType = contentType;
+		this.writerFactory = writerFactory;
+		this.attachment = attachment;
+		this.terminateLines = terminateLines;
+	}
+
+	/**
+	 * Writes all pages to the given response. The first page is fetched before the response is committed, so failing requests (eg. missing
+	 * branches) are still reported with the usual error responses.
+	 *
+	 * @param response - the response to write the items to
+	 * @throws IOException - if writing the response fails, eg. the client has disconnected
+	 */
+	public void writeTo(HttpServletResponse response) throws IOException {
+		final boolean hasItems = pages.hasNext();
+
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(contentType.toString());
+		if (attachment) {
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT);
+		}
+
+		if (hasItems) {
+			writeTo(response.getOutputStream());
+		}
+		response.flushBuffer();
+	}
+
+	private void writeTo(OutputStream out) throws IOException {
+		SequenceWriter writer = null;
+		try {
+			while (pages.hasNext()) {
+				for (Object item : pages.next()) {
+					if (writer == null) {
+						// the first item determines the schema of CSV responses
+						writer = writerFactory.apply(item)
+								.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+								.writeValues(out);
+					}
+					writer.write(item);
+				}
+
+				if (writer != null) {
+					writer.flush();
+				}
+			}
+		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+
+		if (writer != null && terminateLines) {
+			out.write(LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Creates a response that writes the items of the given pages as tab separated values with a header row, just like
+	 * {@link CsvMessageConverter}. The columns are determined by the type of the first item.
+	 *
+	 * @param pages - the pages to write, fetched one by one while the response is being written
+	 * @return the response to write
+	 */
+	public static StreamingCollectionResponse csv(Iterator<? extends Iterable<?>> pages) {
+		final CsvMapper mapper = new CsvMapper();
+		return new StreamingCollectionResponse(pages,
+				CsvMessageConverter.MEDIA_TYPE,
+				item -> mapper.writer(mapper.schemaFor(item.getClass()).withHeader().withColumnSeparator('\t')),
+				true,
+				false);
+	}
+
+	/**
+	 * Creates a response that writes the items of the given pages as newline delimited JSON objects.
+	 *
+	 * @param mapper - the mapper to serialize the items with
+	 * @param pages - the pages to write, fetched one by one while the response is being written
+	 * @return the response to write
+	 */
+	public static StreamingCollectionResponse ndjson(ObjectMapper mapper, Iterator<? extends Iterable<?>> pages) {
+		final ObjectWriter writer = mapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.withRootValueSeparator("\n");
+		return new StreamingCollectionResponse(pages, MediaType.APPLICATION_NDJSON, item -> writer, false, true);
+	}
+
+	/**
+	 * @param accept - the value of the <code>Accept</code> header of the request
+	 * @param mediaType - the media type to look for
+	 * @return <code>true</code> if the given media type has been explicitly requested by the client, wildcards are not taken into account
+	 */
+	public static boolean isAccepted(String accept, MediaType mediaType) {
+		if (accept == null) {
+			return false;
+		}
+		return MediaType.parseMediaTypes(accept)
+				.stream()
+				.anyMatch(mediaType::equalsTypeAndSubtype);
+	}
+
+}
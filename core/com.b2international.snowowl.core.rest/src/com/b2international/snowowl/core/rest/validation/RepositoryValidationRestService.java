@@ -15,13 +15,19 @@
  */
 package com.b2international.snowowl.core.rest.validation;
 
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -34,16 +40,21 @@ import com.b2international.snowowl.core.jobs.JobRequests;
 import com.b2international.snowowl.core.jobs.RemoteJobEntry;
 import com.b2international.snowowl.core.jobs.RemoteJobs;
 import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
+import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.RestApiError;
+import com.b2international.snowowl.core.rest.util.CsvMessageConverter;
+import com.b2international.snowowl.core.rest.util.StreamingCollectionResponse;
 import com.b2international.snowowl.core.uri.CodeSystemURI;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
-import com.b2international.snowowl.core.validation.rule.ValidationRule;
+import com.b2international.snowowl.core.validation.issue.ValidationIssueSearchRequestBuilder;
+import com.b2international.snowowl.core.validation.issue.ValidationIssues;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.net.HttpHeaders;
 
 import io.swagger.annotations.Api;
@@ -164,54 +175,70 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 			
 			@ApiIgnore
 			@RequestHeader(value=HttpHeaders.ACCEPT, defaultValue=AbstractRestService.JSON_MEDIA_TYPE,  required=false)
-			final String contentType) {
+			final String contentType,
+			
+			@ApiIgnore
+			final HttpServletResponse response) throws IOException {
 		final IEventBus bus = getBus();
 		
+		if (StreamingCollectionResponse.isAccepted(contentType, CsvMessageConverter.MEDIA_TYPE)) {
+			// all issues are streamed page by page, the response has been written when the method returns
+			final CodeSystemURI codeSystemURI = getCodeSystemURIFromJob(getValidationRun(validationId).getSync(1, TimeUnit.MINUTES));
+			final ValidationIssueSearchRequestBuilder req = ValidationRequests.issues().prepareSearch()
+					.isWhitelisted(false)
+					.setLimit(StreamingCollectionResponse.DEFAULT_PAGE_SIZE)
+					.filterByResourceUri(codeSystemURI)
+					.sortBy(SortField.ascending(ValidationIssue.Fields.RULE_ID));
+			
+			final Map<String, String> ruleDescriptionById = newHashMap();
+			final Iterator<List<ValidationIssueReport>> reports = Iterators.transform(
+				new SearchResourceRequestIterator<>(req, r -> r.buildAsync().execute(bus).getSync(1, TimeUnit.MINUTES)), 
+				issues -> toReports(issues, ruleDescriptionById, bus)
+			);
+			
+			StreamingCollectionResponse.csv(reports).writeTo(response);
+			return null;
+		}
+		
 		return getValidationRun(validationId).thenWith(validationJob -> {
 			final CodeSystemURI codeSystemURI = getCodeSystemURIFromJob(validationJob);
-			if (AbstractRestService.CSV_MEDIA_TYPE.equals(contentType)) {
-				return ValidationRequests.issues().prepareSearch()
-						.isWhitelisted(false)
-						.all()
-						.filterByResourceUri(codeSystemURI)
-						.sortBy(SortField.ascending(ValidationIssue.Fields.RULE_ID))
-						.buildAsync()
-						.execute(bus)
-						.then(issues -> {
-							final Set<String> rulesToFetch = issues.stream()
-									.map(ValidationIssue::getRuleId)
-									.collect(Collectors.toSet());
-							final Map<String, String> ruleDescriptionById = ValidationRequests.rules().prepareSearch()
-									.all()
-									.filterByIds(rulesToFetch)
-									.buildAsync()
-									.execute(bus)
-									.getSync(1, TimeUnit.MINUTES)
-									.stream()
-									.collect(Collectors.toMap(ValidationRule::getId, ValidationRule::getMessageTemplate));
-							
-							return issues.stream().map(issue -> {
-								final String ruleId = issue.getRuleId();
-								final String ruleDescription = ruleDescriptionById.get(ruleId);
-								final String affectedComponentLabel = Iterables.getFirst(issue.getAffectedComponentLabels(), "No label found");
-								final String affectedComponentId = issue.getAffectedComponent().getComponentId();
-								return new ValidationIssueReport(ruleId, ruleDescription, affectedComponentId, affectedComponentLabel);
-							}).collect(Collectors.toList());
-						});
-			} else {
-				return ValidationRequests.issues().prepareSearch()
-						.isWhitelisted(false)
-						.setLimit(limit)
-						.setSearchAfter(searchAfter)
-						.filterByResourceUri(codeSystemURI )
-						.buildAsync()
-						.execute(bus)
-						.then(issues -> issues.getItems().stream().collect(Collectors.toList()));
-
-			}
+			return ValidationRequests.issues().prepareSearch()
+					.isWhitelisted(false)
+					.setLimit(limit)
+					.setSearchAfter(searchAfter)
+					.filterByResourceUri(codeSystemURI )
+					.buildAsync()
+					.execute(bus)
+					.then(issues -> issues.getItems().stream().collect(Collectors.toList()));
 		});
 	}
 	
+	private List<ValidationIssueReport> toReports(ValidationIssues issues, Map<String, String> ruleDescriptionById, IEventBus bus) {
+		// rule descriptions are fetched once, when the first issue of the rule is encountered
+		final Set<String> rulesToFetch = issues.stream()
+				.map(ValidationIssue::getRuleId)
+				.filter(ruleId -> !ruleDescriptionById.containsKey(ruleId))
+				.collect(Collectors.toSet());
+		
+		if (!rulesToFetch.isEmpty()) {
+			ValidationRequests.rules().prepareSearch()
+					.all()
+					.filterByIds(rulesToFetch)
+					.buildAsync()
+					.execute(bus)
+					.getSync(1, TimeUnit.MINUTES)
+					.forEach(rule -> ruleDescriptionById.put(rule.getId(), rule.getMessageTemplate()));
+		}
+		
+		return issues.stream().map(issue -> {
+			final String ruleId = issue.getRuleId();
+			final String ruleDescription = ruleDescriptionById.get(ruleId);
+			final String affectedComponentLabel = Iterables.getFirst(issue.getAffectedComponentLabels(), "No label found");
+			final String affectedComponentId = issue.getAffectedComponent().getComponentId();
+			return new ValidationIssueReport(ruleId, ruleDescription, affectedComponentId, affectedComponentLabel);
+		}).collect(Collectors.toList());
+	}
+	
 	private CodeSystemURI getCodeSystemURIFromJob(final RemoteJobEntry validationJob) {
 		return new CodeSystemURI((String) validationJob.getParameters(objectMapper).get("uri"));
 	}
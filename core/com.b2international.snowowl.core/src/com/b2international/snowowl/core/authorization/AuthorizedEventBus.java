@@ -20,7 +20,9 @@ import static com.google.common.collect.Maps.newHashMap;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.identity.JWTGenerator;
@@ -135,5 +137,30 @@ public class AuthorizedEventBus implements IEventBus {
 	public long getSucceededMessages(String tag) {
 		return 0;
 	}
+	
+	@Override
+	public long getInQueueMessagesByPriority(String priority) {
+		return bus.getInQueueMessagesByPriority(priority);
+	}
+	
+	@Override
+	public long getProcessingMessagesByPriority(String priority) {
+		return bus.getProcessingMessagesByPriority(priority);
+	}
+	
+	@Override
+	public long getWaitTimeByPriority(String priority) {
+		return bus.getWaitTimeByPriority(priority);
+	}
+	
+	@Override
+	public long getRejectedMessagesByPriority(String priority) {
+		return bus.getRejectedMessagesByPriority(priority);
+	}
+	
+	@Override
+	public <T> CompletableFuture<T> runInPriorityLane(String priority, Supplier<T> task) {
+		return bus.runInPriorityLane(priority, task);
+	}
 
 }
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.core.authorization;
 
 import java.util.Collection;
+import java.util.Map;
 
 import com.b2international.commons.exceptions.ForbiddenException;
 import com.b2international.commons.exceptions.UnauthorizedException;
@@ -32,7 +33,9 @@ import com.b2international.snowowl.core.request.RepositoryRequest;
 import com.b2international.snowowl.core.util.PlatformUtil;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 
 /**
  * @since 7.2
@@ -119,10 +122,16 @@ public final class AuthorizedRequest<R> extends DelegatingRequest<ServiceProvide
 				});
 		}
 
+		/*
+		 * Nested requests inherit all headers except the priority lane. The lane limits the number of top-level requests,
+		 * holding back nested requests of an already running request in the same lane could exhaust it.
+		 */
+		final Map<String, String> nestedHeaders = ImmutableMap.copyOf(Maps.filterKeys(requestHeaders.headers(), header -> !IEventBus.PRIORITY.equals(header)));
+		
 		// inject the User for later access
 		return next(context.inject()
 				.bind(User.class, user)
-				.bind(IEventBus.class, new AuthorizedEventBus(context.service(IEventBus.class), requestHeaders.headers()))
+				.bind(IEventBus.class, new AuthorizedEventBus(context.service(IEventBus.class), nestedHeaders))
 				.build());
 	}
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.branch;
+
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.authorization.BranchAccessControl;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.identity.Permission;
+import com.b2international.snowowl.core.repository.RepositoryRequests;
+
+/**
+ * Returns a tag that changes whenever the content visible from the resolved branch path might change. The tag of a timestamp restricted
+ * <code>branch@timestamp</code> path is the path itself, since its content never changes, other paths are tagged with the base and head timestamps
+ * of the branches they depend on.
+ * 
+ * @since 7.21
+ */
+final class BranchContentTagRequest implements Request<BranchContext, String>, BranchAccessControl {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String execute(BranchContext context) {
+		final String path = context.path();
+		if (RevisionIndex.isBranchAtPath(path)) {
+			return path;
+		}
+		
+		final StringBuilder tag = new StringBuilder(path);
+		if (RevisionIndex.isRevRangePath(path)) {
+			for (String branchPath : RevisionIndex.getRevisionRangePaths(path)) {
+				appendTimestamps(tag, RepositoryRequests.branching().prepareGet(branchPath).build().execute(context));
+			}
+		} else {
+			appendTimestamps(tag, context.branch());
+		}
+		return tag.toString();
+	}
+
+	private static void appendTimestamps(StringBuilder tag, Branch branch) {
+		tag.append(':')
+			.append(branch.branchId())
+			.append(':')
+			.append(branch.baseTimestamp())
+			.append(':')
+			.append(branch.headTimestamp());
+	}
+	
+	@Override
+	public String getOperation() {
+		return Permission.OPERATION_BROWSE;
+	}
+	
+}
@@ -38,6 +38,17 @@ public final class Branching {
 		return new BranchGetRequestBuilder(path);
 	}
 	
+	/**
+	 * Returns a tag that identifies the state of the content visible from a branch path or code system URI. Can be used to detect unchanged
+	 * content without reading it.
+	 * 
+	 * @return
+	 * @since 7.21
+	 */
+	public BranchContentTagRequestBuilder prepareGetContentTag() {
+		return new BranchContentTagRequestBuilder();
+	}
+	
 	public BranchDeleteRequestBuilder prepareDelete(String branchPath) {
 		return new BranchDeleteRequestBuilder(branchPath);
 	}
@@ -39,6 +39,7 @@ import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.identity.request.UserRequests;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.netty.EventBusCodec;
 import com.b2international.snowowl.eventbus.netty.EventBusNettyUtil;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
@@ -175,13 +176,14 @@ public final class TransportClient implements IDisposableService {
 				final int watchdogRate = transportConfiguration.getWatchdogRate();
 				final int watchdogTimeout = transportConfiguration.getWatchdogTimeout();
 				final int maxObjectSize = transportConfiguration.getMaxObjectSize();
+				final EventBusCodec codec = EventBusCodec.forName(transportConfiguration.getCodec());
 				final ClassLoader compositeClassLoader = env.plugins().getCompositeClassLoader();
 				
 				final Channel localChannel = new Bootstrap()
 					.group(new NioEventLoopGroup())
 					.channel(NioSocketChannel.class)
 					.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout * 1000)
-					.handler(EventBusNettyUtil.createChannelHandler(sslCtx, gzip, false, watchdogRate, watchdogTimeout, maxObjectSize, bus, compositeClassLoader))
+					.handler(EventBusNettyUtil.createChannelHandler(sslCtx, gzip, false, watchdogRate, watchdogTimeout, maxObjectSize, codec, bus, compositeClassLoader))
 					.connect(hostAndPort.getHost(), hostAndPort.getPortOrDefault(2036))
 					.syncUninterruptibly()
 					.channel();
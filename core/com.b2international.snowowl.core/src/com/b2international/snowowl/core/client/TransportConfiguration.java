@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.client;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -35,6 +36,7 @@ public class TransportConfiguration {
 	private static final int DEFAULT_MAX_OBJECT_SIZE = Integer.MAX_VALUE - 1024;
 	public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 10_485_760; // 10 Mb
 	public static final int DEFAULT_DOWNLOAD_CHUNK_SIZE = 1_048_576; // 1 Mb 
+	private static final String DEFAULT_CODEC = "java";
 	
 	@Min(0)
 	@Max(300)
@@ -52,6 +54,10 @@ public class TransportConfiguration {
 	@Min(0)
 	private int maxObjectSize = DEFAULT_MAX_OBJECT_SIZE;
 	
+	@NotNull
+	@Pattern(regexp = "^(?i)(java|compact)$")
+	private String codec = DEFAULT_CODEC;
+	
 	@Min(0)
 	private int uploadChunkSize = DEFAULT_UPLOAD_CHUNK_SIZE;
 	
@@ -140,6 +146,23 @@ public class TransportConfiguration {
 		this.maxObjectSize = maxObjectSize;
 	}
 	
+	/**
+	 * @return the wire format used for exchanging messages with remote peers, either <code>java</code> (default, compatible
+	 *         with earlier versions) or <code>compact</code>. Clients and servers must use the same codec.
+	 */
+	@JsonProperty
+	public String getCodec() {
+		return codec;
+	}
+	
+	/**
+	 * @param codec the wire format to set
+	 */
+	@JsonProperty
+	public void setCodec(String codec) {
+		this.codec = codec;
+	}
+	
 	@JsonProperty
 	public int getUploadChunkSize() {
 		return uploadChunkSize;
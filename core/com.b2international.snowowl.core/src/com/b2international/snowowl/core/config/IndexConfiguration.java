@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -72,6 +72,19 @@ public class IndexConfiguration {
 	@Max(IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE)
 	private int commitWatermarkHigh = IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE;
 	
+	@Min(1)
+	@Max(32)
+	private int mergeConcurrencyLevel = IndexClientFactory.DEFAULT_MERGE_CONCURRENCY_LEVEL;
+	
+	@Min(10_000)
+	private int compareSpillThreshold = IndexClientFactory.DEFAULT_COMPARE_SPILL_THRESHOLD;
+	
+	@Min(0)
+	private long resultCacheMaxWeight = IndexClientFactory.DEFAULT_RESULT_CACHE_MAX_WEIGHT;
+	
+	@Min(0)
+	private int termsLookupThreshold = IndexClientFactory.DEFAULT_TERMS_LOOKUP_THRESHOLD;
+	
 	@JsonProperty
 	public String getCommitInterval() {
 		return commitInterval;
@@ -219,6 +232,38 @@ public class IndexConfiguration {
 	public void setCommitWatermarkLow(int commitWatermarkLow) {
 		this.commitWatermarkLow = commitWatermarkLow;
 	}
+	
+	public int getMergeConcurrencyLevel() {
+		return mergeConcurrencyLevel;
+	}
+	
+	public void setMergeConcurrencyLevel(int mergeConcurrencyLevel) {
+		this.mergeConcurrencyLevel = mergeConcurrencyLevel;
+	}
+	
+	public int getCompareSpillThreshold() {
+		return compareSpillThreshold;
+	}
+	
+	public void setCompareSpillThreshold(int compareSpillThreshold) {
+		this.compareSpillThreshold = compareSpillThreshold;
+	}
+	
+	public long getResultCacheMaxWeight() {
+		return resultCacheMaxWeight;
+	}
+	
+	public void setResultCacheMaxWeight(long resultCacheMaxWeight) {
+		this.resultCacheMaxWeight = resultCacheMaxWeight;
+	}
+	
+	public int getTermsLookupThreshold() {
+		return termsLookupThreshold;
+	}
+	
+	public void setTermsLookupThreshold(int termsLookupThreshold) {
+		this.termsLookupThreshold = termsLookupThreshold;
+	}
 
 	public void configure(Builder<String, Object> settings) {
 		if (getClusterHealthTimeout() <= getSocketTimeout()) {
@@ -250,6 +295,10 @@ public class IndexConfiguration {
 		settings.put(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, getBulkActionSizeInMb());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, getCommitWatermarkLow());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, getCommitWatermarkHigh());
+		settings.put(IndexClientFactory.MERGE_CONCURRENCY_LEVEL_KEY, getMergeConcurrencyLevel());
+		settings.put(IndexClientFactory.COMPARE_SPILL_THRESHOLD_KEY, getCompareSpillThreshold());
+		settings.put(IndexClientFactory.RESULT_CACHE_MAX_WEIGHT_KEY, getResultCacheMaxWeight());
+		settings.put(IndexClientFactory.TERMS_LOOKUP_THRESHOLD_KEY, getTermsLookupThreshold());
 	}
 	
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.config;
+
+import javax.validation.constraints.Min;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration of a single priority lane of the event bus.
+ *
+ * @since 7.21
+ */
+public class PriorityLaneConfiguration {
+
+	private static final int DEFAULT_MAX_CONCURRENCY = 8;
+	private static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+
+	@Min(1)
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	@Min(1)
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	/**
+	 * @return the maximum number of messages processed concurrently in this lane
+	 */
+	@JsonProperty
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	@JsonProperty
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * @return the maximum number of messages waiting for a free slot in this lane, further messages are rejected
+	 */
+	@JsonProperty
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	@JsonProperty
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package com.b2international.snowowl.core.config;
 
+import java.util.Map;
+
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -52,6 +54,14 @@ public class RepositoryConfiguration {
 	@Min(1)
 	private int maxThreads = 200;
 	
+	private boolean virtualThreads = false;
+	
+	@NotNull
+	private Map<String, Integer> concurrencyLimits = Map.of();
+	
+	@NotNull
+	private Map<String, PriorityLaneConfiguration> priorityLanes = Map.of();
+	
 	@Min(10)
 	@Max(1000)
 	private int mergeMaxResults = 100;
@@ -156,6 +166,54 @@ public class RepositoryConfiguration {
 		this.maxThreads = maxThreads;
 	}
 	
+	/**
+	 * @return whether the underlying event bus should run message handlers on virtual threads (when supported by the runtime)
+	 */
+	@JsonProperty
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+	
+	/**
+	 * @param virtualThreads - whether the underlying event bus should run message handlers on virtual threads
+	 */
+	@JsonProperty
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+	
+	/**
+	 * @return the maximum number of concurrently processed messages in the underlying event bus instance, keyed by address
+	 */
+	@JsonProperty
+	public Map<String, Integer> getConcurrencyLimits() {
+		return concurrencyLimits;
+	}
+	
+	/**
+	 * @param concurrencyLimits - the maximum number of concurrently processed messages, keyed by address
+	 */
+	@JsonProperty
+	public void setConcurrencyLimits(Map<String, Integer> concurrencyLimits) {
+		this.concurrencyLimits = concurrencyLimits;
+	}
+	
+	/**
+	 * @return the priority lanes of the underlying event bus instance, keyed by lane name (eg. <code>batch</code>)
+	 */
+	@JsonProperty
+	public Map<String, PriorityLaneConfiguration> getPriorityLanes() {
+		return priorityLanes;
+	}
+	
+	/**
+	 * @param priorityLanes - the priority lanes to configure, keyed by lane name
+	 */
+	@JsonProperty
+	public void setPriorityLanes(Map<String, PriorityLaneConfiguration> priorityLanes) {
+		this.priorityLanes = priorityLanes;
+	}
+	
 	@JsonProperty("index")
 	public IndexConfiguration getIndexConfiguration() {
 		return indexConfiguration;
@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.events;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
+import com.b2international.commons.exceptions.TooManyRequestsException;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.jobs.JobRequests;
@@ -25,6 +26,7 @@ import com.b2international.snowowl.core.jobs.ScheduleJobRequestBuilder;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.eventbus.IHandler;
 import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.PriorityLaneFullException;
 
 /**
  * @since 5.0
@@ -52,7 +54,13 @@ public final class AsyncRequest<R> {
 					if (message.isSucceeded()) {
 						promise.resolve(message.body(responseType), message.headers());
 					} else {
-						promise.reject(message.body(Throwable.class));
+						final Throwable failure = message.body(Throwable.class);
+						if (failure instanceof PriorityLaneFullException) {
+							// The priority lane of the request is full, ask the client to try again later
+							promise.reject(new TooManyRequestsException());
+						} else {
+							promise.reject(failure);
+						}
 					}
 				} catch (Throwable e) {
 					promise.reject(e);
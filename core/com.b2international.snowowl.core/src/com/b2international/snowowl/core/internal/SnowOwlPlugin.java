@@ -32,6 +32,7 @@ import com.b2international.snowowl.core.uri.DefaultResourceURIPathResolver;
 import com.b2international.snowowl.core.uri.ResourceURIPathResolver;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
@@ -60,6 +61,8 @@ public final class SnowOwlPlugin extends Plugin {
 		if (monitoringConfig.isEnabled()) {
 			final PrometheusMeterRegistry registry = createRegistry(monitoringConfig);
 			env.services().registerService(MeterRegistry.class, registry);
+			// meters of modules without access to the environment (eg. the index) are registered on the global registry
+			Metrics.addRegistry(registry);
 		} else {
 			// XXX this works like a NOOP registry if you do NOT register any additional registries to it
 			env.services().registerService(MeterRegistry.class, new CompositeMeterRegistry());
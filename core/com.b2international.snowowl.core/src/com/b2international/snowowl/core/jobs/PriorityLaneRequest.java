@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.jobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+import javax.validation.Valid;
+
+import org.hibernate.validator.constraints.NotEmpty;
+
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Executes the wrapped request of a remote job in a priority lane of the event bus. The request runs on the event bus' worker pool as soon as
+ * the lane has a free slot, and holds the slot until it completes. The returned {@link Promise} lets {@link RemoteJob} finish asynchronously,
+ * so the job's thread is not blocked while waiting for the slot.
+ *
+ * @since 7.21
+ * @see IEventBus#runInPriorityLane(String, java.util.function.Supplier)
+ */
+final class PriorityLaneRequest<R> implements Request<ServiceProvider, Promise<R>> {
+
+	private static final long serialVersionUID = 1L;
+
+	@Valid
+	private final Request<ServiceProvider, R> next;
+	
+	@JsonProperty
+	@NotEmpty
+	private final String priority;
+
+	PriorityLaneRequest(Request<ServiceProvider, R> next, String priority) {
+		this.next = checkNotNull(next, "next");
+		this.priority = priority;
+	}
+
+	@Override
+	public Promise<R> execute(ServiceProvider context) {
+		final Promise<R> promise = new Promise<>();
+		context.service(IEventBus.class)
+			.runInPriorityLane(priority, () -> next.execute(context))
+			.whenComplete((result, failure) -> {
+				if (failure != null) {
+					promise.reject(failure);
+				} else {
+					promise.resolve(result);
+				}
+			});
+		return promise;
+	}
+	
+	@JsonProperty
+	@JsonUnwrapped
+	public Request<ServiceProvider, R> next() {
+		return next;
+	}
+	
+	@Override
+	public Collection<Request<?, ?>> getNestedRequests() {
+		return next.getNestedRequests();
+	}
+
+}
@@ -33,6 +33,7 @@ import com.b2international.snowowl.core.CoreActivator;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.identity.request.UserRequests;
 import com.b2international.snowowl.core.status.Statuses;
@@ -90,42 +91,66 @@ public final class RemoteJob extends Job {
 					.bind(User.class, User.isSystem(user) ? User.SYSTEM : UserRequests.prepareGet(user).build().execute(this.context))
 					.build();
 			final Object response = request.execute(context);
-			if (response != null) {
-				final Class<? extends Object> responseType = response.getClass();
-				if (Primitives.isWrapperType(responseType) || String.class.isAssignableFrom(responseType) || UUID.class.isAssignableFrom(responseType)) {
-					this.response = toJson(mapper, ImmutableMap.of("value", response));
-				} else {
-					this.response = toJson(mapper, response);
-				}
+			if (response instanceof Promise<?>) {
+				// Requests waiting for a shared resource (eg. a priority lane slot) return a promise, finish the job when it completes
+				((Promise<?>) response)
+					.then(result -> onSuccess(mapper, result))
+					.fail(e -> onFailure(mapper, e))
+					.then(status -> {
+						done(onDone(status));
+						return null;
+					});
+				return ASYNC_FINISH;
 			}
-			
-			final IStatus status = (IStatus) getProperty(REQUEST_STATUS);
-			return (status != null) ? status : Statuses.ok();
-		} catch (OperationCanceledException e) {
-			return Statuses.cancel();
+			return onDone(onSuccess(mapper, response));
 		} catch (Throwable e) {
-			final ApiError apiError;
-			
-			if (e instanceof ApiException) {
-				apiError = ((ApiException) e).toApiError();
+			return onDone(onFailure(mapper, e));
+		}
+	}
+
+	private IStatus onSuccess(ObjectMapper mapper, Object response) {
+		if (response != null) {
+			final Class<? extends Object> responseType = response.getClass();
+			if (Primitives.isWrapperType(responseType) || String.class.isAssignableFrom(responseType) || UUID.class.isAssignableFrom(responseType)) {
+				this.response = toJson(mapper, ImmutableMap.of("value", response));
 			} else {
-				apiError = ApiError.builder(e.getMessage())
-					.status(500)
-					.developerMessage("Exception caught while executing request in remote job.")
-					.addInfo("exception-class", e.getClass().getSimpleName())
-					.build();
-			}
-			
-			LOG.error("Error encountered while executing remote job", e);
-			this.response = toJson(mapper, apiError);
-			// XXX: Don't delete remote jobs with errors
-			autoClean = false;
-			return Statuses.error(CoreActivator.PLUGIN_ID, "Failed to execute long running request", e);
-		} finally {
-			if (autoClean) {
-				context.service(RemoteJobTracker.class).requestDeletes(Collections.singleton(id));
+				this.response = toJson(mapper, response);
 			}
 		}
+		
+		final IStatus status = (IStatus) getProperty(REQUEST_STATUS);
+		return (status != null) ? status : Statuses.ok();
+	}
+	
+	private IStatus onFailure(ObjectMapper mapper, Throwable e) {
+		if (e instanceof OperationCanceledException) {
+			return Statuses.cancel();
+		}
+		
+		final ApiError apiError;
+		
+		if (e instanceof ApiException) {
+			apiError = ((ApiException) e).toApiError();
+		} else {
+			apiError = ApiError.builder(e.getMessage())
+				.status(500)
+				.developerMessage("Exception caught while executing request in remote job.")
+				.addInfo("exception-class", e.getClass().getSimpleName())
+				.build();
+		}
+		
+		LOG.error("Error encountered while executing remote job", e);
+		this.response = toJson(mapper, apiError);
+		// XXX: Don't delete remote jobs with errors
+		autoClean = false;
+		return Statuses.error(CoreActivator.PLUGIN_ID, "Failed to execute long running request", e);
+	}
+	
+	private IStatus onDone(IStatus status) {
+		if (autoClean) {
+			context.service(RemoteJobTracker.class).requestDeletes(Collections.singleton(id));
+		}
+		return status;
 	}
 
 	private String toJson(ObjectMapper mapper, Object object) {
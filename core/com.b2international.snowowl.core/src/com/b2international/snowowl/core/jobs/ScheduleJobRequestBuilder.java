@@ -21,7 +21,9 @@ import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.AsyncRequest;
 import com.b2international.snowowl.core.events.BaseRequestBuilder;
 import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.request.SystemRequestBuilder;
+import com.b2international.snowowl.eventbus.IEventBus;
 
 /**
  * A request builder that wraps existing {@link Request} instances to run them as jobs.
@@ -37,6 +39,7 @@ public final class ScheduleJobRequestBuilder extends BaseRequestBuilder<Schedule
 	private SerializableSchedulingRule schedulingRule;
 	private boolean autoClean = false;
 	private boolean restart = false;
+	private String priority;
 	
 	ScheduleJobRequestBuilder() {
 	}
@@ -125,9 +128,27 @@ public final class ScheduleJobRequestBuilder extends BaseRequestBuilder<Schedule
 		return getSelf();
 	}
 	
+	/**
+	 * Sets the priority lane of the event bus the job's request is executed in. The job finishes asynchronously once the request has been
+	 * executed in a free slot of the lane.
+	 * 
+	 * @param priority - the priority lane to use, eg. {@link IEventBus#PRIORITY_BATCH}
+	 * @return this builder
+	 * @since 7.21
+	 */
+	public ScheduleJobRequestBuilder setPriority(final String priority) {
+		this.priority = priority;
+		return getSelf();
+	}
+	
 	@Override
 	protected Request<ServiceProvider, String> doBuild() {
-		return new ScheduleJobRequest(key, user, description, request, schedulingRule, autoClean, restart);
+		final Request<ServiceProvider, ?> jobRequest = (priority == null) ? request : inPriorityLane(request, priority);
+		return new ScheduleJobRequest(key, user, description, jobRequest, schedulingRule, autoClean, restart);
+	}
+	
+	private static <R> Request<ServiceProvider, Promise<R>> inPriorityLane(final Request<ServiceProvider, R> request, final String priority) {
+		return new PriorityLaneRequest<>(request, priority);
 	}
 	
 }
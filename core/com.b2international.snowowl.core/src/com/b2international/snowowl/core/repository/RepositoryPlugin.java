@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.repository;
 import java.nio.file.Path;
 import java.security.cert.CertificateException;
 import java.util.Map;
+import java.util.Set;
 
 import javax.net.ssl.SSLException;
 
@@ -48,6 +49,7 @@ import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.eventbus.EventBusUtil;
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.netty.EventBusCodec;
 import com.b2international.snowowl.eventbus.netty.EventBusNettyUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
@@ -86,8 +88,14 @@ public final class RepositoryPlugin extends Plugin {
 		RepositoryConfiguration repositoryConfiguration = configuration.getModuleConfig(RepositoryConfiguration.class);
 		env.services().registerService(RepositoryConfiguration.class, repositoryConfiguration);
 		int maxThreads = repositoryConfiguration.getMaxThreads();
-		LOG.debug("Preparing EventBus communication (maxThreads={})", maxThreads);
-		env.services().registerService(IEventBus.class, EventBusUtil.getBus("server", maxThreads));
+		boolean virtualThreads = repositoryConfiguration.isVirtualThreads();
+		LOG.debug("Preparing EventBus communication (maxThreads={}, virtualThreads={})", maxThreads, virtualThreads);
+		final IEventBus bus = EventBusUtil.getBus("server", maxThreads, virtualThreads, repositoryConfiguration.getConcurrencyLimits());
+		repositoryConfiguration.getPriorityLanes().forEach((priority, lane) -> {
+			LOG.debug("Configuring '{}' priority lane (maxConcurrency={}, queueCapacity={})", priority, lane.getMaxConcurrency(), lane.getQueueCapacity());
+			EventBusUtil.configurePriorityLane(bus, priority, lane.getMaxConcurrency(), lane.getQueueCapacity());
+		});
+		env.services().registerService(IEventBus.class, bus);
 		LOG.debug("Preparing JSON support");
 		final ObjectMapper mapper = JsonSupport.getDefaultObjectMapper();
 		mapper.registerModule(new PrimitiveCollectionModule());
@@ -152,6 +160,7 @@ public final class RepositoryPlugin extends Plugin {
 			
 			final boolean gzip = configuration.isGzip();
 			final RepositoryConfiguration repositoryConfiguration = configuration.getModuleConfig(RepositoryConfiguration.class);
+			registerPriorityLaneMetrics(registry, eventBus, repositoryConfiguration.getPriorityLanes().keySet());
 			final HostAndPort hostAndPort = repositoryConfiguration.getHostAndPort();
 			
 			// open port in server environments
@@ -196,13 +205,14 @@ public final class RepositoryPlugin extends Plugin {
 				final int watchdogRate = transportConfiguration.getWatchdogRate();
 				final int watchdogTimeout = transportConfiguration.getWatchdogTimeout();
 				final int maxObjectSize = transportConfiguration.getMaxObjectSize();
+				final EventBusCodec codec = EventBusCodec.forName(transportConfiguration.getCodec());
 				final ClassLoader compositeClassLoader = env.plugins().getCompositeClassLoader();
 				
 				final Channel serverChannel = new ServerBootstrap()
 					.group(bossGroup, workerGroup)
 //					.handler(new LoggingHandler(LogLevel.INFO))
 					.channel(NioServerSocketChannel.class)
-					.childHandler(EventBusNettyUtil.createChannelHandler(sslCtx, gzip, true, watchdogRate, watchdogTimeout, maxObjectSize, eventBus, compositeClassLoader))
+					.childHandler(EventBusNettyUtil.createChannelHandler(sslCtx, gzip, true, watchdogRate, watchdogTimeout, maxObjectSize, codec, eventBus, compositeClassLoader))
 					.childOption(ChannelOption.SO_KEEPALIVE, true)
 					.bind(hostAndPort.getHost(), hostAndPort.getPortOrDefault(2036))
 					.syncUninterruptibly()
@@ -250,6 +260,31 @@ public final class RepositoryPlugin extends Plugin {
 		
 	}
 	
+	private void registerPriorityLaneMetrics(MeterRegistry registry, IEventBus eventBus, Set<String> priorities) {
+		for (final String priority : priorities) {
+			Gauge.builder("requests.lane.queued", eventBus, bus -> bus.getInQueueMessagesByPriority(priority))
+					.description("The approximate number of messages that are waiting for a free slot in the priority lane")
+					.tag("priority", priority)
+					.register(registry);
+			
+			Gauge.builder("requests.lane.processing", eventBus, bus -> bus.getProcessingMessagesByPriority(priority))
+					.description("The approximate number of messages that are currently processed in the priority lane")
+					.tag("priority", priority)
+					.register(registry);
+			
+			FunctionCounter.builder("requests.lane.wait", eventBus, bus -> bus.getWaitTimeByPriority(priority))
+					.description("The total time in milliseconds messages have spent waiting in the priority lane")
+					.baseUnit("milliseconds")
+					.tag("priority", priority)
+					.register(registry);
+			
+			FunctionCounter.builder("requests.lane.rejected", eventBus, bus -> bus.getRejectedMessagesByPriority(priority))
+					.description("The total number of messages rejected because the priority lane was full")
+					.tag("priority", priority)
+					.register(registry);
+		}
+	}
+	
 	@Override
 	public void run(SnowOwlConfiguration configuration, Environment env) throws Exception {
 		if (env.isServer()) {
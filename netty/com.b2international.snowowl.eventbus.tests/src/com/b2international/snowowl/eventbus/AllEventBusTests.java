@@ -19,9 +19,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.internal.eventbus.EventBusConcurrencyLimitTest;
 import com.b2international.snowowl.internal.eventbus.EventBusHandlerRegistrationTest;
+import com.b2international.snowowl.internal.eventbus.EventBusPriorityLaneTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendPerformanceTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendTest;
+import com.b2international.snowowl.internal.eventbus.netty.EventBusCodecTest;
 import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
 
 /**
@@ -33,6 +36,9 @@ import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
 	EventBusSendTest.class, 
 	EventBusProtocolTest.class, 
 	EventBusSendPerformanceTest.class, 
+	EventBusConcurrencyLimitTest.class, 
+	EventBusPriorityLaneTest.class, 
+	EventBusCodecTest.class, 
 })
 public class AllEventBusTests {
 	// Empty class body
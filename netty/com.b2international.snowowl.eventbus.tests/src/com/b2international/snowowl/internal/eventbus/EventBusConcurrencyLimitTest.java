@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.EventBusUtil;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IHandler;
+import com.b2international.snowowl.eventbus.IMessage;
+
+/**
+ * @since 7.21
+ */
+public class EventBusConcurrencyLimitTest {
+
+	private static final String ADDRESS = "limited";
+	private static final int NUMBER_OF_MESSAGES = 50;
+	private static final int LIMIT = 2;
+
+	@Test
+	public void limitConcurrentMessagesOnWorkerBus() throws Exception {
+		assertLimit(EventBusUtil.getBus("worker", 8, false, Map.of(ADDRESS, LIMIT)));
+	}
+
+	@Test
+	public void limitConcurrentMessagesOnVirtualThreadBus() throws Exception {
+		// Falls back to platform threads when the runtime does not support virtual threads
+		assertLimit(EventBusUtil.getBus("virtual", 8, true, Map.of(ADDRESS, LIMIT)));
+	}
+
+	@Test
+	public void unlimitedAddressIsNotAffected() throws Exception {
+		final IEventBus bus = EventBusUtil.getBus("unlimited", 8, false, Map.of(ADDRESS, 1));
+		try {
+			final CountDownLatch started = new CountDownLatch(4);
+			final CountDownLatch release = new CountDownLatch(1);
+			bus.registerHandler("other", message -> {
+				started.countDown();
+				await(release);
+			});
+			for (int i = 0; i < 4; i++) {
+				bus.send("other", i, null);
+			}
+			assertTrue("All handlers should run concurrently on unlimited address", started.await(5, TimeUnit.SECONDS));
+			release.countDown();
+		} finally {
+			((EventBus) bus).deactivate();
+		}
+	}
+
+	private void assertLimit(IEventBus bus) throws InterruptedException {
+		try {
+			final AtomicInteger running = new AtomicInteger();
+			final AtomicInteger maxRunning = new AtomicInteger();
+			final CountDownLatch completed = new CountDownLatch(NUMBER_OF_MESSAGES);
+
+			final IHandler<IMessage> handler = message -> {
+				final int current = running.incrementAndGet();
+				maxRunning.accumulateAndGet(current, Math::max);
+				try {
+					Thread.sleep(5L);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					running.decrementAndGet();
+					completed.countDown();
+				}
+			};
+
+			bus.registerHandler(ADDRESS, handler);
+			for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+				bus.send(ADDRESS, i, null);
+			}
+
+			assertTrue("Not all messages were processed in time", completed.await(10, TimeUnit.SECONDS));
+			assertTrue("Concurrency limit exceeded: " + maxRunning.get(), maxRunning.get() <= LIMIT);
+		} finally {
+			((EventBus) bus).deactivate();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
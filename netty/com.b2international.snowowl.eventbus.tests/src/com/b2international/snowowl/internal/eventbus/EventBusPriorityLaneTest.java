@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.EventBusUtil;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.PriorityLaneFullException;
+
+/**
+ * @since 7.21
+ */
+public class EventBusPriorityLaneTest {
+
+	private static final String ADDRESS = "address";
+	private static final Map<String, String> BATCH = Map.of(IEventBus.PRIORITY, IEventBus.PRIORITY_BATCH);
+
+	private IEventBus bus;
+	private CountDownLatch release;
+
+	@Before
+	public void before() {
+		bus = EventBusUtil.getBus("lanes", 8, false, Map.of());
+		EventBusUtil.configurePriorityLane(bus, IEventBus.PRIORITY_BATCH, 1, 1);
+		release = new CountDownLatch(1);
+	}
+
+	@After
+	public void after() {
+		release.countDown();
+		((EventBus) bus).deactivate();
+	}
+
+	@Test
+	public void batchMessagesAreQueuedAndRejected() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		bus.registerHandler(ADDRESS, message -> {
+			started.countDown();
+			await(release);
+			message.reply("done");
+		});
+
+		bus.send(ADDRESS, "first", BATCH);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// Second message waits in the lane's queue
+		bus.send(ADDRESS, "second", BATCH);
+		assertEquals(1L, bus.getProcessingMessagesByPriority(IEventBus.PRIORITY_BATCH));
+		assertEquals(1L, bus.getInQueueMessagesByPriority(IEventBus.PRIORITY_BATCH));
+
+		// Third message does not fit into the queue
+		final AtomicReference<IMessage> reply = new AtomicReference<>();
+		final CountDownLatch replied = new CountDownLatch(1);
+		bus.send(ADDRESS, "third", BATCH, message -> {
+			reply.set(message);
+			replied.countDown();
+		});
+
+		assertTrue(replied.await(5, TimeUnit.SECONDS));
+		assertFalse(reply.get().isSucceeded());
+		assertTrue(reply.get().body() instanceof PriorityLaneFullException);
+		assertEquals(1L, bus.getRejectedMessagesByPriority(IEventBus.PRIORITY_BATCH));
+	}
+
+	@Test
+	public void messagesWithoutPriorityAreNotHeldBack() throws Exception {
+		final CountDownLatch batchStarted = new CountDownLatch(1);
+		final CountDownLatch interactiveProcessed = new CountDownLatch(1);
+
+		bus.registerHandler(ADDRESS, message -> {
+			if (IEventBus.PRIORITY_BATCH.equals(message.headers().get(IEventBus.PRIORITY))) {
+				batchStarted.countDown();
+				await(release);
+			} else {
+				interactiveProcessed.countDown();
+			}
+		});
+
+		bus.send(ADDRESS, "batch", BATCH);
+		assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+
+		bus.send(ADDRESS, "interactive", Map.of());
+		assertTrue(interactiveProcessed.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void waitTimeIsRecorded() throws Exception {
+		final CountDownLatch completed = new CountDownLatch(2);
+		bus.registerHandler(ADDRESS, message -> {
+			try {
+				Thread.sleep(50L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			completed.countDown();
+		});
+
+		bus.send(ADDRESS, "first", BATCH);
+		bus.send(ADDRESS, "second", BATCH);
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertTrue(bus.getWaitTimeByPriority(IEventBus.PRIORITY_BATCH) > 0L);
+	}
+
+	@Test
+	public void tasksWaitForSlotInLane() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		bus.registerHandler(ADDRESS, message -> {
+			started.countDown();
+			await(release);
+		});
+
+		bus.send(ADDRESS, "message", BATCH);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// The task can't start while the message holds the only slot of the lane, the caller is not blocked meanwhile
+		final CompletableFuture<Thread> task = bus.runInPriorityLane(IEventBus.PRIORITY_BATCH, Thread::currentThread);
+		assertFalse(task.isDone());
+		assertEquals(1L, bus.getInQueueMessagesByPriority(IEventBus.PRIORITY_BATCH));
+
+		release.countDown();
+		assertNotEquals(Thread.currentThread(), task.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void tasksAreRejectedWhenLaneIsFull() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		bus.registerHandler(ADDRESS, message -> {
+			started.countDown();
+			await(release);
+		});
+
+		bus.send(ADDRESS, "first", BATCH);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		bus.send(ADDRESS, "second", BATCH);
+
+		final CompletableFuture<String> task = bus.runInPriorityLane(IEventBus.PRIORITY_BATCH, () -> "done");
+		try {
+			task.get(5, TimeUnit.SECONDS);
+			fail("Task should have been rejected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof PriorityLaneFullException);
+		}
+	}
+
+	@Test
+	public void tasksOfUnknownLaneRunImmediately() throws Exception {
+		assertEquals("done", bus.runInPriorityLane("unknown", () -> "done").get(5, TimeUnit.SECONDS));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.databene.contiperf.junit.ContiPerfRuleExt;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.netty.EventBusCodec;
+import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent;
+import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent.Type;
+import com.b2international.snowowl.internal.eventbus.MessageFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Compares encode-decode throughput and encoded message size of the available event bus codecs. Not part of
+ * {@link com.b2international.snowowl.eventbus.AllEventBusTests}, run it manually when changing a codec.
+ *
+ * @since 7.21
+ */
+public class EventBusCodecPerformanceTest {
+
+	private static final int INVOCATIONS = 20_000;
+
+	private static final IMessage STRING_MESSAGE = MessageFactory.createMessage("address",
+		"c0ffee00-0000-4000-8000-000000000000",
+		"Ping",
+		IMessage.TAG_EVENT,
+		Map.of("clientId", "abcd1234", "Accept-Language", "en-US"),
+		true,
+		true);
+
+	private static final IMessage OBJECT_MESSAGE = MessageFactory.createMessage("handlers",
+		null,
+		new HandlerChangedEvent(Type.ADDED, Set.of("address-1", "address-2", "address-3")),
+		IMessage.TAG_EVENT,
+		Map.of("localHandler", "true"),
+		false,
+		true);
+
+	@Rule
+	public ContiPerfRule rule = new ContiPerfRuleExt();
+
+	private EmbeddedChannel javaEncoder;
+	private EmbeddedChannel javaDecoder;
+	private EmbeddedChannel compactEncoder;
+	private EmbeddedChannel compactDecoder;
+
+	@Before
+	public void setup() {
+		javaEncoder = createChannel(EventBusCodec.JAVA);
+		javaDecoder = createChannel(EventBusCodec.JAVA);
+		compactEncoder = createChannel(EventBusCodec.COMPACT);
+		compactDecoder = createChannel(EventBusCodec.COMPACT);
+	}
+
+	@After
+	public void teardown() {
+		javaEncoder.finishAndReleaseAll();
+		javaDecoder.finishAndReleaseAll();
+		compactEncoder.finishAndReleaseAll();
+		compactDecoder.finishAndReleaseAll();
+	}
+
+	@Test
+	@PerfTest(invocations = INVOCATIONS)
+	public void java_StringBody() {
+		roundTrip(javaEncoder, javaDecoder, STRING_MESSAGE);
+	}
+
+	@Test
+	@PerfTest(invocations = INVOCATIONS)
+	public void compact_StringBody() {
+		roundTrip(compactEncoder, compactDecoder, STRING_MESSAGE);
+	}
+
+	@Test
+	@PerfTest(invocations = INVOCATIONS)
+	public void java_ObjectBody() {
+		roundTrip(javaEncoder, javaDecoder, OBJECT_MESSAGE);
+	}
+
+	@Test
+	@PerfTest(invocations = INVOCATIONS)
+	public void compact_ObjectBody() {
+		roundTrip(compactEncoder, compactDecoder, OBJECT_MESSAGE);
+	}
+
+	@Test
+	public void encodedSize() {
+		assertTrue(encodedSize(compactEncoder, STRING_MESSAGE) < encodedSize(javaEncoder, STRING_MESSAGE));
+		assertTrue(encodedSize(compactEncoder, OBJECT_MESSAGE) < encodedSize(javaEncoder, OBJECT_MESSAGE));
+	}
+
+	private int encodedSize(EmbeddedChannel encoder, IMessage message) {
+		encoder.writeOutbound(message);
+		final ByteBuf encoded = encoder.readOutbound();
+		try {
+			return encoded.readableBytes();
+		} finally {
+			encoded.release();
+		}
+	}
+
+	private void roundTrip(EmbeddedChannel encoder, EmbeddedChannel decoder, IMessage message) {
+		encoder.writeOutbound(message);
+		decoder.writeInbound((ByteBuf) encoder.readOutbound());
+		assertNotNull(decoder.readInbound());
+	}
+
+	private EmbeddedChannel createChannel(EventBusCodec codec) {
+		final EmbeddedChannel channel = new EmbeddedChannel();
+		codec.configure(channel.pipeline(), Integer.MAX_VALUE, getClass().getClassLoader());
+		return channel;
+	}
+}
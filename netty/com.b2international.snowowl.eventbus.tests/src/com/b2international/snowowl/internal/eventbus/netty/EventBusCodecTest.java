@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.netty.EventBusCodec;
+import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent;
+import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent.Type;
+import com.b2international.snowowl.internal.eventbus.MessageFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * @since 7.21
+ */
+@RunWith(Parameterized.class)
+public class EventBusCodecTest {
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> codecs() {
+		return Arrays.asList(new Object[][] { { EventBusCodec.JAVA }, { EventBusCodec.COMPACT } });
+	}
+
+	private final EventBusCodec codec;
+
+	public EventBusCodecTest(EventBusCodec codec) {
+		this.codec = codec;
+	}
+
+	@Test
+	public void roundTripStringBody() throws Exception {
+		final IMessage message = MessageFactory.createMessage("address", "replyAddress", "Ping", IMessage.TAG_EVENT, Map.of("clientId", "abcd"), true, true);
+		final IMessage decoded = roundTrip(message);
+
+		assertEquals("address", decoded.address());
+		assertEquals("replyAddress", decoded.replyAddress());
+		assertEquals("Ping", decoded.body());
+		assertEquals(IMessage.TAG_EVENT, decoded.tag());
+		assertEquals(Map.of("clientId", "abcd"), decoded.headers());
+		assertTrue(decoded.isSend());
+		assertTrue(decoded.isSucceeded());
+	}
+
+	@Test
+	public void roundTripObjectBody() throws Exception {
+		final HandlerChangedEvent event = new HandlerChangedEvent(Type.ADDED, Set.of("a", "b"));
+		final IMessage message = MessageFactory.createMessage("handlers", null, event, IMessage.TAG_REPLY, Map.of(), false, false);
+		final IMessage decoded = roundTrip(message);
+
+		assertEquals("handlers", decoded.address());
+		assertNull(decoded.replyAddress());
+		assertEquals(IMessage.TAG_REPLY, decoded.tag());
+		assertTrue(decoded.headers().isEmpty());
+		assertFalse(decoded.isSend());
+		assertFalse(decoded.isSucceeded());
+
+		final HandlerChangedEvent decodedEvent = decoded.body(HandlerChangedEvent.class);
+		assertEquals(Type.ADDED, decodedEvent.getType());
+		assertEquals(Set.of("a", "b"), decodedEvent.getAddresses());
+	}
+
+	@Test
+	public void roundTripMultipleMessagesInSingleBuffer() throws Exception {
+		final EmbeddedChannel encoder = new EmbeddedChannel();
+		codec.configure(encoder.pipeline(), Integer.MAX_VALUE, getClass().getClassLoader());
+		final EmbeddedChannel decoder = new EmbeddedChannel();
+		codec.configure(decoder.pipeline(), Integer.MAX_VALUE, getClass().getClassLoader());
+
+		for (int i = 0; i < 10; i++) {
+			encoder.writeOutbound(MessageFactory.createMessage("address", "Message " + i, IMessage.TAG_EVENT, Map.of()));
+		}
+
+		ByteBuf encoded;
+		while ((encoded = encoder.readOutbound()) != null) {
+			decoder.writeInbound(encoded);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			final IMessage decoded = decoder.readInbound();
+			assertEquals("Message " + i, decoded.body());
+		}
+
+		assertNull(decoder.readInbound());
+		encoder.finishAndReleaseAll();
+		decoder.finishAndReleaseAll();
+	}
+
+	private IMessage roundTrip(IMessage message) {
+		final EmbeddedChannel encoder = new EmbeddedChannel();
+		codec.configure(encoder.pipeline(), Integer.MAX_VALUE, getClass().getClassLoader());
+		final EmbeddedChannel decoder = new EmbeddedChannel();
+		codec.configure(decoder.pipeline(), Integer.MAX_VALUE, getClass().getClassLoader());
+
+		assertTrue(encoder.writeOutbound(message));
+		final ByteBuf encoded = encoder.readOutbound();
+		assertTrue(decoder.writeInbound(encoded));
+		final IMessage decoded = decoder.readInbound();
+
+		encoder.finishAndReleaseAll();
+		decoder.finishAndReleaseAll();
+		return decoded;
+	}
+}
@@ -15,12 +15,16 @@
  */
 package com.b2international.snowowl.eventbus;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.b2international.snowowl.internal.eventbus.EventBus;
+import com.b2international.snowowl.internal.eventbus.VirtualThreadExecutorServiceFactory;
 
 /**
  * @since 3.2
@@ -50,6 +54,46 @@ public class EventBusUtil {
 		return bus;
 	}
 	
+	/**
+	 * Returns a simple unmanaged, activated EventBus for the custom identifier, optionally running each message handler on
+	 * its own lightweight (virtual) thread. When virtual threads are not available in the current runtime, the bus falls
+	 * back to a platform thread pool with at most <code>maxThreads</code> workers.
+	 * 
+	 * @param name - the name of the bus
+	 * @param maxThreads - the maximum number of platform threads to use
+	 * @param virtualThreads - whether message handlers should run on virtual threads when supported
+	 * @param concurrencyLimits - maximum number of concurrently processed messages, keyed by address
+	 * @return
+	 * @since 7.21
+	 */
+	public static final IEventBus getBus(String name, int maxThreads, boolean virtualThreads, Map<String, Integer> concurrencyLimits) {
+		final EventBus bus;
+		if (virtualThreads) {
+			bus = new EventBus(name, maxThreads, new VirtualThreadExecutorServiceFactory());
+		} else {
+			bus = new EventBus(name, maxThreads);
+		}
+		concurrencyLimits.forEach(bus::setConcurrencyLimit);
+		bus.activate();
+		return bus;
+	}
+	
+	/**
+	 * Configures a priority lane on the given event bus. Messages with an {@link IEventBus#PRIORITY} header matching the lane
+	 * name are processed with at most <code>maxConcurrency</code> parallel handlers, and at most <code>queueCapacity</code>
+	 * messages are allowed to wait for a free slot.
+	 * 
+	 * @param bus - the bus to configure, must be created by this class
+	 * @param priority - the name of the lane
+	 * @param maxConcurrency - the maximum number of messages processed concurrently in the lane
+	 * @param queueCapacity - the maximum number of messages waiting in the lane
+	 * @since 7.21
+	 */
+	public static void configurePriorityLane(IEventBus bus, String priority, int maxConcurrency, int queueCapacity) {
+		checkArgument(bus instanceof EventBus, "Priority lanes can only be configured on local event bus instances");
+		((EventBus) bus).setPriorityLane(priority, maxConcurrency, queueCapacity);
+	}
+	
 	/**
 	 * @return an {@link EventBus} with the specified description and 1 direct thread worker.
 	 */
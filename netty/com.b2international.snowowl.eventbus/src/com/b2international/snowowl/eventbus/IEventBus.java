@@ -17,7 +17,9 @@ package com.b2international.snowowl.eventbus;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 /**
  * Event Bus to send messages.
@@ -44,6 +46,21 @@ public interface IEventBus {
 	 * Message header that indicates whether the added/removed handler is/was local.
 	 */
 	String LOCAL_HANDLER = "localHandler";
+	
+	/**
+	 * Message header that selects the priority lane a message should be processed in. Lanes are configured on the event bus
+	 * instance; messages without this header or with an unknown lane are processed without lane restrictions.
+	 * 
+	 * @since 7.21
+	 */
+	String PRIORITY = "priority";
+	
+	/**
+	 * Priority lane for long-running, heavyweight messages (exports, classifications, validation, etc.)
+	 * 
+	 * @since 7.21
+	 */
+	String PRIORITY_BATCH = "batch";
 
 	/**
 	 * Sends the message over the event bus to the specified address.
@@ -177,4 +194,45 @@ public interface IEventBus {
 	 * @return the amount of succeeded messages that are completed by tag.
 	 */
 	long getSucceededMessages(String tag);
+	
+	/**
+	 * @param priority
+	 * @return the amount of messages that are currently waiting for a free slot in the given priority lane.
+	 * @since 7.21
+	 */
+	long getInQueueMessagesByPriority(String priority);
+	
+	/**
+	 * @param priority
+	 * @return the amount of messages that are currently processed in the given priority lane.
+	 * @since 7.21
+	 */
+	long getProcessingMessagesByPriority(String priority);
+	
+	/**
+	 * @param priority
+	 * @return the total time in milliseconds messages have spent waiting for a free slot in the given priority lane.
+	 * @since 7.21
+	 */
+	long getWaitTimeByPriority(String priority);
+	
+	/**
+	 * @param priority
+	 * @return the amount of messages rejected because the queue of the given priority lane was full.
+	 * @since 7.21
+	 */
+	long getRejectedMessagesByPriority(String priority);
+	
+	/**
+	 * Runs the given task on the worker pool of the event bus as soon as the given priority lane has a free slot, and keeps the slot occupied
+	 * until the task returns. Work which runs outside of the event bus (eg. remote jobs) can use this to share the limits of a lane with regular
+	 * messages without blocking a thread while waiting. Tasks of an unknown lane are submitted immediately.
+	 * 
+	 * @param priority - the name of the lane
+	 * @param task - the task to run
+	 * @return a future that completes with the value returned by the task, or exceptionally with a {@link PriorityLaneFullException} if the
+	 *         queue of the lane is full
+	 * @since 7.21
+	 */
+	<T> CompletableFuture<T> runInPriorityLane(String priority, Supplier<T> task);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a message or task can not be accepted because the queue of its priority lane is full.
+ * 
+ * @since 7.21
+ * @see IEventBus#PRIORITY
+ */
+public final class PriorityLaneFullException extends RejectedExecutionException {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final String priority;
+
+	public PriorityLaneFullException(String priority) {
+		super(String.format("Priority lane '%s' is full", priority));
+		this.priority = priority;
+	}
+	
+	/**
+	 * @return the name of the lane which rejected the message or task
+	 */
+	public String getPriority() {
+		return priority;
+	}
+	
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus.netty;
+
+import com.b2international.snowowl.internal.eventbus.netty.CompactMessageDecoder;
+import com.b2international.snowowl.internal.eventbus.netty.CompactMessageEncoder;
+
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+import io.netty.handler.codec.serialization.ObjectEncoder;
+
+/**
+ * Wire format used for exchanging event bus messages between peers. Both ends
+ * of a connection must use the same codec.
+ *
+ * @since 7.21
+ */
+public interface EventBusCodec {
+
+	/**
+	 * The original codec, which writes each message as a Java serialized object graph. Kept for compatibility with
+	 * peers running earlier versions.
+	 */
+	EventBusCodec JAVA = new EventBusCodec() {
+		@Override
+		public void configure(ChannelPipeline pipeline, int maxObjectSize, ClassLoader classLoader) {
+			pipeline.addLast(new ObjectEncoder(), new ObjectDecoder(maxObjectSize, ClassResolvers.cacheDisabled(classLoader)));
+		}
+
+		@Override
+		public String toString() {
+			return "java";
+		}
+	};
+
+	/**
+	 * A length-prefixed binary codec which writes the message envelope (address, reply address, tag, headers and flags)
+	 * directly into pooled buffers and only falls back to Java serialization for non-string message bodies, using class
+	 * names instead of full class descriptors and a caching class resolver.
+	 */
+	EventBusCodec COMPACT = new EventBusCodec() {
+		@Override
+		public void configure(ChannelPipeline pipeline, int maxObjectSize, ClassLoader classLoader) {
+			pipeline.addLast(new CompactMessageEncoder(), new CompactMessageDecoder(maxObjectSize, ClassResolvers.softCachingConcurrentResolver(classLoader)));
+		}
+
+		@Override
+		public String toString() {
+			return "compact";
+		}
+	};
+
+	/**
+	 * Adds the encoder and decoder handlers of this codec to the end of the given pipeline.
+	 *
+	 * @param pipeline - the pipeline to configure
+	 * @param maxObjectSize - the maximum size of a single encoded message in bytes
+	 * @param classLoader - the class loader to use when resolving classes of message bodies
+	 */
+	void configure(ChannelPipeline pipeline, int maxObjectSize, ClassLoader classLoader);
+
+	/**
+	 * @param name - the name of a built-in codec (case-insensitive)
+	 * @return the corresponding {@link EventBusCodec}
+	 * @throws IllegalArgumentException - if no codec is known by the given name
+	 */
+	static EventBusCodec forName(String name) {
+		if (JAVA.toString().equalsIgnoreCase(name)) {
+			return JAVA;
+		} else if (COMPACT.toString().equalsIgnoreCase(name)) {
+			return COMPACT;
+		} else {
+			throw new IllegalArgumentException("Unknown event bus codec: '" + name + "'");
+		}
+	}
+}
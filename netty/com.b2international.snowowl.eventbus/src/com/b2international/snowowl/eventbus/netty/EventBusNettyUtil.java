@@ -26,9 +26,6 @@ import com.b2international.snowowl.internal.eventbus.netty.EventBusNettyHandler;
 import io.netty.channel.*;
 import io.netty.handler.codec.compression.JdkZlibDecoder;
 import io.netty.handler.codec.compression.JdkZlibEncoder;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.timeout.IdleStateHandler;
 
@@ -55,7 +52,23 @@ public final class EventBusNettyUtil {
 	}
 	
 	public static ChannelHandler createChannelHandler(SslContext sslCtx, boolean gzip, boolean sendInitialSync, IEventBus eventBus, ClassLoader classLoader) {
-		return createChannelHandler(sslCtx, gzip, sendInitialSync, WRITE_TIMEOUT_SECONDS, READ_TIMEOUT_SECONDS, MAX_OBJECT_SIZE, eventBus, classLoader);
+		return createChannelHandler(sslCtx, gzip, sendInitialSync, EventBusCodec.JAVA, eventBus, classLoader);
+	}
+	
+	public static ChannelHandler createChannelHandler(SslContext sslCtx, boolean gzip, boolean sendInitialSync, EventBusCodec codec, IEventBus eventBus, ClassLoader classLoader) {
+		return createChannelHandler(sslCtx, gzip, sendInitialSync, WRITE_TIMEOUT_SECONDS, READ_TIMEOUT_SECONDS, MAX_OBJECT_SIZE, codec, eventBus, classLoader);
+	}
+	
+	public static ChannelHandler createChannelHandler(
+		SslContext sslCtx, 
+		boolean gzip, 
+		boolean sendInitialSync, 
+		int watchdogRate, 
+		int watchdogTimeout, 
+		int maxObjectSize,
+		IEventBus eventBus, 
+		ClassLoader classLoader) {
+		return createChannelHandler(sslCtx, gzip, sendInitialSync, watchdogRate, watchdogTimeout, maxObjectSize, EventBusCodec.JAVA, eventBus, classLoader);
 	}
 	
 	/**
@@ -64,6 +77,8 @@ public final class EventBusNettyUtil {
 	 * @param sendInitialSync
 	 * @param watchdogTimeout 
 	 * @param watchdogRate 
+	 * @param maxObjectSize
+	 * @param codec - the wire format to use, must match the one used by the remote peer 
 	 * @param eventBus
 	 * @param classLoader
 	 * @return
@@ -75,6 +90,7 @@ public final class EventBusNettyUtil {
 		int watchdogRate, 
 		int watchdogTimeout, 
 		int maxObjectSize,
+		EventBusCodec codec,
 		IEventBus eventBus, 
 		ClassLoader classLoader) {
 		
@@ -93,7 +109,7 @@ public final class EventBusNettyUtil {
 					pipeline.addLast(new JdkZlibEncoder(), new JdkZlibDecoder());
 				}
 				
-				pipeline.addLast(new ObjectEncoder(), new ObjectDecoder(maxObjectSize, ClassResolvers.cacheDisabled(classLoader)));
+				codec.configure(pipeline, maxObjectSize, classLoader);
 
 				// Sends user events to handlers added later in the pipeline when there is no read/write activity
 				pipeline.addLast(new IdleStateHandler(watchdogTimeout, watchdogRate, 0));
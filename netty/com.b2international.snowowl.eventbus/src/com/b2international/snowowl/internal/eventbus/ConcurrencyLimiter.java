@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of tasks that can run concurrently on an {@link Executor}
+ * without blocking any threads. Tasks submitted above the limit are parked in a
+ * queue (optionally bounded) and handed over to the executor when a running task
+ * completes.
+ *
+ * @since 7.21
+ */
+public final class ConcurrencyLimiter {
+
+	private final int limit;
+	private final int capacity;
+	private final AtomicInteger running = new AtomicInteger(0);
+	private final AtomicInteger queued = new AtomicInteger(0);
+	private final Queue<PendingTask> pending = new ConcurrentLinkedQueue<>();
+	
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public ConcurrencyLimiter(int limit) {
+		this(limit, Integer.MAX_VALUE);
+	}
+	
+	public ConcurrencyLimiter(int limit, int capacity) {
+		checkArgument(limit > 0, "Concurrency limit must be greater than zero, got: %s", limit);
+		checkArgument(capacity > 0, "Queue capacity must be greater than zero, got: %s", capacity);
+		this.limit = limit;
+		this.capacity = capacity;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+	
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of tasks currently running on the executor through this limiter
+	 */
+	public int getRunning() {
+		return running.get();
+	}
+
+	/**
+	 * @return the number of tasks waiting for a free slot
+	 */
+	public int getPending() {
+		return queued.get();
+	}
+	
+	/**
+	 * @param unit - the time unit to convert the result to
+	 * @return the total time tasks have spent waiting for a free slot
+	 */
+	public long getTotalWaitTime(TimeUnit unit) {
+		return unit.convert(totalWaitNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * @return the number of tasks rejected because the queue was full
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Submits the task for execution on the given executor as soon as the number of running tasks drops below the limit.
+	 *
+	 * @param executor - the executor to run the task on
+	 * @param task - the task to run
+	 * @return <code>true</code> if the task was accepted, <code>false</code> if it was rejected because the queue is full
+	 */
+	public boolean execute(Executor executor, Runnable task) {
+		if (queued.incrementAndGet() > capacity) {
+			queued.decrementAndGet();
+			rejected.increment();
+			return false;
+		}
+		
+		pending.offer(new PendingTask(executor, task, System.nanoTime()));
+		drain();
+		return true;
+	}
+
+	private void drain() {
+		while (!pending.isEmpty()) {
+			final int current = running.get();
+			if (current >= limit) {
+				// A running task will pick up the remaining work when it completes
+				return;
+			}
+
+			if (!running.compareAndSet(current, current + 1)) {
+				continue;
+			}
+
+			final PendingTask next = pending.poll();
+			if (next == null) {
+				// Someone else took the last pending task, give back the slot and re-check
+				running.decrementAndGet();
+				continue;
+			}
+			
+			queued.decrementAndGet();
+			totalWaitNanos.add(System.nanoTime() - next.enqueuedAt);
+
+			try {
+				// Pending tasks may have been submitted with different executors, always use the one the task came with
+				next.executor.execute(() -> {
+					try {
+						next.task.run();
+					} finally {
+						running.decrementAndGet();
+						drain();
+					}
+				});
+			} catch (RuntimeException e) {
+				running.decrementAndGet();
+				throw e;
+			}
+		}
+	}
+	
+	private static final class PendingTask {
+		
+		private final Executor executor;
+		private final Runnable task;
+		private final long enqueuedAt;
+		
+		PendingTask(Executor executor, Runnable task, long enqueuedAt) {
+			this.executor = executor;
+			this.task = task;
+			this.enqueuedAt = enqueuedAt;
+		}
+	}
+}
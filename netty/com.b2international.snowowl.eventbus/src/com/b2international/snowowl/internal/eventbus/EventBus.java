@@ -20,9 +20,13 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.b2international.snowowl.internal.eventbus.MessageFactory.checkAddress;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.eventbus.IHandler;
 import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.PriorityLaneFullException;
 import com.b2international.snowowl.eventbus.netty.IEventBusNettyHandler;
 import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent.Type;
 import com.google.common.collect.ConcurrentHashMultiset;
@@ -59,6 +64,9 @@ public class EventBus implements IEventBus {
 	private final ConcurrentMap<String, AtomicLong> completedMessages;
 	private final ConcurrentMap<String, AtomicLong> failedMessages;
 	
+	private final ConcurrentMap<String, ConcurrencyLimiter> concurrencyLimiters;
+	private final ConcurrentMap<String, ConcurrencyLimiter> priorityLanes;
+	
 	private final Multiset<String> addressBook = ConcurrentHashMultiset.create();
 	
 	private ExecutorService executorService;
@@ -68,16 +76,16 @@ public class EventBus implements IEventBus {
 	}
 	
 	public EventBus(String description, int maxThreads) {
+		this(description, maxThreads, maxThreads == 0 ? ExecutorServiceFactory.DIRECT : new WorkerExecutorServiceFactory());
+	}
+	
+	public EventBus(String description, int maxThreads, ExecutorServiceFactory executorServiceFactory) {
 		checkArgument(description != null, "Description should be specified");
 		checkArgument(maxThreads >= 0, "Number of workers must be greater than zero");
+		checkArgument(executorServiceFactory != null, "Executor service factory should be specified");
 		this.description = description;
 		this.maxThreads = maxThreads;
-		
-		if (maxThreads == 0) {
-			this.executorServiceFactory = ExecutorServiceFactory.DIRECT;
-		} else {
-			this.executorServiceFactory = new WorkerExecutorServiceFactory();
-		}
+		this.executorServiceFactory = executorServiceFactory;
 		
 		// init stat maps with 1-4 concurrencyLevel
 		final int concurrencyLevel = Ints.constrainToRange(maxThreads, 1, 4);
@@ -90,6 +98,24 @@ public class EventBus implements IEventBus {
 		this.succeededMessages = mapMaker.makeMap();
 		this.completedMessages = mapMaker.makeMap();
 		this.failedMessages = mapMaker.makeMap();
+		this.concurrencyLimiters = mapMaker.makeMap();
+		this.priorityLanes = mapMaker.makeMap();
+	}
+	
+	/**
+	 * Limits the number of messages that can be processed concurrently on the given address. Messages above the limit are
+	 * queued without occupying a worker thread and are dispatched as soon as a running handler on the same address completes.
+	 * 
+	 * @param address - the address to limit
+	 * @param maxConcurrency - the maximum number of messages processed concurrently, or a non-positive value to remove the limit
+	 */
+	public void setConcurrencyLimit(String address, int maxConcurrency) {
+		checkAddress(address);
+		if (maxConcurrency > 0) {
+			concurrencyLimiters.put(address, new ConcurrencyLimiter(maxConcurrency));
+		} else {
+			concurrencyLimiters.remove(address);
+		}
 	}
 
 	public void activate() {
@@ -102,6 +128,22 @@ public class EventBus implements IEventBus {
 		}
 	}
 
+	/**
+	 * Configures a priority lane. Messages carrying the {@link IEventBus#PRIORITY} header with the given lane name are
+	 * processed with at most <code>maxConcurrency</code> parallel handlers; at most <code>queueCapacity</code> messages can
+	 * wait for a free slot, further messages are failed with a {@link PriorityLaneFullException}.
+	 * <p>
+	 * Per-address limits (see {@link #setConcurrencyLimit(String, int)}) are applied within the lane.
+	 * 
+	 * @param priority - the name of the lane
+	 * @param maxConcurrency - the maximum number of messages processed concurrently in the lane
+	 * @param queueCapacity - the maximum number of messages waiting in the lane
+	 */
+	public void setPriorityLane(String priority, int maxConcurrency, int queueCapacity) {
+		checkArgument(!MessageFactory.isNullOrEmpty(priority), "Priority lane name cannot be null or empty");
+		priorityLanes.put(priority, new ConcurrencyLimiter(maxConcurrency, queueCapacity));
+	}
+	
 	public boolean isActive() {
 		return (executorService != null) && !executorService.isShutdown();
 	}
@@ -203,7 +245,7 @@ public class EventBus implements IEventBus {
 	private void handleMessage(final IMessage message, final Handler handler) {
 		queue(message);
 		
-		executorService.submit(() -> {
+		final Runnable task = () -> {
 			try {
 				process(message);
 				handler.handleMessage(message);
@@ -214,7 +256,40 @@ public class EventBus implements IEventBus {
 				complete(message);
 				handler.onComplete(this);
 			}
-		});
+		};
+		
+		if (handler.isReplyHandler) {
+			// Replies are never held back, the sender is already waiting for them
+			executorService.submit(task);
+			return;
+		}
+		
+		final ConcurrencyLimiter addressLimiter = concurrencyLimiters.get(message.address());
+		final Executor addressExecutor;
+		if (addressLimiter != null) {
+			addressExecutor = command -> addressLimiter.execute(executorService, command);
+		} else {
+			addressExecutor = executorService::submit;
+		}
+		
+		final String priority = message.headers().get(PRIORITY);
+		final ConcurrencyLimiter lane = (priority == null) ? null : priorityLanes.get(priority);
+		if (lane == null) {
+			addressExecutor.execute(task);
+		} else if (!lane.execute(addressExecutor, task)) {
+			reject(message, handler, priority);
+		}
+	}
+	
+	private void reject(final IMessage message, final Handler handler, final String priority) {
+		LOG.warn("Rejected message on address '{}', priority lane '{}' is full", message.address(), priority);
+		try {
+			process(message);
+			message.fail(new PriorityLaneFullException(priority));
+		} finally {
+			complete(message);
+			handler.onComplete(this);
+		}
 	}
 	
 	private void queue(IMessage message) {
@@ -388,6 +463,52 @@ public class EventBus implements IEventBus {
 		return getOrCreateCounter(tag, succeededMessages).get();
 	}
 	
+	@Override
+	public long getInQueueMessagesByPriority(String priority) {
+		final ConcurrencyLimiter lane = priorityLanes.get(priority);
+		return (lane == null) ? 0L : lane.getPending();
+	}
+	
+	@Override
+	public long getProcessingMessagesByPriority(String priority) {
+		final ConcurrencyLimiter lane = priorityLanes.get(priority);
+		return (lane == null) ? 0L : lane.getRunning();
+	}
+	
+	@Override
+	public long getWaitTimeByPriority(String priority) {
+		final ConcurrencyLimiter lane = priorityLanes.get(priority);
+		return (lane == null) ? 0L : lane.getTotalWaitTime(TimeUnit.MILLISECONDS);
+	}
+	
+	@Override
+	public long getRejectedMessagesByPriority(String priority) {
+		final ConcurrencyLimiter lane = priorityLanes.get(priority);
+		return (lane == null) ? 0L : lane.getRejected();
+	}
+	
+	@Override
+	public <T> CompletableFuture<T> runInPriorityLane(String priority, Supplier<T> task) {
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		final Runnable command = () -> {
+			try {
+				result.complete(task.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		};
+		
+		final ConcurrencyLimiter lane = priorityLanes.get(priority);
+		if (lane == null) {
+			executorService.submit(command);
+		} else if (!lane.execute(executorService, command)) {
+			LOG.warn("Rejected task, priority lane '{}' is full", priority);
+			result.completeExceptionally(new PriorityLaneFullException(priority));
+		}
+		
+		return result;
+	}
+	
 	private static class Handler {
 		
 		private final String address;
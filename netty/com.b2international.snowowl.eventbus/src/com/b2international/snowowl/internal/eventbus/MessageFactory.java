@@ -44,6 +44,12 @@ public class MessageFactory {
 		return baseMessage;
 	}
 
+	public static final BaseMessage createMessage(String address, String replyAddress, Object message, String tag, Map<String, String> headers, boolean send, boolean succeeded) {
+		final BaseMessage baseMessage = createMessage(address, message, tag, headers, send, succeeded);
+		baseMessage.replyAddress = replyAddress;
+		return baseMessage;
+	}
+
 	public static final void checkAddress(String address) {
 		checkArgument(!isNullOrEmpty(address), "Address cannot be null or empty");		
 	}
@@ -71,8 +77,6 @@ public class MessageFactory {
 			throw new IllegalArgumentException(String.format("Message body should be a subtype of Serializable on address '%s', but was %s", address, className));
 		}
 
-		final BaseMessage serializableMessage = createMessage(address, serializableBody, message.tag(), message.headers(), message.isSend(), message.isSucceeded());
-		serializableMessage.replyAddress = message.replyAddress();
-		return serializableMessage;
+		return createMessage(address, message.replyAddress(), serializableBody, message.tag(), message.headers(), message.isSend(), message.isSucceeded());
 	}
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link ExecutorServiceFactory} that runs each submitted task on its own
+ * lightweight (virtual) thread when the runtime supports it. The bundle still
+ * targets Java 11, so the virtual thread API is looked up reflectively; on
+ * runtimes where it is not available (or not enabled) the factory falls back to
+ * the given executor service factory.
+ * <p>
+ * Since the number of threads is not bounded in this mode, callers are expected
+ * to protect downstream resources with per-address concurrency limits (see
+ * {@link EventBus#setConcurrencyLimit(String, int)}).
+ *
+ * @since 7.21
+ */
+public class VirtualThreadExecutorServiceFactory implements ExecutorServiceFactory {
+
+	private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadExecutorServiceFactory.class);
+
+	private static final Method OF_VIRTUAL;
+	private static final Method NAME;
+	private static final Method FACTORY;
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		Method newThreadPerTaskExecutor = null;
+
+		try {
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = Class.forName("java.lang.Thread$Builder").getMethod("name", String.class, long.class);
+			factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			ofVirtual = null;
+			name = null;
+			factory = null;
+			newThreadPerTaskExecutor = null;
+		}
+
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+	}
+
+	private final ExecutorServiceFactory fallback;
+
+	public VirtualThreadExecutorServiceFactory() {
+		this(new WorkerExecutorServiceFactory());
+	}
+
+	public VirtualThreadExecutorServiceFactory(ExecutorServiceFactory fallback) {
+		this.fallback = fallback;
+	}
+
+	/**
+	 * @return <code>true</code> if the current runtime exposes the virtual thread API, <code>false</code> otherwise
+	 */
+	public static boolean isSupported() {
+		return NEW_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	@Override
+	public ExecutorService createExecutorService(String description, int maxThreads) {
+		if (!isSupported()) {
+			LOG.warn("Virtual threads are not supported by the current runtime ({}), falling back to platform threads for '{}'.", Runtime.version(), description);
+			return fallback.createExecutorService(description, maxThreads);
+		}
+
+		try {
+			final Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), description + "-", 0L);
+			final ThreadFactory threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Preview runtimes throw UnsupportedOperationException (wrapped) when the feature is not enabled
+			LOG.warn("Failed to create virtual thread executor for '{}', falling back to platform threads.", description, e);
+			return fallback.createExecutorService(description, maxThreads);
+		}
+	}
+
+}
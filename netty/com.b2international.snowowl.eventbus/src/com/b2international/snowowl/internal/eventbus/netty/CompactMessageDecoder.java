@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static com.b2international.snowowl.internal.eventbus.netty.CompactMessageFormat.*;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Map;
+
+import com.b2international.snowowl.internal.eventbus.MessageFactory;
+import com.google.common.collect.Maps;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.serialization.ClassResolver;
+
+/**
+ * Decodes length-prefixed frames of the compact event bus wire format, produced
+ * by {@link CompactMessageEncoder}.
+ *
+ * @since 7.21
+ * @see CompactMessageFormat
+ */
+public final class CompactMessageDecoder extends LengthFieldBasedFrameDecoder {
+
+	private final ClassResolver classResolver;
+
+	public CompactMessageDecoder(int maxObjectSize, ClassResolver classResolver) {
+		super(maxObjectSize, 0, LENGTH_FIELD_LENGTH, 0, LENGTH_FIELD_LENGTH);
+		this.classResolver = classResolver;
+	}
+
+	@Override
+	protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+		final ByteBuf frame = (ByteBuf) super.decode(ctx, in);
+		if (frame == null) {
+			return null;
+		}
+
+		try {
+			final byte frameType = frame.readByte();
+			switch (frameType) {
+				case FRAME_MESSAGE:
+					return readMessage(frame);
+				case FRAME_OBJECT:
+					return readObject(frame);
+				default:
+					throw new CorruptedFrameException("Unexpected frame type: " + frameType);
+			}
+		} finally {
+			frame.release();
+		}
+	}
+
+	private Object readMessage(ByteBuf frame) throws IOException, ClassNotFoundException {
+		final int flags = frame.readByte();
+		final String address = readString(frame);
+		final String replyAddress = readString(frame);
+		final String tag = readString(frame);
+
+		final int headerCount = readVarInt(frame);
+		final Map<String, String> headers = Maps.newHashMapWithExpectedSize(headerCount);
+		for (int i = 0; i < headerCount; i++) {
+			headers.put(readString(frame), readString(frame));
+		}
+
+		final byte bodyType = frame.readByte();
+		final Object body;
+		switch (bodyType) {
+			case BODY_STRING:
+				body = readString(frame);
+				break;
+			case BODY_OBJECT:
+				body = readObject(frame);
+				break;
+			default:
+				throw new CorruptedFrameException("Unexpected message body type: " + bodyType);
+		}
+
+		return MessageFactory.createMessage(address,
+			replyAddress,
+			body,
+			tag,
+			headers,
+			(flags & FLAG_SEND) != 0,
+			(flags & FLAG_SUCCEEDED) != 0);
+	}
+
+	private Object readObject(ByteBuf frame) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new CompactObjectInputStream(new ByteBufInputStream(frame), classResolver)) {
+			return ois.readObject();
+		}
+	}
+}
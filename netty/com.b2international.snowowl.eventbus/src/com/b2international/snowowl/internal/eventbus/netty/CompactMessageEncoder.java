@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static com.b2international.snowowl.internal.eventbus.netty.CompactMessageFormat.*;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.b2international.snowowl.eventbus.IMessage;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Encodes {@link IMessage}s (and other serializable control objects) into
+ * length-prefixed frames of the compact event bus wire format.
+ *
+ * @since 7.21
+ * @see CompactMessageFormat
+ * @see CompactMessageDecoder
+ */
+@Sharable
+public final class CompactMessageEncoder extends MessageToByteEncoder<Serializable> {
+
+	private static final byte[] LENGTH_PLACEHOLDER = new byte[LENGTH_FIELD_LENGTH];
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, Serializable msg, ByteBuf out) throws Exception {
+		final int startIdx = out.writerIndex();
+		out.writeBytes(LENGTH_PLACEHOLDER);
+
+		if (msg instanceof IMessage) {
+			out.writeByte(FRAME_MESSAGE);
+			writeMessage(out, (IMessage) msg);
+		} else {
+			out.writeByte(FRAME_OBJECT);
+			writeObject(out, msg);
+		}
+
+		final int endIdx = out.writerIndex();
+		out.setInt(startIdx, endIdx - startIdx - LENGTH_FIELD_LENGTH);
+	}
+
+	private void writeMessage(ByteBuf out, IMessage message) throws IOException {
+		int flags = 0;
+		if (message.isSend()) {
+			flags |= FLAG_SEND;
+		}
+		if (message.isSucceeded()) {
+			flags |= FLAG_SUCCEEDED;
+		}
+		out.writeByte(flags);
+
+		writeString(out, message.address());
+		writeString(out, message.replyAddress());
+		writeString(out, message.tag());
+
+		final Map<String, String> headers = message.headers();
+		writeVarInt(out, headers.size());
+		for (final Entry<String, String> header : headers.entrySet()) {
+			writeString(out, header.getKey());
+			writeString(out, header.getValue());
+		}
+
+		final Object body = message.body();
+		if (body instanceof String) {
+			out.writeByte(BODY_STRING);
+			writeString(out, (String) body);
+		} else {
+			out.writeByte(BODY_OBJECT);
+			writeObject(out, body);
+		}
+	}
+
+	private void writeObject(ByteBuf out, Object value) throws IOException {
+		try (ObjectOutputStream oos = new CompactObjectOutputStream(new ByteBufOutputStream(out))) {
+			oos.writeObject(value);
+			oos.flush();
+		}
+	}
+}
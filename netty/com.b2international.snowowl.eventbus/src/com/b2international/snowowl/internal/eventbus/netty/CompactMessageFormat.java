@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+
+/**
+ * Constants and primitive read/write helpers of the compact event bus wire format. Each frame has the following layout:
+ *
+ * <pre>
+ * int32   frame length (excluding these 4 bytes)
+ * byte    frame type ({@link #FRAME_MESSAGE} or {@link #FRAME_OBJECT})
+ *
+ * FRAME_MESSAGE:
+ *   byte    flags (send, succeeded)
+ *   string  address
+ *   string  reply address (nullable)
+ *   string  tag (nullable)
+ *   varint  number of headers, followed by key-value string pairs
+ *   byte    body type ({@link #BODY_STRING} or {@link #BODY_OBJECT})
+ *   ...     body, either a string or a compact Java serialized object graph
+ *
+ * FRAME_OBJECT:
+ *   ...     compact Java serialized object graph (used for control messages)
+ * </pre>
+ *
+ * Strings are written as a varint byte length (<code>-1</code> for <code>null</code>) followed by UTF-8 bytes.
+ *
+ * @since 7.21
+ */
+final class CompactMessageFormat {
+
+	static final int LENGTH_FIELD_LENGTH = 4;
+
+	static final byte FRAME_MESSAGE = 1;
+	static final byte FRAME_OBJECT = 2;
+
+	static final byte BODY_STRING = 1;
+	static final byte BODY_OBJECT = 2;
+
+	static final int FLAG_SEND = 1;
+	static final int FLAG_SUCCEEDED = 1 << 1;
+
+	private CompactMessageFormat() {
+		// Prevent instantiation
+	}
+
+	static void writeString(ByteBuf out, String value) {
+		if (value == null) {
+			writeVarInt(out, -1);
+		} else {
+			writeVarInt(out, ByteBufUtil.utf8Bytes(value));
+			out.writeCharSequence(value, StandardCharsets.UTF_8);
+		}
+	}
+
+	static String readString(ByteBuf in) {
+		final int length = readVarInt(in);
+		if (length < 0) {
+			return null;
+		}
+
+		return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+	}
+
+	/*
+	 * Zig-zag encoded variable length integers, so that -1 (null marker) still fits
+	 * into a single byte.
+	 */
+	static void writeVarInt(ByteBuf out, int value) {
+		int zigZag = (value << 1) ^ (value >> 31);
+		while ((zigZag & ~0x7F) != 0) {
+			out.writeByte((zigZag & 0x7F) | 0x80);
+			zigZag >>>= 7;
+		}
+		out.writeByte(zigZag);
+	}
+
+	static int readVarInt(ByteBuf in) {
+		int zigZag = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = in.readByte();
+			zigZag |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+
+		throw new CorruptedFrameException("Malformed variable length integer");
+	}
+}
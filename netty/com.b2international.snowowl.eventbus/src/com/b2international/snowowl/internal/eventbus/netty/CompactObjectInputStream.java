@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+
+import io.netty.handler.codec.serialization.ClassResolver;
+
+/**
+ * Reads object graphs written by {@link CompactObjectOutputStream}, resolving
+ * classes through the given (usually caching) {@link ClassResolver}. Like
+ * its counterpart, it wraps Netty's {@code ByteBufInputStream}, as Netty's
+ * {@code CompactObjectInputStream} is package-private.
+ *
+ * @since 7.21
+ */
+final class CompactObjectInputStream extends ObjectInputStream {
+
+	private final ClassResolver classResolver;
+
+	CompactObjectInputStream(InputStream in, ClassResolver classResolver) throws IOException {
+		super(in);
+		this.classResolver = classResolver;
+	}
+
+	@Override
+	protected void readStreamHeader() throws IOException {
+		final int version = readByte() & 0xFF;
+		if (version != CompactObjectOutputStream.STREAM_VERSION) {
+			throw new StreamCorruptedException("Unsupported compact stream version: " + version);
+		}
+	}
+
+	@Override
+	protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+		final int type = read();
+		switch (type) {
+			case CompactObjectOutputStream.TYPE_FAT_DESCRIPTOR:
+				return super.readClassDescriptor();
+			case CompactObjectOutputStream.TYPE_THIN_DESCRIPTOR:
+				return ObjectStreamClass.lookupAny(classResolver.resolve(readUTF()));
+			default:
+				throw new StreamCorruptedException("Unexpected class descriptor type: " + type);
+		}
+	}
+
+	@Override
+	protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+		try {
+			return classResolver.resolve(desc.getName());
+		} catch (ClassNotFoundException e) {
+			// Primitive types and other JDK-specific cases are handled by the default implementation
+			return super.resolveClass(desc);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+/**
+ * An {@link ObjectOutputStream} which writes only the class name for regular
+ * serializable classes instead of the full class descriptor. The underlying
+ * buffer is accessed through Netty's {@code ByteBufOutputStream}; the
+ * descriptor handling mirrors Netty's own {@code CompactObjectOutputStream},
+ * which is package-private and can't be reused outside of its codec.
+ *
+ * @since 7.21
+ * @see CompactObjectInputStream
+ */
+final class CompactObjectOutputStream extends ObjectOutputStream {
+
+	static final int STREAM_VERSION = 1;
+
+	static final int TYPE_FAT_DESCRIPTOR = 0;
+	static final int TYPE_THIN_DESCRIPTOR = 1;
+
+	CompactObjectOutputStream(OutputStream out) throws IOException {
+		super(out);
+	}
+
+	@Override
+	protected void writeStreamHeader() throws IOException {
+		writeByte(STREAM_VERSION);
+	}
+
+	@Override
+	protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+		final Class<?> type = desc.forClass();
+		if (type.isPrimitive() || type.isArray() || type.isInterface() || desc.getSerialVersionUID() == 0L) {
+			write(TYPE_FAT_DESCRIPTOR);
+			super.writeClassDescriptor(desc);
+		} else {
+			write(TYPE_THIN_DESCRIPTOR);
+			writeUTF(desc.getName());
+		}
+	}
+}
@@ -24,11 +24,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -37,6 +39,9 @@ import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.snowowl.core.ApplicationContext;
 import com.b2international.snowowl.core.attachments.AttachmentRegistry;
 import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.domain.TransactionContext;
+import com.b2international.snowowl.core.events.bulk.BulkRequest;
+import com.b2international.snowowl.core.events.bulk.BulkRequestBuilder;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.request.CommitResult;
 import com.b2international.snowowl.core.terminology.ComponentCategory;
@@ -70,6 +75,7 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.test.commons.Services;
 import com.b2international.snowowl.test.commons.TestMethodNameRule;
 import com.google.common.base.Charsets;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.io.Files;
@@ -164,6 +170,67 @@ public class SnomedRefSetDSVExportTest {
 		Assert.assertTrue(MessageFormat.format("Expected 3 lines in the exported file (2 header and 2 member lines) instead of {0} lines.", dsvExportLines.size()), dsvExportLines.size() == 3);
 	}
 	
+	@Ignore("slows down test suite; run manually when changing the simple type DSV exporter")
+	@Test
+	public void simpleTypeDSVExportThroughput() throws Exception {
+		String refsetId = createRefset(branchPath, SnomedRefSetType.SIMPLE);
+		
+		SnomedConcepts concepts = SnomedRequests.prepareSearchConcept()
+				.all()
+				.filterByActive(true)
+				.setFields(SnomedConcept.Fields.ID)
+				.build(REPOSITORY_ID, branchPath)
+				.execute(bus)
+				.getSync();
+		
+		for (List<SnomedConcept> chunk : Lists.partition(concepts.getItems(), 10_000)) {
+			final BulkRequestBuilder<TransactionContext> bulk = BulkRequest.create();
+			chunk.forEach(concept -> bulk.add(SnomedRequests.prepareNewMember()
+					.setModuleId(Concepts.MODULE_SCT_CORE)
+					.setActive(true)
+					.setReferenceSetId(refsetId)
+					.setReferencedComponentId(concept.getId())
+					.setId(UUID.randomUUID().toString())));
+			
+			SnomedRequests.prepareCommit()
+				.setBody(bulk)
+				.setCommitComment("Add members for DSV export throughput measurement")
+				.setAuthor("test")
+				.build(REPOSITORY_ID, branchPath)
+				.execute(bus)
+				.getSync();
+		}
+		
+		List<AbstractSnomedDsvExportItem> exportItems = ImmutableList.of(
+				new SimpleSnomedDsvExportItem(SnomedDsvExportItemType.CONCEPT_ID),
+				new SimpleSnomedDsvExportItem(SnomedDsvExportItemType.PREFERRED_TERM),
+				new ComponentIdSnomedDsvExportItem(SnomedDsvExportItemType.DESCRIPTION, Concepts.SYNONYM, "Synonym"),
+				new ComponentIdSnomedDsvExportItem(SnomedDsvExportItemType.RELATIONSHIP, Concepts.FINDING_SITE, "Finding site"));
+		
+		Stopwatch watch = Stopwatch.createStarted();
+		UUID fileId = SnomedRequests.dsv()
+				.prepareExport()
+				.setLocales(LOCALES)
+				.setDelimiter(DELIMITER)
+				.setDescriptionIdExpected(true)
+				.setRelationshipTargetExpected(true)
+				.setRefSetId(refsetId)
+				.setExportItems(exportItems)
+				.build(REPOSITORY_ID, branchPath)
+				.execute(bus)
+				.getSync();
+		long elapsedMillis = Math.max(1L, watch.elapsed(TimeUnit.MILLISECONDS));
+		
+		File dsvExportFile = new File(tempDir, String.format("dsv-export-%s.csv", fileId.toString()));
+		try (OutputStream outputStream = new FileOutputStream(dsvExportFile)) {
+			fileRegistry.download(fileId, outputStream);
+		}
+		
+		List<String> dsvExportLines = Files.readLines(dsvExportFile, Charsets.UTF_8);
+		Assert.assertEquals(concepts.getTotal() + 2, dsvExportLines.size());
+		System.out.println(String.format("Exported %d members in %d ms (%d members/s)", concepts.getTotal(), elapsedMillis, concepts.getTotal() * 1000L / elapsedMillis));
+	}
+	
 	private String createBranch(String branchName) {
 		return RepositoryRequests.branching().prepareCreate().setParent(Branch.MAIN_PATH).setName(branchName).build(REPOSITORY_ID).execute(bus).getSync();
 	}
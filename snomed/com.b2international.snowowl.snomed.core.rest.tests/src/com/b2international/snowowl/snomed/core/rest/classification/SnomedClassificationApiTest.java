@@ -43,6 +43,7 @@ import com.b2international.snowowl.core.api.IBranchPath;
 import com.b2international.snowowl.core.branch.BranchPathUtils;
 import com.b2international.snowowl.core.repository.JsonSupport;
 import com.b2international.snowowl.core.uri.CodeSystemURI;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
@@ -182,6 +183,52 @@ public class SnomedClassificationApiTest extends AbstractSnomedApiTest {
 		assertEquals(2, getPersistedInferredRelationshipCount(branchPath, childConceptId));
 	}
 	
+	@Test
+	public void persistInferredRelationshipsDirectlyInDefaultNamespace() throws Exception {
+		persistInferredRelationshipsDirectly("");
+	}
+
+	@Test
+	public void persistInferredRelationshipsDirectlyInNamespace() throws Exception {
+		persistInferredRelationshipsDirectly(Concepts.B2I_NAMESPACE);
+	}
+
+	private void persistInferredRelationshipsDirectly(String namespace) throws Exception {
+		String parentConceptId = createNewConcept(branchPath);
+		String targetConceptId = createNewConcept(branchPath);
+		String childConceptId = createNewConcept(branchPath, parentConceptId);
+
+		createNewRelationship(branchPath, parentConceptId, Concepts.MORPHOLOGY, targetConceptId);
+
+		String classificationId = getClassificationJobId(beginClassification(branchPath));
+		waitForClassificationJob(branchPath, classificationId)
+			.statusCode(200)
+			.body("status", equalTo(ClassificationStatus.COMPLETED.name()));
+
+		// Relationship identifiers are reserved before the commit, in the namespace given on the save request
+		beginClassificationSave(classificationId, createClassificationSaveBody()
+			.with("namespace", namespace)
+			.with("directStaging", true));
+
+		waitForClassificationSaveJob(branchPath, classificationId)
+			.statusCode(200)
+			.body("status", equalTo(ClassificationStatus.SAVED.name()));
+
+		for (String conceptId : List.of(parentConceptId, childConceptId)) {
+			List<String> relationshipIds = getComponent(branchPath, SnomedComponentType.CONCEPT, conceptId, 
+					"relationships(\"active\":true,\"characteristicTypeId\":\"" + Concepts.INFERRED_RELATIONSHIP + "\")")
+					.statusCode(200)
+					.extract()
+					.jsonPath()
+					.getList("relationships.items.id");
+
+			assertEquals(2, relationshipIds.size());
+			for (String relationshipId : relationshipIds) {
+				assertEquals(namespace, SnomedIdentifiers.getNamespace(relationshipId));
+			}
+		}
+	}
+	
 	@Test
 	public void persistDataHasValueAxiom_Integer() throws Exception {
 		persistDataHasValueAxiom("\"99\"^^xsd:integer", new RelationshipValue(99));
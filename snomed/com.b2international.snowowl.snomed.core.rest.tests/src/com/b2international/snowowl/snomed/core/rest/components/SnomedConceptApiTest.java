@@ -23,12 +23,15 @@ import static com.b2international.snowowl.test.commons.codesystem.CodeSystemRest
 import static com.b2international.snowowl.test.commons.codesystem.CodeSystemVersionRestRequests.createVersion;
 import static com.b2international.snowowl.test.commons.codesystem.CodeSystemVersionRestRequests.getNextAvailableEffectiveDateAsString;
 import static com.b2international.snowowl.test.commons.rest.RestExtensions.assertCreated;
+import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
 import static com.b2international.snowowl.test.commons.rest.RestExtensions.lastPathSegment;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -40,6 +43,7 @@ import org.junit.Test;
 
 import com.b2international.commons.exceptions.ConflictException;
 import com.b2international.commons.json.Json;
+import com.b2international.index.revision.RevisionIndex;
 import com.b2international.snowowl.core.ApplicationContext;
 import com.b2international.snowowl.core.api.IBranchPath;
 import com.b2international.snowowl.core.branch.Branch;
@@ -69,6 +73,7 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.test.commons.rest.RestExtensions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.net.HttpHeaders;
 
 import io.restassured.response.ValidatableResponse;
 
@@ -1024,4 +1029,83 @@ public class SnomedConceptApiTest extends AbstractSnomedApiTest {
 		assertThat(concept.getStatedParentIdsAsString()).contains(Concepts.ROOT_CONCEPT);
 	}
 	
+	@Test
+	public void conditionalGetConcept() {
+		final String conceptId = createNewConcept(branchPath);
+		
+		final String eTag = getComponent(branchPath, SnomedComponentType.CONCEPT, conceptId)
+				.statusCode(200)
+				.extract()
+				.header(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+		
+		assertConditionalGetConcept(branchPath.getPath(), conceptId, eTag).statusCode(304);
+		
+		final Map<?, ?> updateRequestBody = Json.object(
+			"definitionStatusId", Concepts.FULLY_DEFINED,
+			"commitComment", "Changed definition status of concept to fully defined"
+		);
+		updateComponent(branchPath, SnomedComponentType.CONCEPT, conceptId, updateRequestBody).statusCode(204);
+		
+		// a commit on the branch invalidates the previous ETag
+		final String newETag = assertConditionalGetConcept(branchPath.getPath(), conceptId, eTag)
+				.statusCode(200)
+				.body("definitionStatusId", equalTo(Concepts.FULLY_DEFINED))
+				.extract()
+				.header(HttpHeaders.ETAG);
+		assertNotEquals(eTag, newETag);
+	}
+	
+	@Test
+	public void conditionalGetConceptAtTimestamp() {
+		final String conceptId = createNewConcept(branchPath);
+		final long headTimestamp = branching.getBranch(branchPath).extract().jsonPath().getLong("headTimestamp");
+		final String path = RevisionIndex.toBranchAtPath(branchPath.getPath(), headTimestamp);
+		
+		final String eTag = getComponent(path, SnomedComponentType.CONCEPT, conceptId)
+				.statusCode(200)
+				.header(HttpHeaders.CACHE_CONTROL, notNullValue())
+				.extract()
+				.header(HttpHeaders.ETAG);
+		
+		final Map<?, ?> updateRequestBody = Json.object(
+			"definitionStatusId", Concepts.FULLY_DEFINED,
+			"commitComment", "Changed definition status of concept to fully defined"
+		);
+		updateComponent(branchPath, SnomedComponentType.CONCEPT, conceptId, updateRequestBody).statusCode(204);
+		
+		// content of timestamp restricted paths does not change after a commit
+		assertConditionalGetConcept(path, conceptId, eTag).statusCode(304);
+	}
+	
+	@Test
+	public void noETagOnErrorResponse() {
+		createNewConcept(branchPath);
+		
+		getComponent(branchPath, SnomedComponentType.CONCEPT, reserveComponentId(null, ComponentCategory.CONCEPT))
+				.statusCode(404)
+				.header(HttpHeaders.ETAG, nullValue())
+				.header(HttpHeaders.CACHE_CONTROL, nullValue());
+	}
+	
+	@Test
+	public void varyHeaderOnETagResponse() {
+		final String conceptId = createNewConcept(branchPath);
+		
+		final List<String> vary = getComponent(branchPath, SnomedComponentType.CONCEPT, conceptId)
+				.statusCode(200)
+				.extract()
+				.headers()
+				.getValues(HttpHeaders.VARY);
+		
+		assertThat(String.join(",", vary)).contains(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.AUTHORIZATION);
+	}
+	
+	private ValidatableResponse assertConditionalGetConcept(String path, String conceptId, String eTag) {
+		return givenAuthenticatedRequest(SnomedApiTestConstants.SCT_API)
+				.header(HttpHeaders.IF_NONE_MATCH, eTag)
+				.get("/{path}/concepts/{id}", path, conceptId)
+				.then();
+	}
+	
 }
@@ -36,8 +36,10 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Ignore;
@@ -52,6 +54,7 @@ import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.events.bulk.BulkRequest;
 import com.b2international.snowowl.core.events.bulk.BulkRequestBuilder;
 import com.b2international.snowowl.core.request.CommitResult;
+import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.refset.DataType;
@@ -67,6 +70,7 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedOWLRelatio
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.test.commons.Services;
 import com.b2international.snowowl.test.commons.rest.RestExtensions;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * @since 4.5
@@ -991,6 +995,35 @@ public class SnomedRefSetMemberApiTest extends AbstractSnomedApiTest {
 			.body("effectiveTime", equalTo(effectiveDate));
 	}
 
+	@Test
+	public void streamMembersAsNdjson() throws Exception {
+		final String refSetId = createNewRefSet(branchPath);
+		final String memberId1 = createNewRefSetMember(branchPath, createNewConcept(branchPath), refSetId);
+		final String memberId2 = createNewRefSetMember(branchPath, createNewConcept(branchPath), refSetId);
+		
+		final String body = givenAuthenticatedRequest(SnomedApiTestConstants.SCT_API)
+				.accept(AbstractRestService.NDJSON_MEDIA_TYPE)
+				.queryParam("referenceSet", refSetId)
+				.get("/{path}/members", branchPath.getPath())
+				.then()
+				.statusCode(200)
+				.extract()
+				.asString();
+		
+		final ObjectMapper mapper = new ObjectMapper();
+		final Set<String> memberIds = body.lines()
+				.map(line -> {
+					try {
+						return mapper.readTree(line).get("id").asText();
+					} catch (Exception e) {
+						throw new AssertionError("Invalid JSON line: " + line, e);
+					}
+				})
+				.collect(Collectors.toSet());
+		
+		assertEquals(Set.of(memberId1, memberId2), memberIds);
+	}
+	
 	private void executeSyncAction(final String memberId) {
 		final Json syncActionRequest = Json.object(
 			"action", "sync",
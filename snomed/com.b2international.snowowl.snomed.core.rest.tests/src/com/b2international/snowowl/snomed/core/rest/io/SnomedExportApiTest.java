@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,14 +38,21 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -73,6 +80,8 @@ import com.b2international.snowowl.snomed.core.rest.AbstractSnomedApiTest;
 import com.b2international.snowowl.snomed.core.rest.SnomedApiTestConstants;
 import com.b2international.snowowl.snomed.core.rest.SnomedComponentType;
 import com.b2international.snowowl.snomed.datastore.SnomedDatastoreActivator;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.config.SnomedExportDefaultConfiguration;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.test.commons.rest.RestExtensions;
 import com.google.common.base.Joiner;
@@ -1186,6 +1195,42 @@ public class SnomedExportApiTest extends AbstractSnomedApiTest {
 		assertArchiveContainsLines(exportArchive, fileToLinesMap);
 	}
 	
+	@Test
+	public void exportUnpublishedAssociationAndAttributeValueMembers() throws Exception {
+		final String associationRefSetId = createNewRefSet(branchPath, SnomedRefSetType.ASSOCIATION);
+		final String associationMemberId = createNewRefSetMember(branchPath, Concepts.ROOT_CONCEPT, associationRefSetId, 
+				getValidProperties(SnomedRefSetType.ASSOCIATION, Concepts.ROOT_CONCEPT));
+		
+		final String attributeValueRefSetId = createNewRefSet(branchPath, SnomedRefSetType.ATTRIBUTE_VALUE);
+		final String attributeValueMemberId = createNewRefSetMember(branchPath, Concepts.ROOT_CONCEPT, attributeValueRefSetId, 
+				getValidProperties(SnomedRefSetType.ATTRIBUTE_VALUE, Concepts.ROOT_CONCEPT));
+		
+		final File exportArchive = doExport(branchPath, Json.object("type", Rf2ReleaseType.DELTA.name()));
+		
+		// targetComponentId and valueId columns are filled from the projected member fields
+		final String associationMemberLine = TAB_JOINER.join(associationMemberId, 
+				"", 
+				"1", 
+				Concepts.MODULE_SCT_CORE, 
+				associationRefSetId, 
+				Concepts.ROOT_CONCEPT,
+				Concepts.ROOT_CONCEPT);
+		
+		final String attributeValueMemberLine = TAB_JOINER.join(attributeValueMemberId, 
+				"", 
+				"1", 
+				Concepts.MODULE_SCT_CORE, 
+				attributeValueRefSetId, 
+				Concepts.ROOT_CONCEPT,
+				Concepts.ROOT_CONCEPT);
+		
+		final Multimap<String, Pair<Boolean, String>> fileToLinesMap = ArrayListMultimap.<String, Pair<Boolean, String>>create();
+		fileToLinesMap.put("der2_cRefset_AssociationDelta", Pair.of(true, associationMemberLine));
+		fileToLinesMap.put("der2_cRefset_AttributeValueDelta", Pair.of(true, attributeValueMemberLine));
+		
+		assertArchiveContainsLines(exportArchive, fileToLinesMap);
+	}
+	
 	@Test
 	public void exportUnpublishedOWLExpressionRefsetMembers() throws Exception {
 		
@@ -1354,12 +1399,208 @@ public class SnomedExportApiTest extends AbstractSnomedApiTest {
 		assertArchiveContainsLines(exportArchiveWithBranchRange, fileToLinesMap);
 	}
 
+	@Test
+	public void exportParallelSnapshotMatchesSequential() throws Exception {
+		final String conceptId = createNewConcept(branchPath);
+		createNewDescription(branchPath, conceptId);
+		createNewRefSetMember(branchPath, conceptId);
+		final String relationshipId = createNewRelationship(branchPath);
+		final String valueRelationshipId = createNewConcreteValue(branchPath, Concepts.ROOT_CONCEPT, Concepts.PART_OF, new RelationshipValue(99));
+		
+		final Map<String, Object> config = Map.of(
+			"type", Rf2ReleaseType.SNAPSHOT.name(),
+			"includeUnpublished", true
+		);
+		
+		final String valueLine = TAB_JOINER.join(valueRelationshipId, 
+				"", 
+				"1", 
+				Concepts.MODULE_SCT_CORE, 
+				Concepts.ROOT_CONCEPT, 
+				"#99",
+				"0",
+				Concepts.PART_OF,
+				Concepts.INFERRED_RELATIONSHIP,
+				Concepts.EXISTENTIAL_RESTRICTION_MODIFIER); 
+		
+		final Multimap<String, Pair<Boolean, String>> fileToLinesMap = ArrayListMultimap.<String, Pair<Boolean, String>>create();
+		fileToLinesMap.put("sct2_StatedRelationship_Snapshot", Pair.of(true, createRelationshipLine(relationshipId)));
+		fileToLinesMap.put("sct2_RelationshipConcreteValues_Snapshot", Pair.of(true, valueLine));
+		
+		assertParallelExportMatchesSequential(config, fileToLinesMap);
+	}
+	
+	@Test
+	public void exportParallelDeltaMatchesSequential() throws Exception {
+		createCodeSystem(branchPath, "SNOMEDCT-PARALLEL-DELTA").statusCode(201);
+		final String versionedRelationshipId = createNewRelationship(branchPath);
+		createVersion("SNOMEDCT-PARALLEL-DELTA", "v1", "20170301").statusCode(201);
+		
+		final String conceptId = createNewConcept(branchPath);
+		createNewDescription(branchPath, conceptId);
+		createNewRefSetMember(branchPath, conceptId);
+		final String relationshipId = createNewRelationship(branchPath);
+		
+		final Map<String, Object> config = Map.of(
+			"type", Rf2ReleaseType.DELTA.name(),
+			"includeUnpublished", true
+		);
+		
+		final Multimap<String, Pair<Boolean, String>> fileToLinesMap = ArrayListMultimap.<String, Pair<Boolean, String>>create();
+		fileToLinesMap.put("sct2_StatedRelationship_Delta", Pair.of(true, createRelationshipLine(relationshipId)));
+		fileToLinesMap.put("sct2_StatedRelationship_Delta", Pair.of(false, createRelationshipLine(versionedRelationshipId, "20170301")));
+		
+		assertParallelExportMatchesSequential(config, fileToLinesMap);
+	}
+	
+	@Test
+	public void exportParallelFullMatchesSequential() throws Exception {
+		createCodeSystem(branchPath, "SNOMEDCT-PARALLEL-FULL").statusCode(201);
+		final String relationshipId = createNewRelationship(branchPath);
+		createVersion("SNOMEDCT-PARALLEL-FULL", "v1", "20170301").statusCode(201);
+		
+		final String conceptId = createNewConcept(branchPath);
+		createNewDescription(branchPath, conceptId);
+		createNewRefSetMember(branchPath, conceptId);
+		
+		// a second version of the relationship appears as a separate row
+		updateComponent(branchPath, SnomedComponentType.RELATIONSHIP, relationshipId, Map.of("active", false, "commitComment", "Inactivated relationship"))
+			.statusCode(204);
+		createVersion("SNOMEDCT-PARALLEL-FULL", "v2", "20170302").statusCode(201);
+		
+		final Map<String, Object> config = Map.of("type", Rf2ReleaseType.FULL.name());
+		
+		final Multimap<String, Pair<Boolean, String>> fileToLinesMap = ArrayListMultimap.<String, Pair<Boolean, String>>create();
+		fileToLinesMap.put("sct2_StatedRelationship_Full", Pair.of(true, createRelationshipLine(relationshipId, "20170301")));
+		fileToLinesMap.put("sct2_StatedRelationship_Full", Pair.of(true, createRelationshipLine(relationshipId, "20170302", "0")));
+		
+		assertParallelExportMatchesSequential(config, fileToLinesMap);
+	}
+
+	/*
+	 * Exports the branch with a single thread, the way files were written before they were exported in parallel, and with multiple threads.
+	 * Both archives must contain the expected lines, and their files must have the same content.
+	 */
+	private void assertParallelExportMatchesSequential(final Map<String, Object> config, final Multimap<String, Pair<Boolean, String>> fileToLinesMap) throws Exception {
+		final SnomedExportDefaultConfiguration exportConfiguration = ApplicationContext.getServiceForClass(SnomedCoreConfiguration.class).getExport();
+		final int threads = exportConfiguration.getThreads();
+		
+		try {
+			exportConfiguration.setThreads(1);
+			final File sequentialArchive = doExport(branchPath, config);
+			assertArchiveContainsLines(sequentialArchive, fileToLinesMap);
+			
+			exportConfiguration.setThreads(4);
+			final File parallelArchive = doExport(branchPath, config);
+			assertArchiveContainsLines(parallelArchive, fileToLinesMap);
+			
+			assertEquals(readArchiveEntries(sequentialArchive), readArchiveEntries(parallelArchive));
+		} finally {
+			exportConfiguration.setThreads(threads);
+		}
+	}
+
+	@Test
+	public void exportFullReusesVersionFragments() throws Exception {
+		final String codeSystemShortName = "SNOMEDCT-FRAGMENTS";
+		createCodeSystem(branchPath, codeSystemShortName).statusCode(201);
+		
+		final String firstConceptId = createNewConcept(branchPath);
+		createVersion(codeSystemShortName, "v1", "20170401").statusCode(201);
+		
+		final Map<String, Object> config = Map.of("type", Rf2ReleaseType.FULL.name());
+		
+		// the second export replays the rows cached for the version branch by the first one
+		final Map<String, String> firstEntries = readArchiveEntries(doExport(branchPath, config));
+		final Map<String, String> secondEntries = readArchiveEntries(doExport(branchPath, config));
+		assertEquals(firstEntries, secondEntries);
+		
+		final String secondConceptId = createNewConcept(branchPath);
+		createVersion(codeSystemShortName, "v2", "20170402").statusCode(201);
+		
+		final Map<String, String> thirdEntries = readArchiveEntries(doExport(branchPath, config));
+		final String conceptFile = thirdEntries.entrySet()
+				.stream()
+				.filter(entry -> entry.getKey().contains("sct2_Concept_Full"))
+				.map(Entry::getValue)
+				.findFirst()
+				.get();
+		
+		assertTrue(conceptFile.contains(firstConceptId + "\t20170401"));
+		assertTrue(conceptFile.contains(secondConceptId + "\t20170402"));
+	}
+
+	@Ignore("slows down test suite; run manually when changing the RF2 exporters")
+	@Test
+	public void exportSnapshotAllocations() throws Exception {
+		final Map<String, Object> config = Map.of(
+			"type", Rf2ReleaseType.SNAPSHOT.name(),
+			"includeUnpublished", true
+		);
+		
+		// warm up
+		doExport(branchPath, config);
+		
+		// bytes allocated by threads that terminate during the export are not counted
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final Map<Long, Long> allocatedBytesBefore = getAllocatedBytes(threadBean);
+		final File exportArchive = doExport(branchPath, config);
+		final Map<Long, Long> allocatedBytesAfter = getAllocatedBytes(threadBean);
+		
+		long allocatedBytes = 0L;
+		for (final Entry<Long, Long> entry : allocatedBytesAfter.entrySet()) {
+			allocatedBytes += entry.getValue() - allocatedBytesBefore.getOrDefault(entry.getKey(), 0L);
+		}
+		
+		// each file has a header line
+		final long rows = readArchiveEntries(exportArchive).values()
+				.stream()
+				.mapToLong(content -> content.split("\r\n").length - 1)
+				.sum();
+		
+		System.out.println(String.format("Exported %d rows, allocated %d MB (%d bytes/row)", rows, allocatedBytes >> 20, allocatedBytes / Math.max(1L, rows)));
+	}
+
+	private static Map<Long, Long> getAllocatedBytes(final com.sun.management.ThreadMXBean threadBean) {
+		final long[] threadIds = threadBean.getAllThreadIds();
+		final long[] allocatedBytes = threadBean.getThreadAllocatedBytes(threadIds);
+		final Map<Long, Long> allocatedBytesByThread = new TreeMap<>();
+		for (int i = 0; i < threadIds.length; i++) {
+			if (allocatedBytes[i] >= 0L) {
+				allocatedBytesByThread.put(threadIds[i], allocatedBytes[i]);
+			}
+		}
+		return allocatedBytesByThread;
+	}
+
+	private static Map<String, String> readArchiveEntries(File exportArchive) throws IOException {
+		final Map<String, String> entries = new TreeMap<>();
+		try (ZipFile zipFile = new ZipFile(exportArchive)) {
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				// the release directory name contains the current hour, compare the paths below it
+				final String name = entry.getName().substring(entry.getName().indexOf('/') + 1);
+				try (InputStream in = zipFile.getInputStream(entry)) {
+					entries.put(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return entries;
+	}
+
 	private String createRelationshipLine(final String relationshipId) {
+		return createRelationshipLine(relationshipId, "");
+	}
+	
+	private String createRelationshipLine(final String relationshipId, final String effectiveTime) {
+		return createRelationshipLine(relationshipId, effectiveTime, "1");
+	}
+	
+	private String createRelationshipLine(final String relationshipId, final String effectiveTime, final String active) {
 		// id, effectiveTime, active, moduleId, sourceId, destinationId, relationshipGroup, typeId, characteristicTypeId, modifierId
 		return getComponentLine(List.of(
 			relationshipId, 
-			"", 
-			"1", 
+			effectiveTime, 
+			active, 
 			Concepts.MODULE_SCT_CORE, 
 			Concepts.ROOT_CONCEPT, 
 			Concepts.NAMESPACE_ROOT, 
@@ -356,6 +356,7 @@ public class SnomedClassificationRestService extends AbstractRestService {
 					.setAssignerType(update.getAssigner())
 					.setModuleId(update.getModule())
 					.setNamespace(update.getNamespace())
+					.setDirectStaging(update.getDirectStaging())
 					.setUserId(author)
 					.build(SnomedDatastoreActivator.REPOSITORY_UUID)
 					.execute(getBus())
@@ -31,6 +31,8 @@ import com.b2international.snowowl.core.request.SearchIndexResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.RestApiError;
+import com.b2international.snowowl.core.rest.SnomedApiConfig;
+import com.b2international.snowowl.core.rest.util.BranchETag;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.core.rest.domain.SnomedConceptRestInput;
@@ -51,6 +53,7 @@ import io.swagger.annotations.ApiResponses;
  */
 @Api(value = "Concepts", description="Concepts", tags = "concepts")
 @Controller
+@BranchETag(SnomedApiConfig.REPOSITORY_ID)
 @RequestMapping(value = "/{path:**}/concepts")
 public class SnomedConceptRestService extends AbstractSnomedRestService {
 
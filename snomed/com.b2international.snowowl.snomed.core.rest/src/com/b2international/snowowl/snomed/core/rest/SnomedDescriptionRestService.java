@@ -30,6 +30,8 @@ import com.b2international.snowowl.core.request.SearchIndexResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.RestApiError;
+import com.b2international.snowowl.core.rest.SnomedApiConfig;
+import com.b2international.snowowl.core.rest.util.BranchETag;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.rest.domain.SnomedDescriptionRestInput;
@@ -50,6 +52,7 @@ import io.swagger.annotations.ApiResponses;
  */
 @Api(value = "Descriptions", description="Descriptions", tags = "descriptions")
 @RestController
+@BranchETag(SnomedApiConfig.REPOSITORY_ID)
 @RequestMapping(value="/{path:**}/descriptions")
 public class SnomedDescriptionRestService extends AbstractSnomedRestService {
 
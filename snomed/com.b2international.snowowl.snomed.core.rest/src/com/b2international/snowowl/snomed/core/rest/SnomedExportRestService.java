@@ -235,7 +235,7 @@ public class SnomedExportRestService extends AbstractSnomedRestService {
 			.setEndEffectiveTime(export.getEndEffectiveTime())
 			.setRefSetExportLayout(refSetExportLayout)
 			.build(this.repositoryId, export.getBranchPath())
-			.execute(getBus())
+			.execute(getBus(IEventBus.PRIORITY_BATCH))
 			.getSync();
 		
 		final File file = ((InternalAttachmentRegistry) fileRegistry).getAttachment(exportedFile.getAttachmentId());
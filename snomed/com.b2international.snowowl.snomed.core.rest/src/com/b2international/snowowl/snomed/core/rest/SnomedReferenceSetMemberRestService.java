@@ -15,10 +15,16 @@
  */
 package com.b2international.snowowl.snomed.core.rest;
 
+import java.io.IOException;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -26,8 +32,13 @@ import org.springframework.web.bind.annotation.*;
 import com.b2international.commons.options.Options;
 import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.RestApiError;
+import com.b2international.snowowl.core.rest.SnomedApiConfig;
+import com.b2international.snowowl.core.rest.util.BranchETag;
+import com.b2international.snowowl.core.rest.util.StreamingCollectionResponse;
+import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
 import com.b2international.snowowl.snomed.core.rest.domain.SnomedMemberRestUpdate;
@@ -39,21 +50,27 @@ import com.b2international.snowowl.snomed.core.rest.request.RequestResolver;
 import com.b2international.snowowl.snomed.core.rest.request.RestRequest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import springfox.documentation.annotations.ApiIgnore;
 
 /**
  * @since 4.5
  */
 @Api(value = "members", description="Members", tags = "members")
 @Controller
+@BranchETag(SnomedApiConfig.REPOSITORY_ID)
 @RequestMapping(value="/{path:**}/members")
 public class SnomedReferenceSetMemberRestService extends AbstractSnomedRestService {
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
 	public SnomedReferenceSetMemberRestService() {
 		super(SnomedReferenceSetMember.Fields.ALL);
 	}
@@ -68,7 +85,7 @@ public class SnomedReferenceSetMemberRestService extends AbstractSnomedRestServi
 		@ApiResponse(code = 200, message = "OK", response = SnomedReferenceSetMembers.class),
 		@ApiResponse(code = 404, message = "Branch not found", response = RestApiError.class)
 	})
-	@GetMapping(produces = { AbstractRestService.JSON_MEDIA_TYPE })	
+	@GetMapping(produces = { AbstractRestService.JSON_MEDIA_TYPE, AbstractRestService.NDJSON_MEDIA_TYPE })	
 	public @ResponseBody Promise<SnomedReferenceSetMembers> searchByGet(
 			@ApiParam(value = "The branch path", required = true)
 			@PathVariable(value="path")
@@ -78,7 +95,14 @@ public class SnomedReferenceSetMemberRestService extends AbstractSnomedRestServi
 			
 			@ApiParam(value = "Accepted language tags, in order of preference")
 			@RequestHeader(value="Accept-Language", defaultValue="en-US;q=0.8,en-GB;q=0.6", required=false) 
-			final String acceptLanguage) {
+			final String acceptLanguage,
+			
+			@ApiIgnore
+			@RequestHeader(value=HttpHeaders.ACCEPT, defaultValue=AbstractRestService.JSON_MEDIA_TYPE, required=false)
+			final String contentType,
+			
+			@ApiIgnore
+			final HttpServletResponse response) throws IOException {
 
 		final SnomedRefSetMemberSearchRequestBuilder req = SnomedRequests.prepareSearchMember()
 				.setLimit(params.getLimit())
@@ -98,6 +122,17 @@ public class SnomedReferenceSetMemberRestService extends AbstractSnomedRestServi
 			req.filterByProps(propFilters);
 		}
 		
+		if (StreamingCollectionResponse.isAccepted(contentType, MediaType.APPLICATION_NDJSON)) {
+			// all matching members are streamed page by page, the response has been written when the method returns
+			final IEventBus bus = getBus();
+			req.setLimit(StreamingCollectionResponse.DEFAULT_PAGE_SIZE);
+			StreamingCollectionResponse.ndjson(objectMapper, new SearchResourceRequestIterator<>(req, r -> r.build(repositoryId, branchPath)
+					.execute(bus)
+					.getSync(1, TimeUnit.MINUTES)))
+				.writeTo(response);
+			return null;
+		}
+		
 		return req.build(repositoryId, branchPath).execute(getBus());
 	}
 	
@@ -123,8 +158,15 @@ public class SnomedReferenceSetMemberRestService extends AbstractSnomedRestServi
 			
 			@ApiParam(value = "Accepted language tags, in order of preference")
 			@RequestHeader(value="Accept-Language", defaultValue="en-US;q=0.8,en-GB;q=0.6", required=false) 
-			final String acceptLanguage) {
-		return searchByGet(branch, params, acceptLanguage);
+			final String acceptLanguage,
+			
+			@ApiIgnore
+			@RequestHeader(value=HttpHeaders.ACCEPT, defaultValue=AbstractRestService.JSON_MEDIA_TYPE, required=false)
+			final String contentType,
+			
+			@ApiIgnore
+			final HttpServletResponse response) throws IOException {
+		return searchByGet(branch, params, acceptLanguage, contentType, response);
 	}
 	
 	@ApiOperation(
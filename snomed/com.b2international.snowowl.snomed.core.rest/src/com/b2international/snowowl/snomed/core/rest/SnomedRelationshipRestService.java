@@ -24,6 +24,8 @@ import org.springframework.web.bind.annotation.*;
 import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.RestApiError;
+import com.b2international.snowowl.core.rest.SnomedApiConfig;
+import com.b2international.snowowl.core.rest.util.BranchETag;
 import com.b2international.snowowl.snomed.core.domain.RelationshipValue;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationships;
@@ -44,6 +46,7 @@ import io.swagger.annotations.ApiResponses;
  */
 @Api(value = "Relationships", description="Relationships", tags = "relationships")
 @RestController
+@BranchETag(SnomedApiConfig.REPOSITORY_ID)
 @RequestMapping(value = "/{path:**}/relationships")		
 public class SnomedRelationshipRestService extends AbstractSnomedRestService {
 
@@ -36,6 +36,8 @@ public class ClassificationRunRestUpdate {
 
 	private String assigner;
 
+	private Boolean directStaging;
+
 	public String getModule() {
 		return module;
 	}
@@ -68,8 +70,16 @@ public class ClassificationRunRestUpdate {
 		this.assigner = assigner;
 	}
 
+	public Boolean getDirectStaging() {
+		return directStaging;
+	}
+
+	public void setDirectStaging(Boolean directStaging) {
+		this.directStaging = directStaging;
+	}
+
 	@Override
 	public String toString() {
-		return "ClassificationRunRestUpdate [status=" + status + ", module=" + module + ", namespace=" + namespace + ", assigner=" + assigner + "]";
+		return "ClassificationRunRestUpdate [status=" + status + ", module=" + module + ", namespace=" + namespace + ", assigner=" + assigner + ", directStaging=" + directStaging + "]";
 	}
 }
@@ -26,6 +26,7 @@ import com.b2international.snowowl.snomed.core.ecl.SnomedStatedEclEvaluationTest
 import com.b2international.snowowl.snomed.core.ql.SnomedQueryEvaluationRequestTest;
 import com.b2international.snowowl.snomed.core.ql.SnomedQueryLabelerRequestTest;
 import com.b2international.snowowl.snomed.core.tree.TerminologyTreeTest;
+import com.b2international.snowowl.snomed.datastore.id.cis.CisBulkJobPipelineTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceRegressionTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceTest;
 import com.b2international.snowowl.snomed.datastore.index.change.ConceptChangeProcessorAxiomTest;
@@ -40,9 +41,13 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConstraint
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntrySerializationTest;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberDocumentSerializationTest;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntrySerializationTest;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilderTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.SnomedIdentifierTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.ReservationImplTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.SnomedIdentifierReservationServiceImplTest;
+import com.b2international.snowowl.snomed.datastore.request.SnomedDescendantCountRequestTest;
+import com.b2international.snowowl.snomed.datastore.request.dsv.SnomedSimpleTypeRefSetDSVExporterTest;
+import com.b2international.snowowl.snomed.datastore.taxonomy.SnomedHierarchyTest;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluatorTest;
 
 /**
@@ -57,6 +62,7 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedIdentifierReservationServiceImplTest.class,
 	DefaultSnomedIdentifierServiceTest.class,
 	DefaultSnomedIdentifierServiceRegressionTest.class,
+	CisBulkJobPipelineTest.class,
 	// index document test cases 
 	SnomedConceptDocumentSerializationTest.class,
 	SnomedRelationshipIndexEntrySerializationTest.class,
@@ -68,6 +74,10 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	DescriptionChangeProcessorTest.class,
 	RelationshipChangeProcessorTest.class,
 	TaxonomyPreCommitHookTest.class,
+	SnomedHierarchyTest.class,
+	SnomedDescendantCountRequestTest.class,
+	SnomedSimpleTypeRefSetDSVExporterTest.class,
+	ReasonerTaxonomyBuilderTest.class,
 	PreferredDescriptionPreCommitHookTest.class,
 	ConceptChangeProcessorAxiomTest.class,
 	ConceptIconIdUpdaterTest.class,
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.cis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.snomed.cis.client.CisBulkJobPipeline;
+import com.b2international.snowowl.snomed.cis.client.JobStatus;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * @since 7.21
+ */
+public class CisBulkJobPipelineTest {
+
+	/** In-process stand-in for the bulk job API of CIS, jobs finish after a fixed latency. */
+	private static final class StubBulkJob implements CisBulkJobPipeline.BulkJob<String> {
+
+		private final long latency;
+		private final Set<String> failingPartitions;
+		private final Map<String, Long> finishTimes = new ConcurrentHashMap<>();
+		private final AtomicInteger jobsInFlight = new AtomicInteger();
+		private final AtomicInteger maxJobsInFlight = new AtomicInteger();
+		private final Set<String> releasedIds = ConcurrentHashMap.newKeySet();
+		private final Set<String> releaseThreads = ConcurrentHashMap.newKeySet();
+
+		StubBulkJob(final long latency, final String... failingPartitions) {
+			this.latency = latency;
+			this.failingPartitions = ImmutableSet.copyOf(failingPartitions);
+		}
+
+		@Override
+		public String submit(final String partition) {
+			finishTimes.put(partition, System.currentTimeMillis() + latency);
+			maxJobsInFlight.accumulateAndGet(jobsInFlight.incrementAndGet(), Math::max);
+			return partition;
+		}
+
+		@Override
+		public JobStatus getStatus(final String jobId) {
+			if (System.currentTimeMillis() < finishTimes.get(jobId)) {
+				return JobStatus.RUNNING;
+			} else if (failingPartitions.contains(jobId)) {
+				return JobStatus.ERROR;
+			} else {
+				return JobStatus.FINISHED;
+			}
+		}
+
+		@Override
+		public Set<String> getRecords(final String jobId) {
+			jobsInFlight.decrementAndGet();
+			return ImmutableSet.of(jobId + "-1", jobId + "-2");
+		}
+
+		@Override
+		public void releaseRecords(final Set<String> componentIds) {
+			releasedIds.addAll(componentIds);
+			releaseThreads.add(Thread.currentThread().getName());
+		}
+	}
+
+	private ScheduledExecutorService scheduler;
+
+	@Before
+	public void setup() {
+		final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("poll-%d").build();
+		scheduler = Executors.newScheduledThreadPool(2, threadFactory);
+	}
+
+	@After
+	public void teardown() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	public void jobsRunConcurrently() throws Exception {
+		final StubBulkJob job = new StubBulkJob(200L);
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 3, 100L, 10_000L);
+
+		final long start = System.currentTimeMillis();
+		final Set<String> componentIds = pipeline.execute(ImmutableList.of("a", "b", "c", "d", "e", "f"), job);
+		final long elapsed = System.currentTimeMillis() - start;
+
+		assertEquals(ImmutableList.of("a-1", "a-2", "b-1", "b-2", "c-1", "c-2", "d-1", "d-2", "e-1", "e-2", "f-1", "f-2"), ImmutableList.copyOf(componentIds));
+		assertEquals(3, job.maxJobsInFlight.get());
+		// six jobs with 200 ms latency each would take at least 1200 ms one after the other
+		assertThat(elapsed).isLessThan(1200L);
+	}
+
+	@Test
+	public void failedJobStopsPipeline() throws Exception {
+		final StubBulkJob job = new StubBulkJob(50L, "b");
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 2, 100L, 10_000L);
+
+		try {
+			pipeline.execute(ImmutableList.of("a", "b", "c", "d"), job);
+			fail("Failed bulk job should have been reported.");
+		} catch (SnowowlRuntimeException e) {
+			assertEquals("Bulk request has ended in error.", e.getMessage());
+		}
+
+		// "d" is never submitted, as "b" fails before the pipeline has room for it
+		assertThat(job.finishTimes).doesNotContainKey("d");
+	}
+
+	@Test
+	public void failedJobReleasesRecords() throws Exception {
+		final StubBulkJob job = new StubBulkJob(50L, "b");
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 2, 100L, 10_000L);
+
+		try {
+			pipeline.execute(ImmutableList.of("a", "b", "c", "d"), job);
+			fail("Failed bulk job should have been reported.");
+		} catch (SnowowlRuntimeException e) {
+			// expected
+		}
+
+		// IDs of "a" were fetched before the failure, "c" was still in flight and is released once it finishes
+		final long deadline = System.currentTimeMillis() + 5_000L;
+		while (job.releasedIds.size() < 4 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+
+		assertEquals(ImmutableSet.of("a-1", "a-2", "c-1", "c-2"), job.releasedIds);
+		// releasing does not block the status polls of other jobs
+		assertTrue(job.releaseThreads.stream().noneMatch(name -> name.startsWith("poll-")));
+	}
+
+	@Test
+	public void shutdownFailsWaitingPipeline() throws Exception {
+		final StubBulkJob job = new StubBulkJob(60_000L);
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 2, 50L, 60_000L);
+
+		final CompletableFuture<Set<String>> result = CompletableFuture.supplyAsync(() -> pipeline.execute(ImmutableList.of("a", "b"), job));
+		Thread.sleep(200L);
+		pipeline.shutdown();
+
+		try {
+			result.get(5L, TimeUnit.SECONDS);
+			fail("Pipeline waiting for unfinished jobs should have failed on shutdown.");
+		} catch (ExecutionException e) {
+			assertEquals("Bulk job pipeline was shut down.", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void successfulPipelineReleasesNothing() throws Exception {
+		final StubBulkJob job = new StubBulkJob(50L);
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 2, 100L, 10_000L);
+
+		pipeline.execute(ImmutableList.of("a", "b", "c"), job);
+
+		assertThat(job.releasedIds).isEmpty();
+	}
+
+	@Test
+	public void unfinishedJobTimesOut() throws Exception {
+		final StubBulkJob job = new StubBulkJob(60_000L);
+		final CisBulkJobPipeline pipeline = new CisBulkJobPipeline(scheduler, 2, 50L, 300L);
+
+		try {
+			pipeline.execute(ImmutableList.of("a"), job);
+			fail("Unfinished bulk job should have timed out.");
+		} catch (SnowowlRuntimeException e) {
+			assertEquals("Job didn't finish with expected status: RUNNING", e.getMessage());
+		}
+	}
+}
@@ -23,6 +23,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.Before;
@@ -49,6 +53,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.inject.Provider;
 import com.google.inject.util.Providers;
 
@@ -272,4 +278,52 @@ public class DefaultSnomedIdentifierServiceRegressionTest {
 		List<String> expectedIds = ImmutableList.of("21000133103", "31000133100");
 		assertEquals(expectedIds, actualIds);
 	}
+	
+	@Test
+	public void testIdBlocksSkipRegisteredIds() throws Exception {
+		final ISnomedIdentifierReservationService reservationService = new SnomedIdentifierReservationServiceImpl();
+		final ItemIdGenerationStrategy idGenerationStrategy = new SequentialItemIdGenerationStrategy(reservationService);
+		final SnomedIdentifierConfiguration config = new SnomedIdentifierConfiguration();
+		config.setIdGenerationBlockSize(10);
+		final ISnomedIdentifierService identifiers = new DefaultSnomedIdentifierService(store, idGenerationStrategy, reservationService, config);
+		
+		assertEquals("100005", Iterables.getOnlyElement(identifiers.generate(INT_NAMESPACE, ComponentCategory.CONCEPT, 1)));
+		
+		// 101 and 102 are part of the current block, but become registered
+		identifiers.register(ImmutableSet.of("101009", "102002"));
+		
+		List<String> actualIds = ImmutableList.copyOf(identifiers.generate(INT_NAMESPACE, ComponentCategory.CONCEPT, 2));
+		List<String> expectedIds = ImmutableList.of("103007", "104001");
+		assertEquals(expectedIds, actualIds);
+	}
+	
+	@Test
+	public void testIdBlocksConcurrentGeneration() throws Exception {
+		final ISnomedIdentifierReservationService reservationService = new SnomedIdentifierReservationServiceImpl();
+		final ItemIdGenerationStrategy idGenerationStrategy = new SequentialItemIdGenerationStrategy(reservationService);
+		final SnomedIdentifierConfiguration config = new SnomedIdentifierConfiguration();
+		config.setIdGenerationBlockSize(100);
+		final ISnomedIdentifierService identifiers = new DefaultSnomedIdentifierService(store, idGenerationStrategy, reservationService, config);
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Set<String>>> futures = Lists.newArrayList();
+			for (int i = 0; i < 64; i++) {
+				futures.add(executor.submit(() -> identifiers.generate(B2I_NAMESPACE, ComponentCategory.CONCEPT, 15)));
+			}
+			
+			final Set<String> generatedIds = Sets.newHashSet();
+			for (final Future<Set<String>> future : futures) {
+				generatedIds.addAll(future.get());
+			}
+			
+			assertEquals(64 * 15, generatedIds.size());
+			assertEquals(generatedIds, identifiers.getSctIds(generatedIds).values().stream()
+					.filter(SctId::isAssigned)
+					.map(SctId::getSctid)
+					.collect(Collectors.toSet()));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }
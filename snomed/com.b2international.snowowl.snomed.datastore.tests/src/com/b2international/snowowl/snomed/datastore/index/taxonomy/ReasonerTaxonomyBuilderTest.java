@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.Revision;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * @since 7.21
+ */
+public class ReasonerTaxonomyBuilderTest extends BaseRevisionIndexTest {
+
+	private static final long ROOT = 100000000L;
+	private static final long FIRST_CHILD = 100001000L;
+	private static final int CHILD_COUNT = 20;
+
+	private long nextRelationshipId = 200000000L;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.of(SnomedConceptDocument.class, SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		final ImmutableList.Builder<Revision> documents = ImmutableList.builder();
+		documents.add(concept(ROOT, true));
+
+		for (int i = 0; i < CHILD_COUNT; i++) {
+			final long child = FIRST_CHILD + i;
+			// Every third child is fully defined
+			documents.add(concept(child, i % 3 != 0));
+			documents.add(relationship(child, Concepts.IS_A, ROOT, Concepts.STATED_RELATIONSHIP));
+			documents.add(relationship(child, Concepts.IS_A, ROOT, Concepts.INFERRED_RELATIONSHIP));
+			if (i > 0) {
+				documents.add(relationship(child, Concepts.HAS_ACTIVE_INGREDIENT, FIRST_CHILD, Concepts.STATED_RELATIONSHIP));
+			}
+		}
+
+		indexRevision(MAIN, documents.build().toArray(new Revision[0]));
+	}
+
+	@Test
+	public void sequentialScans() throws Exception {
+		final ReasonerTaxonomy taxonomy = build(1);
+
+		assertEquals(CHILD_COUNT + 1, taxonomy.getConceptMap().size());
+		assertEquals(PrimitiveSets.newLongOpenHashSet(ROOT), taxonomy.getStatedAncestors().getDestinations(FIRST_CHILD + 1, true));
+		assertEquals(2, taxonomy.getStatedRelationships().get(FIRST_CHILD + 1).size());
+		assertEquals(1, taxonomy.getExistingInferredRelationships().get(FIRST_CHILD + 1).size());
+		assertEquals((CHILD_COUNT + 2) / 3, taxonomy.getDefiningConcepts().size());
+	}
+
+	@Test
+	public void concurrentScans() throws Exception {
+		final ReasonerTaxonomy sequential = build(1);
+		// Requests more threads than there are scans
+		final ReasonerTaxonomy concurrent = build(16);
+
+		assertEquals(sequential.getDefiningConcepts().toLongList(), concurrent.getDefiningConcepts().toLongList());
+		for (int i = 0; i < CHILD_COUNT; i++) {
+			final long child = FIRST_CHILD + i;
+			assertEquals(sequential.getStatedAncestors().getDestinations(child, false), concurrent.getStatedAncestors().getDestinations(child, false));
+			assertEquals(statementIds(sequential.getStatedRelationships().get(child)), statementIds(concurrent.getStatedRelationships().get(child)));
+			assertEquals(statementIds(sequential.getExistingInferredRelationships().get(child)), statementIds(concurrent.getExistingInferredRelationships().get(child)));
+		}
+		assertEquals(sequential.getStatedDescendants().getDestinations(ROOT, true), concurrent.getStatedDescendants().getDestinations(ROOT, true));
+	}
+
+	@Test
+	public void repeatedConcurrentScans() throws Exception {
+		// Builders share the scan threads, each build should complete independently of the previous ones
+		for (int i = 0; i < 5; i++) {
+			assertEquals(CHILD_COUNT, build(4).getStatedDescendants().getDestinations(ROOT, true).size());
+		}
+	}
+
+	private ReasonerTaxonomy build(int parallelism) {
+		return index().read(MAIN, searcher -> new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(searcher)
+				.finishConcepts()
+				.addActiveComponents(searcher, false, parallelism)
+				.build());
+	}
+
+	private static Set<Long> statementIds(Collection<StatementFragment> statements) {
+		return statements.stream().map(StatementFragment::getStatementId).collect(Collectors.toSet());
+	}
+
+	private SnomedConceptDocument concept(long id, boolean primitive) {
+		return SnomedConceptDocument.builder()
+				.id(Long.toString(id))
+				.iconId(Concepts.ROOT_CONCEPT)
+				.active(true)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.exhaustive(false)
+				.primitive(primitive)
+				.build();
+	}
+
+	private SnomedRelationshipIndexEntry relationship(long sourceId, String typeId, long destinationId, String characteristicTypeId) {
+		return SnomedRelationshipIndexEntry.builder()
+				.id(Long.toString(nextRelationshipId++))
+				.active(true)
+				.group(0)
+				.unionGroup(0)
+				.modifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.typeId(typeId)
+				.sourceId(Long.toString(sourceId))
+				.destinationId(Long.toString(destinationId))
+				.characteristicTypeId(characteristicTypeId)
+				.build();
+	}
+
+}
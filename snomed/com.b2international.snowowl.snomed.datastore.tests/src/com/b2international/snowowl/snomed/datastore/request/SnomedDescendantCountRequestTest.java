@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 7.21
+ */
+public class SnomedDescendantCountRequestTest extends BaseRevisionIndexTest {
+
+	/*
+	 * Inferred hierarchy:   Stated hierarchy differs in the parent of 5, which is 2.
+	 *        1
+	 *      /   \
+	 *     2     3
+	 *      \   / \
+	 *        4    5
+	 *        |
+	 *        6
+	 *
+	 * Concept 7 is an inactive child of 1.
+	 */
+	private static final long C1 = 100000001L;
+	private static final long C2 = 100000002L;
+	private static final long C3 = 100000003L;
+	private static final long C4 = 100000004L;
+	private static final long C5 = 100000005L;
+	private static final long C6 = 100000006L;
+	private static final long C7 = 100000007L;
+
+	private BranchContext context;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.of(SnomedConceptDocument.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		context = TestBranchContext.on(MAIN)
+				.with(RevisionIndex.class, index())
+				.build();
+
+		indexRevision(MAIN,
+			concept(C1, new long[] { -1L }, new long[0]).build(),
+			concept(C2, new long[] { C1 }, new long[] { -1L }).build(),
+			concept(C3, new long[] { C1 }, new long[] { -1L }).build(),
+			concept(C4, new long[] { C2, C3 }, new long[] { -1L, C1 }).build(),
+			concept(C5, new long[] { C3 }, new long[] { -1L, C1 })
+				.statedParents(PrimitiveSets.newLongSortedSet(C2))
+				.build(),
+			concept(C6, new long[] { C4 }, new long[] { -1L, C1, C2, C3 }).build(),
+			concept(C7, new long[] { C1 }, new long[] { -1L })
+				.active(false)
+				.build()
+		);
+	}
+
+	@Test
+	public void directDescendants() throws Exception {
+		assertEquals(counts(C1, 2, C2, 1, C3, 2, C6, 0), countDescendants(true, false, C1, C2, C3, C6));
+	}
+
+	@Test
+	public void allDescendants() throws Exception {
+		// 4 and 6 are reachable from 1 via two paths, they are counted once
+		assertEquals(counts(C1, 5, C2, 2, C3, 3, C6, 0), countDescendants(false, false, C1, C2, C3, C6));
+	}
+
+	@Test
+	public void statedDescendants() throws Exception {
+		assertEquals(counts(C2, 2, C3, 1), countDescendants(true, true, C2, C3));
+	}
+
+	@Test
+	public void unknownConcept() throws Exception {
+		assertEquals(counts(C7, 0, 999999999L, 0), countDescendants(false, false, C7, 999999999L));
+	}
+
+	private SnomedConceptDocument.Builder concept(long id, long[] parents, long[] ancestors) {
+		return SnomedConceptDocument.builder()
+				.id(Long.toString(id))
+				.iconId(Concepts.ROOT_CONCEPT)
+				.active(true)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.exhaustive(false)
+				.primitive(true)
+				.parents(PrimitiveSets.newLongSortedSet(parents))
+				.ancestors(PrimitiveSets.newLongSortedSet(ancestors))
+				.statedParents(PrimitiveSets.newLongSortedSet(parents))
+				.statedAncestors(PrimitiveSets.newLongSortedSet(ancestors));
+	}
+
+	private Map<String, Integer> countDescendants(boolean direct, boolean stated, long... conceptIds) {
+		final ImmutableSet.Builder<String> ids = ImmutableSet.builder();
+		for (long conceptId : conceptIds) {
+			ids.add(Long.toString(conceptId));
+		}
+
+		return new RevisionIndexReadRequest<>(SnomedRequests.prepareCountDescendants()
+				.setConceptIds(ids.build())
+				.setDirect(direct)
+				.setStated(stated)
+				.build())
+				.execute(context);
+	}
+
+	private static Map<String, Integer> counts(Object... idsAndCounts) {
+		final ImmutableMap.Builder<String, Integer> counts = ImmutableMap.builder();
+		for (int i = 0; i < idsAndCounts.length; i += 2) {
+			counts.put(idsAndCounts[i].toString(), (Integer) idsAndCounts[i + 1]);
+		}
+		return counts.build();
+	}
+
+}
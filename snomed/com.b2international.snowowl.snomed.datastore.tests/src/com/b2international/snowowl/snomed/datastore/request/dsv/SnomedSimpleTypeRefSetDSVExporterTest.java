@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.dsv;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.ComponentIdSnomedDsvExportItem;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.SimpleSnomedDsvExportItem;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedDsvExportItemType;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedRefSetDSVExportModel;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * @since 7.21
+ */
+public class SnomedSimpleTypeRefSetDSVExporterTest {
+
+	private static final Map<String, String> DESCRIPTION_TYPES = ImmutableMap.of(Concepts.SYNONYM, "Synonym");
+	private static final Map<String, String> PROPERTY_TYPES = ImmutableMap.of(Concepts.FINDING_SITE, "Finding site");
+	
+	@Test
+	public void headerWithoutOccurrences() throws Exception {
+		final SnomedSimpleTypeRefSetDSVExporter exporter = createExporter(false, false);
+		
+		final List<List<String>> header = exporter.createHeader(DESCRIPTION_TYPES, PROPERTY_TYPES);
+		
+		assertEquals(ImmutableList.of(ImmutableList.of("Concept ID", "Synonym")), header);
+	}
+	
+	@Test
+	public void headerColumnsFollowMaximumOccurrences() throws Exception {
+		final SnomedSimpleTypeRefSetDSVExporter exporter = createExporter(true, false);
+		exporter.mergeDescriptionCounts(ImmutableMap.of(
+				"1#" + Concepts.SYNONYM, 2,
+				"1#" + Concepts.FULLY_SPECIFIED_NAME, 1));
+		exporter.mergeDescriptionCounts(ImmutableMap.of(
+				"2#" + Concepts.SYNONYM, 3));
+		exporter.mergePropertyCounts(ImmutableMap.of(
+				"1#0#" + Concepts.FINDING_SITE, 1,
+				"2#0#" + Concepts.FINDING_SITE, 1,
+				"2#1#" + Concepts.FINDING_SITE, 2));
+		
+		final List<List<String>> header = exporter.createHeader(DESCRIPTION_TYPES, PROPERTY_TYPES);
+		
+		assertEquals(2, header.size());
+		assertEquals(ImmutableList.of("Concept ID", 
+				"Synonym (1)", "Synonym (1)", "Synonym (2)", "Synonym (2)", "Synonym (3)", "Synonym (3)",
+				"Finding site", "Finding site (1) (AG1)", "Finding site (2) (AG1)"), header.get(0));
+		assertEquals(ImmutableList.of("", 
+				"ID", "Term", "ID", "Term", "ID", "Term",
+				"", "", ""), header.get(1));
+	}
+	
+	@Test
+	public void headerWithRelationshipIds() throws Exception {
+		final SnomedSimpleTypeRefSetDSVExporter exporter = createExporter(false, true);
+		exporter.mergePropertyCounts(ImmutableMap.of("1#2#" + Concepts.FINDING_SITE, 1));
+		
+		final List<List<String>> header = exporter.createHeader(DESCRIPTION_TYPES, PROPERTY_TYPES);
+		
+		assertEquals(ImmutableList.of("Concept ID", "Synonym", "Finding site (AG2)", "Finding site (AG2)"), header.get(0));
+		assertEquals(ImmutableList.of("", "", "ID", "Destination"), header.get(1));
+	}
+	
+	private SnomedSimpleTypeRefSetDSVExporter createExporter(boolean includeDescriptionId, boolean includeRelationshipId) {
+		final SnomedRefSetDSVExportModel model = new SnomedRefSetDSVExportModel();
+		model.setRefSetId(Concepts.REFSET_SIMPLE_TYPE);
+		model.setDelimiter("\t");
+		model.setIncludeDescriptionId(includeDescriptionId);
+		model.setIncludeRelationshipTargetId(includeRelationshipId);
+		model.addExportItem(new SimpleSnomedDsvExportItem(SnomedDsvExportItemType.CONCEPT_ID));
+		model.addExportItem(new ComponentIdSnomedDsvExportItem(SnomedDsvExportItemType.DESCRIPTION, Concepts.SYNONYM, "Synonym"));
+		model.addExportItem(new ComponentIdSnomedDsvExportItem(SnomedDsvExportItemType.RELATIONSHIP, Concepts.FINDING_SITE, "Finding site"));
+		
+		return new SnomedSimpleTypeRefSetDSVExporter(null, model);
+	}
+	
+}
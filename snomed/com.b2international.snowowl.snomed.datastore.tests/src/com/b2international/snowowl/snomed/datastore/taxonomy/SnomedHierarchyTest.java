@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 7.21
+ */
+public class SnomedHierarchyTest {
+
+	/*
+	 *        1
+	 *      /   \
+	 *     2     3
+	 *      \   / \
+	 *        4    5
+	 *        |
+	 *        6
+	 */
+	private SnomedHierarchy hierarchy;
+
+	@Before
+	public void setup() {
+		hierarchy = SnomedHierarchy.build(
+			new long[] { 6L, 5L, 4L, 3L, 2L, 1L },
+			List.of(
+				new long[] { 4L },
+				new long[] { 3L },
+				new long[] { 2L, 3L },
+				new long[] { 1L },
+				new long[] { 1L },
+				new long[] { -1L }
+			)
+		);
+	}
+
+	@Test
+	public void size() throws Exception {
+		assertEquals(6, hierarchy.size());
+		assertTrue(hierarchy.contains(4L));
+		assertFalse(hierarchy.contains(-1L));
+	}
+
+	@Test
+	public void directDescendants() throws Exception {
+		assertArrayEquals(new long[] { 2L, 3L }, hierarchy.getDescendants(1L, true));
+		assertArrayEquals(new long[] { 4L, 5L }, hierarchy.getDescendants(3L, true));
+		assertArrayEquals(new long[0], hierarchy.getDescendants(6L, true));
+		assertEquals(2, hierarchy.getDescendantCount(3L, true));
+	}
+
+	@Test
+	public void allDescendants() throws Exception {
+		assertArrayEquals(new long[] { 2L, 3L, 4L, 5L, 6L }, hierarchy.getDescendants(1L, false));
+		assertArrayEquals(new long[] { 4L, 6L }, hierarchy.getDescendants(2L, false));
+		// 4 is reachable via two paths but counted once
+		assertEquals(5, hierarchy.getDescendantCount(1L, false));
+		assertEquals(3, hierarchy.getDescendantCount(3L, false));
+	}
+
+	@Test
+	public void unknownConcept() throws Exception {
+		assertEquals(0, hierarchy.getDescendantCount(7L, true));
+		assertEquals(0, hierarchy.getDescendantCount(7L, false));
+		assertArrayEquals(new long[0], hierarchy.getDescendants(7L, false));
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.b2international.snowowl.snomed.core;
 
+import java.nio.file.Path;
 import java.util.List;
 
 import org.eclipse.xtext.parser.IParser;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import com.b2international.index.revision.Hooks.PreCommitHook;
 import com.b2international.snomed.ecl.EclStandaloneSetup;
 import com.b2international.snomed.ql.QLStandaloneSetup;
+import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.codesystem.version.VersioningRequestBuilder;
 import com.b2international.snowowl.core.config.SnowOwlConfiguration;
@@ -74,6 +76,8 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedConceptMapSear
 import com.b2international.snowowl.snomed.datastore.request.SnomedMemberSearchRequestEvaluator;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.snomed.datastore.request.Synonyms;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ExportFragmentCache;
+import com.b2international.snowowl.snomed.datastore.taxonomy.SnomedHierarchyCache;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluator;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Injector;
@@ -84,6 +88,8 @@ import com.google.inject.Injector;
 @Component
 public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 
+	private static final String RF2_EXPORT_FRAGMENTS_FOLDER = "rf2-export-fragments";
+	
 	@Override
 	public void addConfigurations(ConfigurationRegistry registry) {
 		registry.add("snomed", SnomedCoreConfiguration.class);
@@ -113,6 +119,25 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 		env.services().registerService(MrcmImporter.class, new MrcmJsonImporter(env.provider(IEventBus.class)));
 	}
 	
+	@Override
+	protected void afterRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		final SnomedCoreConfiguration snomedConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class);
+		final int maxCachedHierarchies = snomedConfig.getMaxCachedHierarchies();
+		if (env.isServer() && maxCachedHierarchies > 0) {
+			// serve descendant expansions from memory-resident hierarchies, invalidated by commit notifications
+			final TerminologyRepository repository = (TerminologyRepository) env.service(RepositoryManager.class).get(getRepositoryId());
+			repository.bind(SnomedHierarchyCache.class, new SnomedHierarchyCache(repository.notifications(), maxCachedHierarchies));
+		}
+		
+		final long fragmentCacheSize = snomedConfig.getExport().getFragmentCacheSize();
+		if (env.isServer() && fragmentCacheSize > 0) {
+			// reuse the RF2 rows of released versions in later DELTA and FULL exports
+			final TerminologyRepository repository = (TerminologyRepository) env.service(RepositoryManager.class).get(getRepositoryId());
+			final Path fragmentCacheDirectory = env.getDataPath().resolve(RF2_EXPORT_FRAGMENTS_FOLDER);
+			repository.bind(Rf2ExportFragmentCache.class, new Rf2ExportFragmentCache(fragmentCacheDirectory, fragmentCacheSize * 1024L * 1024L));
+		}
+	}
+	
 	@Override
 	protected ContentAvailabilityInfoProvider getContentAvailabilityInfoProvider() {
 		return context -> {
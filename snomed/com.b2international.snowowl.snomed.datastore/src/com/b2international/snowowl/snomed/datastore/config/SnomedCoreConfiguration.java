@@ -44,6 +44,13 @@ public class SnomedCoreConfiguration {
 	public static final int DEFAULT_MAXIMUM_REASONER_COUNT = 2;
 	public static final int DEFAULT_MAXIMUM_REASONER_RESULTS = 10;
 	public static final int DEFAULT_MAXIMUM_REASONER_RUNS = 1000;
+	public static final int DEFAULT_MAXIMUM_CACHED_HIERARCHIES = 0;
+	public static final int DEFAULT_NORMAL_FORM_THREADS = 1;
+	public static final int DEFAULT_TAXONOMY_SCAN_THREADS = 4;
+	public static final int DEFAULT_MAXIMUM_CACHED_TAXONOMIES = 0;
+	public static final int DEFAULT_CACHED_TAXONOMY_IDLE_MINUTES = 10;
+	public static final int DEFAULT_REASONER_SESSION_AXIOMS = 0;
+	public static final int DEFAULT_REASONER_SESSION_IDLE_MINUTES = 30;
 	
 	@Min(1)
 	@Max(3)
@@ -57,6 +64,33 @@ public class SnomedCoreConfiguration {
 	@Max(1_000_000)
 	private int maxReasonerRuns = DEFAULT_MAXIMUM_REASONER_RUNS;
 	
+	@Min(0)
+	@Max(1_000)
+	private int maxCachedHierarchies = DEFAULT_MAXIMUM_CACHED_HIERARCHIES;
+	
+	@Min(1)
+	@Max(256)
+	private int normalFormThreads = DEFAULT_NORMAL_FORM_THREADS;
+	
+	@Min(1)
+	@Max(8)
+	private int taxonomyScanThreads = DEFAULT_TAXONOMY_SCAN_THREADS;
+	
+	@Min(0)
+	@Max(10)
+	private int maxCachedTaxonomies = DEFAULT_MAXIMUM_CACHED_TAXONOMIES;
+	
+	@Min(1)
+	@Max(1_440)
+	private int cachedTaxonomyIdleMinutes = DEFAULT_CACHED_TAXONOMY_IDLE_MINUTES;
+	
+	@Min(0)
+	private int reasonerSessionAxioms = DEFAULT_REASONER_SESSION_AXIOMS;
+	
+	@Min(1)
+	@Max(1_440)
+	private int reasonerSessionIdleMinutes = DEFAULT_REASONER_SESSION_IDLE_MINUTES;
+	
 	@NotEmpty
 	private String defaultReasoner = DEFAULT_REASONER;
 	
@@ -89,6 +123,9 @@ public class SnomedCoreConfiguration {
 	
 	//enables the manual editing of inferred relationships and concrete data types
 	private boolean inferredEditingEnabled = false;
+	
+	// stages inferred relationship and concrete domain changes directly when saving classification results
+	private boolean classificationDirectStaging = false;
 
 	@NotNull
 	private Set<String> reasonerExcludedModuleIds = Collections.emptySet();
@@ -196,6 +233,120 @@ public class SnomedCoreConfiguration {
 		this.inferredEditingEnabled = inferredEditingEnabled;
 	}
 	
+	/**
+	 * @return <code>true</code> if inferred relationship and concrete domain member changes should be staged directly
+	 *         as index documents when saving classification results, <code>false</code> if individual component
+	 *         requests should be used
+	 */
+	@JsonProperty("classificationDirectStaging")
+	public boolean isClassificationDirectStaging() {
+		return classificationDirectStaging;
+	}
+	
+	@JsonProperty("classificationDirectStaging")
+	public void setClassificationDirectStaging(boolean classificationDirectStaging) {
+		this.classificationDirectStaging = classificationDirectStaging;
+	}
+	
+	/**
+	 * @return the number of branch hierarchies (stated and inferred counted separately) to keep in memory for
+	 *         serving descendant expansions, <code>0</code> (the default) disables the in-memory hierarchy. Cached
+	 *         hierarchies of a branch are rebuilt after each commit, enable only if descendant expansions are
+	 *         frequent compared to commits.
+	 */
+	@JsonProperty
+	public int getMaxCachedHierarchies() {
+		return maxCachedHierarchies;
+	}
+	
+	@JsonProperty
+	public void setMaxCachedHierarchies(int maxCachedHierarchies) {
+		this.maxCachedHierarchies = maxCachedHierarchies;
+	}
+	
+	/**
+	 * @return the number of threads computing the distribution normal form of concepts on the same hierarchy level
+	 *         after classification, <code>1</code> (the default) disables parallel processing
+	 */
+	@JsonProperty
+	public int getNormalFormThreads() {
+		return normalFormThreads;
+	}
+	
+	@JsonProperty
+	public void setNormalFormThreads(int normalFormThreads) {
+		this.normalFormThreads = normalFormThreads;
+	}
+	
+	/**
+	 * @return the number of index scans to run concurrently when collecting the reasoner input of a classification,
+	 *         <code>1</code> disables concurrent scans
+	 */
+	@JsonProperty
+	public int getTaxonomyScanThreads() {
+		return taxonomyScanThreads;
+	}
+	
+	@JsonProperty
+	public void setTaxonomyScanThreads(int taxonomyScanThreads) {
+		this.taxonomyScanThreads = taxonomyScanThreads;
+	}
+	
+	/**
+	 * @return the number of reasoner input taxonomies to keep in memory for repeated classifications of unchanged
+	 *         branches, <code>0</code> (the default) disables caching. A taxonomy holds the entire stated content of
+	 *         a branch, enable only if the same branch is classified repeatedly without changes in between.
+	 */
+	@JsonProperty
+	public int getMaxCachedTaxonomies() {
+		return maxCachedTaxonomies;
+	}
+	
+	@JsonProperty
+	public void setMaxCachedTaxonomies(int maxCachedTaxonomies) {
+		this.maxCachedTaxonomies = maxCachedTaxonomies;
+	}
+	
+	/**
+	 * @return the number of minutes after which a cached reasoner input taxonomy is released if it was not used
+	 */
+	@JsonProperty
+	public int getCachedTaxonomyIdleMinutes() {
+		return cachedTaxonomyIdleMinutes;
+	}
+	
+	@JsonProperty
+	public void setCachedTaxonomyIdleMinutes(int cachedTaxonomyIdleMinutes) {
+		this.cachedTaxonomyIdleMinutes = cachedTaxonomyIdleMinutes;
+	}
+	
+	/**
+	 * @return the total number of OWL axioms that long-lived, per-branch reasoner sessions may keep in memory for
+	 *         incremental classification, <code>0</code> disables reasoner sessions
+	 */
+	@JsonProperty
+	public int getReasonerSessionAxioms() {
+		return reasonerSessionAxioms;
+	}
+	
+	@JsonProperty
+	public void setReasonerSessionAxioms(int reasonerSessionAxioms) {
+		this.reasonerSessionAxioms = reasonerSessionAxioms;
+	}
+	
+	/**
+	 * @return the number of minutes after which an unused reasoner session is released
+	 */
+	@JsonProperty
+	public int getReasonerSessionIdleMinutes() {
+		return reasonerSessionIdleMinutes;
+	}
+	
+	@JsonProperty
+	public void setReasonerSessionIdleMinutes(int reasonerSessionIdleMinutes) {
+		this.reasonerSessionIdleMinutes = reasonerSessionIdleMinutes;
+	}
+	
 	@JsonProperty("collectSystemChanges")
 	public boolean isCollectSystemChanges() {
 		return collectSystemChanges;
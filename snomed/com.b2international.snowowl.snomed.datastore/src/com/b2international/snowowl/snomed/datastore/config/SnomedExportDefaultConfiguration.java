@@ -1,5 +1,5 @@
 /*
- * Copyright 2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class SnomedExportDefaultConfiguration {
 
+	public static final int DEFAULT_THREADS = 4;
+	public static final long DEFAULT_FRAGMENT_CACHE_SIZE = 0L;
+
 	@JsonProperty(value = "maintainer", required = false)
 	private Rf2MaintainerType maintainerType = Rf2MaintainerType.SNOMED_INTERNATIONAL;
 
@@ -38,6 +41,12 @@ public class SnomedExportDefaultConfiguration {
 	@JsonProperty(value = "refSetLayout", required = false)
 	private Rf2RefSetExportLayout refSetExportLayout = Rf2RefSetExportLayout.COMBINED;
 
+	@JsonProperty(value = "threads", required = false)
+	private int threads = DEFAULT_THREADS;
+
+	@JsonProperty(value = "fragmentCacheSize", required = false)
+	private long fragmentCacheSize = DEFAULT_FRAGMENT_CACHE_SIZE;
+
 	public Rf2MaintainerType getMaintainerType() {
 		return maintainerType;
 	}
@@ -69,4 +78,26 @@ public class SnomedExportDefaultConfiguration {
 	public void setRefSetExportType(final Rf2RefSetExportLayout refSetExportLayout) {
 		this.refSetExportLayout = refSetExportLayout;
 	}
+
+	/**
+	 * @return the number of RF2 files written in parallel during a single export
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @return the maximum size of the RF2 rows cached for released code system versions in megabytes, <code>0</code> (the default) disables the cache
+	 */
+	public long getFragmentCacheSize() {
+		return fragmentCacheSize;
+	}
+
+	public void setFragmentCacheSize(final long fragmentCacheSize) {
+		this.fragmentCacheSize = fragmentCacheSize;
+	}
 }
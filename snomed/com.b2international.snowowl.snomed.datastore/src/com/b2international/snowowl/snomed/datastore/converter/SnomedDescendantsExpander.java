@@ -24,10 +24,13 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.b2international.commons.collect.LongSets;
 import com.b2international.commons.http.ExtendedLocale;
@@ -44,6 +47,8 @@ import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.datastore.taxonomy.SnomedHierarchy;
+import com.b2international.snowowl.snomed.datastore.taxonomy.SnomedHierarchyCache;
 import com.google.common.base.Functions;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Maps;
@@ -64,6 +69,28 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 	
 	@Override
 	protected void expand(List<SnomedConcept> results, final Set<String> conceptIds, Options descendantExpandOptions, boolean direct) {
+		final Optional<SnomedHierarchy> hierarchy = context().optionalService(SnomedHierarchyCache.class)
+				.flatMap(cache -> cache.get(context(), stated));
+		if (hierarchy.isPresent()) {
+			expand(results, hierarchy.get(), descendantExpandOptions, direct);
+			return;
+		}
+		
+		// counts only, compute them for all concepts with a single aggregation instead of loading every descendant
+		final int limit = getLimit(descendantExpandOptions);
+		if (limit == 0) {
+			final Map<String, Integer> descendantCounts = SnomedRequests.prepareCountDescendants()
+					.setConceptIds(conceptIds)
+					.setDirect(direct)
+					.setStated(stated)
+					.build()
+					.execute(context());
+			for (SnomedConcept concept : results) {
+				setDescendants(concept, new SnomedConcepts(0, descendantCounts.getOrDefault(concept.getId(), 0)));
+			}
+			return;
+		}
+		
 		try {
 			
 			final ExpressionBuilder expression = Expressions.builder();
@@ -102,21 +129,6 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 				return;
 			}
 			
-			// in case of only one match and limit zero, use shortcut instead of loading all IDs and components
-			// XXX won't work if number of results is greater than one, either use custom ConceptSearch or figure out how to expand descendants effectively
-			final int limit = getLimit(descendantExpandOptions);
-			if (conceptIds.size() == 1 && limit == 0) {
-				for (SnomedConcept concept : results) {
-					final SnomedConcepts descendants = new SnomedConcepts(0, hits.getTotal());
-					if (stated) {
-						concept.setStatedDescendants(descendants);
-					} else {
-						concept.setDescendants(descendants);
-					}
-				}
-				return;
-			}
-			
 			final Multimap<String, String> descendantsByAncestor = TreeMultimap.create();
 			for (SnomedConceptDocument hit : hits) {
 				final Set<String> parentsAndAncestors = newHashSet();
@@ -178,5 +190,59 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 			throw SnowowlRuntimeException.wrap(e);
 		}
 	}
+
+	/*
+	 * Serves the expansion from the in-memory hierarchy. Counts need no index access at all, concepts are loaded only
+	 * for the returned page of descendants.
+	 */
+	private void expand(List<SnomedConcept> results, SnomedHierarchy hierarchy, Options descendantExpandOptions, boolean direct) {
+		final int limit = getLimit(descendantExpandOptions);
+		if (limit == 0) {
+			for (SnomedConcept concept : results) {
+				setDescendants(concept, new SnomedConcepts(0, hierarchy.getDescendantCount(Long.parseLong(concept.getId()), direct)));
+			}
+			return;
+		}
+		
+		final Map<String, List<String>> descendantIdsByAncestor = newHashMap();
+		final Map<String, Integer> totalByAncestor = newHashMap();
+		final Set<String> componentIds = newHashSet();
+		for (SnomedConcept concept : results) {
+			// keep the lexicographic ordering of descendant IDs used by the index based expansion
+			final List<String> descendantIds = Arrays.stream(hierarchy.getDescendants(Long.parseLong(concept.getId()), direct))
+					.mapToObj(Long::toString)
+					.sorted()
+					.collect(Collectors.toList());
+			final List<String> page = descendantIds.subList(0, Math.min(limit, descendantIds.size()));
+			descendantIdsByAncestor.put(concept.getId(), page);
+			totalByAncestor.put(concept.getId(), descendantIds.size());
+			componentIds.addAll(page);
+		}
+		
+		final Map<String, SnomedConcept> descendantsById = newHashMap();
+		if (!componentIds.isEmpty()) {
+			final SnomedConcepts descendants = SnomedRequests.prepareSearchConcept()
+					.all()
+					.filterByIds(componentIds)
+					.setLocales(locales())
+					.setExpand(descendantExpandOptions.get("expand", Options.class))
+					.build()
+					.execute(context());
+			descendantsById.putAll(Maps.uniqueIndex(descendants, SnomedConcept::getId));
+		}
+		
+		for (SnomedConcept concept : results) {
+			final List<SnomedConcept> currentDescendants = FluentIterable.from(descendantIdsByAncestor.get(concept.getId())).transform(Functions.forMap(descendantsById)).toList();
+			setDescendants(concept, new SnomedConcepts(currentDescendants, null, limit, totalByAncestor.get(concept.getId())));
+		}
+	}
+	
+	private void setDescendants(SnomedConcept concept, SnomedConcepts descendants) {
+		if (stated) {
+			concept.setStatedDescendants(descendants);
+		} else {
+			concept.setDescendants(descendants);
+		}
+	}
 	
 }
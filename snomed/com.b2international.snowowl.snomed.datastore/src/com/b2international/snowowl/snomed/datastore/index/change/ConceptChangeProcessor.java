@@ -149,7 +149,7 @@ public final class ConceptChangeProcessor extends ChangeSetProcessorBase {
 				.map(id -> ObjectId.of(SnomedConceptDocument.class, id))
 				.filter(changedRevisions::containsKey)
 				.map(changedRevisions::get)
-				.map(diff -> (SnomedConceptDocument) diff.oldRevision)
+				.map(diff -> (SnomedConceptDocument) diff.getOldRevision())
 				.forEach(doc -> currentConceptDocumentsById.put(doc.getId(), doc));
 			
 			// update dirty concepts
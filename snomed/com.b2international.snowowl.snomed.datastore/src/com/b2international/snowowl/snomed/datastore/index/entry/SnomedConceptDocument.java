@@ -78,6 +78,8 @@ import com.google.common.collect.ImmutableMap;
 	+ "String id = doc.id.value;" 
 	+ "return params.termScores.containsKey(id) ? params.termScores.get(id) + interest : 0.0d;")
 @Script(name="doi", script="return doc.doi.value")
+@Script(name=SnomedConceptDocument.Scripts.PARENTS_AND_ANCESTORS, script="Set values = new HashSet(doc.parents); values.addAll(doc.ancestors); return values;")
+@Script(name=SnomedConceptDocument.Scripts.STATED_PARENTS_AND_ANCESTORS, script="Set values = new HashSet(doc.statedParents); values.addAll(doc.statedAncestors); return values;")
 @Script(
 	name="termSort", 
 	script=
@@ -224,6 +226,20 @@ public final class SnomedConceptDocument extends SnomedComponentDocument {
 		public static final String DESCRIPTIONS = "preferredDescriptions";
 	}
 	
+	/**
+	 * Named scripts returning the union of the (stated or inferred) parent and ancestor IDs of a concept, used for
+	 * counting all descendants of several concepts with a single terms aggregation.
+	 * 
+	 * @since 7.21
+	 */
+	public static final class Scripts {
+		
+		public static final String PARENTS_AND_ANCESTORS = "parentsAndAncestors";
+		public static final String STATED_PARENTS_AND_ANCESTORS = "statedParentsAndAncestors";
+		
+		private Scripts() {}
+	}
+	
 	public static Builder builder(final SnomedConceptDocument input) {
 		final String id = input.getId();
 		return builder()
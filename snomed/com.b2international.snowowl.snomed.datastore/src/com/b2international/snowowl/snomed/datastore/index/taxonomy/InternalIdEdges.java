@@ -22,10 +22,9 @@ import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
-import com.b2international.collections.ints.IntKeyMap;
 import com.b2international.collections.ints.IntSet;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collect.LongSets;
@@ -77,6 +76,33 @@ public final class InternalIdEdges {
 			return this;
 		}
 
+		/**
+		 * Adds all edges collected by another builder (sharing the same internal ID
+		 * map) to this builder.
+		 * 
+		 * @param other the builder to copy edges from
+		 * @return this builder
+		 * @since 7.21
+		 */
+		public Builder addEdges(final Builder other) {
+			checkArgument(internalIdMap == other.internalIdMap, "Builders should share the same internal ID map.");
+
+			for (int sourceId = 0; sourceId < other.edges.length; sourceId++) {
+				final IntSet otherDestinations = other.edges[sourceId];
+				if (otherDestinations == null) {
+					continue;
+				}
+
+				if (edges[sourceId] == null) {
+					edges[sourceId] = PrimitiveSets.newIntOpenHashSet(otherDestinations);
+				} else {
+					edges[sourceId].addAll(otherDestinations);
+				}
+			}
+
+			return this;
+		}
+
 		public InternalIdEdges build() {
 			// Convert IntLists to arrays
 			final int[][] builtEdges = Arrays.asList(edges)
@@ -97,15 +123,15 @@ public final class InternalIdEdges {
 	private final InternalIdMap internalIdMap;
 	private final int[][] edges;
 	
-	// direct and indirect destinationCaches loaded on demand
-	private final IntKeyMap<LongSet> directDestinationIdsCache;
-	private final IntKeyMap<LongSet> indirectDestinationIdsCache;
+	// direct and indirect destinationCaches loaded on demand; safe for concurrent readers (racing threads compute the same value)
+	private final AtomicReferenceArray<LongSet> directDestinationIdsCache;
+	private final AtomicReferenceArray<LongSet> indirectDestinationIdsCache;
 
 	private InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
 		this.internalIdMap = internalIdMap;
 		this.edges = edges;
-		this.directDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
-		this.indirectDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
+		this.directDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
+		this.indirectDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
 	}
 
 	public Set<String> getDestinations(final String source, final boolean direct) {
@@ -119,18 +145,22 @@ public final class InternalIdEdges {
 		}
 
 		if (direct) {
-			if (!directDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = directDestinationIdsCache.get(internalId);
+			if (destinationIds == null) {
 				final int[] destinations = edges[internalId];
-				directDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = toSctIds(destinations);
+				directDestinationIdsCache.set(internalId, destinationIds);
 			}
-			return directDestinationIdsCache.get(internalId);
+			return destinationIds;
 		} else {
-			if (!indirectDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = indirectDestinationIdsCache.get(internalId);
+			if (destinationIds == null) {
 				final BitSet destinations = new BitSet(internalIdMap.size());
 				collectIndirectDestinations(internalId, destinations);
-				indirectDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = toSctIds(destinations);
+				indirectDestinationIdsCache.set(internalId, destinationIds);
 			}
-			return indirectDestinationIdsCache.get(internalId);
+			return destinationIds;
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,12 +24,16 @@ import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRel
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.characteristicTypeIds;
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.group;
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.typeId;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -55,6 +59,7 @@ import com.b2international.index.query.SortBy;
 import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.util.DecimalUtils;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.*;
@@ -64,8 +69,14 @@ import com.b2international.snowowl.snomed.datastore.*;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMultimap.Builder;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Builds a snapshot of the ontology for reasoner input and normal form generation.
@@ -85,6 +96,16 @@ public final class ReasonerTaxonomyBuilder {
 	
 	private static final int SCROLL_LIMIT = 50_000;
 
+	/*
+	 * Shared by all builders; idle threads are released after a minute. The
+	 * number of scans running concurrently for a single builder is limited by
+	 * the parallelism passed to addActiveComponents.
+	 */
+	private static final ListeningExecutorService SCAN_EXECUTOR = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("reasoner-taxonomy-scan-%d")
+			.setDaemon(true)
+			.build()));
+
 	private final Stopwatch stopwatch;
 	private final Set<String> excludedModuleIds;
 	
@@ -207,6 +228,81 @@ public final class ReasonerTaxonomyBuilder {
 		return this;
 	}
 	
+	/**
+	 * Registers concept flags, stated IS A edges, stated, inferred and additional
+	 * grouped relationships, "never grouped" type IDs, OWL axioms and (optionally)
+	 * concrete domain members using the given searcher. The scans are independent
+	 * of each other once {@link #finishConcepts()} was called, so up to
+	 * <code>parallelism</code> of them are executed concurrently on a shared pool of
+	 * daemon threads, each keeping at
+	 * most a single page of scroll results in memory.
+	 * 
+	 * @param searcher - the searcher to use
+	 * @param concreteDomainSupported - whether to register concrete domain members
+	 * @param parallelism - the maximum number of concurrent scans, <code>1</code> runs all scans on the calling thread
+	 * @return this builder
+	 * @since 7.21
+	 */
+	public ReasonerTaxonomyBuilder addActiveComponents(final RevisionSearcher searcher, final boolean concreteDomainSupported, final int parallelism) {
+		checkState(conceptMap != null, "Concepts should be finished before registering other components");
+		checkArgument(parallelism > 0, "Parallelism should be positive, got %s.", parallelism);
+
+		// Stated IS A edges are also contributed by OWL axioms; collect those separately and merge them at the end
+		final InternalIdEdges.Builder axiomAncestors = InternalIdEdges.builder(conceptMap);
+		final InternalIdEdges.Builder axiomDescendants = InternalIdEdges.builder(conceptMap);
+
+		final List<Runnable> scans = new ArrayList<>();
+		scans.add(() -> addConceptFlags(searcher));
+		scans.add(() -> addActiveStatedEdges(searcher));
+		scans.add(() -> addActiveStatedRelationships(searcher));
+		scans.add(() -> addActiveInferredRelationships(searcher));
+		scans.add(() -> addActiveAdditionalGroupedRelationships(searcher));
+		scans.add(() -> addNeverGroupedTypeIds(searcher));
+		scans.add(() -> addActiveAxioms(searcher, axiomAncestors, axiomDescendants));
+		if (concreteDomainSupported) {
+			scans.add(() -> addActiveConcreteDomainMembers(searcher));
+		}
+
+		// Each worker picks up scans until none are left; stop handing out further scans when one of them fails
+		final Queue<Runnable> pendingScans = new ConcurrentLinkedQueue<>(scans);
+		final Runnable worker = () -> {
+			for (Runnable scan = pendingScans.poll(); scan != null; scan = pendingScans.poll()) {
+				try {
+					scan.run();
+				} catch (final RuntimeException | Error e) {
+					pendingScans.clear();
+					throw e;
+				}
+			}
+		};
+
+		final int threads = Math.min(parallelism, scans.size());
+		if (threads == 1) {
+			worker.run();
+		} else {
+			final List<ListenableFuture<?>> futures = new ArrayList<>(threads);
+			try {
+				for (int i = 0; i < threads; i++) {
+					futures.add(SCAN_EXECUTOR.submit(worker));
+				}
+				Futures.allAsList(futures).get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SnowowlRuntimeException("Interrupted while registering taxonomy components.", e);
+			} catch (final ExecutionException e) {
+				Throwables.throwIfUnchecked(e.getCause());
+				throw new SnowowlRuntimeException("Failed to register taxonomy components.", e.getCause());
+			} finally {
+				pendingScans.clear();
+				futures.forEach(f -> f.cancel(true));
+			}
+		}
+
+		statedAncestors.addEdges(axiomAncestors);
+		statedDescendants.addEdges(axiomDescendants);
+		return this;
+	}
+
 	public ReasonerTaxonomyBuilder addFullySpecifiedNames(final RevisionSearcher searcher) {
 		entering("Registering fully specified names using revision searcher");
 		checkState(fullySpecifiedNames == null, "Fully specified names should only be collected once");
@@ -656,6 +752,11 @@ public final class ReasonerTaxonomyBuilder {
 	}
 	
 	public ReasonerTaxonomyBuilder addActiveAxioms(final RevisionSearcher searcher) {
+		addActiveAxioms(searcher, statedAncestors, statedDescendants);
+		return this;
+	}
+
+	private void addActiveAxioms(final RevisionSearcher searcher, final InternalIdEdges.Builder ancestors, final InternalIdEdges.Builder descendants) {
 		entering("Registering active stated OWL axioms using revision searcher");
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
@@ -694,8 +795,8 @@ public final class ReasonerTaxonomyBuilder {
 					if (conceptMap.containsKey(lastReferencedComponentId)) {
 						axiomNonIsaRelationships.putAll(lastReferencedComponentId, nonIsAFragments);
 						statedAxioms.putAll(lastReferencedComponentId, axioms);
-						statedAncestors.addEdges(sourceIds, destinationIds);
-						statedDescendants.addEdges(destinationIds, sourceIds);
+						ancestors.addEdges(sourceIds, destinationIds);
+						descendants.addEdges(destinationIds, sourceIds);
 					} else {
 						LOGGER.debug("Not registering OWL axioms for concept {} as it is inactive.", lastReferencedComponentId);
 					}
@@ -808,8 +909,8 @@ public final class ReasonerTaxonomyBuilder {
 			if (conceptMap.containsKey(lastReferencedComponentId)) {
 				axiomNonIsaRelationships.putAll(lastReferencedComponentId, nonIsAFragments);
 				statedAxioms.putAll(lastReferencedComponentId, axioms);
-				statedAncestors.addEdges(sourceIds, destinationIds);
-				statedDescendants.addEdges(destinationIds, sourceIds);
+				ancestors.addEdges(sourceIds, destinationIds);
+				descendants.addEdges(destinationIds, sourceIds);
 			} else {
 				LOGGER.debug("Not registering OWL axioms for concept {} as it is inactive.", lastReferencedComponentId);
 			}
@@ -820,7 +921,6 @@ public final class ReasonerTaxonomyBuilder {
 		}
 		
 		leaving("Registering active stated OWL axioms using revision searcher");
-		return this;
 	}
 	
 	public ReasonerTaxonomyBuilder addNeverGroupedTypeIds(final RevisionSearcher searcher) {
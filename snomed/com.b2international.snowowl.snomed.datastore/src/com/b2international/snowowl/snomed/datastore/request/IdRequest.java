@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import static com.google.common.collect.Sets.newHashSet;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,6 +49,7 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Iterables;
@@ -154,6 +156,11 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 				}
 			}
 
+			// Requests staging components directly reserve their identifiers up front as well
+			for (final IdReservingRequest reservingRequest : getIdReservingRequests(next())) {
+				reservingRequest.reserveIds(context, recorder);
+			}
+
 			C recordingContext = (C) context.inject().bind(IdActionRecorder.class, recorder).build();
 			final R commitInfo = next(recordingContext);
 			recorder.commit();
@@ -197,6 +204,27 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 		}
 	}
 
+	private static List<IdReservingRequest> getIdReservingRequests(final Request<?, ?> request) {
+		final ImmutableList.Builder<IdReservingRequest> resultBuilder = ImmutableList.builder();
+		collectIdReservingRequests(request, resultBuilder);
+		return resultBuilder.build();
+	}
+
+	private static void collectIdReservingRequests(Request<?, ?> request, ImmutableList.Builder<IdReservingRequest> resultBuilder) {
+		if (request instanceof IdReservingRequest) {
+			resultBuilder.add((IdReservingRequest) request);
+		} else if (request instanceof DelegatingRequest) {
+			collectIdReservingRequests(((DelegatingRequest<?, ?, ?>) request).next(), resultBuilder);
+		} else if (request instanceof TransactionalRequest) {
+			collectIdReservingRequests(((TransactionalRequest) request).getNext(), resultBuilder);
+		} else if (request instanceof BulkRequest) {
+			final BulkRequest<?> bulkRequest = (BulkRequest<?>) request;
+			for (Request<?, ?> bulkRequestItem : bulkRequest.getRequests()) {
+				collectIdReservingRequests(bulkRequestItem, resultBuilder);
+			}
+		}
+	}
+
 	private static ComponentCategory getComponentCategory(SnomedComponentRequest<?> request) {
 		if (request instanceof SnomedConceptCreateRequest) {
 			return ComponentCategory.CONCEPT;
@@ -211,7 +239,30 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 		}
 	}
 
-	private Set<String> getUniqueIds(final BranchContext context, final IdActionRecorder recorder, 
+	/**
+	 * Reserves the specified number of identifiers in the given namespace that are not yet used by any component on
+	 * the branch of the context. Reserved identifiers are registered or released when the recorder is committed or
+	 * rolled back. Intended for {@link IdReservingRequest}s which stage component documents directly instead of using
+	 * component create requests.
+	 * 
+	 * @param context - the branch context to check for existing identifiers
+	 * @param recorder - the recorder to reserve identifiers with
+	 * @param category - the component category to reserve identifiers for
+	 * @param quantity - the number of identifiers to reserve
+	 * @param namespace - the namespace to use, <code>null</code> or {@link SnomedIdentifiers#INT_NAMESPACE} for the international namespace
+	 * @return the set of reserved identifiers
+	 * @since 7.21
+	 */
+	public static Set<String> reserveUniqueIds(final BranchContext context, final IdActionRecorder recorder, 
+			final ComponentCategory category, 
+			final int quantity, 
+			final String namespace) {
+		
+		final String convertedNamespace = SnomedIdentifiers.INT_NAMESPACE.equals(namespace) ? null : namespace;
+		return getUniqueIds(context, recorder, category, getDocumentClass(category), quantity, convertedNamespace);
+	}
+
+	private static Set<String> getUniqueIds(final BranchContext context, final IdActionRecorder recorder, 
 			final ComponentCategory category, 
 			final Class<? extends SnomedDocument> documentClass, 
 			final int quantity, 
@@ -235,7 +286,7 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 		}
 	}
 
-	private Set<String> getExistingIds(final BranchContext context, final Set<String> ids, final Class<? extends SnomedDocument> documentClass) {
+	private static Set<String> getExistingIds(final BranchContext context, final Set<String> ids, final Class<? extends SnomedDocument> documentClass) {
 		
 		try {
 			
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.snomed.cis.action.IdActionRecorder;
+
+/**
+ * Requests creating components without individual component create requests can implement this interface to
+ * reserve the identifiers they need before the enclosing commit is started. An {@link IdRequest} calls
+ * {@link #reserveIds(BranchContext, IdActionRecorder)} on all such requests it finds in the wrapped request, the same
+ * way it assigns identifiers to component create requests.
+ *
+ * @since 7.21
+ */
+public interface IdReservingRequest {
+
+	/**
+	 * Reserves all identifiers required by this request using the given recorder, eg. by calling
+	 * {@link IdRequest#reserveUniqueIds(BranchContext, IdActionRecorder, com.b2international.snowowl.core.terminology.ComponentCategory, int, String)}.
+	 * Reservations are committed or rolled back along with the ones made by the {@link IdRequest} itself.
+	 *
+	 * @param context - the branch context the identifiers should be unique on
+	 * @param recorder - the recorder to reserve identifiers with
+	 */
+	void reserveIds(BranchContext context, IdActionRecorder recorder);
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument.Expressions.ancestors;
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument.Expressions.parents;
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument.Expressions.statedAncestors;
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument.Expressions.statedParents;
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument.Expressions.active;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.constraints.NotNull;
+
+import com.b2international.index.aggregations.Aggregation;
+import com.b2international.index.aggregations.AggregationBuilder;
+import com.b2international.index.aggregations.Bucket;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Expressions.ExpressionBuilder;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.authorization.BranchAccessControl;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.identity.Permission;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.Maps;
+
+/**
+ * Counts the active direct or all descendants of a set of concepts with a single terms aggregation over the
+ * (stated) parent and ancestor fields of concept documents.
+ *
+ * @since 7.21
+ */
+final class SnomedDescendantCountRequest implements Request<BranchContext, Map<String, Integer>>, BranchAccessControl {
+
+	private static final long serialVersionUID = 1L;
+
+	@NotNull
+	@JsonProperty
+	private Set<String> conceptIds;
+
+	@JsonProperty
+	private boolean direct;
+
+	@JsonProperty
+	private boolean stated;
+
+	SnomedDescendantCountRequest() {
+	}
+
+	void setConceptIds(Set<String> conceptIds) {
+		this.conceptIds = conceptIds;
+	}
+
+	void setDirect(boolean direct) {
+		this.direct = direct;
+	}
+
+	void setStated(boolean stated) {
+		this.stated = stated;
+	}
+
+	@Override
+	public Map<String, Integer> execute(BranchContext context) {
+		final Map<String, Integer> counts = Maps.newHashMapWithExpectedSize(conceptIds.size());
+		conceptIds.forEach(conceptId -> counts.put(conceptId, 0));
+		if (conceptIds.isEmpty()) {
+			return counts;
+		}
+
+		final ExpressionBuilder descendantFilter = Expressions.builder();
+		if (stated) {
+			descendantFilter.should(statedParents(conceptIds));
+			if (!direct) {
+				descendantFilter.should(statedAncestors(conceptIds));
+			}
+		} else {
+			descendantFilter.should(parents(conceptIds));
+			if (!direct) {
+				descendantFilter.should(ancestors(conceptIds));
+			}
+		}
+
+		final AggregationBuilder<SnomedConceptDocument> aggregation = AggregationBuilder.bucket("descendantCounts", SnomedConceptDocument.class)
+				.query(Expressions.builder()
+						.filter(active())
+						.filter(descendantFilter.build())
+						.build())
+				.includeValues(conceptIds)
+				.setBucketHitsLimit(0);
+
+		if (direct) {
+			aggregation.onFieldValue(stated ? SnomedConceptDocument.Fields.STATED_PARENTS : SnomedConceptDocument.Fields.PARENTS);
+		} else {
+			// a concept can be both a parent and an indirect ancestor of the same descendant, count it only once
+			aggregation.onScriptValue(stated ? SnomedConceptDocument.Scripts.STATED_PARENTS_AND_ANCESTORS : SnomedConceptDocument.Scripts.PARENTS_AND_ANCESTORS);
+		}
+
+		try {
+			final Aggregation<SnomedConceptDocument> result = context.service(RevisionSearcher.class).aggregate(aggregation);
+			for (Bucket<SnomedConceptDocument> bucket : result.getBuckets().values()) {
+				// field based buckets are keyed by numeric values, script based buckets by their string representation
+				counts.put(String.valueOf(bucket.getKey()), bucket.getHits().getTotal());
+			}
+		} catch (IOException e) {
+			throw SnowowlRuntimeException.wrap(e);
+		}
+
+		return counts;
+	}
+
+	@Override
+	public String getOperation() {
+		return Permission.OPERATION_BROWSE;
+	}
+
+}
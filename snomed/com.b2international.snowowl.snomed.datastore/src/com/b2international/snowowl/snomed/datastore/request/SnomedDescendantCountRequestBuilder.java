@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import java.util.Map;
+
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.BaseRequestBuilder;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.request.RevisionIndexRequestBuilder;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * <i>Builder</i> class to build requests responsible for counting the descendants of multiple SNOMED CT concepts at once.
+ * The response maps each requested concept ID to the number of its active descendants.
+ *
+ * @since 7.21
+ */
+public final class SnomedDescendantCountRequestBuilder
+		extends BaseRequestBuilder<SnomedDescendantCountRequestBuilder, BranchContext, Map<String, Integer>>
+		implements RevisionIndexRequestBuilder<Map<String, Integer>> {
+
+	private ImmutableSet<String> conceptIds = ImmutableSet.of();
+	private boolean direct = false;
+	private boolean stated = false;
+
+	SnomedDescendantCountRequestBuilder() {}
+
+	/**
+	 * @param conceptIds - the concepts to count the descendants of
+	 * @return this builder
+	 */
+	public SnomedDescendantCountRequestBuilder setConceptIds(Iterable<String> conceptIds) {
+		this.conceptIds = ImmutableSet.copyOf(conceptIds);
+		return getSelf();
+	}
+
+	/**
+	 * @param direct - <code>true</code> to count only direct children, <code>false</code> to count all descendants
+	 * @return this builder
+	 */
+	public SnomedDescendantCountRequestBuilder setDirect(boolean direct) {
+		this.direct = direct;
+		return getSelf();
+	}
+
+	/**
+	 * @param stated - <code>true</code> to count descendants in the stated hierarchy, <code>false</code> to use the inferred one
+	 * @return this builder
+	 */
+	public SnomedDescendantCountRequestBuilder setStated(boolean stated) {
+		this.stated = stated;
+		return getSelf();
+	}
+
+	@Override
+	protected Request<BranchContext, Map<String, Integer>> doBuild() {
+		final SnomedDescendantCountRequest req = new SnomedDescendantCountRequest();
+		req.setConceptIds(conceptIds);
+		req.setDirect(direct);
+		req.setStated(stated);
+		return req;
+	}
+
+}
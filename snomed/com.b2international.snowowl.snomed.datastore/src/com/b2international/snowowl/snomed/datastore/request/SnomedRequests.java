@@ -119,6 +119,14 @@ public abstract class SnomedRequests {
 		return new SnomedConceptSearchRequestBuilder();
 	}
 	
+	/**
+	 * Returns a SNOMED CT request builder to prepare a request to count the descendants of multiple concepts at once.
+	 * @return SNOMED CT descendant count request builder
+	 */
+	public static SnomedDescendantCountRequestBuilder prepareCountDescendants() {
+		return new SnomedDescendantCountRequestBuilder();
+	}
+	
 	/**
 	 * Returns a SNOMED CT request builder to prepare a request to search for descriptions.
 	 * @return SNOMED CT description search request builder
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,25 +15,37 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.dsv;
 
+import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument.Expressions.active;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
-import static java.util.Optional.ofNullable;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.index.aggregations.Aggregation;
+import com.b2international.index.aggregations.AggregationBuilder;
+import com.b2international.index.aggregations.Bucket;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.date.Dates;
 import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.BranchContext;
@@ -44,37 +56,61 @@ import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
-import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.AbstractSnomedDsvExportItem;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.ComponentIdSnomedDsvExportItem;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.DatatypeSnomedDsvExportItem;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedDsvExportItemType;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedRefSetDSVExportModel;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Implements the export process of the DSV export for simple type reference sets. 
  */
 public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 
-	private static final String HEADER_EXPAND = "descriptions(active:true),"
-			+ "relationships(active:true),"
-			+ "members()";
+	private static final int PAGE_SIZE = 10_000;
 	
-	private static final String DATA_EXPAND = "pt(),"
-			+ "descriptions(active:true),"
-			+ "relationships(active:true,expand(destination(expand(pt())))),"
-			+ "members()";
+	private static final String PT_EXPAND = "pt()";
+	private static final String DESCRIPTIONS_EXPAND = "descriptions(active:true)";
+	private static final String RELATIONSHIPS_EXPAND = "relationships(active:true,expand(destination(expand(pt()))))";
+	private static final String MEMBERS_EXPAND = "members()";
+	
+	private static final Set<String> PROPERTY_CHARACTERISTIC_TYPES = ImmutableSet.of(Concepts.INFERRED_RELATIONSHIP, Concepts.ADDITIONAL_RELATIONSHIP);
 
 	private static final Map<String, Integer> NO_OCCURRENCES = ImmutableMap.of();
 	
+	// bucket keys of the header statistics aggregations, the type ID always comes last
+	private static final String KEY_SEPARATOR = "#";
+	private static final String DESCRIPTION_KEY_SCRIPT = "return doc.conceptId.value + '#' + doc.typeId.value;";
+	private static final String RELATIONSHIP_KEY_SCRIPT = "return doc.sourceId.value + '#' + doc.group.value + '#' + doc.typeId.value;";
+	private static final String DATA_TYPE_KEY_SCRIPT = "return doc.referencedComponentId.value + '#' + doc.relationshipGroup.value + '#' + doc.typeId.value;";
+	
+	// member concepts are expanded on a shared pool, the number of pages in flight is limited per export
+	private static final ListeningExecutorService EXPORT_EXECUTOR = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("dsv-export-%d")
+			.setDaemon(true)
+			.build()));
+	
 	private final BranchContext context;
 	
 	private String refSetId;
@@ -86,8 +122,8 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	private Joiner joiner;
 	private String lineSeparator;
 	
-	private Map<String, Integer> descriptionCount; // maximum number of descriptions by type
-	private Map<Integer, Map<String, Integer>> propertyCountByGroup; // maximum number of properties by group and type
+	private final Map<String, Integer> descriptionCount = newHashMap(); // maximum number of descriptions by type
+	private final Map<Integer, Map<String, Integer>> propertyCountByGroup = newHashMap(); // maximum number of properties by group and type
 
 
 	/**
@@ -105,6 +141,9 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		this.context = context;
 		this.joiner = Joiner.on(exportSetting.getDelimiter());
 		this.lineSeparator = System.lineSeparator();
+		
+		// description columns are always present, even if no member has a description of the type
+		getExportItemComponentIds(SnomedDsvExportItemType.DESCRIPTION).forEach(typeId -> descriptionCount.put(typeId, 0));
 	}
 
 	/**
@@ -119,9 +158,9 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		Path exportPath = Files.createTempFile("dsv-export-" + refSetId + Dates.now(), ".csv");
 		try {
 			try (BufferedWriter writer = Files.newBufferedWriter(exportPath, Charsets.UTF_8)) {
-				computeHeader();
+				final List<Set<String>> conceptIdPages = computeHeader();
 				writeHeader(writer);
-				writeValues(monitor, writer);
+				writeValues(monitor, writer, conceptIdPages);
 			}
 			return exportPath.toFile();
 		} finally {
@@ -132,15 +171,14 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	}
 
 	/*
-	 * Fetches members of the specified reference set
+	 * Fetches the IDs of the member concepts of the specified reference set, page by page
 	 */
-	private SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> getMemberConceptIterator(String expand) {
+	private SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> getMemberConceptIdIterator() {
 		
 		SnomedConceptSearchRequestBuilder builder = SnomedRequests.prepareSearchConcept()
-			.setLocales(locales)
-			.setExpand(expand)
+			.setFields(SnomedConceptDocument.Fields.ID)
 			.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID))
-			.setLimit(10_000);
+			.setLimit(PAGE_SIZE);
 		
 		if (includeInactiveMembers) {
 			builder.isMemberOf(refSetId);
@@ -150,93 +188,163 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		
 		return new SearchResourceRequestIterator<>(builder, b -> b.build().execute(context));
 	}
-
+	
 	/*
-	 * Finds the maximum number of occurrences for each description, relationship and concrete data type; generates headers. 
+	 * Fetches the member concepts with the given IDs, expanding only the parts of the concept used by the export items
 	 */
-	private void computeHeader() {
-		descriptionCount = newHashMap();
-		propertyCountByGroup = newHashMap();
+	private SnomedConcepts getMemberConcepts(Set<String> conceptIds) {
+		final List<String> expand = newArrayList();
+		if (hasExportItem(SnomedDsvExportItemType.PREFERRED_TERM)) {
+			expand.add(PT_EXPAND);
+		}
+		if (hasExportItem(SnomedDsvExportItemType.DESCRIPTION)) {
+			expand.add(DESCRIPTIONS_EXPAND);
+		}
+		if (hasExportItem(SnomedDsvExportItemType.RELATIONSHIP)) {
+			expand.add(RELATIONSHIPS_EXPAND);
+		}
+		if (hasExportItem(SnomedDsvExportItemType.DATAYPE)) {
+			expand.add(MEMBERS_EXPAND);
+		}
 		
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(HEADER_EXPAND);
-		while (conceptIterator.hasNext()) {
-			computeHeader(conceptIterator.next());
+		final SnomedConceptSearchRequestBuilder builder = SnomedRequests.prepareSearchConcept()
+			.filterByIds(conceptIds)
+			.setLocales(locales)
+			.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID))
+			.setLimit(conceptIds.size());
+		
+		if (!expand.isEmpty()) {
+			builder.setExpand(String.join(",", expand));
 		}
+		
+		return builder.build().execute(context);
 	}
 	
-	private void computeHeader(SnomedConcepts chunk) {
-		for (SnomedConcept concept : chunk) {
-			for (AbstractSnomedDsvExportItem exportItem : exportItems) {
-				switch (exportItem.getType()) {
-					case DESCRIPTION:
-						ComponentIdSnomedDsvExportItem descriptionItem = (ComponentIdSnomedDsvExportItem) exportItem;
-						String descriptionTypeId = descriptionItem.getComponentId();
-						Integer matchingDescriptions = concept.getDescriptions()
-								.stream()
-								.filter(d -> descriptionTypeId.equals(d.getTypeId()))
-								.collect(Collectors.reducing(0, description -> 1, Integer::sum));
-						
-						descriptionCount.merge(descriptionTypeId, matchingDescriptions, Math::max);
-						break;
-					case RELATIONSHIP:
-						ComponentIdSnomedDsvExportItem relationshipItem = (ComponentIdSnomedDsvExportItem) exportItem;
-						String relationshipTypeId = relationshipItem.getComponentId();
-						
-						Map<Integer, Integer> matchingRelationships = concept.getRelationships()
-								.stream()
-								.filter(r -> relationshipTypeId.equals(r.getTypeId()) 
-										&& (Concepts.INFERRED_RELATIONSHIP.equals(r.getCharacteristicTypeId()) 
-										|| Concepts.ADDITIONAL_RELATIONSHIP.equals(r.getCharacteristicTypeId())))
-								.collect(Collectors.groupingBy(
-										SnomedRelationship::getGroup,
-										Collectors.reducing(0, relationship -> 1, Integer::sum)));
-
-						matchingRelationships.entrySet()
-								.stream()
-								.forEach(entry -> {
-									propertyCountByGroup.compute(entry.getKey(), (key, oldValue) -> {
-										Map<String, Integer> propertyCountForGroup = ofNullable(oldValue).orElseGet(HashMap::new);
-										propertyCountForGroup.merge(relationshipTypeId, entry.getValue(), Math::max);
-										return propertyCountForGroup;
-									});
-								});
-						break;
-					case DATAYPE:
-						ComponentIdSnomedDsvExportItem dataTypeItem = (ComponentIdSnomedDsvExportItem) exportItem;
-						String dataTypeId = dataTypeItem.getComponentId();
-						
-						Map<Integer, Integer> matchingMembers = concept.getMembers()
-								.stream()
-								.filter(m -> SnomedRefSetType.CONCRETE_DATA_TYPE.equals(m.type())
-										&& m.isActive()
-										&& dataTypeId.equals(m.getProperties().get(SnomedRf2Headers.FIELD_TYPE_ID)) 
-										&& (Concepts.INFERRED_RELATIONSHIP.equals(m.getProperties().get(SnomedRf2Headers.FIELD_CHARACTERISTIC_TYPE_ID)) 
-										|| Concepts.ADDITIONAL_RELATIONSHIP.equals(m.getProperties().get(SnomedRf2Headers.FIELD_CHARACTERISTIC_TYPE_ID))))
-								.collect(Collectors.groupingBy(
-										m -> (Integer) m.getProperties().get(SnomedRf2Headers.FIELD_RELATIONSHIP_GROUP),
-										Collectors.reducing(0, relationship -> 1, Integer::sum)));
+	private boolean hasExportItem(SnomedDsvExportItemType type) {
+		return exportItems.stream().anyMatch(item -> type.equals(item.getType()));
+	}
+	
+	private Set<String> getExportItemComponentIds(SnomedDsvExportItemType type) {
+		return exportItems.stream()
+				.filter(item -> type.equals(item.getType()))
+				.map(item -> ((ComponentIdSnomedDsvExportItem) item).getComponentId())
+				.collect(Collectors.toSet());
+	}
 
-						matchingMembers.entrySet()
-								.stream()
-								.forEach(entry -> {
-									propertyCountByGroup.compute(entry.getKey(), (key, oldValue) -> {
-										Map<String, Integer> propertyCountForGroup = ofNullable(oldValue).orElseGet(HashMap::new);
-										propertyCountForGroup.merge(dataTypeId, entry.getValue(), Math::max);
-										return propertyCountForGroup;
-									});
-								});
-						break;
-					default:
-						// Single-use fields don't need to be counted in advance
-						break;
-				}
+	/*
+	 * Fetches the member concept IDs in a single pass and finds the maximum number of occurrences for each description, 
+	 * relationship and concrete data type.
+	 * 
+	 * Occurrences are counted by terms aggregations over the matching descriptions, relationships and concrete domain 
+	 * members of each page of member concept IDs; no documents are loaded. Only the IDs are kept for writing the rows.
+	 */
+	private List<Set<String>> computeHeader() {
+		final Set<String> descriptionTypeIds = getExportItemComponentIds(SnomedDsvExportItemType.DESCRIPTION);
+		final Set<String> relationshipTypeIds = getExportItemComponentIds(SnomedDsvExportItemType.RELATIONSHIP);
+		final Set<String> dataTypeIds = getExportItemComponentIds(SnomedDsvExportItemType.DATAYPE);
+		
+		final List<Set<String>> conceptIdPages = newArrayList();
+		
+		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIdIterator = getMemberConceptIdIterator();
+		while (conceptIdIterator.hasNext()) {
+			final Set<String> conceptIds = conceptIdIterator.next()
+					.stream()
+					.map(SnomedConcept::getId)
+					.collect(Collectors.toSet());
+			
+			if (conceptIds.isEmpty()) {
+				continue;
 			}
+			
+			conceptIdPages.add(conceptIds);
+			
+			if (!descriptionTypeIds.isEmpty()) {
+				mergeDescriptionCounts(countByKey(AggregationBuilder.bucket("descriptionCounts", SnomedDescriptionIndexEntry.class)
+						.query(Expressions.builder()
+								.filter(active())
+								.filter(SnomedDescriptionIndexEntry.Expressions.concepts(conceptIds))
+								.filter(SnomedDescriptionIndexEntry.Expressions.types(descriptionTypeIds))
+								.build())
+						.onScriptValue(DESCRIPTION_KEY_SCRIPT)));
+			}
+			
+			if (!relationshipTypeIds.isEmpty()) {
+				mergePropertyCounts(countByKey(AggregationBuilder.bucket("relationshipCounts", SnomedRelationshipIndexEntry.class)
+						.query(Expressions.builder()
+								.filter(active())
+								.filter(SnomedRelationshipIndexEntry.Expressions.sourceIds(conceptIds))
+								.filter(SnomedRelationshipIndexEntry.Expressions.typeIds(relationshipTypeIds))
+								.filter(SnomedRelationshipIndexEntry.Expressions.characteristicTypeIds(PROPERTY_CHARACTERISTIC_TYPES))
+								.build())
+						.onScriptValue(RELATIONSHIP_KEY_SCRIPT)));
+			}
+			
+			if (!dataTypeIds.isEmpty()) {
+				mergePropertyCounts(countByKey(AggregationBuilder.bucket("dataTypeCounts", SnomedRefSetMemberIndexEntry.class)
+						.query(Expressions.builder()
+								.filter(active())
+								.filter(SnomedRefSetMemberIndexEntry.Expressions.refSetTypes(Collections.singleton(SnomedRefSetType.CONCRETE_DATA_TYPE)))
+								.filter(SnomedRefSetMemberIndexEntry.Expressions.referencedComponentIds(conceptIds))
+								.filter(SnomedRefSetMemberIndexEntry.Expressions.typeIds(dataTypeIds))
+								.filter(SnomedRefSetMemberIndexEntry.Expressions.characteristicTypeIds(PROPERTY_CHARACTERISTIC_TYPES))
+								.build())
+						.onScriptValue(DATA_TYPE_KEY_SCRIPT)));
+			}
+		}
+		
+		return conceptIdPages;
+	}
+	
+	private <T> Map<String, Integer> countByKey(AggregationBuilder<T> aggregation) {
+		try {
+			final Aggregation<T> result = context.service(RevisionSearcher.class).aggregate(aggregation.setBucketHitsLimit(0));
+			final Map<String, Integer> counts = Maps.newHashMapWithExpectedSize(result.getBuckets().size());
+			for (Bucket<T> bucket : result.getBuckets().values()) {
+				counts.put(String.valueOf(bucket.getKey()), bucket.getHits().getTotal());
+			}
+			return counts;
+		} catch (IOException e) {
+			throw SnowowlRuntimeException.wrap(e);
 		}
 	}
 	
+	/*
+	 * Merges description counts keyed by "conceptId#typeId" into the maximum number of descriptions by type
+	 */
+	void mergeDescriptionCounts(Map<String, Integer> countsByKey) {
+		countsByKey.forEach((key, count) -> {
+			final String typeId = key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1);
+			descriptionCount.merge(typeId, count, Math::max);
+		});
+	}
+	
+	/*
+	 * Merges property counts keyed by "conceptId#group#typeId" into the maximum number of properties by group and type
+	 */
+	void mergePropertyCounts(Map<String, Integer> countsByKey) {
+		countsByKey.forEach((key, count) -> {
+			final int typeSeparator = key.lastIndexOf(KEY_SEPARATOR);
+			final int groupSeparator = key.lastIndexOf(KEY_SEPARATOR, typeSeparator - 1);
+			final Integer group = Integer.valueOf(key.substring(groupSeparator + 1, typeSeparator));
+			final String typeId = key.substring(typeSeparator + 1);
+			propertyCountByGroup.computeIfAbsent(group, g -> new HashMap<>()).merge(typeId, count, Math::max);
+		});
+	}
+	
 	private void writeHeader(BufferedWriter writer) throws IOException {
 		Map<String, String> descriptionTypeIdMap = createTypeIdMap(Concepts.DESCRIPTION_TYPE_ROOT_CONCEPT);
 		Map<String, String> propertyTypeIdMap = createTypeIdMap(Concepts.CONCEPT_MODEL_ATTRIBUTE); // includes object and data attributes
+		
+		for (List<String> header : createHeader(descriptionTypeIdMap, propertyTypeIdMap)) {
+			writer.write(joiner.join(header));
+			writer.write(lineSeparator);
+		}
+	}
+	
+	/*
+	 * Returns the header lines of the export: the property header, followed by the detail header if IDs are included
+	 */
+	List<List<String>> createHeader(Map<String, String> descriptionTypeIdMap, Map<String, String> propertyTypeIdMap) {
 		List<String> propertyHeader = newArrayList();
 		List<String> detailHeader = newArrayList();
 		
@@ -365,13 +473,10 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 			}
 		}
 		
-		// write the header to the file
-		writer.write(joiner.join(propertyHeader));
-		writer.write(lineSeparator);
-		
 		if (includeDescriptionId || includeRelationshipId) {
-			writer.write(joiner.join(detailHeader));
-			writer.write(lineSeparator);
+			return ImmutableList.of(propertyHeader, detailHeader);
+		} else {
+			return ImmutableList.of(propertyHeader);
 		}
 	}
 
@@ -392,15 +497,49 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 				c -> getPreferredTerm(c)));
 	}
 
-	private void writeValues(IProgressMonitor monitor, BufferedWriter writer) throws IOException {
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(DATA_EXPAND);
+	/*
+	 * Member concepts are expanded page by page on the shared export pool, while the rows of previously expanded pages 
+	 * are written in the original order. The number of pages in flight is limited, so memory use does not depend on 
+	 * the size of the reference set.
+	 */
+	private void writeValues(IProgressMonitor monitor, BufferedWriter writer, List<Set<String>> conceptIdPages) throws IOException {
+		final int threads = context.service(SnomedCoreConfiguration.class).getExport().getThreads();
+		final ListeningExecutorService executor = (threads > 1) ? EXPORT_EXECUTOR : MoreExecutors.newDirectExecutorService();
+		final Deque<ListenableFuture<SnomedConcepts>> pages = new ArrayDeque<>();
 		
-		while (conceptIterator.hasNext()) {
-			SnomedConcepts chunk = conceptIterator.next();
-			writeValues(writer, chunk);
-			monitor.worked(chunk.getItems().size());
+		try {
+			for (Set<String> conceptIds : conceptIdPages) {
+				if (pages.size() >= threads) {
+					writePage(monitor, writer, pages.removeFirst());
+				}
+				
+				pages.addLast(executor.submit(() -> getMemberConcepts(conceptIds)));
+			}
+			
+			while (!pages.isEmpty()) {
+				writePage(monitor, writer, pages.removeFirst());
+			}
+		} finally {
+			// do not leave work behind on the shared pool if writing failed
+			pages.forEach(page -> page.cancel(true));
 		}
 	}
+	
+	private void writePage(IProgressMonitor monitor, BufferedWriter writer, ListenableFuture<SnomedConcepts> page) throws IOException {
+		final SnomedConcepts chunk;
+		try {
+			chunk = page.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while exporting reference set '" + refSetId + "'.", e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+		
+		writeValues(writer, chunk);
+		monitor.worked(chunk.getItems().size());
+	}
 		
 	private void writeValues(BufferedWriter writer, SnomedConcepts chunk) throws IOException {
 		List<String> dataRow = newArrayList();
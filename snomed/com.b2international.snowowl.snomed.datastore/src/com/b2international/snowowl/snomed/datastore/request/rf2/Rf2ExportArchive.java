@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archive assembled from the files of an RF2 export directory while the export is still running. Files are added as soon as their content
+ * is final, the remaining files and directories are added in {@link #addRemaining()}. Entry names are relative to the export directory and use
+ * forward slashes, directories end with a slash, just like the archives created by
+ * {@link com.b2international.commons.FileUtils#createZipArchive(java.io.File, java.io.File) FileUtils.createZipArchive}.
+ *
+ * @since 7.21
+ */
+final class Rf2ExportArchive implements Closeable {
+
+	private final Path exportDirectory;
+	private final ZipOutputStream zos;
+	private final Set<Path> addedPaths = newHashSet();
+
+	Rf2ExportArchive(final Path exportDirectory, final Path archiveFile) throws IOException {
+		this.exportDirectory = exportDirectory;
+		this.zos = new ZipOutputStream(Files.newOutputStream(archiveFile));
+	}
+
+	/**
+	 * Adds the given file of the export directory to the archive, along with any of its parent directories not yet added. Should only be
+	 * called when the file will not be written to anymore.
+	 *
+	 * @param file - the file to add
+	 * @throws IOException
+	 */
+	synchronized void add(final Path file) throws IOException {
+		if (addedPaths.contains(file)) {
+			return;
+		}
+
+		final Path parent = file.getParent();
+		if (parent != null && !parent.equals(exportDirectory)) {
+			add(parent);
+		}
+
+		if (Files.isDirectory(file)) {
+			zos.putNextEntry(new ZipEntry(getEntryName(file) + "/"));
+		} else {
+			zos.putNextEntry(new ZipEntry(getEntryName(file)));
+			Files.copy(file, zos);
+		}
+
+		zos.closeEntry();
+		addedPaths.add(file);
+	}
+
+	/**
+	 * Adds all files and directories of the export directory which were not added to the archive so far.
+	 *
+	 * @throws IOException
+	 */
+	synchronized void addRemaining() throws IOException {
+		final List<Path> paths;
+		try (Stream<Path> walk = Files.walk(exportDirectory)) {
+			paths = walk.filter(path -> !path.equals(exportDirectory))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+
+		for (final Path path : paths) {
+			add(path);
+		}
+	}
+
+	private String getEntryName(final Path path) {
+		return exportDirectory.toUri().relativize(path.toUri()).getPath().replaceAll("/$", "");
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		zos.close();
+	}
+
+}
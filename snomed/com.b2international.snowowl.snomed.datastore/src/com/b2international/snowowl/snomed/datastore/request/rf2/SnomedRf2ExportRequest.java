@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,6 @@ import static com.google.common.collect.Sets.newTreeSet;
 import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toSet;
 
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -33,14 +32,21 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -91,6 +97,7 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSets;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
@@ -99,12 +106,15 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ConceptExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ConcreteValueExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2DescriptionExporter;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ExportFragmentCache;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2Exporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2LanguageRefSetExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2RefSetDescriptorRefSetExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2RefSetExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2RelationshipExporter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
@@ -113,6 +123,12 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 5.7
@@ -124,6 +140,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 
 	private static final long serialVersionUID = 2L;
 
+	/**
+	 * Shared executor for writing RF2 files; the number of files written in parallel by a single export is bounded by the configured export threads.
+	 */
+	private static final ListeningExecutorService EXPORT_EXECUTOR = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("rf2-export-%d")
+			.setDaemon(true)
+			.build()));
+	
 	private static final Ordering<CodeSystemVersion> EFFECTIVE_DATE_ORDERING = Ordering.natural()
 			.onResultOf(CodeSystemVersion::getEffectiveTime);
 
@@ -272,7 +296,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		// Step 4: compute possible language codes
 		Multimap<String, String> availableLanguageCodes = getLanguageCodes(context, branchesToExport);
 		
+		// Step 5: identify the content of version branches, rows exported from them can be reused by later exports
+		final Rf2ExportFragmentCache fragmentCache = context.optionalService(Rf2ExportFragmentCache.class).orElse(null);
+		final Map<String, String> branchFragmentKeys = (fragmentCache != null) 
+				? getBranchFragmentKeys(context, versionsToExport, branchesToExport) 
+				: Collections.emptyMap();
+		
 		Path exportDirectory = null;
+		Path archiveFile = null;
 
 		try {
 			
@@ -280,6 +311,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			
 			// create temporary export directory
 			exportDirectory = createExportDirectory(exportId);
+			archiveFile = exportDirectory.resolveSibling(exportDirectory.getFileName() + ".zip");
 
 			// get archive effective time based on latest version effective / transient effective time / current date
 			final LocalDateTime archiveEffectiveDate = getArchiveEffectiveTime(context, versionsToExport);
@@ -288,52 +320,74 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			// create main folder including release status and archive effective date
 			final Path releaseDirectory = createReleaseDirectory(exportDirectory, archiveEffectiveDate);
 
-			final Set<String> visitedComponentEffectiveTimes = newHashSet();
+			final Set<String> visitedComponentEffectiveTimes = ConcurrentHashMap.newKeySet();
 			
 			final long effectiveTimeStart = startEffectiveTime != null ? EffectiveTimes.getEffectiveTime(startEffectiveTime) : 0;
 			final long effectiveTimeEnd =  endEffectiveTime != null ? EffectiveTimes.getEffectiveTime(endEffectiveTime) : Long.MAX_VALUE;
 
-			// export content from the pre-computed version branches
-			for (String branch : branchesToExport) {
-				
-				exportBranch(releaseDirectory, 
-						context,
-						branch, 
-						archiveEffectiveDateShort, 
-						effectiveTimeStart,
-						effectiveTimeEnd,
-						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(branch));
-				
-			}
+			final int threads = context.service(SnomedCoreConfiguration.class).getExport().getThreads();
 			
-			// export content from reference branch
-			if (includePreReleaseContent) {
+			try (final Rf2ExportArchive archive = new Rf2ExportArchive(exportDirectory, archiveFile)) {
 				
-				// If a special branch path was given, use it directly
-				final String referenceBranchToExport = containsSpecialCharacter(referenceBranch) 
-						? referenceBranch
-						: RevisionIndex.toBranchAtPath(referenceBranch, exportStartTime);
+				// export content from the pre-computed version branches
+				for (int i = 0; i < branchesToExport.size(); i++) {
+					
+					final String branch = branchesToExport.get(i);
+					final boolean lastBranch = !includePreReleaseContent && i == branchesToExport.size() - 1;
+					
+					exportBranch(releaseDirectory, 
+							context,
+							branch, 
+							archiveEffectiveDateShort, 
+							effectiveTimeStart,
+							effectiveTimeEnd,
+							visitedComponentEffectiveTimes,
+							availableLanguageCodes.get(branch),
+							threads,
+							fragmentCache,
+							branchFragmentKeys.get(branch),
+							lastBranch ? archive : null);
+					
+				}
 				
-				exportBranch(releaseDirectory, 
-						context, 
-						referenceBranchToExport, 
-						archiveEffectiveDateShort, 
-						EffectiveTimes.UNSET_EFFECTIVE_TIME,
-						EffectiveTimes.UNSET_EFFECTIVE_TIME,
-						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(referenceBranch));
+				// export content from reference branch
+				if (includePreReleaseContent) {
+					
+					// If a special branch path was given, use it directly
+					final String referenceBranchToExport = containsSpecialCharacter(referenceBranch) 
+							? referenceBranch
+							: RevisionIndex.toBranchAtPath(referenceBranch, exportStartTime);
+					
+					exportBranch(releaseDirectory, 
+							context, 
+							referenceBranchToExport, 
+							archiveEffectiveDateShort, 
+							EffectiveTimes.UNSET_EFFECTIVE_TIME,
+							EffectiveTimes.UNSET_EFFECTIVE_TIME,
+							visitedComponentEffectiveTimes,
+							availableLanguageCodes.get(referenceBranch),
+							threads,
+							null,
+							null,
+							archive);
+				}
+				
+				// Step 6: add files not written in the last pass (and empty directories) to the archive
+				archive.addRemaining();
 			}
 
-			// Step 6: compress to archive and upload to the file registry
+			// Step 7: upload the archive to the file registry
 			final AttachmentRegistry fileRegistry = context.service(AttachmentRegistry.class);
-			registerResult(fileRegistry, exportId, exportDirectory);
+			registerResult(fileRegistry, exportId, archiveFile);
 			final String fileName = releaseDirectory.getFileName() + ".zip";
 			return new Attachment(exportId, fileName);
 			
 		} catch (final Exception e) {
 			throw new SnowowlRuntimeException("Failed to export terminology content to RF2.", e);
 		} finally {
+			if (archiveFile != null) {
+				archiveFile.toFile().delete();
+			}
 			if (exportDirectory != null) {
 				FileUtils.deleteDirectory(exportDirectory.toFile());
 			}
@@ -440,6 +494,57 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		return branchRangesToExport.build();
 	}
 
+	/*
+	 * Only branches and ranges made up of code system version branches are considered, as their content does not change unless the version
+	 * branch itself is modified. Base and head timestamps change when a version branch is rebased or committed to, a deleted and recreated
+	 * version branch gets a new branch ID, so any of these result in a different key and a fresh scan of the branch.
+	 */
+	private Map<String, String> getBranchFragmentKeys(final RepositoryContext context, final TreeSet<CodeSystemVersion> versionsToExport, final List<String> branchesToExport) {
+		final Set<String> versionPaths = versionsToExport.stream()
+				.map(CodeSystemVersion::getPath)
+				.collect(toSet());
+		
+		final Map<String, List<String>> versionBranchesToExport = new LinkedHashMap<>();
+		for (final String branchOrRange : branchesToExport) {
+			final List<String> paths = RevisionIndex.isRevRangePath(branchOrRange) 
+					? ImmutableList.copyOf(RevisionIndex.getRevisionRangePaths(branchOrRange)) 
+					: ImmutableList.of(branchOrRange);
+			
+			if (versionPaths.containsAll(paths)) {
+				versionBranchesToExport.put(branchOrRange, paths);
+			}
+		}
+		
+		if (versionBranchesToExport.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		
+		final Set<String> pathsToLoad = versionBranchesToExport.values()
+				.stream()
+				.flatMap(List::stream)
+				.collect(toSet());
+		
+		final Map<String, Branch> branchesByPath = Maps.uniqueIndex(getBranches(context, pathsToLoad), Branch::path);
+		
+		final Map<String, String> branchFragmentKeys = Maps.newHashMap();
+		for (final Entry<String, List<String>> entry : versionBranchesToExport.entrySet()) {
+			final List<String> keyParts = newArrayList();
+			for (final String path : entry.getValue()) {
+				final Branch branch = branchesByPath.get(path);
+				if (branch == null || branch.isDeleted()) {
+					break;
+				}
+				keyParts.add(String.format("%s:%d:%d:%d", path, branch.branchId(), branch.baseTimestamp(), branch.headTimestamp()));
+			}
+			
+			if (keyParts.size() == entry.getValue().size()) {
+				branchFragmentKeys.put(entry.getKey(), String.join(RevisionIndex.REV_RANGE, keyParts));
+			}
+		}
+		
+		return branchFragmentKeys;
+	}
+
 	private boolean needsVersionBranchesForDeltaExport() {
 		return startEffectiveTime != null || endEffectiveTime != null || !includePreReleaseContent;
 	}
@@ -632,70 +737,52 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterStart, 
 			final long effectiveTimeFilterEnd,
 			final Set<String> visitedComponentEffectiveTimes,
-			final Collection<String> languageCodes) throws IOException {
+			final Collection<String> languageCodes,
+			final int threads,
+			final Rf2ExportFragmentCache fragmentCache,
+			final String branchFragmentKey,
+			final Rf2ExportArchive archive) throws IOException {
 
+		final List<Rf2Exporter<?, ?>> exporters = newArrayList();
+		
 		for (final String componentToExport : componentTypes) {
 			switch (componentToExport) {
 				case SnomedTerminologyComponentConstants.CONCEPT:
-					exportConcepts(releaseDirectory, 
-							context,
-							branch,
-							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+					addConceptExporters(exporters, archiveEffectiveTime);
 					break;
 	
 				case SnomedTerminologyComponentConstants.DESCRIPTION:
 					for (final String languageCode : languageCodes) {
-						exportDescriptions(releaseDirectory, 
+						addDescriptionExporters(exporters, 
 								context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCode,
-								visitedComponentEffectiveTimes);
+								languageCode);
 					}
 					break;
 	
 				case SnomedTerminologyComponentConstants.RELATIONSHIP:
-					exportRelationships(releaseDirectory, 
+					addRelationshipExporters(exporters, 
 							context,
 							branch,
-							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							archiveEffectiveTime);
 					
-					exportConcreteValues(releaseDirectory, 
-							context,
-							branch,
-							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+					addConcreteValueExporters(exporters, archiveEffectiveTime);
 					break;
 	
 				case SnomedTerminologyComponentConstants.REFSET_MEMBER:
 					if (Rf2RefSetExportLayout.COMBINED.equals(refSetExportLayout)) {
-						exportCombinedRefSets(releaseDirectory,
+						addCombinedRefSetExporters(exporters,
 								context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCodes,
-								visitedComponentEffectiveTimes);
+								languageCodes);
 					} else {
-						exportIndividualRefSets(releaseDirectory,
+						addIndividualRefSetExporters(exporters,
 								context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCodes,
-								visitedComponentEffectiveTimes);
+								languageCodes);
 					}
 				break;
 
@@ -705,62 +792,107 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		}
 		
 		if (Boolean.valueOf(System.getProperty("so.snomed.refsetdescriptor_preview", "false"))) {
-			exportRefSetDescriptor(releaseDirectory,
-					context,
-					branch,
-					archiveEffectiveTime,
-					effectiveTimeFilterStart,
-					effectiveTimeFilterEnd,
-					languageCodes,
-					visitedComponentEffectiveTimes);
+			addRefSetDescriptorExporters(exporters, archiveEffectiveTime);
+		}
+		
+		/*
+		 * Exporters writing the same file (eg. individual reference sets sharing a file name) run one after the other in their original order,
+		 * different files are written in parallel. Component IDs do not overlap between exporters, so the content of each file does not depend
+		 * on the order the files are written in. Files are added to the archive in the order of their paths, independently of the order they
+		 * are completed in.
+		 */
+		final Map<Path, List<Rf2Exporter<?, ?>>> exportersByFile = exporters.stream()
+				.collect(Collectors.groupingBy(Rf2Exporter::getRelativeFile, TreeMap::new, Collectors.toList()));
+		
+		final Map<Path, SettableFuture<Void>> completedFiles = new TreeMap<>();
+		exportersByFile.keySet().forEach(file -> completedFiles.put(file, SettableFuture.create()));
+		
+		final Queue<Entry<Path, List<Rf2Exporter<?, ?>>>> filesToWrite = new ConcurrentLinkedQueue<>(exportersByFile.entrySet());
+		final Runnable writer = () -> {
+			Entry<Path, List<Rf2Exporter<?, ?>>> entry;
+			while ((entry = filesToWrite.poll()) != null) {
+				final SettableFuture<Void> completed = completedFiles.get(entry.getKey());
+				try {
+					for (final Rf2Exporter<?, ?> exporter : entry.getValue()) {
+						exporter.exportBranch(releaseDirectory, 
+								context, 
+								branch, 
+								effectiveTimeFilterStart, 
+								effectiveTimeFilterEnd, 
+								visitedComponentEffectiveTimes, 
+								fragmentCache, 
+								branchFragmentKey);
+					}
+					completed.set(null);
+				} catch (final Throwable t) {
+					completed.setException(t);
+				}
+			}
+		};
+		
+		final List<ListenableFuture<?>> writers = newArrayList();
+		try {
+			
+			if (threads > 1) {
+				for (int i = 0; i < Math.min(threads, exportersByFile.size()); i++) {
+					writers.add(EXPORT_EXECUTOR.submit(writer));
+				}
+			} else {
+				writer.run();
+			}
+			
+			for (final Entry<Path, SettableFuture<Void>> entry : completedFiles.entrySet()) {
+				entry.getValue().get();
+				// In the last pass the file is complete, it can be compressed while other files are still being written
+				if (archive != null) {
+					archive.add(releaseDirectory.resolve(entry.getKey()));
+				}
+			}
+			
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while exporting branch '" + branch + "'.", e);
+		} catch (final ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		} finally {
+			// files not started yet are skipped on failure, files being written are completed before the export directory is removed
+			filesToWrite.clear();
+			try {
+				Futures.successfulAsList(writers).get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final ExecutionException e) {
+				// successfulAsList does not fail, failures are reported through the per-file futures
+			}
 		}
 	}
 
-	private void exportRefSetDescriptor(Path releaseDirectory, 
-			RepositoryContext context, 
-			String branch, 
-			String archiveEffectiveTime, 
-			long effectiveTimeFilterStart, 
-			long effectiveTimeFilterEnd, 
-			Collection<String> languageCodes, 
-			Set<String> visitedComponentEffectiveTimes) throws IOException {
-		final Rf2RefSetDescriptorRefSetExporter exporter = new Rf2RefSetDescriptorRefSetExporter(releaseType, 
+	private void addRefSetDescriptorExporters(final List<Rf2Exporter<?, ?>> exporters, final String archiveEffectiveTime) {
+		exporters.add(new Rf2RefSetDescriptorRefSetExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter,
 				transientEffectiveTime,
 				archiveEffectiveTime,
-				modules);
-		
-		exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+				modules));
 	}
 
-	private void exportConcepts(final Path releaseDirectory, 
-			final RepositoryContext context, 
-			final String branch,
-			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
-
-		final Rf2ConceptExporter conceptExporter = new Rf2ConceptExporter(releaseType, 
+	private void addConceptExporters(final List<Rf2Exporter<?, ?>> exporters, final String archiveEffectiveTime) {
+		exporters.add(new Rf2ConceptExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter,
 				transientEffectiveTime,
 				archiveEffectiveTime,
 				includePreReleaseContent,
-				modules);
-
-		conceptExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+				modules));
 	}
 
-	private void exportDescriptions(final Path releaseDirectory, 
+	private void addDescriptionExporters(final List<Rf2Exporter<?, ?>> exporters, 
 			final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
-			final String languageCode,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final String languageCode) {
 
 		final Set<String> descriptionTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 			.all()
@@ -789,8 +921,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				ImmutableSet.of(Concepts.TEXT_DEFINITION),
 				languageCode);
 
-		descriptionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		textDefinitionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(descriptionExporter);
+		exporters.add(textDefinitionExporter);
 	}
 
 	private String getBranchOrRangeTarget(final String branch) {
@@ -801,13 +933,10 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		return new BranchRequest<>(branch, new RevisionIndexReadRequest<>(next)).execute(context);
 	}
 	
-	private void exportRelationships(final Path releaseDirectory, 
+	private void addRelationshipExporters(final List<Rf2Exporter<?, ?>> exporters, 
 			final RepositoryContext context, 
 			final String branch,
-			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final String archiveEffectiveTime) {
 
 		final Set<String> characteristicTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 				.all()
@@ -834,36 +963,24 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				modules, 
 				characteristicTypes);
 
-		statedRelationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		relationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(statedRelationshipExporter);
+		exporters.add(relationshipExporter);
 	}
 	
-	private void exportConcreteValues(final Path releaseDirectory, 
-			final RepositoryContext context, 
-			final String branch,
-			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
-		
-		final Rf2ConcreteValueExporter concreteValueExporter = new Rf2ConcreteValueExporter(releaseType, 
+	private void addConcreteValueExporters(final List<Rf2Exporter<?, ?>> exporters, final String archiveEffectiveTime) {
+		exporters.add(new Rf2ConcreteValueExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter, 
 				transientEffectiveTime,
 				archiveEffectiveTime, 
-				modules);
-		
-		concreteValueExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+				modules));
 	}
 
-	private void exportCombinedRefSets(final Path releaseDirectory, 
+	private void addCombinedRefSetExporters(final List<Rf2Exporter<?, ?>> exporters, 
 			final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,  
-			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final Collection<String> languageCodes) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(branch)))
 				.index(c -> c.getReferenceSet().getType());
@@ -876,7 +993,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				continue;
 			}
 
-			final Rf2RefSetExporter refSetExporter = new Rf2RefSetExporter(releaseType, 
+			exporters.add(new Rf2RefSetExporter(releaseType, 
 					countryNamespaceElement, 
 					namespaceFilter, 
 					transientEffectiveTime,
@@ -884,30 +1001,20 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					modules,
 					refSetExportLayout,
 					refSetType,
-					referenceSetsByType.get(refSetType));
-
-			refSetExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+					referenceSetsByType.get(refSetType)));
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
-				branch, 
+		addLanguageRefSetExporters(exporters, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
-				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				referenceSetsByType.get(SnomedRefSetType.LANGUAGE));
 	}
 
-	private void exportIndividualRefSets(final Path releaseDirectory, 
+	private void addIndividualRefSetExporters(final List<Rf2Exporter<?, ?>> exporters, 
 			final RepositoryContext context, 
 			final String revisionRange,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
-			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final Collection<String> languageCodes) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(revisionRange)))
 				.index(c -> c.getReferenceSet().getType());
@@ -923,7 +1030,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				continue;
 			}
 
-			final Rf2RefSetExporter refSetExporter = new Rf2RefSetExporter(releaseType, 
+			exporters.add(new Rf2RefSetExporter(releaseType, 
 					countryNamespaceElement, 
 					namespaceFilter, 
 					transientEffectiveTime,
@@ -931,39 +1038,26 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					modules,
 					refSetExportLayout,
 					entry.getKey(),
-					ImmutableSet.of(entry.getValue()));
-
-			refSetExporter.exportBranch(releaseDirectory, context, revisionRange, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+					ImmutableSet.of(entry.getValue())));
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
-				revisionRange, 
+		addLanguageRefSetExporters(exporters, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
-				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				referenceSetsByType.get(SnomedRefSetType.LANGUAGE));
 	}
 
-	private void exportLanguageRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
-			final String branch,
+	private void addLanguageRefSetExporters(final List<Rf2Exporter<?, ?>> exporters, 
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes, 
-			final Collection<SnomedConcept> languageRefSets,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final Collection<SnomedConcept> languageRefSets) {
 
 		if (languageRefSets.isEmpty()) {
 			return;
 		}
 		
 		for (final String languageCode : languageCodes) {
-
-			final Rf2LanguageRefSetExporter languageExporter = new Rf2LanguageRefSetExporter(releaseType, 
+			exporters.add(new Rf2LanguageRefSetExporter(releaseType, 
 					countryNamespaceElement,
 					namespaceFilter,
 					transientEffectiveTime,
@@ -971,9 +1065,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					modules,
 					SnomedRefSetType.LANGUAGE,
 					languageRefSets,
-					languageCode);
-
-			languageExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+					languageCode));
 		}
 	}
 
@@ -1010,19 +1102,11 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				.collect(Collectors.toList());
 	}
 
-	private void registerResult(final AttachmentRegistry fileRegistry, final UUID exportId, final Path exportDirectory) {
-		File archiveFile = null;
-
+	private void registerResult(final AttachmentRegistry fileRegistry, final UUID exportId, final Path archiveFile) {
 		try {
-			archiveFile = exportDirectory.resolveSibling(exportDirectory.getFileName() + ".zip").toFile();
-			FileUtils.createZipArchive(exportDirectory.toFile(), archiveFile);
-			fileRegistry.upload(exportId, new FileInputStream(archiveFile)); // lgtm[java/input-resource-leak]
+			fileRegistry.upload(exportId, new FileInputStream(archiveFile.toFile())); // lgtm[java/input-resource-leak]
 		} catch (final IOException e) {
 			throw new SnowowlRuntimeException("Failed to register archive file from export directory.", e);
-		} finally {
-			if (archiveFile != null) {
-				archiveFile.delete();
-			}
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,11 +20,9 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
-import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
@@ -33,7 +31,7 @@ import com.google.common.collect.ImmutableList;
 /**
  * @since 6.3
  */
-public final class Rf2ConceptExporter extends Rf2CoreComponentExporter<SnomedConceptSearchRequestBuilder, SnomedConcepts, SnomedConcept> {
+public final class Rf2ConceptExporter extends Rf2CoreComponentExporter<SnomedConceptSearchRequestBuilder, SnomedConceptDocument> {
 
 	public Rf2ConceptExporter(final Rf2ReleaseType releaseType, 
 			final String countryNamespaceElement,
@@ -63,13 +61,25 @@ public final class Rf2ConceptExporter extends Rf2CoreComponentExporter<SnomedCon
 
 	@Override
 	protected SnomedConceptSearchRequestBuilder createComponentSearchRequestBuilder() {
-		return SnomedRequests
-				.prepareSearchConcept()
-				.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID));
+		return SnomedRequests.prepareSearchConcept();
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedConcepts results, 
+	protected Class<SnomedConceptDocument> getDocumentType() {
+		return SnomedConceptDocument.class;
+	}
+
+	@Override
+	protected List<String> getFields() {
+		return ImmutableList.of(SnomedConceptDocument.Fields.ID,
+				SnomedConceptDocument.Fields.EFFECTIVE_TIME,
+				SnomedConceptDocument.Fields.ACTIVE,
+				SnomedConceptDocument.Fields.MODULE_ID,
+				SnomedConceptDocument.Fields.PRIMITIVE);
+	}
+
+	@Override
+	protected Stream<List<String>> getMappedStream(final List<SnomedConceptDocument> results, 
 			final RepositoryContext context, 
 			final String branch) {
 		
@@ -78,6 +88,8 @@ public final class Rf2ConceptExporter extends Rf2CoreComponentExporter<SnomedCon
 						getEffectiveTime(concept),					// effectiveTime 
 						getActive(concept),							// active
 						concept.getModuleId(),						// moduleId
-						concept.getDefinitionStatusId()));			// definitionStatus
+						concept.isPrimitive() 						// definitionStatus
+							? Concepts.PRIMITIVE 
+							: Concepts.FULLY_DEFINED));
 	}
 }
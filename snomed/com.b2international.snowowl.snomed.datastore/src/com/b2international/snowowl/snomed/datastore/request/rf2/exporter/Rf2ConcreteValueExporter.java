@@ -1,5 +1,5 @@
 /*
- * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2021-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,9 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.RelationshipValueType;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
-import com.b2international.snowowl.snomed.core.domain.SnomedRelationships;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRelationshipSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
@@ -37,7 +34,7 @@ import com.google.common.collect.ImmutableSet;
  * @since 7.17
  */
 public final class Rf2ConcreteValueExporter 
-	extends Rf2CoreComponentExporter<SnomedRelationshipSearchRequestBuilder, SnomedRelationships, SnomedRelationship> {
+	extends Rf2CoreComponentExporter<SnomedRelationshipSearchRequestBuilder, SnomedRelationshipIndexEntry> {
 
 	private static final Set<RelationshipValueType> VALUE_TYPES = ImmutableSet.copyOf(RelationshipValueType.values());
 
@@ -70,26 +67,46 @@ public final class Rf2ConcreteValueExporter
 	protected SnomedRelationshipSearchRequestBuilder createComponentSearchRequestBuilder() {
 		return SnomedRequests
 			.prepareSearchRelationship()
-			.filterByValueTypes(VALUE_TYPES)
-			.sortBy(SortField.ascending(SnomedRelationshipIndexEntry.Fields.ID));
+			.filterByValueTypes(VALUE_TYPES);
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedRelationships results, 
+	protected Class<SnomedRelationshipIndexEntry> getDocumentType() {
+		return SnomedRelationshipIndexEntry.class;
+	}
+
+	@Override
+	protected List<String> getFields() {
+		return ImmutableList.of(SnomedRelationshipIndexEntry.Fields.ID,
+			SnomedRelationshipIndexEntry.Fields.EFFECTIVE_TIME,
+			SnomedRelationshipIndexEntry.Fields.ACTIVE,
+			SnomedRelationshipIndexEntry.Fields.MODULE_ID,
+			SnomedRelationshipIndexEntry.Fields.SOURCE_ID,
+			SnomedRelationshipIndexEntry.Fields.VALUE_TYPE,
+			SnomedRelationshipIndexEntry.Fields.NUMERIC_VALUE,
+			SnomedRelationshipIndexEntry.Fields.STRING_VALUE,
+			SnomedRelationshipIndexEntry.Fields.GROUP,
+			SnomedRelationshipIndexEntry.Fields.TYPE_ID,
+			SnomedRelationshipIndexEntry.Fields.CHARACTERISTIC_TYPE_ID,
+			SnomedRelationshipIndexEntry.Fields.MODIFIER_ID);
+	}
+
+	@Override
+	protected Stream<List<String>> getMappedStream(final List<SnomedRelationshipIndexEntry> results, 
 			final RepositoryContext context, 
 			final String branch) {
 
 		return results.stream()
             .map(result -> ImmutableList.of(
-                result.getId(),                   // id
-                getEffectiveTime(result),         // effectiveTime 
-                getActive(result),                // active
-                result.getModuleId(),             // moduleId
-                result.getSourceId(),             // sourceId
-                result.getValue(),                // value
-                result.getGroup().toString(),     // relationshipGroup
-                result.getTypeId(),               // typeId
-                result.getCharacteristicTypeId(), // characteristicTypeId
-                result.getModifierId()));         // modifierId
+                result.getId(),                          // id
+                getEffectiveTime(result),                // effectiveTime 
+                getActive(result),                       // active
+                result.getModuleId(),                    // moduleId
+                result.getSourceId(),                    // sourceId
+                result.getValueAsObject().toLiteral(),   // value
+                result.getGroup().toString(),            // relationshipGroup
+                result.getTypeId(),                      // typeId
+                result.getCharacteristicTypeId(),        // characteristicTypeId
+                result.getModifierId()));                // modifierId
 	}
 }
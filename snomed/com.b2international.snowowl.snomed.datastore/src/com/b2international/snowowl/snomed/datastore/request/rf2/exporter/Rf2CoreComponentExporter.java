@@ -19,15 +19,14 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
 
-import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedCoreComponent;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedComponentDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedComponentSearchRequestBuilder;
 
 /**
  * @since 6.3
  */
-public abstract class Rf2CoreComponentExporter<B extends SnomedComponentSearchRequestBuilder<B, R>, R extends PageableCollectionResource<C>, C extends SnomedCoreComponent> extends Rf2Exporter<B, R, C> {
+public abstract class Rf2CoreComponentExporter<B extends SnomedComponentSearchRequestBuilder<B, ?>, T extends SnomedComponentDocument> extends Rf2Exporter<B, T> {
 
 	public Rf2CoreComponentExporter(final Rf2ReleaseType releaseType, 
 			final String countryNamespaceElement,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,21 +20,19 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
-import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
-import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedDescriptionSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
 
 /**
  * @since 6.3
  */
-public final class Rf2DescriptionExporter extends Rf2CoreComponentExporter<SnomedDescriptionSearchRequestBuilder, SnomedDescriptions, SnomedDescription> {
+public final class Rf2DescriptionExporter extends Rf2CoreComponentExporter<SnomedDescriptionSearchRequestBuilder, SnomedDescriptionIndexEntry> {
 
 	private final String languageCode;
 	private final Collection<String> descriptionTypes;
@@ -70,6 +68,14 @@ public final class Rf2DescriptionExporter extends Rf2CoreComponentExporter<Snome
 		return "-" + languageCode;
 	}
 
+	@Override
+	protected List<Object> getFragmentKey() {
+		final List<Object> fragmentKey = super.getFragmentKey();
+		fragmentKey.add(languageCode);
+		fragmentKey.add(ImmutableSortedSet.copyOf(descriptionTypes));
+		return fragmentKey;
+	}
+
 	@Override
 	protected String[] getHeader() {
 		return SnomedRf2Headers.DESCRIPTION_HEADER;
@@ -80,12 +86,29 @@ public final class Rf2DescriptionExporter extends Rf2CoreComponentExporter<Snome
 		return SnomedRequests
 				.prepareSearchDescription()
 				.filterByLanguageCodes(ImmutableList.of(languageCode))
-				.filterByType(descriptionTypes)
-				.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID));
+				.filterByType(descriptionTypes);
+	}
+
+	@Override
+	protected Class<SnomedDescriptionIndexEntry> getDocumentType() {
+		return SnomedDescriptionIndexEntry.class;
+	}
+
+	@Override
+	protected List<String> getFields() {
+		return ImmutableList.of(SnomedDescriptionIndexEntry.Fields.ID,
+				SnomedDescriptionIndexEntry.Fields.EFFECTIVE_TIME,
+				SnomedDescriptionIndexEntry.Fields.ACTIVE,
+				SnomedDescriptionIndexEntry.Fields.MODULE_ID,
+				SnomedDescriptionIndexEntry.Fields.CONCEPT_ID,
+				SnomedDescriptionIndexEntry.Fields.LANGUAGE_CODE,
+				SnomedDescriptionIndexEntry.Fields.TYPE_ID,
+				SnomedDescriptionIndexEntry.Fields.TERM,
+				SnomedDescriptionIndexEntry.Fields.CASE_SIGNIFICANCE_ID);
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedDescriptions results, 
+	protected Stream<List<String>> getMappedStream(final List<SnomedDescriptionIndexEntry> results, 
 			final RepositoryContext context, 
 			final String branch) {
 		
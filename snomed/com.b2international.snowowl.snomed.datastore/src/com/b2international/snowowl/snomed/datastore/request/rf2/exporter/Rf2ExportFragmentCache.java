@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+/**
+ * Stores the rows an {@link Rf2Exporter} produced for an immutable code system version branch (or a range between two
+ * version branches) as gzip compressed fragment files, so that later exports can replay them instead of scanning the
+ * index again. Fragments are keyed by a hash of the exporter parameters, the effective time filter and the base and
+ * head timestamps of the exported branches; a rebased, recreated or otherwise modified version branch gets a different
+ * key, stale fragments are removed once the total size of the cache exceeds the configured limit, least recently used
+ * first.
+ *
+ * @since 7.21
+ */
+public final class Rf2ExportFragmentCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger("rf2.export");
+
+	private static final String FRAGMENT_SUFFIX = ".rows.gz";
+	private static final String TEMP_PREFIX = "tmp-";
+	private static final int END_OF_FRAGMENT = -1;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path directory;
+	private final long maxSize;
+
+	public Rf2ExportFragmentCache(final Path directory, final long maxSize) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxSize = maxSize;
+
+		// Remove partially written fragments left behind by a previous run
+		try (Stream<Path> files = Files.list(directory)) {
+			for (final Path file : files.filter(f -> f.getFileName().toString().startsWith(TEMP_PREFIX)).collect(Collectors.toList())) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	/**
+	 * Opens the cached fragment registered under the given key for reading.
+	 *
+	 * @param key - the fragment key
+	 * @return a reader of the cached rows, or <code>null</code> if no fragment is registered under the key
+	 * @throws IOException
+	 */
+	FragmentReader openFragment(final String key) throws IOException {
+		final Path fragment = getFragmentPath(key);
+		final InputStream in;
+		try {
+			in = Files.newInputStream(fragment);
+		} catch (final NoSuchFileException e) {
+			return null;
+		}
+
+		// Use the modification time to track recent use, evicted fragments remain readable through the open stream
+		try {
+			Files.setLastModifiedTime(fragment, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (final IOException e) {
+			LOG.debug("Failed to update the modification time of RF2 export fragment '{}'.", fragment, e);
+		}
+
+		return new FragmentReader(new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE))));
+	}
+
+	/**
+	 * Creates a writer for a new fragment to be registered under the given key. The fragment becomes visible to
+	 * {@link #openFragment(String)} only after {@link FragmentWriter#commit()} is called.
+	 *
+	 * @param key - the fragment key
+	 * @return the writer of the new fragment
+	 * @throws IOException
+	 */
+	FragmentWriter createFragment(final String key) throws IOException {
+		final Path tempFile = Files.createTempFile(directory, TEMP_PREFIX, FRAGMENT_SUFFIX);
+		return new FragmentWriter(key, tempFile);
+	}
+
+	private Path getFragmentPath(final String key) {
+		return directory.resolve(Hashing.sha256().hashString(key, Charsets.UTF_8).toString() + FRAGMENT_SUFFIX);
+	}
+
+	private synchronized void evict() {
+		try {
+			final List<Path> fragments;
+			try (Stream<Path> files = Files.list(directory)) {
+				fragments = files.filter(f -> !f.getFileName().toString().startsWith(TEMP_PREFIX))
+						.collect(Collectors.toCollection(ArrayList::new));
+			}
+
+			long totalSize = 0L;
+			final List<BasicFileAttributes> attributes = new ArrayList<>(fragments.size());
+			for (final Path fragment : fragments) {
+				final BasicFileAttributes fragmentAttributes = Files.readAttributes(fragment, BasicFileAttributes.class);
+				attributes.add(fragmentAttributes);
+				totalSize += fragmentAttributes.size();
+			}
+
+			if (totalSize <= maxSize) {
+				return;
+			}
+
+			final List<Integer> indexes = new ArrayList<>(fragments.size());
+			for (int i = 0; i < fragments.size(); i++) {
+				indexes.add(i);
+			}
+			indexes.sort(Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+
+			for (final int i : indexes) {
+				if (totalSize <= maxSize) {
+					break;
+				}
+				Files.deleteIfExists(fragments.get(i));
+				totalSize -= attributes.get(i).size();
+			}
+		} catch (final IOException e) {
+			LOG.warn("Failed to evict RF2 export fragments from '{}'.", directory, e);
+		}
+	}
+
+	/**
+	 * Reads the rows of a cached fragment.
+	 */
+	final class FragmentReader implements Closeable {
+
+		private final DataInputStream in;
+
+		private FragmentReader(final DataInputStream in) {
+			this.in = in;
+		}
+
+		/**
+		 * @return the next row of the fragment, or <code>null</code> if all rows have been read
+		 * @throws IOException
+		 */
+		List<String> readRow() throws IOException {
+			final int columnCount = in.readInt();
+			if (columnCount == END_OF_FRAGMENT) {
+				return null;
+			}
+
+			final List<String> row = new ArrayList<>(columnCount);
+			for (int i = 0; i < columnCount; i++) {
+				final byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				row.add(new String(bytes, Charsets.UTF_8));
+			}
+			return row;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the rows of a new fragment into a temporary file, which is moved to its final location on
+	 * {@link #commit()}, or deleted on {@link #close()} if the fragment was not committed.
+	 */
+	final class FragmentWriter implements Closeable {
+
+		private final String key;
+		private final Path tempFile;
+		private final DataOutputStream out;
+		private boolean committed;
+
+		private FragmentWriter(final String key, final Path tempFile) throws IOException {
+			this.key = key;
+			this.tempFile = tempFile;
+			this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE)));
+		}
+
+		void writeRow(final List<String> row) {
+			try {
+				out.writeInt(row.size());
+				for (final String value : row) {
+					final byte[] bytes = value.getBytes(Charsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			} catch (final IOException e) {
+				throw new SnowowlRuntimeException("Failed to write RF2 export fragment '" + tempFile + "'.", e);
+			}
+		}
+
+		void commit() throws IOException {
+			out.writeInt(END_OF_FRAGMENT);
+			out.close();
+			Files.move(tempFile, getFragmentPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			committed = true;
+			evict();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!committed) {
+				out.close();
+				Files.deleteIfExists(tempFile);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,40 +15,52 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
 
+import static com.google.common.collect.Lists.newArrayList;
+
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.b2international.commons.BooleanUtils;
+import com.b2international.index.Hits;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Query;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.query.SortBy.Order;
+import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.date.DateFormats;
 import com.b2international.snowowl.core.date.EffectiveTimes;
-import com.b2international.snowowl.core.domain.PageableCollectionResource;
+import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.RepositoryContext;
+import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.request.BranchRequest;
 import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
-import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
+import com.b2international.snowowl.core.request.SearchIndexResourceRequest;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedSearchRequestBuilder;
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSortedSet;
 
 /**
  * @since 6.3
  */
-public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R extends PageableCollectionResource<C>, C extends SnomedComponent> {
+public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, ?>, T extends SnomedDocument> {
 
 	private static final Logger LOG = LoggerFactory.getLogger("rf2.export");
 	private static final Joiner TAB_JOINER = Joiner.on('\t');
@@ -56,6 +68,7 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 	private static final String CR_LF = "\r\n";
 
 	private static final int BATCH_SIZE = 10000;
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 	
 	// Parameters used for file name calculations
 	protected final Rf2ReleaseType releaseType;
@@ -85,18 +98,46 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 
 	protected abstract Path getFileName();
 
+	/**
+	 * @return the path of the export file relative to the release directory, exporters returning the same path append to the same file
+	 */
+	public final Path getRelativeFile() {
+		return getRelativeDirectory().resolve(getFileName());
+	}
+
 	protected abstract String[] getHeader();
 
+	/**
+	 * @return a search request builder with the filters of this exporter applied, only the query it builds is used for selecting the exported
+	 *         documents
+	 */
 	protected abstract B createSearchRequestBuilder();
 
-	protected abstract Stream<List<String>> getMappedStream(R results, RepositoryContext context, String branch);
+	/**
+	 * @return the type of the index documents selected by the search request
+	 */
+	protected abstract Class<T> getDocumentType();
+
+	/**
+	 * @return the document fields required for mapping index documents to rows
+	 */
+	protected abstract List<String> getFields();
+
+	protected SortBy getSortBy() {
+		return SortBy.field(SnomedDocument.Fields.ID, Order.ASC);
+	}
+
+	/**
+	 * Maps partially loaded index documents directly to RF2 rows, without converting them to resources first.
+	 */
+	protected abstract Stream<List<String>> getMappedStream(List<T> results, RepositoryContext context, String branch);
 
-	protected final String getEffectiveTime(final SnomedComponent component) {
-		return getEffectiveTime(component.getEffectiveTime());
+	protected final String getEffectiveTime(final SnomedDocument document) {
+		return getEffectiveTime(document.getEffectiveTime());
 	}
 	
-	protected final String getEffectiveTime(final LocalDate effectiveTime) {
-		if (effectiveTime == null) {
+	protected final String getEffectiveTime(final Long effectiveTime) {
+		if (EffectiveTimes.isUnset(effectiveTime)) {
 			// FIXME: Should we add a test for unexpected encounters of unversioned content here?
 			return transientEffectiveTime;
 		} else {
@@ -104,17 +145,40 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		}
 	}
 
-	protected final String getActive(final SnomedComponent component) {
-		return BooleanUtils.toString(component.isActive());
+	protected final String getActive(final SnomedDocument document) {
+		return BooleanUtils.toString(document.isActive());
+	}
+
+	/**
+	 * Returns the parameters of this exporter which determine the rows it produces for a branch, used for identifying the export fragments
+	 * written to the {@link Rf2ExportFragmentCache}. Subclasses using additional parameters for searching or mapping components should
+	 * append them.
+	 * 
+	 * @return the key of this exporter's fragments, or <code>null</code> if the produced rows should not be cached
+	 */
+	protected List<Object> getFragmentKey() {
+		return newArrayList(getClass().getName(), 
+				namespaceFilter, 
+				transientEffectiveTime, 
+				modules != null ? ImmutableSortedSet.copyOf(modules) : null);
 	}
 
+	/**
+	 * Exports the components of the given branch. If a fragment cache and a branch key are given, rows are replayed from the cached fragment
+	 * of a previous export if one exists, otherwise the rows read from the index are also written to a new fragment.
+	 * 
+	 * @param fragmentCache - the cache of export fragments, may be <code>null</code>
+	 * @param branchFragmentKey - identifies the content of an immutable branch or branch range, <code>null</code> if the branch content may change
+	 */
 	public final void exportBranch(
 			final Path releaseDirectory, 
 			final RepositoryContext context, 
 			final String branch, 
 			final long effectiveTimeStart, 
 			final long effectiveTimeEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final Set<String> visitedComponentEffectiveTimes,
+			final Rf2ExportFragmentCache fragmentCache,
+			final String branchFragmentKey) throws IOException {
 
 		LOG.info("Exporting {} branch to '{}'", branch, getFileName());
 		
@@ -136,50 +200,110 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 				fileChannel.position(fileChannel.size());
 
 				/*
-				 * XXX: createSearchRequestBuilder() should handle namespace/language code
-				 * filtering, if applicable; we will only handle the effective time and module
-				 * filters here.
-				 * 
-				 * An effective time filter is always set, even if not in delta mode, to prevent
-				 * exporting unpublished content twice.
+				 * Rows are encoded into the buffer of a single writer and are written to the channel once per batch, instead of
+				 * allocating a joined string and separate byte buffers for each row.
 				 */
-				final B requestBuilder = createSearchRequestBuilder()
-						.filterByModules(modules) // null value will be ignored
-						.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
-						.setLimit(BATCH_SIZE);
+				final Writer writer = Channels.newWriter(fileChannel, Charsets.UTF_8.newEncoder(), WRITE_BUFFER_SIZE);
 				
-				final SearchResourceRequestIterator<B, R> iterator = new SearchResourceRequestIterator<>(requestBuilder, scrolledBuilder -> {
-					return new BranchRequest<R>(
-						branch, 
-						new RevisionIndexReadRequest<>(scrolledBuilder.build())
-					)
-					.execute(context);
-				});
+				final Consumer<List<String>> rowConsumer = row -> {
+					String id = row.get(0);
+					String effectiveTime = row.get(1);
+					
+					if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
+						return;
+					}
+					
+					try {
+						writeRow(writer, row);
+					} catch (final IOException e) {
+						throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.");
+					}
+				};
 				
-				while (iterator.hasNext()) {
-					final R hits = iterator.next();
+				final List<Object> exporterFragmentKey = getFragmentKey();
+				final String fragmentKey = (fragmentCache != null && branchFragmentKey != null && exporterFragmentKey != null)
+						? String.join("|", branchFragmentKey, Long.toString(effectiveTimeStart), Long.toString(effectiveTimeEnd), exporterFragmentKey.toString())
+						: null;
+				
+				// Rows of a cached fragment go through the same duplicate filtering as rows read from the index
+				final Rf2ExportFragmentCache.FragmentReader fragmentReader = (fragmentKey != null) ? fragmentCache.openFragment(fragmentKey) : null;
+				if (fragmentReader != null) {
+					LOG.info("Replaying cached rows of {} branch to '{}'", branch, getFileName());
+					try (fragmentReader) {
+						List<String> row;
+						while ((row = fragmentReader.readRow()) != null) {
+							rowConsumer.accept(row);
+						}
+					}
+					writer.flush();
+					return;
+				}
+				
+				try (final Rf2ExportFragmentCache.FragmentWriter fragmentWriter = (fragmentKey != null) ? fragmentCache.createFragment(fragmentKey) : null) {
 					
-					getMappedStream(hits, context, branch)
-						.forEachOrdered(row -> {
-							String id = row.get(0);
-							String effectiveTime = row.get(1);
-							
-							if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
-								return;
-							}
+					/*
+					 * XXX: createSearchRequestBuilder() should handle namespace/language code
+					 * filtering, if applicable; we will only handle the effective time and module
+					 * filters here.
+					 * 
+					 * An effective time filter is always set, even if not in delta mode, to prevent
+					 * exporting unpublished content twice.
+					 */
+					final Request<BranchContext, ?> searchRequest = createSearchRequestBuilder()
+							.filterByModules(modules) // null value will be ignored
+							.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
+							.build();
+					
+					new BranchRequest<Boolean>(branch, new RevisionIndexReadRequest<>(branchContext -> {
+						
+						// Only the query of the search request is used, documents are mapped to rows without converting them to resources
+						final Expression where = ((SearchIndexResourceRequest<BranchContext, ?, ?>) searchRequest).toRawQuery(branchContext);
+						final Query<T> query = Query.select(getDocumentType())
+								.fields(getFields())
+								.where(where)
+								.sortBy(getSortBy())
+								.limit(BATCH_SIZE)
+								.build();
+						
+						for (final Hits<T> hits : branchContext.service(RevisionSearcher.class).scroll(query)) {
+							getMappedStream(hits.getHits(), context, branch)
+								.forEachOrdered(row -> {
+									// the fragment holds all rows of the branch, as visited components differ from export to export
+									if (fragmentWriter != null) {
+										fragmentWriter.writeRow(row);
+									}
+									rowConsumer.accept(row);
+								});
 							
 							try {
-								fileChannel.write(toByteBuffer(TAB_JOINER.join(row)));
-								fileChannel.write(toByteBuffer(CR_LF));
+								writer.flush();
 							} catch (final IOException e) {
 								throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.");
 							}
-						});
+						}
+						
+						return Boolean.TRUE;
+					}))
+					.execute(context);
+					
+					if (fragmentWriter != null) {
+						fragmentWriter.commit();
+					}
 				}
 			}
 		}
 	}
 
+	private static void writeRow(final Writer writer, final List<String> row) throws IOException {
+		for (int i = 0; i < row.size(); i++) {
+			if (i > 0) {
+				writer.write('\t');
+			}
+			writer.write(row.get(i));
+		}
+		writer.write(CR_LF);
+	}
+
 	private static ByteBuffer toByteBuffer(final String s) {
 		return ByteBuffer.wrap(s.getBytes(Charsets.UTF_8));
 	}
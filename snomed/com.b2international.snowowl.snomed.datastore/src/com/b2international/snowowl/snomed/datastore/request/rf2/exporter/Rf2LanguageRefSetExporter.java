@@ -15,27 +15,28 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.b2international.index.Hits;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
 import com.b2international.index.revision.RevisionIndex;
-import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.request.BranchRequest;
 import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
 import com.b2international.snowowl.snomed.core.domain.Rf2RefSetExportLayout;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
-import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
-import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
-import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
-import com.google.common.collect.ImmutableSet;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 
 /**
  * @since 6.3
@@ -73,20 +74,30 @@ public final class Rf2LanguageRefSetExporter extends Rf2RefSetExporter {
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedReferenceSetMembers results, 
+	protected List<Object> getFragmentKey() {
+		final List<Object> fragmentKey = super.getFragmentKey();
+		fragmentKey.add(languageCode);
+		return fragmentKey;
+	}
+
+	@Override
+	protected Stream<List<String>> getMappedStream(final List<SnomedRefSetMemberIndexEntry> results, 
 			final RepositoryContext context,
 			final String branch) {
 
 		// Run a sub-query for descriptions that are mentioned in this batch, and have the expected language code
 		final Set<String> referenceDescriptionIds = results.stream()
-				.map(m -> m.getReferencedComponent().getId())
+				.map(SnomedRefSetMemberIndexEntry::getReferencedComponentId)
 				.collect(Collectors.toSet());
 
-		final Request<BranchContext, SnomedDescriptions> request = SnomedRequests.prepareSearchDescription()
-				.all()
-				.filterByIds(referenceDescriptionIds)
-				.filterByLanguageCodes(ImmutableSet.of(languageCode))
-				.setFields(SnomedDescriptionIndexEntry.Fields.ID)
+		final Query<String> query = Query.select(String.class)
+				.from(SnomedDescriptionIndexEntry.class)
+				.fields(SnomedDescriptionIndexEntry.Fields.ID)
+				.where(Expressions.builder()
+						.filter(SnomedDescriptionIndexEntry.Expressions.ids(referenceDescriptionIds))
+						.filter(SnomedDescriptionIndexEntry.Expressions.languageCode(languageCode))
+						.build())
+				.limit(referenceDescriptionIds.size())
 				.build();
 
 		String branchToQueryForDescriptions = branch;
@@ -94,10 +105,15 @@ public final class Rf2LanguageRefSetExporter extends Rf2RefSetExporter {
 			branchToQueryForDescriptions = RevisionIndex.getRevisionRangePaths(branch)[1];
 		}
 		
-		final Set<String> validDescriptionIds = new BranchRequest<>(branchToQueryForDescriptions, new RevisionIndexReadRequest<>(request))
+		final Set<String> validDescriptionIds = new BranchRequest<Hits<String>>(branchToQueryForDescriptions, new RevisionIndexReadRequest<>(branchContext -> {
+					try {
+						return branchContext.service(RevisionSearcher.class).search(query);
+					} catch (final IOException e) {
+						throw new SnowowlRuntimeException("Failed to search descriptions of language reference set members.", e);
+					}
+				}))
 				.execute(context)
 				.stream()
-				.map(d -> d.getId())
 				.collect(Collectors.toSet());
 		
 		return super.getMappedStream(results, context, branch)
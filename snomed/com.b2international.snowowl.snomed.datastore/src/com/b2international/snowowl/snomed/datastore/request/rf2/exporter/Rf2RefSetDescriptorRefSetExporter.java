@@ -28,15 +28,12 @@ import java.util.stream.Stream;
 import org.eclipse.xtext.xbase.lib.Pair;
 
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRF2Folder;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
-import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSet;
-import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSets;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
@@ -46,7 +43,7 @@ import com.google.common.collect.ImmutableList;
  * Experimental RF2 RefSet Descriptor RefSet Exporter. Enable with sysprop: 
  * @since 6.12
  */
-public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedRefSetSearchRequestBuilder, SnomedReferenceSets, SnomedReferenceSet> {
+public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedRefSetSearchRequestBuilder, SnomedConceptDocument> {
 
 	public Rf2RefSetDescriptorRefSetExporter(Rf2ReleaseType releaseType, 
 			String countryNamespaceElement, 
@@ -77,19 +74,38 @@ public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedR
 
 	@Override
 	protected SnomedRefSetSearchRequestBuilder createSearchRequestBuilder() {
-		return SnomedRequests
-				.prepareSearchRefSet()
-				.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID));
+		return SnomedRequests.prepareSearchRefSet();
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(SnomedReferenceSets results, RepositoryContext context, String branch) {
+	protected Class<SnomedConceptDocument> getDocumentType() {
+		return SnomedConceptDocument.class;
+	}
+
+	@Override
+	protected List<String> getFields() {
+		return ImmutableList.of(SnomedConceptDocument.Fields.ID,
+				SnomedConceptDocument.Fields.EFFECTIVE_TIME,
+				SnomedConceptDocument.Fields.ACTIVE,
+				SnomedConceptDocument.Fields.MODULE_ID,
+				SnomedConceptDocument.Fields.REFSET_TYPE,
+				SnomedConceptDocument.Fields.REFERENCED_COMPONENT_TYPE);
+	}
+
+	@Override
+	protected List<Object> getFragmentKey() {
+		// member UUIDs are generated on each export
+		return null;
+	}
+
+	@Override
+	protected Stream<List<String>> getMappedStream(List<SnomedConceptDocument> results, RepositoryContext context, String branch) {
 		return results.stream().flatMap(refSet -> toRefSetSpecificColumns(refSet).stream());
 	}
 
-	private List<List<String>> toRefSetSpecificColumns(SnomedReferenceSet refSet) {
-		final String columnTypePrefix = Rf2RefSetExporter.getColumnTypePrefix(refSet.getType());
-		final String[] header = Rf2RefSetExporter.getHeader(refSet.getType());
+	private List<List<String>> toRefSetSpecificColumns(SnomedConceptDocument refSet) {
+		final String columnTypePrefix = Rf2RefSetExporter.getColumnTypePrefix(refSet.getRefSetType());
+		final String[] header = Rf2RefSetExporter.getHeader(refSet.getRefSetType());
 		final String[] additionalFields = Arrays.copyOfRange(header, header.length - columnTypePrefix.length() - 1, header.length);
 		
 		final List<List<String>> additionalFieldRows = newArrayListWithCapacity(additionalFields.length);
@@ -102,7 +118,7 @@ public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedR
 		return additionalFieldRows;
 	}
 
-	private List<String> toRefSetSpecificColumn(SnomedReferenceSet refSet, String attributeDescriptionId, String attributeTypeId, int order) {
+	private List<String> toRefSetSpecificColumn(SnomedConceptDocument refSet, String attributeDescriptionId, String attributeTypeId, int order) {
 		return ImmutableList.of(
 			UUID.randomUUID().toString(),		// id
 			getEffectiveTime(refSet),			// effectiveTime 
@@ -116,7 +132,7 @@ public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedR
 		);
 	}
 	
-	private static Pair<String, String> getAttributeDescriptionAndType(SnomedReferenceSet refSet, String columnName) {
+	private static Pair<String, String> getAttributeDescriptionAndType(SnomedConceptDocument refSet, String columnName) {
 		switch (columnName) {
 		// attribute
 		case SnomedRf2Headers.FIELD_REFERENCED_COMPONENT_ID: 
@@ -141,7 +157,7 @@ public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedR
 			return Pair.of(Concepts.ATTRIBUTE_TYPE_QUERY, Concepts.ATTRIBUTE_TYPE_STRING_TYPE);
 		// simple, complex, extended map
 		case SnomedRf2Headers.FIELD_MAP_TARGET: 
-			if (SnomedRefSetType.SIMPLE_MAP.equals(refSet.getType())) {
+			if (SnomedRefSetType.SIMPLE_MAP.equals(refSet.getRefSetType())) {
 				return Pair.of(Concepts.ATTRIBUTE_TYPE_SCHEME_VALUE, Concepts.ATTRIBUTE_TYPE_STRING_TYPE);
 			} else {
 				return Pair.of(Concepts.ATTRIBUTE_TYPE_MAP_TARGET, Concepts.ATTRIBUTE_TYPE_STRING_TYPE);
@@ -214,13 +230,17 @@ public final class Rf2RefSetDescriptorRefSetExporter extends Rf2Exporter<SnomedR
 		}
 	}
 
-	private static String getReferencedComponentType(String referencedComponentType) {
+	private static String getReferencedComponentType(Short referencedComponentType) {
+		if (referencedComponentType == null) {
+			return Concepts.ATTRIBUTE_TYPE_COMPONENT_TYPE;
+		}
+		
 		switch (referencedComponentType) {
-		case SnomedTerminologyComponentConstants.CONCEPT:
+		case SnomedTerminologyComponentConstants.CONCEPT_NUMBER:
 			return Concepts.ATTRIBUTE_TYPE_CONCEPT_TYPE_COMPONENT;
-		case SnomedTerminologyComponentConstants.DESCRIPTION:
+		case SnomedTerminologyComponentConstants.DESCRIPTION_NUMBER:
 			return Concepts.ATTRIBUTE_TYPE_DESCRIPTION_TYPE_COMPONENT;
-		case SnomedTerminologyComponentConstants.RELATIONSHIP:
+		case SnomedTerminologyComponentConstants.RELATIONSHIP_NUMBER:
 			return Concepts.ATTRIBUTE_TYPE_RELATIONSHIP_TYPE_COMPONENT;
 		default:
 			return Concepts.ATTRIBUTE_TYPE_COMPONENT_TYPE;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import static com.google.common.collect.Lists.newArrayList;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -30,35 +29,39 @@ import java.util.stream.Stream;
 import com.b2international.commons.BooleanUtils;
 import com.b2international.commons.FileUtils;
 import com.b2international.commons.StringUtils;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.query.SortBy.Order;
+import com.b2international.snowowl.core.date.DateFormats;
+import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedRF2Folder;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.Rf2RefSetExportLayout;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
-import com.b2international.snowowl.snomed.core.domain.SnomedCoreComponent;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
-import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
-import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
 import com.b2international.snowowl.snomed.datastore.SnomedRefSetUtil;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
 
 /**
  * @since 6.3
  */
-public class Rf2RefSetExporter extends Rf2Exporter<SnomedRefSetMemberSearchRequestBuilder, SnomedReferenceSetMembers, SnomedReferenceSetMember> {
+public class Rf2RefSetExporter extends Rf2Exporter<SnomedRefSetMemberSearchRequestBuilder, SnomedRefSetMemberIndexEntry> {
 
 	protected final Rf2RefSetExportLayout refSetExportLayout;
 	protected final SnomedRefSetType refSetType;
 	protected final Collection<SnomedConcept> referenceSets;
 
+	private List<String> extraColumns;
+
 	public Rf2RefSetExporter(final Rf2ReleaseType releaseType, 
 			final String countryNamespaceElement,
 			final String namespaceFilter, 
@@ -201,6 +204,16 @@ public class Rf2RefSetExporter extends Rf2Exporter<SnomedRefSetMemberSearchReque
 		return getHeader(refSetType);
 	}
 
+	@Override
+	protected List<Object> getFragmentKey() {
+		final List<Object> fragmentKey = super.getFragmentKey();
+		fragmentKey.add(refSetType);
+		fragmentKey.add(referenceSets.stream()
+				.map(c -> c.getId())
+				.collect(ImmutableSortedSet.toImmutableSortedSet(Ordering.natural())));
+		return fragmentKey;
+	}
+
 	@Override
 	protected SnomedRefSetMemberSearchRequestBuilder createSearchRequestBuilder() {
 		final Set<String> referenceSetIds = referenceSets.stream()
@@ -208,35 +221,28 @@ public class Rf2RefSetExporter extends Rf2Exporter<SnomedRefSetMemberSearchReque
 				.collect(Collectors.toSet());
 		
 		return SnomedRequests.prepareSearchMember()
-				.filterByRefSet(referenceSetIds)
-				.sortBy(
-						SortField.ascending(SnomedRefSetMemberIndexEntry.Fields.REFERENCE_SET_ID), 
-						SortField.ascending(SnomedRefSetMemberIndexEntry.Fields.ID));
+				.filterByRefSet(referenceSetIds);
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedReferenceSetMembers results, 
+	protected Class<SnomedRefSetMemberIndexEntry> getDocumentType() {
+		return SnomedRefSetMemberIndexEntry.class;
+	}
+
+	@Override
+	protected SortBy getSortBy() {
+		return SortBy.builder()
+				.sortByField(SnomedRefSetMemberIndexEntry.Fields.REFERENCE_SET_ID, Order.ASC)
+				.sortByField(SnomedRefSetMemberIndexEntry.Fields.ID, Order.ASC)
+				.build();
+	}
+
+	@Override
+	protected Stream<List<String>> getMappedStream(final List<SnomedRefSetMemberIndexEntry> results, 
 			final RepositoryContext context, 
 			final String branch) {
 		
-		final List<String> extraColumns = newArrayList(getHeader());
-		
-		// Remove the first 6 columns, which are the same for each reference set type
-		for (int i = 0; i < 6; i++) {
-			extraColumns.remove(0);
-		}
-		
-		// XXX: Some members use a different property name; translate them at this point
-		for (int j = 0; j < extraColumns.size(); j++) {
-			switch (extraColumns.get(j)) {
-				case SnomedRf2Headers.FIELD_TARGET_COMPONENT_ID:
-					extraColumns.set(j, SnomedRf2Headers.FIELD_TARGET_COMPONENT);
-					break;
-				default:
-					// Use RF2 column name for the property name
-					break;
-			}
-		}
+		final List<String> columns = getExtraColumns();
 		
 		return results.stream()
 				.map(member -> {
@@ -246,27 +252,96 @@ public class Rf2RefSetExporter extends Rf2Exporter<SnomedRefSetMemberSearchReque
 							.add(getActive(member))								// active
 							.add(member.getModuleId())							// moduleId
 							.add(member.getReferenceSetId())					// refSetId
-							.add(member.getReferencedComponent().getId());		// referencedComponentId
+							.add(member.getReferencedComponentId());			// referencedComponentId
 
-					// Append extra columns using the properties map
-					final Map<String, Object> properties = member.getProperties();
-					for (final String extraColumn : extraColumns) {
-						builder.add(toColumn(extraColumn, properties.get(extraColumn)));
+					// Append extra columns using the additional fields of the member document
+					final Map<String, Object> additionalFields = member.getAdditionalFields();
+					for (final String extraColumn : columns) {
+						if (SnomedRf2Headers.FIELD_VALUE.equals(extraColumn)) {
+							// concrete domain values are serialized according to their data type
+							builder.add(member.getValue() != null ? SnomedRefSetUtil.serializeValue(member.getDataType(), member.getValue()) : "");
+						} else {
+							builder.add(toColumn(extraColumn, additionalFields.get(extraColumn)));
+						}
 					}
 
 					return builder.build();
 				});
 	}
 
+	private List<String> getExtraColumns() {
+		if (extraColumns == null) {
+			final List<String> columns = newArrayList(getHeader());
+			
+			// Remove the first 6 columns, which are the same for each reference set type
+			for (int i = 0; i < 6; i++) {
+				columns.remove(0);
+			}
+			
+			// XXX: Some members use a different property name; translate them at this point
+			for (int j = 0; j < columns.size(); j++) {
+				switch (columns.get(j)) {
+					case SnomedRf2Headers.FIELD_TARGET_COMPONENT_ID:
+						columns.set(j, SnomedRf2Headers.FIELD_TARGET_COMPONENT);
+						break;
+					default:
+						// Use RF2 column name for the property name
+						break;
+				}
+			}
+			
+			extraColumns = columns;
+		}
+		return extraColumns;
+	}
+
+	/*
+	 * Only the fields required for the RF2 columns are loaded from the index, large fields like the 
+	 * relationships of OWL axiom members are skipped.
+	 */
+	@Override
+	protected List<String> getFields() {
+		final List<String> fields = newArrayList(
+				SnomedRefSetMemberIndexEntry.Fields.ID,
+				SnomedRefSetMemberIndexEntry.Fields.EFFECTIVE_TIME,
+				SnomedRefSetMemberIndexEntry.Fields.ACTIVE,
+				SnomedRefSetMemberIndexEntry.Fields.MODULE_ID,
+				SnomedRefSetMemberIndexEntry.Fields.REFERENCE_SET_ID,
+				SnomedRefSetMemberIndexEntry.Fields.REFSET_TYPE,
+				SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID);
+		
+		for (final String extraColumn : getExtraColumns()) {
+			switch (extraColumn) {
+				case SnomedRf2Headers.FIELD_VALUE:
+					// concrete domain values are stored in separate fields per data type
+					fields.add(SnomedRefSetMemberIndexEntry.Fields.DATA_TYPE);
+					fields.add(SnomedRefSetMemberIndexEntry.Fields.BOOLEAN_VALUE);
+					fields.add(SnomedRefSetMemberIndexEntry.Fields.STRING_VALUE);
+					fields.add(SnomedRefSetMemberIndexEntry.Fields.INTEGER_VALUE);
+					fields.add(SnomedRefSetMemberIndexEntry.Fields.DECIMAL_VALUE);
+					break;
+				case SnomedRf2Headers.FIELD_MRCM_EDITORIAL_GUIDE_REFERENCE:
+					// XXX: the index field name is different than the RF2 header
+					fields.add("editorialGuideReference");
+					break;
+				default:
+					// other member fields use the RF2 column name
+					fields.add(extraColumn);
+					break;
+			}
+		}
+		
+		return fields;
+	}
+
 	private String toColumn(final String additionalField, final Object object) {
 		if (object == null) {
 			return "";
-		} else if (object instanceof SnomedCoreComponent) {
-			return ((SnomedCoreComponent) object).getId();
 		} else if (object instanceof Boolean) {
 			return BooleanUtils.toString((Boolean) object);
-		} else if (object instanceof LocalDate) {
-			return getEffectiveTime((LocalDate) object);
+		} else if (SnomedRf2Headers.FIELD_SOURCE_EFFECTIVE_TIME.equals(additionalField) || SnomedRf2Headers.FIELD_TARGET_EFFECTIVE_TIME.equals(additionalField)) {
+			// stored as long values in the index, unset values are exported as empty columns
+			return EffectiveTimes.format(object, DateFormats.SHORT, "");
 		} else {
 			String serializedValue = String.valueOf(object);
 			if (SnomedRf2Headers.FIELD_QUERY.equals(additionalField) || SnomedRf2Headers.FIELD_OWL_EXPRESSION.equals(additionalField)) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,21 +20,19 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import com.b2international.snowowl.core.domain.RepositoryContext;
-import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
-import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
-import com.b2international.snowowl.snomed.core.domain.SnomedRelationships;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRelationshipSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
 
 /**
  * @since 6.3
  */
-public final class Rf2RelationshipExporter extends Rf2CoreComponentExporter<SnomedRelationshipSearchRequestBuilder, SnomedRelationships, SnomedRelationship> {
+public final class Rf2RelationshipExporter extends Rf2CoreComponentExporter<SnomedRelationshipSearchRequestBuilder, SnomedRelationshipIndexEntry> {
 
 	private final Collection<String> characteristicTypes;
 
@@ -62,6 +60,13 @@ public final class Rf2RelationshipExporter extends Rf2CoreComponentExporter<Snom
 				: "Relationship";
 	}
 
+	@Override
+	protected List<Object> getFragmentKey() {
+		final List<Object> fragmentKey = super.getFragmentKey();
+		fragmentKey.add(ImmutableSortedSet.copyOf(characteristicTypes));
+		return fragmentKey;
+	}
+
 	@Override
 	protected String[] getHeader() {
 		return SnomedRf2Headers.RELATIONSHIP_HEADER;
@@ -72,12 +77,30 @@ public final class Rf2RelationshipExporter extends Rf2CoreComponentExporter<Snom
 		return SnomedRequests
 				.prepareSearchRelationship()
 				.hasDestinationId()
-				.filterByCharacteristicTypes(characteristicTypes)
-				.sortBy(SortField.ascending(SnomedRelationshipIndexEntry.Fields.ID));
+				.filterByCharacteristicTypes(characteristicTypes);
+	}
+
+	@Override
+	protected Class<SnomedRelationshipIndexEntry> getDocumentType() {
+		return SnomedRelationshipIndexEntry.class;
+	}
+
+	@Override
+	protected List<String> getFields() {
+		return ImmutableList.of(SnomedRelationshipIndexEntry.Fields.ID,
+				SnomedRelationshipIndexEntry.Fields.EFFECTIVE_TIME,
+				SnomedRelationshipIndexEntry.Fields.ACTIVE,
+				SnomedRelationshipIndexEntry.Fields.MODULE_ID,
+				SnomedRelationshipIndexEntry.Fields.SOURCE_ID,
+				SnomedRelationshipIndexEntry.Fields.DESTINATION_ID,
+				SnomedRelationshipIndexEntry.Fields.GROUP,
+				SnomedRelationshipIndexEntry.Fields.TYPE_ID,
+				SnomedRelationshipIndexEntry.Fields.CHARACTERISTIC_TYPE_ID,
+				SnomedRelationshipIndexEntry.Fields.MODIFIER_ID);
 	}
 
 	@Override
-	protected Stream<List<String>> getMappedStream(final SnomedRelationships results, 
+	protected Stream<List<String>> getMappedStream(final List<SnomedRelationshipIndexEntry> results, 
 			final RepositoryContext context, 
 			final String branch) {
 		
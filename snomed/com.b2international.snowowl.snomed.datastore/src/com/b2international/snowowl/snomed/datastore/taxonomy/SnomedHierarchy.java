@@ -0,0 +1,236 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.ints.IntSet;
+import com.b2international.collections.longs.LongList;
+import com.b2international.index.Hits;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.google.common.collect.Lists;
+
+/**
+ * Immutable, memory-resident parent-child adjacency structure of the active concepts of a branch. Concept IDs are
+ * stored in a sorted <code>long</code> array, the index of a concept ID in this array is used as its internal ID, and
+ * the direct children of each concept are stored in compressed sparse row format (an offset array and a flat array of
+ * internal child IDs).
+ * <p>
+ * The number of all (direct and indirect) descendants is computed on first access and remembered for subsequent calls.
+ *
+ * @since 7.21
+ * @see SnomedHierarchyCache
+ */
+public final class SnomedHierarchy {
+
+	private static final int SCROLL_LIMIT = 10_000;
+	private static final int UNKNOWN = -1;
+
+	private final long[] conceptIds;
+	private final int[] childOffsets;
+	private final int[] children;
+	private final int[] descendantCounts;
+
+	private SnomedHierarchy(long[] conceptIds, int[] childOffsets, int[] children) {
+		this.conceptIds = conceptIds;
+		this.childOffsets = childOffsets;
+		this.children = children;
+		this.descendantCounts = new int[conceptIds.length];
+		Arrays.fill(descendantCounts, UNKNOWN);
+	}
+
+	/**
+	 * @return the number of concepts in this hierarchy
+	 */
+	public int size() {
+		return conceptIds.length;
+	}
+
+	/**
+	 * @param conceptId
+	 * @return <code>true</code> if the given concept is an active concept of this hierarchy, <code>false</code> otherwise
+	 */
+	public boolean contains(long conceptId) {
+		return Arrays.binarySearch(conceptIds, conceptId) >= 0;
+	}
+
+	/**
+	 * Returns the number of direct or all descendants of the given concept.
+	 *
+	 * @param conceptId - the concept to count descendants of
+	 * @param direct - whether to count only direct children (<code>true</code>) or all descendants (<code>false</code>)
+	 * @return the number of descendants, or <code>0</code> if the concept is not part of the hierarchy
+	 */
+	public int getDescendantCount(long conceptId, boolean direct) {
+		final int internalId = Arrays.binarySearch(conceptIds, conceptId);
+		if (internalId < 0) {
+			return 0;
+		}
+
+		if (direct) {
+			return childOffsets[internalId + 1] - childOffsets[internalId];
+		}
+
+		int count = descendantCounts[internalId];
+		if (count == UNKNOWN) {
+			// racing threads compute the same value, so plain writes are sufficient here
+			count = collectDescendants(internalId).length;
+			descendantCounts[internalId] = count;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the direct or all descendants of the given concept.
+	 *
+	 * @param conceptId - the concept to return descendants of
+	 * @param direct - whether to return only direct children (<code>true</code>) or all descendants (<code>false</code>)
+	 * @return the IDs of the descendant concepts in ascending order, never <code>null</code>
+	 */
+	public long[] getDescendants(long conceptId, boolean direct) {
+		final int internalId = Arrays.binarySearch(conceptIds, conceptId);
+		if (internalId < 0) {
+			return new long[0];
+		}
+
+		if (direct) {
+			final long[] result = new long[childOffsets[internalId + 1] - childOffsets[internalId]];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = conceptIds[children[childOffsets[internalId] + i]];
+			}
+			Arrays.sort(result);
+			return result;
+		}
+
+		final int[] descendants = collectDescendants(internalId);
+		descendantCounts[internalId] = descendants.length;
+		// internal IDs follow the order of concept IDs, so sorting them sorts the result
+		Arrays.sort(descendants);
+		final long[] result = new long[descendants.length];
+		for (int i = 0; i < descendants.length; i++) {
+			result[i] = conceptIds[descendants[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the internal IDs of all descendants in visiting order. Buffers start at the number of direct children and grow with the
+	 * result, so small subtrees do not allocate arrays sized to the whole hierarchy.
+	 */
+	private int[] collectDescendants(int internalId) {
+		final int directChildren = childOffsets[internalId + 1] - childOffsets[internalId];
+		final IntSet visited = PrimitiveSets.newIntOpenHashSetWithExpectedSize(directChildren);
+		// every descendant is appended once, the part after "head" is the queue of concepts still to visit
+		int[] descendants = new int[Math.max(directChildren, 1)];
+		int head = 0;
+		int size = 0;
+		int current = internalId;
+		while (true) {
+			for (int i = childOffsets[current]; i < childOffsets[current + 1]; i++) {
+				final int child = children[i];
+				if (visited.add(child)) {
+					if (size == descendants.length) {
+						descendants = Arrays.copyOf(descendants, size * 2);
+					}
+					descendants[size++] = child;
+				}
+			}
+			
+			if (head == size) {
+				break;
+			}
+			current = descendants[head++];
+		}
+		return (size == descendants.length) ? descendants : Arrays.copyOf(descendants, size);
+	}
+
+	/**
+	 * Builds a new {@link SnomedHierarchy} from the active concepts and their (stated or inferred) parents available via the given searcher.
+	 *
+	 * @param searcher - the searcher to use
+	 * @param stated - whether to use the stated (<code>true</code>) or the inferred (<code>false</code>) parents
+	 * @return
+	 */
+	public static SnomedHierarchy build(RevisionSearcher searcher, boolean stated) {
+		final Query<SnomedConceptDocument> query = Query.select(SnomedConceptDocument.class)
+				.fields(SnomedConceptDocument.Fields.ID, stated ? SnomedConceptDocument.Fields.STATED_PARENTS : SnomedConceptDocument.Fields.PARENTS)
+				.where(SnomedConceptDocument.Expressions.active())
+				.limit(SCROLL_LIMIT)
+				.build();
+
+		final LongList ids = PrimitiveLists.newLongArrayListWithExpectedSize(SCROLL_LIMIT);
+		final List<long[]> parents = Lists.newArrayListWithExpectedSize(SCROLL_LIMIT);
+		for (Hits<SnomedConceptDocument> hits : searcher.scroll(query)) {
+			for (SnomedConceptDocument hit : hits) {
+				ids.add(Long.parseLong(hit.getId()));
+				if (stated) {
+					parents.add(hit.getStatedParents() == null ? new long[0] : hit.getStatedParents().toArray());
+				} else {
+					parents.add(hit.getParents() == null ? new long[0] : hit.getParents().toArray());
+				}
+			}
+		}
+
+		return build(ids.toArray(), parents);
+	}
+
+	/**
+	 * Builds a new {@link SnomedHierarchy} from the given concept IDs and their parents. Parent IDs not present in
+	 * the concept ID array are ignored.
+	 *
+	 * @param ids - the concept IDs
+	 * @param parents - the parent IDs of each concept, in the same order as the concept IDs
+	 * @return
+	 */
+	static SnomedHierarchy build(long[] ids, List<long[]> parents) {
+		final long[] conceptIds = Arrays.copyOf(ids, ids.length);
+		Arrays.sort(conceptIds);
+
+		final int[] childOffsets = new int[conceptIds.length + 1];
+		for (long[] parentIds : parents) {
+			for (long parentId : parentIds) {
+				final int parent = Arrays.binarySearch(conceptIds, parentId);
+				if (parent >= 0) {
+					childOffsets[parent + 1]++;
+				}
+			}
+		}
+
+		for (int i = 0; i < conceptIds.length; i++) {
+			childOffsets[i + 1] += childOffsets[i];
+		}
+
+		final int[] children = new int[childOffsets[conceptIds.length]];
+		final int[] fill = Arrays.copyOf(childOffsets, conceptIds.length);
+		for (int i = 0; i < ids.length; i++) {
+			final int child = Arrays.binarySearch(conceptIds, ids[i]);
+			for (long parentId : parents.get(i)) {
+				final int parent = Arrays.binarySearch(conceptIds, parentId);
+				if (parent >= 0) {
+					children[fill[parent]++] = child;
+				}
+			}
+		}
+
+		return new SnomedHierarchy(conceptIds, childOffsets, children);
+	}
+
+}
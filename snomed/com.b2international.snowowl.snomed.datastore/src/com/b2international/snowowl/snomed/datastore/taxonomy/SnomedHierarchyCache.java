@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.RepositoryEvent;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Keeps the most recently used {@link SnomedHierarchy hierarchies} in memory, keyed by branch path, head timestamp
+ * and characteristic type. Entries of a branch are evicted as soon as a commit notification arrives for it, and a
+ * hierarchy is only ever served for the exact head timestamp it was built for.
+ *
+ * @since 7.21
+ */
+public final class SnomedHierarchyCache implements IDisposableService {
+
+	private final Cache<Key, SnomedHierarchy> hierarchies;
+	private final Disposable subscription;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+	public SnomedHierarchyCache(Observable<RepositoryEvent> notifications, int maxSize) {
+		this.hierarchies = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.build();
+		this.subscription = notifications
+				.ofType(RepositoryCommitNotification.class)
+				.subscribe(this::onCommit);
+	}
+
+	/**
+	 * Returns the stated or inferred hierarchy of the branch the given context is opened on. Contexts with branch
+	 * path modifiers (eg. point-in-time paths) are not cached.
+	 *
+	 * @param context - the branch context to return the hierarchy for
+	 * @param stated - whether to return the stated (<code>true</code>) or the inferred (<code>false</code>) hierarchy
+	 * @return the hierarchy of the branch, or an empty {@link Optional} if the branch is not eligible for caching
+	 */
+	public Optional<SnomedHierarchy> get(BranchContext context, boolean stated) {
+		if (isDisposed() || !context.path().equals(context.branch().path())) {
+			return Optional.empty();
+		}
+
+		final Key key = new Key(context.branch().path(), context.branch().headTimestamp(), stated);
+		try {
+			return Optional.of(hierarchies.get(key, () -> SnomedHierarchy.build(context.service(RevisionSearcher.class), stated)));
+		} catch (ExecutionException e) {
+			throw SnowowlRuntimeException.wrap(e.getCause());
+		}
+	}
+
+	private void onCommit(RepositoryCommitNotification notification) {
+		hierarchies.asMap().keySet().removeIf(key -> key.branchPath.equals(notification.getBranchPath()));
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			subscription.dispose();
+			hierarchies.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	private static final class Key {
+
+		private final String branchPath;
+		private final long headTimestamp;
+		private final boolean stated;
+
+		Key(String branchPath, long headTimestamp, boolean stated) {
+			this.branchPath = branchPath;
+			this.headTimestamp = headTimestamp;
+			this.stated = stated;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(branchPath, headTimestamp, stated);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return headTimestamp == other.headTimestamp
+					&& stated == other.stated
+					&& branchPath.equals(other.branchPath);
+		}
+
+	}
+
+}
@@ -19,10 +19,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerSessionManagerTest;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCacheTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ClassificationTaskSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ConcreteDomainChangeSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.EquivalentConceptSetSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.RelationshipChangeSerializationTest;
+import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGeneratorTest;
 
 /**
  * @since 4.0
@@ -33,6 +36,9 @@ import com.b2international.snowowl.snomed.reasoner.index.entry.RelationshipChang
 	EquivalentConceptSetSerializationTest.class,
 	RelationshipChangeSerializationTest.class,
 	ConcreteDomainChangeSerializationTest.class,
+	NormalFormGeneratorTest.class,
+	ReasonerTaxonomyCacheTest.class,
+	ReasonerSessionManagerTest.class,
 })
 public class AllSnomedReasonerTests {
 
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.options.MetadataImpl;
+import com.b2international.index.Hits;
+import com.b2international.index.Searcher;
+import com.b2international.index.mapping.DocumentMapping;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetail;
+import com.b2international.index.revision.RevisionBranch.BranchState;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.IBranchPath;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.branch.BranchPathUtils;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntologyFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Reasoner sessions should produce the same inferences as a fresh reasoner, while keeping the reasoner instance
+ * between classifications of a branch.
+ *
+ * @since 7.21
+ */
+public class ReasonerSessionManagerTest {
+
+	private static final String REASONER_ID = SnomedCoreConfiguration.ELK_REASONER_ID;
+
+	/*
+	 * ROOT
+	 * +-- A
+	 * |   +-- B (moved under C in the second version)
+	 * +-- C
+	 */
+	private static final long ROOT = 100000000L;
+	private static final long A = 100000101L;
+	private static final long B = 100000102L;
+	private static final long C = 100000103L;
+
+	private static final LongSet NO_CONCEPTS = PrimitiveSets.newLongOpenHashSet();
+
+	private long nextRelationshipId = 200000000L;
+	private ReasonerSessionManager manager;
+
+	@After
+	public void dispose() {
+		if (manager != null) {
+			manager.dispose();
+		}
+	}
+
+	@Test
+	public void sessionUpdatesExistingReasoner() throws Exception {
+		final ReasonerSession session = new ReasonerSession(REASONER_ID);
+		assertTrue(session.tryAcquire());
+
+		try {
+			final ReasonerTaxonomy firstTaxonomy = taxonomy(A);
+			final DelegateOntology first = ontology(firstTaxonomy);
+			final OWLReasoner reasoner = session.update(first, firstTaxonomy, 0L, 1L, NO_CONCEPTS, null);
+			final int axiomCount = session.getAxiomCount();
+			assertEquals(first.getAxiomCount(), axiomCount);
+			assertEquals(1L, session.getHeadTimestamp());
+
+			final ReasonerTaxonomy secondTaxonomy = taxonomy(C);
+			final DelegateOntology second = ontology(secondTaxonomy);
+			assertSame(reasoner, session.update(second, secondTaxonomy, 0L, 2L, NO_CONCEPTS, PrimitiveSets.newLongOpenHashSet(B)));
+			assertEquals(second.getAxiomCount(), session.getAxiomCount());
+			assertEquals(2L, session.getHeadTimestamp());
+		} finally {
+			session.release();
+			session.evict();
+		}
+
+		// Eviction releases the ontology copy and the reasoner
+		assertEquals(0, session.getAxiomCount());
+	}
+
+	@Test
+	public void sessionOnlyChecksChangedConcepts() throws Exception {
+		final ReasonerSession session = new ReasonerSession(REASONER_ID);
+		assertTrue(session.tryAcquire());
+
+		try {
+			final ReasonerTaxonomy firstTaxonomy = taxonomy(A);
+			session.update(ontology(firstTaxonomy), firstTaxonomy, 0L, 1L, NO_CONCEPTS, null);
+
+			// B is not reported as changed, so its stated parent in the session's ontology copy is not updated
+			final ReasonerTaxonomy secondTaxonomy = taxonomy(C);
+			final OWLReasoner reasoner = session.update(ontology(secondTaxonomy), secondTaxonomy, 0L, 2L, NO_CONCEPTS, PrimitiveSets.newLongOpenHashSet(A));
+			final ReasonerTaxonomy inferredTaxonomy = new ReasonerTaxonomyInferrer(REASONER_ID, ontology(secondTaxonomy), context("MAIN", "MAIN", 2L))
+					.addInferences(secondTaxonomy, reasoner);
+			assertParents(B, A, inferredTaxonomy);
+		} finally {
+			session.release();
+			session.evict();
+		}
+	}
+
+	@Test
+	public void sessionIsExclusive() throws Exception {
+		final ReasonerSession session = new ReasonerSession(REASONER_ID);
+		assertTrue(session.tryAcquire());
+		assertFalse(session.tryAcquire());
+
+		final ReasonerTaxonomy taxonomy = taxonomy(A);
+		session.update(ontology(taxonomy), taxonomy, 0L, 1L, NO_CONCEPTS, null);
+
+		// Evicted while in use: resources are kept until the current user releases the session
+		session.evict();
+		assertNotEquals(0, session.getAxiomCount());
+		assertFalse(session.tryAcquire());
+
+		session.release();
+		assertEquals(0, session.getAxiomCount());
+		assertFalse(session.tryAcquire());
+	}
+
+	@Test
+	public void incrementalClassificationMatchesFullClassification() throws Exception {
+		manager = new ReasonerSessionManager(Integer.MAX_VALUE, 30L, TimeUnit.MINUTES);
+		final ReasonerTaxonomy first = taxonomy(A);
+		assertParents(B, A, manager.addInferences(context("MAIN", "MAIN", 1L), REASONER_ID, ontology(first), first, NO_CONCEPTS));
+
+		// The second classification only checks B, reported as changed by the commit, and submits the moved IS A
+		final BranchContext context = context("MAIN", "MAIN", 2L, commit(2L, B));
+		final ReasonerTaxonomy second = taxonomy(C);
+		final ReasonerTaxonomy incremental = manager.addInferences(context, REASONER_ID, ontology(second), second, NO_CONCEPTS);
+		final ReasonerTaxonomy full = new ReasonerTaxonomyInferrer(REASONER_ID, ontology(second), context).addInferences(second);
+
+		assertParents(B, C, incremental);
+		for (final long conceptId : new long[] { A, B, C }) {
+			assertEquals(full.getInferredAncestors().getDestinations(conceptId, false), incremental.getInferredAncestors().getDestinations(conceptId, false));
+		}
+	}
+
+	@Test
+	public void sessionsOverBudgetAreEvicted() throws Exception {
+		// No session fits into the budget, each classification uses a new session
+		manager = new ReasonerSessionManager(1, 30L, TimeUnit.MINUTES);
+		final ReasonerTaxonomy first = taxonomy(A);
+		assertParents(B, A, manager.addInferences(context("MAIN", "MAIN", 1L), REASONER_ID, ontology(first), first, NO_CONCEPTS));
+		final ReasonerTaxonomy second = taxonomy(C);
+		assertParents(B, C, manager.addInferences(context("MAIN", "MAIN", 2L, commit(2L, B)), REASONER_ID, ontology(second), second, NO_CONCEPTS));
+	}
+
+	@Test
+	public void pathWithModifierUsesFreshReasoner() throws Exception {
+		manager = new ReasonerSessionManager(Integer.MAX_VALUE, 30L, TimeUnit.MINUTES);
+
+		final ReasonerTaxonomy taxonomy = taxonomy(A);
+		assertParents(B, A, manager.addInferences(context("MAIN@1", "MAIN", 1L), REASONER_ID, ontology(taxonomy), taxonomy, NO_CONCEPTS));
+	}
+
+	@Test
+	public void disposedManagerUsesFreshReasoner() throws Exception {
+		manager = new ReasonerSessionManager(Integer.MAX_VALUE, 30L, TimeUnit.MINUTES);
+		manager.dispose();
+
+		final ReasonerTaxonomy taxonomy = taxonomy(A);
+		assertParents(B, A, manager.addInferences(context("MAIN", "MAIN", 1L), REASONER_ID, ontology(taxonomy), taxonomy, NO_CONCEPTS));
+	}
+
+	private static void assertParents(final long conceptId, final long parentId, final ReasonerTaxonomy inferredTaxonomy) {
+		assertEquals(PrimitiveSets.newLongOpenHashSet(parentId), inferredTaxonomy.getInferredAncestors().getDestinations(conceptId, true));
+	}
+
+	private ReasonerTaxonomy taxonomy(final long parentOfB) {
+		final List<SnomedRelationship> relationships = new ArrayList<>();
+		relationships.add(isA(A, ROOT));
+		relationships.add(isA(B, parentOfB));
+		relationships.add(isA(C, ROOT));
+		relationships.sort(Comparator.comparing(SnomedRelationship::getSourceId));
+
+		return new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(ImmutableList.of(ROOT, A, B, C).stream().map(ReasonerSessionManagerTest::concept))
+				.finishConcepts()
+				.addActiveStatedEdges(relationships.stream())
+				.addActiveStatedRelationships(relationships.stream())
+				.build();
+	}
+
+	private static DelegateOntology ontology(final ReasonerTaxonomy taxonomy) throws Exception {
+		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
+		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
+		return (DelegateOntology) ontologyManager.createOntology(IRI.create(DelegateOntology.NAMESPACE_SCTM + Concepts.MODULE_SCT_CORE));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BranchContext context(final String path, final String branchPath, final long headTimestamp, final Commit... commits) {
+		final IBranchPath branch = BranchPathUtils.createPath(branchPath);
+		final BranchContext context = mock(BranchContext.class);
+		when(context.path()).thenReturn(path);
+		when(context.branch()).thenReturn(new Branch(1L, branch.lastSegment(), branch.getParentPath(), 0L, headTimestamp, false,
+				new MetadataImpl(), BranchState.FORWARD, branch, Collections.emptyList()));
+
+		final Searcher searcher = mock(Searcher.class);
+		when(searcher.scroll(any(Query.class))).thenReturn(Collections.singletonList(new Hits<>(ImmutableList.copyOf(commits), null, null, commits.length, commits.length)));
+		final RevisionSearcher revisionSearcher = mock(RevisionSearcher.class);
+		when(revisionSearcher.searcher()).thenReturn(searcher);
+		when(context.service(RevisionSearcher.class)).thenReturn(revisionSearcher);
+		return context;
+	}
+
+	private Commit commit(final long timestamp, final long sourceId) {
+		final CommitDetail detail = CommitDetail.changed(DocumentMapping.getType(SnomedConceptDocument.class), DocumentMapping.getType(SnomedRelationshipIndexEntry.class))
+				.putObjects(Long.toString(sourceId), Collections.singleton(Long.toString(nextRelationshipId++)))
+				.build();
+
+		return new ObjectMapper().convertValue(ImmutableMap.of(
+				"id", Long.toString(timestamp),
+				"branch", "MAIN",
+				"timestamp", timestamp,
+				"details", ImmutableList.of(detail)), Commit.class);
+	}
+
+	private static SnomedConcept concept(final long id) {
+		final SnomedConcept concept = new SnomedConcept(Long.toString(id));
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+		return concept;
+	}
+
+	private SnomedRelationship isA(final long sourceId, final long destinationId) {
+		final SnomedRelationship relationship = new SnomedRelationship(Long.toString(nextRelationshipId++));
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setSourceId(Long.toString(sourceId));
+		relationship.setTypeId(Concepts.IS_A);
+		relationship.setDestinationId(Long.toString(destinationId));
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		relationship.setGroup(0);
+		relationship.setUnionGroup(0);
+		return relationship;
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.commons.options.MetadataImpl;
+import com.b2international.index.revision.RevisionBranch.BranchState;
+import com.b2international.snowowl.core.api.IBranchPath;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.branch.BranchPathUtils;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.RepositoryEvent;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * @since 7.21
+ */
+public class ReasonerTaxonomyCacheTest {
+
+	private static final String MAIN = "MAIN";
+	private static final String TASK = "MAIN/task";
+	private static final Set<String> NO_EXCLUDED_MODULES = Collections.emptySet();
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger builds = new AtomicInteger();
+
+	private PublishSubject<RepositoryEvent> notifications;
+	private ReasonerTaxonomyCache cache;
+
+	@Before
+	public void setup() {
+		notifications = PublishSubject.create();
+		cache = new ReasonerTaxonomyCache(notifications, 2, 10L, TimeUnit.MINUTES, new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		});
+	}
+
+	@After
+	public void dispose() {
+		cache.dispose();
+	}
+
+	@Test
+	public void hit() throws Exception {
+		final ReasonerTaxonomy taxonomy = get(context(MAIN, 1L));
+
+		assertSame(taxonomy, get(context(MAIN, 1L)));
+		assertEquals(1, builds.get());
+	}
+
+	@Test
+	public void differentSettingsAreCachedSeparately() throws Exception {
+		final BranchContext context = context(MAIN, 1L);
+		final ReasonerTaxonomy taxonomy = get(context);
+
+		assertNotSame(taxonomy, cache.get(context, ImmutableSet.of("900000000000012004"), false, this::build));
+		assertNotSame(taxonomy, cache.get(context, NO_EXCLUDED_MODULES, true, this::build));
+		assertEquals(3, builds.get());
+	}
+
+	@Test
+	public void commitInvalidatesBranch() throws Exception {
+		final ReasonerTaxonomy mainTaxonomy = get(context(MAIN, 1L));
+		final ReasonerTaxonomy taskTaxonomy = get(context(TASK, 1L));
+
+		commit(MAIN, 2L);
+
+		// Entries of other branches are kept
+		assertSame(taskTaxonomy, get(context(TASK, 1L)));
+		assertNotSame(mainTaxonomy, get(context(MAIN, 1L)));
+		assertEquals(3, builds.get());
+	}
+
+	@Test
+	public void newHeadIsNotServedFromCache() throws Exception {
+		final ReasonerTaxonomy taxonomy = get(context(MAIN, 1L));
+
+		// The branch has moved on, but the commit notification was not received yet
+		final ReasonerTaxonomy newTaxonomy = get(context(MAIN, 2L));
+
+		assertNotSame(taxonomy, newTaxonomy);
+		assertSame(newTaxonomy, get(context(MAIN, 2L)));
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	public void idleEntriesExpire() throws Exception {
+		final ReasonerTaxonomy taxonomy = get(context(MAIN, 1L));
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(5L));
+		assertSame(taxonomy, get(context(MAIN, 1L)));
+
+		// Access resets the idle time
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(9L));
+		assertSame(taxonomy, get(context(MAIN, 1L)));
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(11L));
+		assertNotSame(taxonomy, get(context(MAIN, 1L)));
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	public void pathWithModifierIsNotCached() throws Exception {
+		final BranchContext context = context(MAIN, 1L);
+		when(context.path()).thenReturn(MAIN + "@1");
+
+		get(context);
+		get(context);
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	public void disposedCacheBuildsTaxonomy() throws Exception {
+		get(context(MAIN, 1L));
+		cache.dispose();
+
+		get(context(MAIN, 1L));
+		assertEquals(2, builds.get());
+	}
+
+	private ReasonerTaxonomy get(final BranchContext context) {
+		return cache.get(context, NO_EXCLUDED_MODULES, false, this::build);
+	}
+
+	private ReasonerTaxonomy build() {
+		builds.incrementAndGet();
+		return new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(Stream.empty())
+				.finishConcepts()
+				.build();
+	}
+
+	private void commit(final String branchPath, final long timestamp) {
+		notifications.onNext(new RepositoryCommitNotification("snomedStore",
+				"commit-" + timestamp,
+				null,
+				branchPath,
+				timestamp,
+				"test",
+				"Commit on " + branchPath,
+				Collections.emptySet(),
+				Collections.emptySet(),
+				Collections.emptySet(),
+				null));
+	}
+
+	private static BranchContext context(final String path, final long headTimestamp) {
+		final IBranchPath branchPath = BranchPathUtils.createPath(path);
+		final Branch branch = new Branch(1L, branchPath.lastSegment(), branchPath.getParentPath(), 0L, headTimestamp, false,
+				new MetadataImpl(), BranchState.FORWARD, branchPath, Collections.emptyList());
+
+		final BranchContext context = mock(BranchContext.class);
+		when(context.path()).thenReturn(path);
+		when(context.branch()).thenReturn(branch);
+		return context;
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.normalform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.longs.LongList;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdEdges;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdMultimap;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeProcessor;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * @since 7.21
+ */
+public class NormalFormGeneratorTest {
+
+	/*
+	 * ROOT
+	 * +-- TYPE (attribute)
+	 * +-- X
+	 * |   +-- Y
+	 * +-- A (TYPE = X)
+	 *     +-- CHILD_COUNT children, every odd one has TYPE = Y stated
+	 */
+	private static final long ROOT = 100000000L;
+	private static final long TYPE = 100000101L;
+	private static final long X = 100000102L;
+	private static final long Y = 100000103L;
+	private static final long A = 100000104L;
+	private static final long FIRST_CHILD = 100001000L;
+	// Enough concepts on the same level to be computed in parallel
+	private static final int CHILD_COUNT = 100;
+
+	private static final long IS_A = Long.parseLong(Concepts.IS_A);
+
+	private ReasonerTaxonomy taxonomy;
+	private long nextRelationshipId = 200000000L;
+
+	@Before
+	public void setup() {
+		final List<Long> conceptIds = new ArrayList<>(ImmutableList.of(ROOT, TYPE, X, Y, A));
+		final List<SnomedRelationship> relationships = new ArrayList<>();
+		relationships.add(isA(TYPE, ROOT));
+		relationships.add(isA(X, ROOT));
+		relationships.add(isA(Y, X));
+		relationships.add(isA(A, ROOT));
+		relationships.add(attribute(A, X));
+
+		for (int i = 0; i < CHILD_COUNT; i++) {
+			final long child = FIRST_CHILD + i;
+			conceptIds.add(child);
+			relationships.add(isA(child, A));
+			if (i % 2 == 1) {
+				relationships.add(attribute(child, Y));
+			}
+		}
+
+		relationships.sort(Comparator.comparing(SnomedRelationship::getSourceId));
+
+		final ReasonerTaxonomy statedTaxonomy = new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(conceptIds.stream().map(this::concept))
+				.finishConcepts()
+				.addActiveStatedEdges(relationships.stream())
+				.addActiveStatedRelationships(relationships.stream())
+				.build();
+
+		// The inferred hierarchy matches the stated one, concepts are listed in breadth-first order
+		final InternalIdEdges.Builder inferredAncestors = InternalIdEdges.builder(statedTaxonomy.getConceptMap());
+		final LongList iterationOrder = PrimitiveLists.newLongArrayList();
+		iterationOrder.add(ROOT);
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+		iterationOrder.add(TYPE);
+		iterationOrder.add(X);
+		iterationOrder.add(A);
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+		iterationOrder.add(Y);
+		for (final SnomedRelationship relationship : relationships) {
+			if (Concepts.IS_A.equals(relationship.getTypeId())) {
+				inferredAncestors.addEdges(ImmutableList.of(relationship.getSourceId()), ImmutableList.of(relationship.getDestinationId()));
+				if (relationship.getDestinationId().equals(Long.toString(A))) {
+					iterationOrder.add(Long.parseLong(relationship.getSourceId()));
+				}
+			}
+		}
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+
+		taxonomy = statedTaxonomy.withInferences(inferredAncestors.build(),
+				InternalSctIdSet.builder(statedTaxonomy.getConceptMap()).build(),
+				InternalSctIdMultimap.builder(statedTaxonomy.getConceptMap()).build(),
+				iterationOrder);
+	}
+
+	@Test
+	public void inheritedAttributes() throws Exception {
+		final List<String> changes = computeChanges(1);
+
+		assertTrue(changes.contains(added(A, IS_A, ROOT)));
+		assertTrue(changes.contains(added(A, TYPE, X)));
+		assertTrue(changes.contains(added(Y, IS_A, X)));
+
+		// Even children inherit the attribute of their parent
+		assertTrue(changes.contains(added(FIRST_CHILD, IS_A, A)));
+		assertTrue(changes.contains(added(FIRST_CHILD, TYPE, X)));
+
+		// The inherited attribute of odd children is redundant, as their own attribute value is more specific
+		assertTrue(changes.contains(added(FIRST_CHILD + 1, IS_A, A)));
+		assertTrue(changes.contains(added(FIRST_CHILD + 1, TYPE, Y)));
+		assertEquals(2, changes.stream().filter(c -> c.startsWith((FIRST_CHILD + 1) + ":")).count());
+	}
+
+	@Test
+	public void parallelGenerationMatchesSequential() throws Exception {
+		// Every concept except the root receives at least one inferred IS A
+		final List<String> sequentialChanges = computeChanges(1);
+		final List<String> parallelChanges = computeChanges(4);
+
+		assertEquals(4 + CHILD_COUNT, sequentialChanges.stream().filter(c -> c.contains(":" + IS_A + "=")).count());
+
+		// Changes are also reported in the same order
+		assertEquals(sequentialChanges, parallelChanges);
+	}
+
+	private List<String> computeChanges(final int parallelism) {
+		final List<String> changes = new ArrayList<>();
+		final NormalFormGenerator generator = new NormalFormGenerator(taxonomy, parallelism);
+		generator.computeChanges(new NullProgressMonitor(), new OntologyChangeProcessor<StatementFragment>() {
+			@Override
+			protected void handleAddedSubject(final String conceptId, final StatementFragment addedSubject) {
+				final long destinationId = ((StatementFragmentWithDestination) addedSubject).getDestinationId();
+				changes.add(added(Long.parseLong(conceptId), addedSubject.getTypeId(), destinationId));
+			}
+		}, new OntologyChangeProcessor<ConcreteDomainFragment>() { });
+
+		return changes;
+	}
+
+	private static String added(final long conceptId, final long typeId, final long destinationId) {
+		return String.format("%s:%s=%s", conceptId, typeId, destinationId);
+	}
+
+	private SnomedConcept concept(final long id) {
+		final SnomedConcept concept = new SnomedConcept(Long.toString(id));
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+		return concept;
+	}
+
+	private SnomedRelationship isA(final long sourceId, final long destinationId) {
+		return relationship(sourceId, IS_A, destinationId);
+	}
+
+	private SnomedRelationship attribute(final long sourceId, final long destinationId) {
+		return relationship(sourceId, TYPE, destinationId);
+	}
+
+	private SnomedRelationship relationship(final long sourceId, final long typeId, final long destinationId) {
+		final SnomedRelationship relationship = new SnomedRelationship(Long.toString(nextRelationshipId++));
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setSourceId(Long.toString(sourceId));
+		relationship.setTypeId(Long.toString(typeId));
+		relationship.setDestinationId(Long.toString(destinationId));
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		relationship.setGroup(0);
+		relationship.setUnionGroup(0);
+		return relationship;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import com.b2international.snowowl.core.config.SnowOwlConfiguration;
 import com.b2international.snowowl.core.plugin.Component;
 import com.b2international.snowowl.core.repository.ComponentDeletionPolicy;
 import com.b2international.snowowl.core.repository.CompositeComponentDeletionPolicy;
+import com.b2international.snowowl.core.repository.TerminologyRepository;
 import com.b2international.snowowl.core.repository.TerminologyRepositoryConfigurer;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
@@ -31,6 +32,8 @@ import com.b2international.snowowl.snomed.datastore.SnomedDatastoreActivator;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.constraint.SnomedConstraintDocument;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerSessionManager;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCache;
 import com.b2international.snowowl.snomed.reasoner.index.ClassificationTaskDocument;
 import com.b2international.snowowl.snomed.reasoner.index.ConceptChangeDocument;
 import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
@@ -48,13 +51,26 @@ public final class SnomedReasonerPlugin extends Plugin implements TerminologyRep
 	@Override
 	public void run(final SnowOwlConfiguration configuration, final Environment env) throws Exception {
 		if (env.isServer()) {
-			final Index repositoryIndex = env.service(RepositoryManager.class).get(getRepositoryId()).service(Index.class);
+			final TerminologyRepository repository = (TerminologyRepository) env.service(RepositoryManager.class).get(getRepositoryId());
+			final Index repositoryIndex = repository.service(Index.class);
 			final SnomedCoreConfiguration snomedConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class);
 			final int maximumReasonerRuns = snomedConfig.getMaxReasonerRuns();
 			final long cleanUpInterval = TimeUnit.MINUTES.toMillis(5L); // TODO: make this configurable
 			final ClassificationTracker classificationTracker = new ClassificationTracker(repositoryIndex, maximumReasonerRuns, cleanUpInterval);
 			
 			env.services().registerService(ClassificationTracker.class, classificationTracker);
+			
+			final int maxCachedTaxonomies = snomedConfig.getMaxCachedTaxonomies();
+			if (maxCachedTaxonomies > 0) {
+				// reuse reasoner input of unchanged branches in repeated classifications
+				repository.bind(ReasonerTaxonomyCache.class, new ReasonerTaxonomyCache(repository.notifications(), maxCachedTaxonomies, snomedConfig.getCachedTaxonomyIdleMinutes(), TimeUnit.MINUTES));
+			}
+			
+			final int reasonerSessionAxioms = snomedConfig.getReasonerSessionAxioms();
+			if (reasonerSessionAxioms > 0) {
+				// keep reasoners alive between classifications of the same branch for incremental reasoning
+				repository.bind(ReasonerSessionManager.class, new ReasonerSessionManager(reasonerSessionAxioms, snomedConfig.getReasonerSessionIdleMinutes(), TimeUnit.MINUTES));
+			}
 		}
 	}
 	
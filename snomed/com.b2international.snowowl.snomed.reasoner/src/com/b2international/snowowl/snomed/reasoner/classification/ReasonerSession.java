@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+
+/**
+ * Keeps a mutable copy of the most recently classified ontology of a branch along with a buffering reasoner instance.
+ * The copy is indexed by the concept each axiom was generated for; subsequent classifications only regenerate the
+ * axioms of concepts changed since the last run (as reported by the caller based on the branch's commits) and submit
+ * the difference as axiom additions and removals, allowing reasoners with incremental reasoning support to
+ * re-classify only the affected part of the ontology. If the changed concepts are not known, all axioms are compared.
+ * <p>
+ * A session can be used by a single classification at a time; resources are released on eviction, or when the
+ * current user releases the session if it was evicted while in use.
+ *
+ * @since 7.21
+ */
+final class ReasonerSession {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner-session");
+
+	private final String reasonerId;
+
+	private OWLOntologyManager manager;
+	private OWLOntology ontology;
+	private OWLReasoner reasoner;
+
+	// Axioms of the ontology copy by the concept they were generated for
+	private LongKeyMap<List<OWLAxiom>> axiomsByConcept;
+	// Additional occurrences of axioms generated for more than one concept
+	private Multiset<OWLAxiom> sharedAxioms;
+	private LongSet conceptIds;
+	private LongSet neverGroupedTypeIds;
+	private LongSet hierarchyDependentConceptIds;
+	private LongSet transientConceptIds;
+	private long baseTimestamp = -1L;
+	private long headTimestamp = -1L;
+
+	private boolean inUse;
+	private boolean evicted;
+
+	ReasonerSession(final String reasonerId) {
+		this.reasonerId = reasonerId;
+	}
+
+	/**
+	 * @return <code>true</code> if the session was acquired for exclusive use, <code>false</code> if it is used by
+	 *         another classification or was already evicted
+	 */
+	synchronized boolean tryAcquire() {
+		if (inUse || evicted) {
+			return false;
+		}
+
+		inUse = true;
+		return true;
+	}
+
+	synchronized void release() {
+		inUse = false;
+		if (evicted) {
+			close();
+		}
+	}
+
+	synchronized void evict() {
+		evicted = true;
+		if (!inUse) {
+			close();
+		}
+	}
+
+	/**
+	 * @return the number of axioms in the ontology copy (used as an approximation of the session's memory footprint)
+	 */
+	synchronized int getAxiomCount() {
+		return (ontology != null) ? ontology.getAxiomCount() : 0;
+	}
+
+	/**
+	 * @return the base timestamp of the branch when the ontology copy was last updated, or <code>-1L</code> if the
+	 *         session was not used yet
+	 */
+	long getBaseTimestamp() {
+		return baseTimestamp;
+	}
+
+	/**
+	 * @return the head timestamp of the branch when the ontology copy was last updated, or <code>-1L</code> if the
+	 *         session was not used yet
+	 */
+	long getHeadTimestamp() {
+		return headTimestamp;
+	}
+
+	/**
+	 * Brings the session's ontology copy up to date with the given ontology and returns a reasoner with precomputed
+	 * class hierarchy inferences. Should only be called while the session is acquired.
+	 *
+	 * @param source - the ontology to classify
+	 * @param taxonomy - the taxonomy the ontology was created from
+	 * @param baseTimestamp - the base timestamp of the branch the taxonomy was read from
+	 * @param headTimestamp - the head timestamp of the branch the taxonomy was read from
+	 * @param transientConceptIds - the concepts with definitions not persisted on the branch
+	 * @param changedConceptIds - the concepts changed on the branch since the session's head timestamp, or
+	 *        <code>null</code> if not known
+	 * @return the reasoner reflecting the contents of the given ontology
+	 * @throws OWLOntologyCreationException if the ontology copy can not be created on first use
+	 */
+	OWLReasoner update(final DelegateOntology source,
+			final ReasonerTaxonomy taxonomy,
+			final long baseTimestamp,
+			final long headTimestamp,
+			final LongSet transientConceptIds,
+			final LongSet changedConceptIds) throws OWLOntologyCreationException {
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final LongSet newConceptIds = taxonomy.getConceptMap().keySet();
+		final LongSet newHierarchyDependentConceptIds = source.getHierarchyDependentConceptIds();
+
+		final LongSet affectedConceptIds;
+		if (reasoner == null 
+				|| changedConceptIds == null
+				|| !newConceptIds.containsAll(conceptIds)
+				|| !neverGroupedTypeIds.equals(taxonomy.getNeverGroupedTypeIds())
+				|| !hierarchyDependentConceptIds.equals(newHierarchyDependentConceptIds)) {
+			
+			affectedConceptIds = PrimitiveSets.newLongOpenHashSet(newConceptIds);
+			if (conceptIds != null) {
+				affectedConceptIds.addAll(conceptIds);
+			}
+			
+		} else {
+			
+			affectedConceptIds = PrimitiveSets.newLongOpenHashSet(changedConceptIds);
+			affectedConceptIds.addAll(newHierarchyDependentConceptIds);
+			affectedConceptIds.addAll(this.transientConceptIds);
+			affectedConceptIds.addAll(transientConceptIds);
+			for (final LongIterator itr = newConceptIds.iterator(); itr.hasNext(); /* empty */) {
+				final long conceptId = itr.next();
+				if (!conceptIds.contains(conceptId)) {
+					affectedConceptIds.add(conceptId);
+				}
+			}
+		}
+
+		if (reasoner == null) {
+			manager = OWLManager.createOWLOntologyManager();
+			ontology = manager.createOntology();
+			axiomsByConcept = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(newConceptIds.size());
+			sharedAxioms = HashMultiset.create();
+		}
+
+		final LongKeyMap<List<OWLAxiom>> newAxiomsByConcept = source.getConceptAxioms(affectedConceptIds);
+		final Set<OWLAxiom> addedAxioms = Sets.newHashSet();
+		final Set<OWLAxiom> removedAxioms = Sets.newHashSet();
+
+		for (final List<OWLAxiom> axioms : newAxiomsByConcept.values()) {
+			for (final OWLAxiom axiom : axioms) {
+				if (ontology.containsAxiom(axiom) || !addedAxioms.add(axiom)) {
+					sharedAxioms.add(axiom);
+				}
+			}
+		}
+
+		for (final LongIterator itr = affectedConceptIds.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			final List<OWLAxiom> oldAxioms = axiomsByConcept.remove(conceptId);
+			if (oldAxioms == null) {
+				continue;
+			}
+			
+			for (final OWLAxiom axiom : oldAxioms) {
+				if (!sharedAxioms.remove(axiom)) {
+					removedAxioms.add(axiom);
+				}
+			}
+		}
+
+		final List<OWLOntologyChange> changes = Lists.newArrayListWithExpectedSize(addedAxioms.size() + removedAxioms.size());
+		removedAxioms.forEach(axiom -> changes.add(new RemoveAxiom(ontology, axiom)));
+		addedAxioms.forEach(axiom -> changes.add(new AddAxiom(ontology, axiom)));
+		
+		for (final LongIterator itr = newAxiomsByConcept.keySet().iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			axiomsByConcept.put(conceptId, newAxiomsByConcept.get(conceptId));
+		}
+
+		this.conceptIds = newConceptIds;
+		this.neverGroupedTypeIds = taxonomy.getNeverGroupedTypeIds();
+		this.hierarchyDependentConceptIds = newHierarchyDependentConceptIds;
+		this.transientConceptIds = transientConceptIds;
+		this.baseTimestamp = baseTimestamp;
+		this.headTimestamp = headTimestamp;
+
+		if (reasoner == null) {
+			manager.applyChanges(changes);
+			reasoner = ReasonerTaxonomyInferrer.createReasoner(reasonerId, ontology, true);
+			reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+			LOGGER.info("--- Created reasoner session with {} axioms [{}]", ontology.getAxiomCount(), stopwatch);
+			return reasoner;
+		}
+
+		if (!changes.isEmpty()) {
+			manager.applyChanges(changes);
+			reasoner.flush();
+		}
+
+		reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+		LOGGER.info("--- Updated reasoner session after checking {} concepts, with {} added and {} removed axioms [{}]", 
+				affectedConceptIds.size(), addedAxioms.size(), removedAxioms.size(), stopwatch);
+		return reasoner;
+	}
+
+	private void close() {
+		if (reasoner != null) {
+			reasoner.dispose();
+		}
+
+		reasoner = null;
+		ontology = null;
+		manager = null;
+		axiomsByConcept = null;
+		sharedAxioms = null;
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.Hits;
+import com.b2international.index.mapping.DocumentMapping;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetail;
+import com.b2international.index.revision.ObjectId;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+
+/**
+ * Maintains long-lived {@link ReasonerSession reasoner sessions} per branch and reasoner, so that repeated
+ * classifications of a branch can submit only the changed axioms to the reasoner. The concepts to check for changes
+ * are collected from the commits made on the branch since the session's last update. Sessions are evicted when they
+ * are not used for the configured idle period, or when the total number of axioms held by all sessions exceeds the
+ * configured budget.
+ * <p>
+ * If a session can not be used (eg. because another classification of the same branch is using it, or updating it
+ * fails), classification falls back to creating a fresh reasoner.
+ *
+ * @since 7.21
+ */
+public final class ReasonerSessionManager implements IDisposableService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner-session");
+
+	private static class Holder {
+		private static final Timer CLEANUP_TIMER = new Timer("Reasoner session cleanup", true);
+	}
+
+	private final Cache<Key, ReasonerSession> sessions;
+	private final TimerTask cleanUp;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+	/**
+	 * @param maxAxioms - the maximum number of axioms kept in memory by all sessions
+	 * @param idleTimeout - the duration after which unused sessions are evicted
+	 * @param unit - the time unit of the idle timeout
+	 */
+	public ReasonerSessionManager(final int maxAxioms, final long idleTimeout, final TimeUnit unit) {
+		this.sessions = CacheBuilder.newBuilder()
+				.maximumWeight(maxAxioms)
+				.<Key, ReasonerSession>weigher((key, session) -> session.getAxiomCount())
+				.expireAfterAccess(idleTimeout, unit)
+				.<Key, ReasonerSession>removalListener(notification -> {
+					// Sessions are re-inserted after each use to update their weight
+					if (notification.getCause() != RemovalCause.REPLACED) {
+						notification.getValue().evict();
+					}
+				})
+				.build();
+
+		this.cleanUp = new TimerTask() {
+			@Override
+			public void run() {
+				sessions.cleanUp();
+			}
+		};
+
+		final long cleanUpInterval = Math.max(TimeUnit.MINUTES.toMillis(1L), unit.toMillis(idleTimeout) / 2);
+		Holder.CLEANUP_TIMER.schedule(cleanUp, cleanUpInterval, cleanUpInterval);
+	}
+
+	/**
+	 * Adds inferences to the given taxonomy using the reasoner session of the branch the context is opened on,
+	 * creating the session if it does not exist yet.
+	 *
+	 * @param context - the branch context of the classification
+	 * @param reasonerId - the unique ID of the reasoner extension
+	 * @param ontology - the ontology to classify
+	 * @param taxonomy - the taxonomy the ontology was created from
+	 * @param transientConceptIds - the concepts with definitions included in the taxonomy that are not persisted on
+	 *        the branch
+	 * @return a new taxonomy instance with inferences added
+	 */
+	public ReasonerTaxonomy addInferences(final BranchContext context,
+			final String reasonerId,
+			final DelegateOntology ontology,
+			final ReasonerTaxonomy taxonomy,
+			final LongSet transientConceptIds) {
+
+		final ReasonerTaxonomyInferrer inferrer = new ReasonerTaxonomyInferrer(reasonerId, ontology, context);
+		if (isDisposed() || !context.path().equals(context.branch().path())) {
+			return inferrer.addInferences(taxonomy);
+		}
+
+		final Key key = new Key(context.path(), reasonerId);
+		final ReasonerSession session;
+		try {
+			session = sessions.get(key, () -> new ReasonerSession(reasonerId));
+		} catch (final ExecutionException e) {
+			return inferrer.addInferences(taxonomy);
+		}
+
+		if (!session.tryAcquire()) {
+			LOGGER.info("--- Reasoner session of branch '{}' is not available, running full classification", key.branchPath);
+			return inferrer.addInferences(taxonomy);
+		}
+
+		try {
+
+			final OWLReasoner reasoner;
+			try {
+				final Branch branch = context.branch();
+				final LongSet changedConceptIds = getChangedConceptIds(context, session);
+				reasoner = session.update(ontology, 
+						taxonomy, 
+						branch.baseTimestamp(), 
+						branch.headTimestamp(), 
+						transientConceptIds, 
+						changedConceptIds);
+			} catch (final ReasonerInterruptedException e) {
+				sessions.invalidate(key);
+				throw e;
+			} catch (final OWLOntologyCreationException | RuntimeException e) {
+				LOGGER.warn("Failed to update reasoner session of branch '{}', running full classification", key.branchPath, e);
+				sessions.invalidate(key);
+				return inferrer.addInferences(taxonomy);
+			}
+
+			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy, reasoner);
+			// Re-insert the session to update its weight (the entry might have been evicted in the meantime)
+			sessions.asMap().replace(key, session, session);
+			return inferredTaxonomy;
+
+		} finally {
+			session.release();
+		}
+	}
+
+	/*
+	 * Collects the concepts affected by commits made on the branch since the session was last updated. Returns null
+	 * if the changes can not be determined from the commits (eg. the branch was rebased or received a regular merge).
+	 */
+	private LongSet getChangedConceptIds(final BranchContext context, final ReasonerSession session) {
+		final Branch branch = context.branch();
+		if (session.getHeadTimestamp() == -1L || session.getBaseTimestamp() != branch.baseTimestamp()) {
+			return null;
+		}
+		
+		final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet();
+		if (session.getHeadTimestamp() == branch.headTimestamp()) {
+			return changedConceptIds;
+		}
+		
+		final String conceptType = DocumentMapping.getType(SnomedConceptDocument.class);
+		final String descriptionType = DocumentMapping.getType(SnomedDescriptionIndexEntry.class);
+		final String relationshipType = DocumentMapping.getType(SnomedRelationshipIndexEntry.class);
+		
+		final Query<Commit> query = Query.select(Commit.class)
+				.where(Expressions.builder()
+						.filter(Commit.Expressions.branches(context.path()))
+						.filter(Commit.Expressions.timestampRange(session.getHeadTimestamp() + 1L, branch.headTimestamp()))
+						.build())
+				.limit(20) // import commits tend to be large
+				.build();
+		
+		for (final Hits<Commit> hits : context.service(RevisionSearcher.class).searcher().scroll(query)) {
+			for (final Commit commit : hits) {
+				// Regular merges do not record the merged changes
+				if (commit.isMergeCommit() && !Boolean.TRUE.equals(commit.getSquashMerge())) {
+					return null;
+				}
+				
+				for (final CommitDetail detail : commit.getDetails()) {
+					// Property changes are also reported as changed components
+					if (detail.isPropertyChange()) {
+						continue;
+					}
+					
+					if (conceptType.equals(detail.getObjectType())) {
+						final List<String> objects = detail.getObjects();
+						for (int i = 0; i < objects.size(); i++) {
+							if (ObjectId.ROOT.equals(objects.get(i))) {
+								// Changes of the concepts themselves
+								detail.getComponents().get(i).forEach(conceptId -> changedConceptIds.add(Long.parseLong(conceptId)));
+							} else {
+								// Descriptions, relationships and members of the concept
+								changedConceptIds.add(Long.parseLong(objects.get(i)));
+							}
+						}
+					} else if (descriptionType.equals(detail.getObjectType()) || relationshipType.equals(detail.getObjectType())) {
+						// Members of descriptions and relationships do not contribute axioms
+						continue;
+					} else if (!detail.getObjects().stream().allMatch(ObjectId.ROOT::equals)) {
+						// Components of other (non-revision) documents do not contribute axioms, anything else is unexpected
+						return null;
+					}
+				}
+			}
+		}
+		
+		return changedConceptIds;
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			cleanUp.cancel();
+			sessions.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	private static final class Key {
+
+		private final String branchPath;
+		private final String reasonerId;
+
+		Key(final String branchPath, final String reasonerId) {
+			this.branchPath = branchPath;
+			this.reasonerId = reasonerId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(branchPath, reasonerId);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return branchPath.equals(other.branchPath) && reasonerId.equals(other.reasonerId);
+		}
+
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.RepositoryEvent;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Keeps the most recently used {@link ReasonerTaxonomy reasoner input taxonomies} (without inferences) in memory, so
+ * that repeated classifications of an unchanged branch do not have to collect the same contents from the index again.
+ * <p>
+ * Entries are keyed by branch path, head timestamp and the settings that influence the contents of the taxonomy, so an
+ * entry can never be served for different branch contents. Entries of a branch are evicted as soon as a commit
+ * notification arrives for it, and any entry is released if it was not used for the configured idle time.
+ * <p>
+ * A taxonomy is not derived from the cached taxonomy of an earlier head and the changes of the commits since then:
+ * <ul>
+ * <li>commit notifications report changes by container, eg. an edited description marks its concept as changed, so
+ * they do not tell which inputs of the taxonomy have changed;</li>
+ * <li>the taxonomy is a set of immutable arrays indexed by the position of each active concept, activating or
+ * inactivating a single concept shifts every index;</li>
+ * <li>parts of the taxonomy depend on other concepts than the changed ones (stated descendants of their parents,
+ * never grouped types, property chains).</li>
+ * </ul>
+ * Updating a taxonomy would need a rescan of the affected components and a copy of every array, most of the cost
+ * of a full build with a higher risk of serving stale contents.
+ *
+ * @since 7.21
+ */
+public final class ReasonerTaxonomyCache implements IDisposableService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner-taxonomy");
+
+	private final Cache<Key, ReasonerTaxonomy> taxonomies;
+	private final Disposable subscription;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+	public ReasonerTaxonomyCache(final Observable<RepositoryEvent> notifications, final int maxSize, final long expireAfterAccess, final TimeUnit unit) {
+		this(notifications, maxSize, expireAfterAccess, unit, Ticker.systemTicker());
+	}
+
+	/*package*/ ReasonerTaxonomyCache(final Observable<RepositoryEvent> notifications, final int maxSize, final long expireAfterAccess, final TimeUnit unit, final Ticker ticker) {
+		this.taxonomies = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterAccess(expireAfterAccess, unit)
+				.ticker(ticker)
+				.build();
+		this.subscription = notifications
+				.ofType(RepositoryCommitNotification.class)
+				.subscribe(this::onCommit);
+	}
+
+	/**
+	 * Returns the taxonomy of the branch the given context is opened on, using the specified builder function if no
+	 * taxonomy was cached yet. Contexts with branch path modifiers (eg. point-in-time paths) are not cached.
+	 *
+	 * @param context - the branch context to return the taxonomy for
+	 * @param excludedModuleIds - the module IDs excluded from the taxonomy
+	 * @param concreteDomainSupported - whether the taxonomy includes concrete domain members
+	 * @param builder - the function building the taxonomy on a cache miss
+	 * @return the cached or newly built taxonomy
+	 */
+	public ReasonerTaxonomy get(final BranchContext context,
+			final Set<String> excludedModuleIds,
+			final boolean concreteDomainSupported,
+			final Supplier<ReasonerTaxonomy> builder) {
+
+		if (isDisposed() || !context.path().equals(context.branch().path())) {
+			return builder.get();
+		}
+
+		final Key key = new Key(context.branch().path(), context.branch().headTimestamp(), excludedModuleIds, concreteDomainSupported);
+		final ReasonerTaxonomy cachedTaxonomy = taxonomies.getIfPresent(key);
+		if (cachedTaxonomy != null) {
+			LOGGER.info("--- Reusing reasoner taxonomy of branch '{}' at head timestamp {}", key.branchPath, key.headTimestamp);
+			return cachedTaxonomy;
+		}
+
+		try {
+			return taxonomies.get(key, builder::get);
+		} catch (final ExecutionException | UncheckedExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+
+	private void onCommit(final RepositoryCommitNotification notification) {
+		taxonomies.asMap().keySet().removeIf(key -> key.branchPath.equals(notification.getBranchPath()));
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			subscription.dispose();
+			taxonomies.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	private static final class Key {
+
+		private final String branchPath;
+		private final long headTimestamp;
+		private final Set<String> excludedModuleIds;
+		private final boolean concreteDomainSupported;
+
+		Key(final String branchPath, final long headTimestamp, final Set<String> excludedModuleIds, final boolean concreteDomainSupported) {
+			this.branchPath = branchPath;
+			this.headTimestamp = headTimestamp;
+			this.excludedModuleIds = ImmutableSet.copyOf(excludedModuleIds);
+			this.concreteDomainSupported = concreteDomainSupported;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(branchPath, headTimestamp, excludedModuleIds, concreteDomainSupported);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return headTimestamp == other.headTimestamp
+					&& concreteDomainSupported == other.concreteDomainSupported
+					&& branchPath.equals(other.branchPath)
+					&& excludedModuleIds.equals(other.excludedModuleIds);
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -144,6 +144,20 @@ public final class ReasonerTaxonomyInferrer {
 	private InternalSctIdMultimap.Builder equivalentConcepts;
 
 	private static OWLReasoner createReasoner(final String reasonerId, final OWLOntology owlOntology) {
+		return createReasoner(reasonerId, owlOntology, false);
+	}
+
+	/**
+	 * Creates a reasoner instance using the reasoner factory registered with the given extension ID.
+	 * 
+	 * @param reasonerId - the unique ID of the reasoner extension
+	 * @param owlOntology - the ontology to reason over
+	 * @param buffering - <code>true</code> if ontology changes should only be taken into account after calling
+	 *            {@link OWLReasoner#flush()}, allowing reasoners to process a batch of changes incrementally
+	 * @return the created reasoner
+	 * @since 7.21
+	 */
+	static OWLReasoner createReasoner(final String reasonerId, final OWLOntology owlOntology, final boolean buffering) {
 		final IExtensionPoint extensionPoint = Platform.getExtensionRegistry().getExtensionPoint(EXTENSION_POINT_ID);
 		final IExtension[] extensions = extensionPoint.getExtensions();
 
@@ -173,7 +187,9 @@ public final class ReasonerTaxonomyInferrer {
 
 				final OWLReasonerFactory reasonerFactory = reasonerInfo.getReasonerFactory();
 				final OWLReasonerConfiguration reasonerConfiguration = reasonerInfo.getConfiguration(new LoggingProgressMonitor(LOGGER));
-				return reasonerFactory.createNonBufferingReasoner(owlOntology, reasonerConfiguration);
+				return buffering 
+						? reasonerFactory.createReasoner(owlOntology, reasonerConfiguration)
+						: reasonerFactory.createNonBufferingReasoner(owlOntology, reasonerConfiguration);
 			}
 		}
 
@@ -192,58 +208,12 @@ public final class ReasonerTaxonomyInferrer {
 		try {
 			final Stopwatch stopwatch = Stopwatch.createStarted();
 			
-			Deque<Node<OWLClass>> firstLayer = new LinkedList<Node<OWLClass>>();
-			Deque<Node<OWLClass>> secondLayer = new LinkedList<Node<OWLClass>>();
-			final Set<Node<OWLClass>> deferredNodes = newHashSet();
-			
 			reasoner = createReasoner(reasonerId, ontology);
 			if (Boolean.getBoolean(PRECOMPUTE_PROPERTY)) {
 				reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
 			}
 			
-			final NodeSet<OWLClass> initialSubClasses = reasoner.getSubClasses(ontology.getOWLThing(), true);
-			final Set<Node<OWLClass>> initialNodes = initialSubClasses.getNodes();
-			firstLayer.addAll(initialNodes);
-			
-			processedConceptIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(EXPECTED_SIZE);
-			iterationOrder = PrimitiveLists.newLongArrayListWithExpectedSize(EXPECTED_SIZE);
-
-			final InternalIdMap conceptMap = taxonomy.getConceptMap();
-			inferredAncestors = InternalIdEdges.builder(conceptMap);
-			unsatisfiableConcepts = InternalSctIdSet.builder(conceptMap);
-			equivalentConcepts = InternalSctIdMultimap.builder(conceptMap);
-
-			// Breadth-first walk through the class hierarchy
-			while (!firstLayer.isEmpty()) {
-				final Node<OWLClass> current = firstLayer.removeFirst();
-				deferredNodes.remove(current);
-				final NodeSet<OWLClass> nextNodeSet = processNode(current, deferredNodes);
-				final Set<Node<OWLClass>> nextNodes = nextNodeSet.getNodes();
-				secondLayer.addAll(nextNodes);
-			
-				if (firstLayer.isEmpty()) {
-					// Indicate that the previous set of caches can be emptied
-					if (deferredNodes.isEmpty()) {
-						iterationOrder.add(DEPTH_CHANGE);
-					}
-			
-					// Swap the role of the two layers
-					if (!secondLayer.isEmpty()) {
-						Deque<Node<OWLClass>> temp = firstLayer;
-						firstLayer = secondLayer;
-						secondLayer = temp;
-					}
-				}
-			}
-
-			processedConceptIds = null;
-
-			LOGGER.info("<<< Classification and inferred taxonomy extraction [{}]", stopwatch.stop());
-
-			return taxonomy.withInferences(inferredAncestors.build(), 
-					unsatisfiableConcepts.build(), 
-					equivalentConcepts.build(),
-					iterationOrder);
+			return extractInferences(taxonomy, stopwatch);
 			
 		} finally {
 			if (reasoner != null) {
@@ -252,6 +222,79 @@ public final class ReasonerTaxonomyInferrer {
 		}
 	}
 
+	/**
+	 * Extracts inferences using a reasoner managed by the caller (eg. one that is
+	 * kept up to date incrementally between classifications). The reasoner should
+	 * already reflect the contents of the ontology this inferrer was created for,
+	 * and it is not disposed when extraction completes.
+	 * 
+	 * @param taxonomy - the taxonomy to add inferences to
+	 * @param existingReasoner - the reasoner to query for the inferred class hierarchy
+	 * @return a new taxonomy instance with inferences added
+	 * @since 7.21
+	 */
+	public ReasonerTaxonomy addInferences(final ReasonerTaxonomy taxonomy, final OWLReasoner existingReasoner) {
+		LOGGER.info(">>> Classification and inferred taxonomy extraction (using existing reasoner)");
+		
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		reasoner = existingReasoner;
+		try {
+			return extractInferences(taxonomy, stopwatch);
+		} finally {
+			reasoner = null;
+		}
+	}
+
+	private ReasonerTaxonomy extractInferences(final ReasonerTaxonomy taxonomy, final Stopwatch stopwatch) {
+		Deque<Node<OWLClass>> firstLayer = new LinkedList<Node<OWLClass>>();
+		Deque<Node<OWLClass>> secondLayer = new LinkedList<Node<OWLClass>>();
+		final Set<Node<OWLClass>> deferredNodes = newHashSet();
+		
+		final NodeSet<OWLClass> initialSubClasses = reasoner.getSubClasses(ontology.getOWLThing(), true);
+		final Set<Node<OWLClass>> initialNodes = initialSubClasses.getNodes();
+		firstLayer.addAll(initialNodes);
+		
+		processedConceptIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(EXPECTED_SIZE);
+		iterationOrder = PrimitiveLists.newLongArrayListWithExpectedSize(EXPECTED_SIZE);
+
+		final InternalIdMap conceptMap = taxonomy.getConceptMap();
+		inferredAncestors = InternalIdEdges.builder(conceptMap);
+		unsatisfiableConcepts = InternalSctIdSet.builder(conceptMap);
+		equivalentConcepts = InternalSctIdMultimap.builder(conceptMap);
+
+		// Breadth-first walk through the class hierarchy
+		while (!firstLayer.isEmpty()) {
+			final Node<OWLClass> current = firstLayer.removeFirst();
+			deferredNodes.remove(current);
+			final NodeSet<OWLClass> nextNodeSet = processNode(current, deferredNodes);
+			final Set<Node<OWLClass>> nextNodes = nextNodeSet.getNodes();
+			secondLayer.addAll(nextNodes);
+		
+			if (firstLayer.isEmpty()) {
+				// Indicate that the previous set of caches can be emptied
+				if (deferredNodes.isEmpty()) {
+					iterationOrder.add(DEPTH_CHANGE);
+				}
+		
+				// Swap the role of the two layers
+				if (!secondLayer.isEmpty()) {
+					Deque<Node<OWLClass>> temp = firstLayer;
+					firstLayer = secondLayer;
+					secondLayer = temp;
+				}
+			}
+		}
+
+		processedConceptIds = null;
+
+		LOGGER.info("<<< Classification and inferred taxonomy extraction [{}]", stopwatch.stop());
+
+		return taxonomy.withInferences(inferredAncestors.build(), 
+				unsatisfiableConcepts.build(), 
+				equivalentConcepts.build(),
+				iterationOrder);
+	}
+
 	private NodeSet<OWLClass> processNode(final Node<OWLClass> node, Set<Node<OWLClass>> deferredNodes) {
 
 		// Stop the walk if the node has already been visited
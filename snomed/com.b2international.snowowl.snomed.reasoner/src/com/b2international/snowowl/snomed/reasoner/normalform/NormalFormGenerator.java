@@ -1,6 +1,6 @@
 /*
  * Copyright 2009-2017 International Health Terminology Standards Development Organisation
- * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@
  */
 package com.b2international.snowowl.snomed.reasoner.normalform;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
@@ -26,6 +28,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -33,6 +37,7 @@ import org.eclipse.core.runtime.SubMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
 import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
@@ -73,20 +78,43 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private static final Logger LOGGER = LoggerFactory.getLogger(NormalFormGenerator.class);
 	private static final long IS_A = Long.parseLong(Concepts.IS_A);
 
+	// Layers smaller than this are processed on the calling thread
+	private static final int MIN_PARALLEL_BATCH_SIZE = 64;
+
 	private final ReasonerTaxonomy reasonerTaxonomy;
+	private final int parallelism;
 	private final LongKeyMap<Collection<StatementFragment>> statementCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final LongKeyMap<Collection<ConcreteDomainFragment>> concreteDomainCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final Map<Long, NodeGraph> transitiveNodeGraphs = newHashMap();
 	
 	/**
-	 * Creates a new distribution normal form generator instance.
+	 * Creates a new distribution normal form generator instance that processes
+	 * concepts sequentially.
 	 *
 	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
 	 *                         the reasoner, as well as the pre-classification
 	 *                         contents of the branch (may not be {@code null})
 	 */
 	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy) {
+		this(reasonerTaxonomy, 1);
+	}
+
+	/**
+	 * Creates a new distribution normal form generator instance.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param parallelism      the number of threads to use when computing the
+	 *                         normal form of concepts on the same hierarchy
+	 *                         level on the shared common fork-join pool;
+	 *                         {@code 1} processes concepts sequentially
+	 * @since 7.21
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final int parallelism) {
+		checkArgument(parallelism > 0, "Parallelism should be positive, got %s.", parallelism);
 		this.reasonerTaxonomy = reasonerTaxonomy;
+		this.parallelism = parallelism;
 	}
 
 	@Override
@@ -95,16 +123,13 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			final OntologyChangeProcessor<ConcreteDomainFragment> concreteDomainProcessor) {
 
 		final Stopwatch stopwatch = Stopwatch.createStarted();
-		LOGGER.info(">>> Distribution normal form generation");
+		LOGGER.info(">>> Distribution normal form generation (parallelism: {})", parallelism);
 
 		final LongList entries = reasonerTaxonomy.getIterationOrder();
 		final SubMonitor subMonitor = SubMonitor.convert(monitor, "Generating distribution normal form...", entries.size() * 2);
 
 		try {
 
-			LongSet previousLayer = null;
-			LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
-			
 			final Set<Long> graphTypeIds = reasonerTaxonomy.getPropertyChains()
 					.stream()
 					.map(PropertyChain::getDestinationType)
@@ -121,21 +146,7 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			
 
 				// Round 1: build alternative hierarchies
-				for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-					final long conceptId = itr.next();
-	
-					if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-						if (previousLayer != null) {
-							invalidate(previousLayer);
-						}
-	
-						previousLayer = currentLayer;
-						currentLayer = PrimitiveSets.newLongOpenHashSet();
-						continue;
-					}
-	
-					precomputeProperties(conceptId, false);
-					
+				computeLayers(entries, false, conceptId -> {
 					final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
 					inferredNonIsAFragments.stream()
 						.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
@@ -143,11 +154,9 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 						.map(StatementFragmentWithDestination.class::cast)
 						.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
 								.addParent(conceptId, r.getDestinationId()));
-				}
+				});
 				
 				// Clear the last layer of concepts
-				previousLayer = null;
-				currentLayer = PrimitiveSets.newLongOpenHashSet();
 				statementCache.clear();
 				concreteDomainCache.clear();
 				
@@ -157,23 +166,8 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		
 			LOGGER.info("--- Use node graphs for hierarchy computation");
 			
-			// Round 2: record changes using the hierarchies
-			for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-				final long conceptId = itr.next();
-
-				if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-					if (previousLayer != null) {
-						invalidate(previousLayer);
-					}
-
-					previousLayer = currentLayer;
-					currentLayer = PrimitiveSets.newLongOpenHashSet();
-					continue;
-				}
-
-				// Run costly comparison of property chain hierarchies only if there are any
-				precomputeProperties(conceptId, propertyChainsPresent);
-
+			// Round 2: record changes using the hierarchies; run costly comparison of property chain hierarchies only if there are any
+			computeLayers(entries, propertyChainsPresent, conceptId -> {
 				final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
 				final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
 				statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
@@ -181,7 +175,7 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				final Collection<ConcreteDomainFragment> existingMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(Long.toString(conceptId));
 				final Collection<ConcreteDomainFragment> targetMembers = getTargetMembers(conceptId);
 				concreteDomainProcessor.apply(conceptId, existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE, subMonitor.newChild(1));
-			}
+			});
 
 		} finally {
 			subMonitor.done();
@@ -189,6 +183,106 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		}
 	}
 
+	/**
+	 * Walks through the iteration order and computes the target properties of
+	 * concepts in batches. A batch ends at each depth change, or when a concept
+	 * would depend on the result of another concept in the same batch, so the
+	 * target properties of all concepts in a batch can be computed independently
+	 * of each other (in parallel, if enabled), reading only the cached
+	 * results of previous batches.
+	 * <p>
+	 * Results are placed in the caches and reported to the given callback on the
+	 * calling thread, in iteration order.
+	 */
+	private void computeLayers(final LongList entries, final boolean useNodeGraphs, final LongConsumer onComputed) {
+		LongSet previousLayer = null;
+		LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
+		final LongList batch = PrimitiveLists.newLongArrayList();
+		final LongSet batchIds = PrimitiveSets.newLongOpenHashSet();
+
+		for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				computeBatch(batch, useNodeGraphs, onComputed);
+				batchIds.clear();
+
+				if (previousLayer != null) {
+					invalidate(previousLayer);
+				}
+
+				previousLayer = currentLayer;
+				currentLayer = PrimitiveSets.newLongOpenHashSet();
+				continue;
+			}
+
+			// Deferred concepts may appear in the same layer as their parents
+			if (containsAny(batchIds, reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true))) {
+				computeBatch(batch, useNodeGraphs, onComputed);
+				batchIds.clear();
+			}
+
+			batch.add(conceptId);
+			batchIds.add(conceptId);
+		}
+
+		computeBatch(batch, useNodeGraphs, onComputed);
+	}
+
+	private static boolean containsAny(final LongSet ids, final LongSet candidates) {
+		if (ids.isEmpty()) {
+			return false;
+		}
+
+		for (final LongIterator itr = candidates.iterator(); itr.hasNext(); /* empty */) {
+			if (ids.contains(itr.next())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void computeBatch(final LongList batch, final boolean useNodeGraphs, final LongConsumer onComputed) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		final long[] conceptIds = batch.toArray();
+		final TargetProperties[] results = new TargetProperties[conceptIds.length];
+
+		if (parallelism == 1 || conceptIds.length < MIN_PARALLEL_BATCH_SIZE) {
+			for (int i = 0; i < conceptIds.length; i++) {
+				results[i] = computeTargetProperties(conceptIds[i], useNodeGraphs);
+			}
+		} else {
+			// One chunk per thread, so a run never occupies more than "parallelism" workers of the shared common pool
+			final int chunkSize = (conceptIds.length + parallelism - 1) / parallelism;
+			final List<ForkJoinTask<?>> chunks = newArrayList();
+			for (int start = 0; start < conceptIds.length; start += chunkSize) {
+				final int from = start;
+				final int to = Math.min(start + chunkSize, conceptIds.length);
+				chunks.add(ForkJoinTask.adapt(() -> {
+					for (int i = from; i < to; i++) {
+						results[i] = computeTargetProperties(conceptIds[i], useNodeGraphs);
+					}
+				}));
+			}
+			
+			// Caches are only read while the batch is being computed
+			ForkJoinTask.invokeAll(chunks);
+		}
+
+		// Extract results; place them in the cache, so following concepts can re-use it
+		for (int i = 0; i < conceptIds.length; i++) {
+			statementCache.put(conceptIds[i], results[i].statements);
+			concreteDomainCache.put(conceptIds[i], results[i].members);
+			onComputed.accept(conceptIds[i]);
+		}
+
+		batch.clear();
+	}
+
 	/**
 	 * Indicates that the breadth-first iteration has reached a new level in the tree.
 	 * Generators are free to drop caches associated with components in the previous
@@ -201,7 +295,7 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		concreteDomainCache.keySet().removeAll(keysToInvalidate);
 	}
 
-	private void precomputeProperties(final long conceptId, final boolean useNodeGraphs) {
+	private TargetProperties computeTargetProperties(final long conceptId, final boolean useNodeGraphs) {
 		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
 
 		/*
@@ -263,9 +357,8 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				candidateMembers,
 				useNodeGraphs);
 
-		// Extract results; place them in the cache, so following concepts can re-use it
-		statementCache.put(conceptId, ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)));
-		concreteDomainCache.put(conceptId, ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
+		return new TargetProperties(ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)), 
+				ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
 	}
 
 	private NormalFormGroupSet getTargetGroupSet(final long conceptId,
@@ -555,4 +648,15 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private Collection<ConcreteDomainFragment> getTargetMembers(final long conceptId) {
 		return concreteDomainCache.get(conceptId);
 	}
+
+	private static final class TargetProperties {
+
+		private final Collection<StatementFragment> statements;
+		private final Collection<ConcreteDomainFragment> members;
+
+		TargetProperties(final Collection<StatementFragment> statements, final Collection<ConcreteDomainFragment> members) {
+			this.statements = statements;
+			this.members = members;
+		}
+	}
 }
@@ -41,8 +41,12 @@ import org.semanticweb.owlapi.vocab.OWL2Datatype;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.core.domain.RelationshipValueType;
@@ -316,13 +320,11 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	private final class FunctionalSyntaxAxiomIterator extends AbstractIterator<OWLLogicalAxiom> {
 		
 		private final Iterator<String> axiomIterator;
-		private final OWLOntologyLoaderConfiguration configuration;
-		private final SingleAxiomOwlOntology singleAxiomOntology;
+		private final FunctionalSyntaxAxiomParser parser;
 		
 		public FunctionalSyntaxAxiomIterator(final Stream<String> axiomStream) {
 			this.axiomIterator = axiomStream.iterator();
-			this.configuration = new OWLOntologyLoaderConfiguration();
-			this.singleAxiomOntology = new SingleAxiomOwlOntology(getOWLOntologyManager());
+			this.parser = new FunctionalSyntaxAxiomParser();
 		}
 
 		@Override
@@ -331,8 +333,21 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 				return endOfData();
 			}
 			
-			final String axiomString = axiomIterator.next();
-			
+			return parser.parse(axiomIterator.next());
+		}
+	}
+	
+	private final class FunctionalSyntaxAxiomParser {
+		
+		private final OWLOntologyLoaderConfiguration configuration;
+		private final SingleAxiomOwlOntology singleAxiomOntology;
+		
+		public FunctionalSyntaxAxiomParser() {
+			this.configuration = new OWLOntologyLoaderConfiguration();
+			this.singleAxiomOntology = new SingleAxiomOwlOntology(getOWLOntologyManager());
+		}
+		
+		public OWLLogicalAxiom parse(final String axiomString) {
 			try {
 				
 				final OWLOntologyDocumentSource singleAxiomOntologySource = new StringDocumentSource(PARSED_ONTOLOGY_START + axiomString + PARSED_ONTOLOGY_END);
@@ -601,6 +616,70 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 		}
 	}
 
+	/**
+	 * Returns the axioms of the given concepts, grouped by the concept they were generated for. The union of all
+	 * groups is equal to the axiom set returned by {@link #getAxioms()}; concepts not in the ontology have no group.
+	 * 
+	 * @param conceptIds - the concepts to return axioms for
+	 * @return the axioms of each concept
+	 */
+	public LongKeyMap<List<OWLAxiom>> getConceptAxioms(final LongSet conceptIds) {
+		final LongKeyMap<List<OWLAxiom>> axiomsByConcept = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(conceptIds.size());
+		final LongSet objectAttributeIds = getAllSubTypes(objectAttributeId);
+		final LongSet dataAttributeIds = getAllSubTypes(dataAttributeId);
+		final FunctionalSyntaxAxiomParser parser = new FunctionalSyntaxAxiomParser();
+		
+		for (final LongIterator itr = conceptIds.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (!taxonomy.getConceptMap().containsKey(conceptId)) {
+				continue;
+			}
+			
+			final LongList singleId = PrimitiveLists.newLongArrayList(conceptId);
+			final List<OWLAxiom> axioms = new ArrayList<>();
+			
+			if (hasFsns()) {
+				Iterators.addAll(axioms, new AnnotationAssertionAxiomIterator(singleId.iterator(), getRDFSLabel(), this::getConceptFsnLiteral));
+			}
+			
+			for (final String axiom : taxonomy.getAxioms().get(conceptId)) {
+				axioms.add(parser.parse(axiom));
+			}
+			
+			Iterators.addAll(axioms, conceptDefinitionAxioms(singleId.iterator()));
+			
+			if (objectAttributeIds.contains(conceptId)) {
+				Iterators.addAll(axioms, new SubPropertyOfAxiomIterator<>(singleId.iterator(), this::getConceptObjectProperty, this::getOWLSubObjectPropertyOfAxiom));
+				Iterators.addAll(axioms, new SubClassOfAxiomIterator(singleId.iterator()));
+			}
+			
+			if (dataAttributeIds.contains(conceptId)) {
+				Iterators.addAll(axioms, new SubPropertyOfAxiomIterator<>(singleId.iterator(), this::getConceptDataProperty, this::getOWLSubDataPropertyOfAxiom));
+				Iterators.addAll(axioms, new SubClassOfAxiomIterator(singleId.iterator()));
+			}
+			
+			if (taxonomy.getExhaustiveConcepts().contains(conceptId)) {
+				Iterators.addAll(axioms, new DisjointUnionAxiomIterator(singleId.iterator()));
+			}
+			
+			axiomsByConcept.put(conceptId, axioms);
+		}
+		
+		return axiomsByConcept;
+	}
+	
+	/**
+	 * @return the IDs of concepts with axioms that also depend on the stated parents of other concepts (members of
+	 *         the attribute hierarchies and exhaustive concepts)
+	 */
+	public LongSet getHierarchyDependentConceptIds() {
+		final LongSet conceptIds = PrimitiveSets.newLongOpenHashSet();
+		conceptIds.addAll(getAllSubTypes(objectAttributeId));
+		conceptIds.addAll(getAllSubTypes(dataAttributeId));
+		conceptIds.addAll(taxonomy.getExhaustiveConcepts().toLongList());
+		return conceptIds;
+	}
+
 	/////////////////////////////////
 	// Annotation assertion axioms
 	/////////////////////////////////
@@ -626,6 +705,10 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	///////////////////////////////
 	
 	private Iterator<OWLClassAxiom> conceptDefinitionAxioms() {
+		return conceptDefinitionAxioms(conceptIdIterator());
+	}
+	
+	private Iterator<OWLClassAxiom> conceptDefinitionAxioms(final LongIterator idIterator) {
 		final LongPredicate hasStatedRelationship = conceptId -> !taxonomy.getStatedRelationships()
 			.get(conceptId)
 			.isEmpty();
@@ -633,7 +716,7 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 		final LongPredicate isFullyDefined = conceptId -> taxonomy.getDefiningConcepts()
 			.contains(conceptId);
 		
-		return new ConceptAxiomIterator(conceptIdIterator(), 
+		return new ConceptAxiomIterator(idIterator, 
 			hasStatedRelationship, 
 			isFullyDefined, 
 			taxonomy.getStatedRelationships());
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2022 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.request;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.b2international.snowowl.core.date.EffectiveTimes;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.TransactionContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.exceptions.ComponentNotFoundException;
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.cis.action.IdActionRecorder;
+import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
+import com.b2international.snowowl.snomed.core.store.SnomedComponents;
+import com.b2international.snowowl.snomed.datastore.SnomedRefSetUtil;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.request.IdRequest;
+import com.b2international.snowowl.snomed.datastore.request.IdReservingRequest;
+import com.b2international.snowowl.snomed.reasoner.domain.ReasonerConcreteDomainMember;
+import com.b2international.snowowl.snomed.reasoner.domain.ReasonerRelationship;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Multimaps;
+
+/**
+ * Stages inferred relationship and concrete domain member changes of a classification directly as index documents,
+ * without creating individual component create, update and delete requests for them. All referenced concepts and
+ * changed components are fetched in bulk, and relationship identifiers are reserved with a single call per namespace.
+ * <p>
+ * Must be wrapped in an {@link IdRequest}, which reserves relationship identifiers before the commit is started. Module
+ * and namespace assignment is expected to happen before changes are registered.
+ *
+ * @since 7.21
+ */
+final class ClassificationChangeStagingRequest implements Request<TransactionContext, Boolean>, IdReservingRequest {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<NewRelationship> newRelationships = newArrayList();
+	private final List<ComponentUpdate> relationshipUpdates = newArrayList();
+	private final List<ComponentRemoval> relationshipRemovals = newArrayList();
+
+	private final List<NewMember> newMembers = newArrayList();
+	private final List<ComponentUpdate> memberUpdates = newArrayList();
+	private final List<ComponentRemoval> memberRemovals = newArrayList();
+
+	private final Set<String> requiredConceptIds = newHashSet();
+
+	// Relationship identifiers reserved by namespace, populated by reserveIds
+	private final Map<String, Set<String>> reservedRelationshipIds = newHashMap();
+
+	void addRelationship(final ReasonerRelationship relationship, final String moduleId, final String namespace) {
+		newRelationships.add(new NewRelationship(relationship, moduleId, namespace));
+		requiredConceptIds.add(moduleId);
+		requiredConceptIds.add(relationship.getSourceId());
+		requiredConceptIds.add(relationship.getTypeId());
+		requiredConceptIds.add(relationship.getCharacteristicTypeId());
+		requiredConceptIds.add(relationship.getModifierId());
+		if (relationship.getDestinationId() != null) {
+			requiredConceptIds.add(relationship.getDestinationId());
+		}
+	}
+
+	void updateRelationship(final String relationshipId, final String moduleId, final int group) {
+		relationshipUpdates.add(new ComponentUpdate(relationshipId, moduleId, group, null));
+		requiredConceptIds.add(moduleId);
+	}
+
+	void removeOrDeactivateRelationship(final String relationshipId, final boolean released, final String moduleId) {
+		relationshipRemovals.add(new ComponentRemoval(relationshipId, released, moduleId));
+		if (released) {
+			requiredConceptIds.add(moduleId);
+		}
+	}
+
+	void addMember(final ReasonerConcreteDomainMember member, final String moduleId) {
+		newMembers.add(new NewMember(member, moduleId));
+		requiredConceptIds.add(moduleId);
+		requiredConceptIds.add(member.getReferencedComponentId());
+		requiredConceptIds.add(member.getReferenceSetId());
+		requiredConceptIds.add(member.getTypeId());
+		requiredConceptIds.add(member.getCharacteristicTypeId());
+	}
+
+	void updateMember(final String memberId, final String moduleId, final String serializedValue) {
+		memberUpdates.add(new ComponentUpdate(memberId, moduleId, null, serializedValue));
+		requiredConceptIds.add(moduleId);
+	}
+
+	void removeOrDeactivateMember(final String memberId, final boolean released, final String moduleId) {
+		memberRemovals.add(new ComponentRemoval(memberId, released, moduleId));
+		if (released) {
+			requiredConceptIds.add(moduleId);
+		}
+	}
+
+	/**
+	 * @return the number of changes registered in this request
+	 */
+	int size() {
+		return newRelationships.size()
+				+ relationshipUpdates.size()
+				+ relationshipRemovals.size()
+				+ newMembers.size()
+				+ memberUpdates.size()
+				+ memberRemovals.size();
+	}
+
+	@Override
+	public void reserveIds(final BranchContext context, final IdActionRecorder recorder) {
+		final ImmutableListMultimap<String, NewRelationship> relationshipsByNamespace = getRelationshipsByNamespace();
+		for (final String namespace : relationshipsByNamespace.keySet()) {
+			final int quantity = relationshipsByNamespace.get(namespace).size();
+			reservedRelationshipIds.put(namespace, IdRequest.reserveUniqueIds(context, recorder, ComponentCategory.RELATIONSHIP, quantity, namespace));
+		}
+	}
+
+	@Override
+	public Boolean execute(final TransactionContext context) {
+		try {
+
+			// Fetch all referenced concepts in one go; builders will find them in the context's cache afterwards
+			final Map<String, SnomedConceptDocument> concepts = context.lookup(requiredConceptIds, SnomedConceptDocument.class);
+			for (final String conceptId : requiredConceptIds) {
+				if (!concepts.containsKey(conceptId)) {
+					throw new ComponentNotFoundException(ComponentCategory.CONCEPT, conceptId);
+				}
+			}
+
+			stageNewRelationships(context);
+			stageRelationshipUpdates(context);
+			stageRelationshipRemovals(context);
+			stageNewMembers(context);
+			stageMemberUpdates(context);
+			stageMemberRemovals(context);
+
+		} catch (final ComponentNotFoundException e) {
+			throw e.toBadRequestException();
+		}
+
+		return Boolean.TRUE;
+	}
+
+	private void stageNewRelationships(final TransactionContext context) {
+		final ImmutableListMultimap<String, NewRelationship> relationshipsByNamespace = getRelationshipsByNamespace();
+
+		for (final String namespace : relationshipsByNamespace.keySet()) {
+			final Set<String> relationshipIds = reservedRelationshipIds.get(namespace);
+			checkState(relationshipIds != null, "Relationship ids for namespace '%s' have not been reserved.", namespace);
+			final Iterator<String> idsToUse = Iterators.consumingIterator(relationshipIds.iterator());
+
+			for (final NewRelationship newRelationship : relationshipsByNamespace.get(namespace)) {
+				final ReasonerRelationship relationship = newRelationship.relationship;
+				context.add(SnomedComponents.newRelationship()
+						.withId(idsToUse.next())
+						.withActive(true)
+						.withModuleId(newRelationship.moduleId)
+						.withSourceId(relationship.getSourceId())
+						.withTypeId(relationship.getTypeId())
+						.withDestinationId(relationship.getDestinationId())
+						.withDestinationNegated(Boolean.TRUE.equals(relationship.isDestinationNegated()))
+						.withValue(relationship.getValueAsObject())
+						.withGroup(relationship.getGroup())
+						.withUnionGroup(relationship.getUnionGroup())
+						.withCharacteristicTypeId(relationship.getCharacteristicTypeId())
+						.withModifierId(relationship.getModifierId())
+						.build(context));
+			}
+
+			checkState(!idsToUse.hasNext(), "More SNOMED CT ids have been requested than used.");
+		}
+	}
+
+	private ImmutableListMultimap<String, NewRelationship> getRelationshipsByNamespace() {
+		return Multimaps.index(newRelationships, r -> r.namespace == null ? SnomedIdentifiers.INT_NAMESPACE : r.namespace);
+	}
+
+	private void stageRelationshipUpdates(final TransactionContext context) {
+		final Map<String, SnomedRelationshipIndexEntry> relationshipsById = context.lookup(getIds(relationshipUpdates), SnomedRelationshipIndexEntry.class);
+
+		for (final ComponentUpdate update : relationshipUpdates) {
+			final SnomedRelationshipIndexEntry relationship = relationshipsById.get(update.componentId);
+			if (relationship == null) {
+				throw new ComponentNotFoundException(ComponentCategory.RELATIONSHIP, update.componentId);
+			}
+
+			final SnomedRelationshipIndexEntry.Builder updatedRelationship = SnomedRelationshipIndexEntry.builder(relationship);
+			boolean changed = false;
+
+			if (!update.moduleId.equals(relationship.getModuleId())) {
+				updatedRelationship.moduleId(update.moduleId);
+				changed = true;
+			}
+
+			if (!update.group.equals(relationship.getGroup())) {
+				updatedRelationship.group(update.group);
+				changed = true;
+			}
+
+			if (changed) {
+				updatedRelationship.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME);
+				context.update(relationship, updatedRelationship.build());
+			}
+		}
+	}
+
+	private void stageRelationshipRemovals(final TransactionContext context) {
+		final Map<String, SnomedRelationshipIndexEntry> relationshipsById = context.lookup(getIds(relationshipRemovals), SnomedRelationshipIndexEntry.class);
+
+		for (final ComponentRemoval removal : relationshipRemovals) {
+			final SnomedRelationshipIndexEntry relationship = relationshipsById.get(removal.componentId);
+			if (relationship == null) {
+				// probably already deleted
+				continue;
+			}
+
+			if (!removal.released) {
+				context.delete(relationship);
+				continue;
+			}
+
+			if (relationship.isActive() || !removal.moduleId.equals(relationship.getModuleId())) {
+				context.update(relationship, SnomedRelationshipIndexEntry.builder(relationship)
+						.active(false)
+						.moduleId(removal.moduleId)
+						.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME)
+						.build());
+			}
+		}
+	}
+
+	private void stageNewMembers(final TransactionContext context) {
+		for (final NewMember newMember : newMembers) {
+			final ReasonerConcreteDomainMember member = newMember.member;
+			SnomedComponents.newConcreteDomainReferenceSetMember()
+					.withActive(true)
+					.withCharacteristicTypeId(member.getCharacteristicTypeId())
+					.withGroup(member.getGroup())
+					.withModuleId(newMember.moduleId)
+					.withReferencedComponent(member.getReferencedComponentId())
+					.withRefSet(member.getReferenceSetId())
+					.withSerializedValue(member.getSerializedValue())
+					.withTypeId(member.getTypeId())
+					.addTo(context);
+		}
+	}
+
+	private void stageMemberUpdates(final TransactionContext context) {
+		final Map<String, SnomedRefSetMemberIndexEntry> membersById = context.lookup(getIds(memberUpdates), SnomedRefSetMemberIndexEntry.class);
+
+		for (final ComponentUpdate update : memberUpdates) {
+			final SnomedRefSetMemberIndexEntry member = membersById.get(update.componentId);
+			if (member == null) {
+				throw new ComponentNotFoundException(ComponentCategory.SET_MEMBER, update.componentId);
+			}
+
+			final SnomedRefSetMemberIndexEntry.Builder updatedMember = SnomedRefSetMemberIndexEntry.builder(member);
+			boolean changed = false;
+
+			if (!update.moduleId.equals(member.getModuleId())) {
+				updatedMember.moduleId(update.moduleId);
+				changed = true;
+			}
+
+			if (!update.serializedValue.equals(SnomedRefSetUtil.serializeValue(member.getDataType(), member.getValue()))) {
+				updatedMember.field(SnomedRf2Headers.FIELD_VALUE, update.serializedValue);
+				changed = true;
+			}
+
+			if (changed) {
+				updatedMember.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME);
+				context.update(member, updatedMember.build());
+			}
+		}
+	}
+
+	private void stageMemberRemovals(final TransactionContext context) {
+		final Map<String, SnomedRefSetMemberIndexEntry> membersById = context.lookup(getIds(memberRemovals), SnomedRefSetMemberIndexEntry.class);
+
+		for (final ComponentRemoval removal : memberRemovals) {
+			final SnomedRefSetMemberIndexEntry member = membersById.get(removal.componentId);
+			if (member == null) {
+				// probably already deleted
+				continue;
+			}
+
+			if (!removal.released) {
+				context.delete(member);
+				continue;
+			}
+
+			if (member.isActive() || !removal.moduleId.equals(member.getModuleId())) {
+				context.update(member, SnomedRefSetMemberIndexEntry.builder(member)
+						.active(false)
+						.moduleId(removal.moduleId)
+						.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME)
+						.build());
+			}
+		}
+	}
+
+	private static Set<String> getIds(final List<? extends ComponentChange> changes) {
+		final Set<String> ids = newHashSet();
+		changes.forEach(change -> ids.add(change.componentId));
+		return ids;
+	}
+
+	private static final class NewRelationship {
+
+		private final ReasonerRelationship relationship;
+		private final String moduleId;
+		private final String namespace;
+
+		NewRelationship(final ReasonerRelationship relationship, final String moduleId, final String namespace) {
+			this.relationship = relationship;
+			this.moduleId = moduleId;
+			this.namespace = namespace;
+		}
+	}
+
+	private static final class NewMember {
+
+		private final ReasonerConcreteDomainMember member;
+		private final String moduleId;
+
+		NewMember(final ReasonerConcreteDomainMember member, final String moduleId) {
+			this.member = member;
+			this.moduleId = moduleId;
+		}
+	}
+
+	private static abstract class ComponentChange {
+
+		protected final String componentId;
+		protected final String moduleId;
+
+		ComponentChange(final String componentId, final String moduleId) {
+			this.componentId = componentId;
+			this.moduleId = moduleId;
+		}
+	}
+
+	private static final class ComponentUpdate extends ComponentChange {
+
+		// Relationship group for relationships, serialized value for concrete domain members
+		private final Integer group;
+		private final String serializedValue;
+
+		ComponentUpdate(final String componentId, final String moduleId, final Integer group, final String serializedValue) {
+			super(componentId, moduleId);
+			this.group = group;
+			this.serializedValue = serializedValue;
+		}
+	}
+
+	private static final class ComponentRemoval extends ComponentChange {
+
+		private final boolean released;
+
+		ComponentRemoval(final String componentId, final boolean released, final String moduleId) {
+			super(componentId, moduleId);
+			this.released = released;
+		}
+	}
+}
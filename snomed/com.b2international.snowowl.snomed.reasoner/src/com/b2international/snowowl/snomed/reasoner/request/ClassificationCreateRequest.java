@@ -30,6 +30,7 @@ import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.jobs.JobRequests;
+import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationSchedulingRule;
@@ -110,6 +111,7 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 				.setRequest(jobRequest)
 				.setDescription(String.format("Classifying the ontology on %s", branch.path()))
 				.setSchedulingRule(rule)
+				.setPriority(IEventBus.PRIORITY_BATCH)
 				.buildAsync()
 				.get(context, SCHEDULE_TIMEOUT_MILLIS);
 		
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.snomed.reasoner.request;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -32,6 +33,8 @@ import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.exceptions.LockedException;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.authorization.BranchAccessControl;
@@ -50,6 +53,8 @@ import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfigurati
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerSessionManager;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCache;
 import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
 import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
 import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
@@ -121,16 +126,22 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 			final String classificationId, 
 			final ClassificationTracker tracker) {
 		
-		final RevisionSearcher revisionSearcher = context.service(RevisionSearcher.class);
 		final SnomedCoreConfiguration configuration = context.service(SnomedCoreConfiguration.class);
+		final Set<String> excludedModuleIds = configuration.getReasonerExcludedModuleIds();
 		final boolean concreteDomainSupported = configuration.isConcreteDomainSupported();
-
-		final ReasonerTaxonomy taxonomy;
-		try (Locks locks = Locks.on(context).lock(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext)) {
-			taxonomy = buildTaxonomy(revisionSearcher, context.service(SnomedCoreConfiguration.class).getReasonerExcludedModuleIds(), concreteDomainSupported);
-		} catch (final LockedException e) {
-			throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
-		}
+		final Supplier<ReasonerTaxonomy> taxonomySupplier = () -> buildTaxonomy(context, 
+				excludedModuleIds, 
+				concreteDomainSupported, 
+				configuration.getTaxonomyScanThreads());
+
+		// Taxonomies including additional (transient) concept definitions are never cached
+		final Optional<ReasonerTaxonomyCache> taxonomyCache = additionalConcepts.isEmpty() 
+				? context.optionalService(ReasonerTaxonomyCache.class) 
+				: Optional.empty();
+		
+		final ReasonerTaxonomy taxonomy = taxonomyCache
+				.map(cache -> cache.get(context, excludedModuleIds, concreteDomainSupported, taxonomySupplier))
+				.orElseGet(taxonomySupplier);
 		
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
 		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
@@ -139,9 +150,13 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		try {
 
 			final DelegateOntology ontology = (DelegateOntology) ontologyManager.createOntology(ontologyIRI);
-			final ReasonerTaxonomyInferrer inferrer = new ReasonerTaxonomyInferrer(reasonerId, ontology, context);
-			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy);
-			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy);
+			final LongSet additionalConceptIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(additionalConcepts.size());
+			additionalConcepts.forEach(concept -> additionalConceptIds.add(Long.parseLong(concept.getId())));
+			
+			final ReasonerTaxonomy inferredTaxonomy = context.optionalService(ReasonerSessionManager.class)
+					.map(sessions -> sessions.addInferences(context, reasonerId, ontology, taxonomy, additionalConceptIds))
+					.orElseGet(() -> new ReasonerTaxonomyInferrer(reasonerId, ontology, context).addInferences(taxonomy));
+			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, configuration.getNormalFormThreads());
 			
 			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
 
@@ -152,26 +167,40 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		}
 	}
 
-	private ReasonerTaxonomy buildTaxonomy(final RevisionSearcher revisionSearcher, final Set<String> excludedModuleIds, final boolean concreteDomainSupported) {
+	private ReasonerTaxonomy buildTaxonomy(final BranchContext context, 
+			final Set<String> excludedModuleIds, 
+			final boolean concreteDomainSupported, 
+			final int scanThreads) {
+		
+		final ReasonerTaxonomyBuilder taxonomyBuilder;
+		// The lock is only needed while reading the index, in-memory contributions are added after releasing it
+		try (Locks locks = Locks.on(context).lock(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext)) {
+			taxonomyBuilder = scanTaxonomy(context.service(RevisionSearcher.class), 
+					excludedModuleIds, 
+					concreteDomainSupported, 
+					scanThreads);
+		} catch (final LockedException e) {
+			throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
+		}
+		
+		return addAdditionalDefinitions(taxonomyBuilder, concreteDomainSupported);
+	}
+
+	private ReasonerTaxonomyBuilder scanTaxonomy(final RevisionSearcher revisionSearcher, 
+			final Set<String> excludedModuleIds, 
+			final boolean concreteDomainSupported, 
+			final int scanThreads) {
+		
 		final ReasonerTaxonomyBuilder taxonomyBuilder = new ReasonerTaxonomyBuilder(excludedModuleIds);
 		
 		taxonomyBuilder.addActiveConceptIds(revisionSearcher);
 		taxonomyBuilder.addActiveConceptIds(additionalConcepts.stream());
 		taxonomyBuilder.finishConcepts();
 		
-		taxonomyBuilder.addConceptFlags(revisionSearcher);
-		taxonomyBuilder.addActiveStatedEdges(revisionSearcher);
-		taxonomyBuilder.addActiveStatedRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveInferredRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveAdditionalGroupedRelationships(revisionSearcher);
-		
-		taxonomyBuilder.addNeverGroupedTypeIds(revisionSearcher);
-		taxonomyBuilder.addActiveAxioms(revisionSearcher);
-
-		if (concreteDomainSupported) {
-			taxonomyBuilder.addActiveConcreteDomainMembers(revisionSearcher);
-		}
+		return taxonomyBuilder.addActiveComponents(revisionSearcher, concreteDomainSupported, scanThreads);
+	}
 
+	private ReasonerTaxonomy addAdditionalDefinitions(final ReasonerTaxonomyBuilder taxonomyBuilder, final boolean concreteDomainSupported) {
 		// Add the extra definitions
 		taxonomyBuilder.addConceptFlags(additionalConcepts.stream());
 
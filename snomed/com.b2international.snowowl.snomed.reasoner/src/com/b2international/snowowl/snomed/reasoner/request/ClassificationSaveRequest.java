@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.jobs.JobRequests;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
+import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationStatus;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationTask;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -80,6 +81,8 @@ final class ClassificationSaveRequest implements Request<RepositoryContext, Stri
 
 	private boolean handleConcreteDomains;
 
+	// @Nullable
+	private Boolean directStaging;
 
 	ClassificationSaveRequest() {}
 	
@@ -119,6 +122,10 @@ final class ClassificationSaveRequest implements Request<RepositoryContext, Stri
 		this.handleConcreteDomains = handleConcreteDomains;
 	}
 
+	void setDirectStaging(final Boolean directStaging) {
+		this.directStaging = directStaging;
+	}
+
 	@Override
 	public String execute(final RepositoryContext context) {
 		final Request<RepositoryContext, ClassificationTask> classificationRequest = ClassificationRequests
@@ -158,12 +165,14 @@ final class ClassificationSaveRequest implements Request<RepositoryContext, Stri
 				.setAssignerType(assignerType)
 				.setFixEquivalences(fixEquivalences)
 				.setHandleConcreteDomains(handleConcreteDomains)
+				.setDirectStaging(directStaging)
 				.build(context.id(), branchPath);
 
 		return JobRequests.prepareSchedule()
 				.setUser(userId)
 				.setRequest(saveRequest)
 				.setDescription(String.format("Saving classification changes on %s", branch.path()))
+				.setPriority(IEventBus.PRIORITY_BATCH)
 				.buildAsync()
 				.get(context, SCHEDULE_TIMEOUT_MILLIS);
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ public final class ClassificationSaveRequestBuilder
 	private String assignerType = null;
 	private boolean fixEquivalences = true;
 	private boolean handleConcreteDomains = true;
+	private Boolean directStaging = null;
 	
 	ClassificationSaveRequestBuilder() { }
 	
@@ -85,6 +86,20 @@ public final class ClassificationSaveRequestBuilder
 		return getSelf();
 	}
 
+	/**
+	 * Sets whether inferred relationship and concrete domain member changes should be staged directly as index
+	 * documents instead of going through individual component requests. If not set, the value of the
+	 * <code>classificationDirectStaging</code> SNOMED CT configuration setting is used.
+	 * 
+	 * @param directStaging
+	 * @return this builder
+	 * @since 7.21
+	 */
+	public ClassificationSaveRequestBuilder setDirectStaging(Boolean directStaging) {
+		this.directStaging = directStaging;
+		return getSelf();
+	}
+
 	@Override
 	protected Request<RepositoryContext, String> doBuild() {
 		ClassificationSaveRequest request = new ClassificationSaveRequest();
@@ -97,6 +112,7 @@ public final class ClassificationSaveRequestBuilder
 		request.setAssignerType(assignerType);
 		request.setFixEquivalences(fixEquivalences);
 		request.setHandleConcreteDomains(handleConcreteDomains);
+		request.setDirectStaging(directStaging);
 		return request;
 	}
 }
@@ -67,6 +67,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 
 /**
@@ -104,6 +105,9 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 	
 	private boolean handleConcreteDomains;
 	
+	// @Nullable
+	private Boolean directStaging;
+	
 	SaveJobRequest() {}
 	
 	void setClassificationId(final String classificationId) {
@@ -142,6 +146,10 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 		this.handleConcreteDomains = handleConcreteDomains;
 	}
 	
+	void setDirectStaging(final Boolean directStaging) {
+		this.directStaging = directStaging;
+	}
+	
 	@Override
 	public Boolean execute(final BranchContext context) {
 		final IProgressMonitor monitor = context.service(IProgressMonitor.class);
@@ -195,25 +203,7 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 		classificationTracker.classificationSaving(classificationId);
 
 		final SubMonitor subMonitor = SubMonitor.convert(monitor, "Persisting changes", 6);
-		final BulkRequestBuilder<TransactionContext> bulkRequestBuilder = BulkRequest.create();
-
-		applyChanges(subMonitor, context, bulkRequestBuilder);
-	
-		long resultTimeStamp = Commit.NO_COMMIT_TIMESTAMP;
-		for (List<Request<TransactionContext, ?>> partition : Iterables.partition(bulkRequestBuilder.build().getRequests(), getCommitLimit(context))) {
-			final BulkRequestBuilder<TransactionContext> batchRequest = BulkRequest.create();
-			partition.forEach(request -> batchRequest.add(request));
-			
-			final Request<BranchContext, CommitResult> commitRequest = SnomedRequests.prepareCommit()
-					.setBody(batchRequest.build())
-					.setCommitComment(commitComment)
-					.setParentContextDescription(DatastoreLockContextDescriptions.SAVE_CLASSIFICATION_RESULTS)
-					.setAuthor(userId)
-					.build();
-			
-			final CommitResult commitResult = new IdRequest<>(commitRequest).execute(context);
-			resultTimeStamp = commitResult.getCommitTimestamp();
-		}
+		final long resultTimeStamp = applyChanges(subMonitor, context);
 		
 		if (Commit.NO_COMMIT_TIMESTAMP == resultTimeStamp) {
 			classificationTracker.classificationSaveFailed(classificationId);				
@@ -228,25 +218,58 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 		return context.service(SnowOwlConfiguration.class).getModuleConfig(RepositoryConfiguration.class).getIndexConfiguration().getCommitWatermarkLow();
 	}
 
-	private void applyChanges(final SubMonitor subMonitor, 
-			final BranchContext context,
-			final BulkRequestBuilder<TransactionContext> bulkRequestBuilder) {
+	private boolean isDirectStaging(final BranchContext context) {
+		// Override configured save mode if given
+		if (directStaging != null) {
+			return directStaging;
+		} else {
+			return context.service(SnomedCoreConfiguration.class).isClassificationDirectStaging();
+		}
+	}
+
+	private long commit(final BranchContext context, final Iterable<Request<TransactionContext, ?>> requests) {
+		final BulkRequestBuilder<TransactionContext> batchRequest = BulkRequest.create();
+		requests.forEach(request -> batchRequest.add(request));
+		
+		final Request<BranchContext, CommitResult> commitRequest = SnomedRequests.prepareCommit()
+				.setBody(batchRequest.build())
+				.setCommitComment(commitComment)
+				.setParentContextDescription(DatastoreLockContextDescriptions.SAVE_CLASSIFICATION_RESULTS)
+				.setAuthor(userId)
+				.build();
+		
+		final CommitResult commitResult = new IdRequest<>(commitRequest).execute(context);
+		return commitResult.getCommitTimestamp();
+	}
 
+	private long applyChanges(final SubMonitor subMonitor, final BranchContext context) {
+		final BulkRequestBuilder<TransactionContext> bulkRequestBuilder = BulkRequest.create();
 		final SnomedNamespaceAndModuleAssigner assigner = createNamespaceAndModuleAssigner(context);
 		final Set<String> conceptIdsToSkip = mergeEquivalentConcepts(context, bulkRequestBuilder, assigner);
-		applyRelationshipChanges(context, bulkRequestBuilder, assigner, conceptIdsToSkip);
+		
+		final ChangeCollector collector;
+		if (isDirectStaging(context)) {
+			LOG.info("Reasoner service will stage inferred changes directly.");
+			collector = new StagingChangeCollector(context, bulkRequestBuilder.build().getRequests());
+		} else {
+			collector = new RequestChangeCollector(context, bulkRequestBuilder);
+		}
+		
+		applyRelationshipChanges(context, collector, assigner, conceptIdsToSkip);
 
 		if (handleConcreteDomains) {
 			// CD member support in configuration overrides the flag on the save request
 			final SnomedCoreConfiguration snomedCoreConfiguration = context.service(SnomedCoreConfiguration.class);
 			if (snomedCoreConfiguration.isConcreteDomainSupported()) {
-				applyConcreteDomainChanges(context, bulkRequestBuilder, assigner, conceptIdsToSkip);
+				applyConcreteDomainChanges(context, collector, assigner, conceptIdsToSkip);
 			}
 		}
+		
+		return collector.commitChanges();
 	}
 
 	private void applyRelationshipChanges(final BranchContext context, 
-			final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
+			final ChangeCollector collector,
 			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, 
 			final Set<String> conceptIdsToSkip) {
 
@@ -305,7 +328,7 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 							 */
 							final String originSourceId = originSourceIds.get(relationship.getOriginId());
 							if (!conceptIdsToSkip.contains(originSourceId)) {
-								addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+								collector.addComponent(namespaceAndModuleAssigner, relationship);
 							}
 						}
 						break;
@@ -313,13 +336,13 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 					case UPDATED: {
 							final String originSourceId = originSourceIds.get(relationship.getOriginId());
 							if (!conceptIdsToSkip.contains(originSourceId)) {
-								updateComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+								collector.updateComponent(namespaceAndModuleAssigner, relationship);
 							}
 						}
 						break;
 						
 					case REDUNDANT:
-						removeOrDeactivate(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+						collector.removeOrDeactivate(namespaceAndModuleAssigner, relationship);
 						break;
 						
 					default:
@@ -328,13 +351,15 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 								change.getRelationship().getOriginId()));
 				}
 			}
+			
+			collector.changesCollected();
 		}
 
 		namespaceAndModuleAssigner.clear();
 	}
 
 	private void applyConcreteDomainChanges(final BranchContext context, 
-			final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
+			final ChangeCollector collector,
 			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, 
 			final Set<String> conceptIdsToSkip) {
 
@@ -393,7 +418,7 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 							 */
 							final String originReferencedComponentId = originReferencedComponentIds.get(referenceSetMember.getOriginMemberId());
 							if (!conceptIdsToSkip.contains(originReferencedComponentId)) {
-								addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, referenceSetMember);
+								collector.addComponent(namespaceAndModuleAssigner, referenceSetMember);
 							}
 						}
 						break;
@@ -401,13 +426,13 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 					case UPDATED: {
 						final String originReferencedComponentId = originReferencedComponentIds.get(referenceSetMember.getOriginMemberId());
 							if (!conceptIdsToSkip.contains(originReferencedComponentId)) {
-								updateComponent(bulkRequestBuilder, namespaceAndModuleAssigner, referenceSetMember);
+								collector.updateComponent(namespaceAndModuleAssigner, referenceSetMember);
 							}
 						}
 						break;
 						
 					case REDUNDANT:
-						removeOrDeactivate(bulkRequestBuilder, namespaceAndModuleAssigner, referenceSetMember);
+						collector.removeOrDeactivate(namespaceAndModuleAssigner, referenceSetMember);
 						break;
 						
 					default:
@@ -416,6 +441,8 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 								change.getConcreteDomainMember().getOriginMemberId()));
 				}
 			}
+			
+			collector.changesCollected();
 		}
 
 		namespaceAndModuleAssigner.clear();
@@ -891,4 +918,182 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, BranchAcc
 	public String getOperation() {
 		return Permission.OPERATION_CLASSIFY;
 	}
+	
+	/**
+	 * Receives inferred relationship and concrete domain member changes in pages and persists them.
+	 */
+	private interface ChangeCollector {
+		
+		void addComponent(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerRelationship relationship);
+		
+		void updateComponent(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerRelationship relationship);
+		
+		void removeOrDeactivate(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerRelationship relationship);
+		
+		void addComponent(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerConcreteDomainMember member);
+		
+		void updateComponent(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerConcreteDomainMember member);
+		
+		void removeOrDeactivate(SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, ReasonerConcreteDomainMember member);
+		
+		/**
+		 * Called after all changes of the current page were collected.
+		 */
+		void changesCollected();
+		
+		/**
+		 * Commits all changes that were not committed yet.
+		 * 
+		 * @return the timestamp of the last commit, or {@link Commit#NO_COMMIT_TIMESTAMP} if nothing was committed
+		 */
+		long commitChanges();
+	}
+	
+	/**
+	 * Converts each change to an individual component create, update or delete request.
+	 */
+	private final class RequestChangeCollector implements ChangeCollector {
+		
+		private final BranchContext context;
+		private final BulkRequestBuilder<TransactionContext> bulkRequestBuilder;
+		
+		RequestChangeCollector(final BranchContext context, final BulkRequestBuilder<TransactionContext> bulkRequestBuilder) {
+			this.context = context;
+			this.bulkRequestBuilder = bulkRequestBuilder;
+		}
+		
+		@Override
+		public void addComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			SaveJobRequest.this.addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+		}
+		
+		@Override
+		public void updateComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			SaveJobRequest.this.updateComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+		}
+		
+		@Override
+		public void removeOrDeactivate(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			SaveJobRequest.this.removeOrDeactivate(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
+		}
+		
+		@Override
+		public void addComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			SaveJobRequest.this.addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, member);
+		}
+		
+		@Override
+		public void updateComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			SaveJobRequest.this.updateComponent(bulkRequestBuilder, namespaceAndModuleAssigner, member);
+		}
+		
+		@Override
+		public void removeOrDeactivate(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			SaveJobRequest.this.removeOrDeactivate(bulkRequestBuilder, namespaceAndModuleAssigner, member);
+		}
+		
+		@Override
+		public void changesCollected() {
+			// Requests are committed at the end
+		}
+		
+		@Override
+		public long commitChanges() {
+			long resultTimeStamp = Commit.NO_COMMIT_TIMESTAMP;
+			for (List<Request<TransactionContext, ?>> partition : Iterables.partition(bulkRequestBuilder.build().getRequests(), getCommitLimit(context))) {
+				resultTimeStamp = commit(context, partition);
+			}
+			return resultTimeStamp;
+		}
+	}
+	
+	/**
+	 * Registers changes on a {@link ClassificationChangeStagingRequest}, which stages index documents directly, and
+	 * commits them whenever the number of collected changes reaches the commit limit. Requests coming from equivalent
+	 * concept merging are committed along with the first batch of staged changes.
+	 */
+	private final class StagingChangeCollector implements ChangeCollector {
+		
+		private final BranchContext context;
+		private final int commitLimit;
+		
+		private List<Request<TransactionContext, ?>> pendingRequests;
+		private ClassificationChangeStagingRequest stagingRequest = new ClassificationChangeStagingRequest();
+		private long resultTimeStamp = Commit.NO_COMMIT_TIMESTAMP;
+		
+		StagingChangeCollector(final BranchContext context, final List<Request<TransactionContext, ?>> equivalenceRequests) {
+			this.context = context;
+			this.commitLimit = getCommitLimit(context);
+			
+			final List<List<Request<TransactionContext, ?>>> partitions = Lists.partition(equivalenceRequests, commitLimit);
+			for (int i = 0; i < partitions.size() - 1; i++) {
+				resultTimeStamp = commit(context, partitions.get(i));
+			}
+			
+			this.pendingRequests = partitions.isEmpty() ? newArrayList() : newArrayList(Iterables.getLast(partitions));
+		}
+		
+		@Override
+		public void addComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			final String sourceId = relationship.getSourceId();
+			stagingRequest.addRelationship(relationship, 
+					namespaceAndModuleAssigner.getRelationshipModuleId(sourceId), 
+					namespaceAndModuleAssigner.getRelationshipNamespace(sourceId));
+		}
+		
+		@Override
+		public void updateComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			stagingRequest.updateRelationship(relationship.getOriginId(), 
+					namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId()), 
+					relationship.getGroup());
+		}
+		
+		@Override
+		public void removeOrDeactivate(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerRelationship relationship) {
+			final boolean released = relationship.isReleased();
+			final String moduleId = released ? namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId()) : null;
+			stagingRequest.removeOrDeactivateRelationship(relationship.getOriginId(), released, moduleId);
+		}
+		
+		@Override
+		public void addComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			stagingRequest.addMember(member, namespaceAndModuleAssigner.getConcreteDomainModuleId(member.getReferencedComponentId()));
+		}
+		
+		@Override
+		public void updateComponent(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			stagingRequest.updateMember(member.getOriginMemberId(), 
+					namespaceAndModuleAssigner.getConcreteDomainModuleId(member.getReferencedComponentId()), 
+					member.getSerializedValue());
+		}
+		
+		@Override
+		public void removeOrDeactivate(final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, final ReasonerConcreteDomainMember member) {
+			final boolean released = member.isReleased();
+			final String moduleId = released ? namespaceAndModuleAssigner.getConcreteDomainModuleId(member.getReferencedComponentId()) : null;
+			stagingRequest.removeOrDeactivateMember(member.getOriginMemberId(), released, moduleId);
+		}
+		
+		@Override
+		public void changesCollected() {
+			if (pendingRequests.size() + stagingRequest.size() >= commitLimit) {
+				commitChanges();
+			}
+		}
+		
+		@Override
+		public long commitChanges() {
+			if (stagingRequest.size() > 0) {
+				pendingRequests.add(stagingRequest);
+			}
+			
+			if (!pendingRequests.isEmpty()) {
+				resultTimeStamp = commit(context, pendingRequests);
+				pendingRequests = newArrayList();
+				stagingRequest = new ClassificationChangeStagingRequest();
+			}
+			
+			return resultTimeStamp;
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2022 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ public final class SaveJobRequestBuilder
 	private String assignerType;
 	private boolean fixEquivalences;
 	private boolean handleConcreteDomains;
+	private Boolean directStaging;
 
 	public SaveJobRequestBuilder setClassificationId(final String classificationId) {
 		this.classificationId = classificationId;
@@ -83,6 +84,11 @@ public final class SaveJobRequestBuilder
 		return getSelf();
 	}
 
+	public SaveJobRequestBuilder setDirectStaging(Boolean directStaging) {
+		this.directStaging = directStaging;
+		return getSelf();
+	}
+
 	@Override
 	protected Request<BranchContext, Boolean> doBuild() {
 		SaveJobRequest request = new SaveJobRequest();
@@ -95,6 +101,7 @@ public final class SaveJobRequestBuilder
 		request.setAssignerType(assignerType);
 		request.setFixEquivalences(fixEquivalences);
 		request.setHandleConcreteDomains(handleConcreteDomains);
+		request.setDirectStaging(directStaging);
 		return request;
 	}
 }